@@ -0,0 +1,35 @@
+package com.example.demologin.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Public catalog GET endpoint that may be cached by browsers and the CDN.
+ *
+ * Requests carrying a matching If-None-Match / If-Modified-Since are answered with 304 before the
+ * method runs. Responses get Cache-Control and surrogate keys so the CDN can purge by book or category.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CatalogCacheable {
+
+    /**
+     * Surrogate keys of the response; {name} is replaced by the path variable of that name,
+     * e.g. "book-{bookId}". "catalog" is always added.
+     */
+    String[] surrogateKeys() default {};
+
+    /**
+     * Keep the serialized response in CatalogResponseCache and answer repeats from its bytes.
+     * Paged requests are only cached for the first few pages.
+     */
+    boolean cacheBody() default false;
+
+    /**
+     * Path variable holding the book id of a detail endpoint. Requests answered without running the method
+     * (304 or cached body) still count as a view of that book for the autocomplete ranking.
+     */
+    String viewedBook() default "";
+}
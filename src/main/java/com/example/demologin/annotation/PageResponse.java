@@ -1,5 +1,7 @@
 package com.example.demologin.annotation;
 
+import com.example.demologin.enums.PageCountMode;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -12,4 +14,9 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface PageResponse {
+
+    /**
+     * How the total is computed; services built on PageCountService honour it, others always count exactly.
+     */
+    PageCountMode count() default PageCountMode.EXACT;
 }
@@ -0,0 +1,15 @@
+package com.example.demologin.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a response DTO whose properties can be narrowed with the ?fields= query parameter
+ * of @ApiResponse / @PageResponse endpoints. See FieldSelectionAspect.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFields {
+}
@@ -0,0 +1,238 @@
+package com.example.demologin.archive;
+
+import com.example.demologin.entity.UserActivityLog;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only, memory-mapped view of one segment written by {@link ActivityLogSegmentWriter}.
+ *
+ * Only the header (time range, userId range and per-user row index) is parsed when the segment is opened;
+ * column blocks are inflated straight from the mapping when rows are actually requested.
+ */
+public final class ActivityLogSegment {
+
+    static final int MAGIC = 0x414C5347; // "ALSG"
+    static final int VERSION = 1;
+
+    private final LocalDate day;
+    private final MappedByteBuffer mapping;
+    private final int rowCount;
+    private final LocalDateTime minTimestamp;
+    private final LocalDateTime maxTimestamp;
+    private final long minUserId;
+    private final long maxUserId;
+    private final int userIndexOffset;
+    private final int userCount;
+    private final long[] columnOffsets;
+    private final int[] columnLengths;
+
+    private ActivityLogSegment(LocalDate day, MappedByteBuffer mapping) throws IOException {
+        this.day = day;
+        this.mapping = mapping;
+
+        if (mapping.getInt(0) != MAGIC || mapping.getInt(4) != VERSION) {
+            throw new IOException("Not an activity log segment: " + day);
+        }
+        this.rowCount = mapping.getInt(8);
+        this.minTimestamp = SegmentColumn.fromEpochMillis(mapping.getLong(12));
+        this.maxTimestamp = SegmentColumn.fromEpochMillis(mapping.getLong(20));
+        this.minUserId = mapping.getLong(28);
+        this.maxUserId = mapping.getLong(36);
+        this.userCount = mapping.getInt(44);
+        this.userIndexOffset = 48;
+
+        int columnDirectory = userIndexOffset + userCount * 16;
+        int columnCount = mapping.getInt(columnDirectory);
+        this.columnOffsets = new long[columnCount];
+        this.columnLengths = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            int entry = columnDirectory + 4 + i * 12;
+            columnOffsets[i] = mapping.getLong(entry);
+            columnLengths[i] = mapping.getInt(entry + 8);
+        }
+    }
+
+    public static ActivityLogSegment open(Path file, LocalDate day) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ActivityLogSegment(day, mapping);
+        }
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public LocalDateTime getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public LocalDateTime getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public boolean mayContainUser(long userId) {
+        return userCount > 0 && userId >= minUserId && userId <= maxUserId;
+    }
+
+    /**
+     * Number of rows of a user, answered from the mapped index without inflating anything.
+     */
+    public int countForUser(long userId) {
+        int entry = findUserEntry(userId);
+        return entry < 0 ? 0 : mapping.getInt(entry + 12);
+    }
+
+    /**
+     * Rows of a user, newest first, starting at offset within this segment.
+     */
+    public List<UserActivityLog> readUser(long userId, int offset, int limit) throws IOException {
+        int entry = findUserEntry(userId);
+        if (entry < 0 || limit <= 0) {
+            return List.of();
+        }
+        int firstRow = mapping.getInt(entry + 8);
+        int userRows = mapping.getInt(entry + 12);
+        int from = firstRow + Math.min(offset, userRows);
+        int to = firstRow + Math.min(userRows, offset + limit);
+        return readRows(from, to);
+    }
+
+    public List<UserActivityLog> readAll() throws IOException {
+        return readRows(0, rowCount);
+    }
+
+    /**
+     * Every row in segment order, one at a time, with all column blocks inflated side by side.
+     */
+    public RowCursor rows() {
+        return new RowCursor();
+    }
+
+    public final class RowCursor implements Closeable {
+
+        private final SegmentColumn[] columns = SegmentColumn.values();
+        private final Inflater[] inflaters;
+        private final DataInputStream[] inputs;
+        private int nextRow;
+
+        private RowCursor() {
+            int count = Math.min(columns.length, columnOffsets.length);
+            inflaters = new Inflater[count];
+            inputs = new DataInputStream[count];
+            for (int c = 0; c < count; c++) {
+                inflaters[c] = new Inflater();
+                inputs[c] = new DataInputStream(new InflaterInputStream(columnStream(c), inflaters[c], 8192));
+            }
+        }
+
+        /**
+         * Next row, or null after the last one.
+         */
+        public UserActivityLog next() throws IOException {
+            if (nextRow >= rowCount) {
+                return null;
+            }
+            UserActivityLog log = new UserActivityLog();
+            for (int c = 0; c < inputs.length; c++) {
+                columns[c].read(inputs[c], log);
+            }
+            nextRow++;
+            return log;
+        }
+
+        @Override
+        public void close() {
+            for (Inflater inflater : inflaters) {
+                inflater.end();
+            }
+        }
+    }
+
+    private List<UserActivityLog> readRows(int from, int to) throws IOException {
+        List<UserActivityLog> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rows.add(new UserActivityLog());
+        }
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        SegmentColumn[] columns = SegmentColumn.values();
+        for (int c = 0; c < columns.length && c < columnOffsets.length; c++) {
+            Inflater inflater = new Inflater();
+            try (DataInputStream in = new DataInputStream(new InflaterInputStream(columnStream(c), inflater, 8192))) {
+                for (int row = 0; row < from; row++) {
+                    columns[c].skip(in);
+                }
+                for (UserActivityLog log : rows) {
+                    columns[c].read(in, log);
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+        return rows;
+    }
+
+    private InputStream columnStream(int column) {
+        ByteBuffer block = mapping.slice((int) columnOffsets[column], columnLengths[column]);
+        return new InputStream() {
+            @Override
+            public int read() {
+                return block.hasRemaining() ? block.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!block.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, block.remaining());
+                block.get(b, off, n);
+                return n;
+            }
+        };
+    }
+
+    // Binary search over the mapped (userId, firstRow, rowCount) entries
+    private int findUserEntry(long userId) {
+        if (!mayContainUser(userId)) {
+            return -1;
+        }
+        int low = 0, high = userCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = userIndexOffset + mid * 16;
+            long candidate = mapping.getLong(entry);
+            if (candidate < userId) {
+                low = mid + 1;
+            } else if (candidate > userId) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+}
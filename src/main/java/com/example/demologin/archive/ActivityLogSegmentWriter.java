@@ -0,0 +1,186 @@
+package com.example.demologin.archive;
+
+import com.example.demologin.entity.UserActivityLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes one day of activity logs as a columnar segment file.
+ *
+ * Layout (big endian):
+ * <pre>
+ * int    magic, int version, int rowCount
+ * long   minTimestamp, long maxTimestamp        (epoch millis, UTC)
+ * long   minUserId, long maxUserId
+ * int    userCount, userCount x (long userId, int firstRow, int rowCount)   sorted by userId
+ * int    columnCount, columnCount x (long offset, int length)
+ * ...    one deflate-compressed block per column
+ * </pre>
+ * Rows are ordered by userId then newest first, so a user's history is one contiguous row range.
+ */
+public final class ActivityLogSegmentWriter implements Closeable {
+
+    private static final Comparator<UserActivityLog> SEGMENT_ORDER = Comparator
+            .comparing(UserActivityLog::getUserId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(UserActivityLog::getTimestamp, Comparator.reverseOrder())
+            .thenComparing(UserActivityLog::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final Path target;
+    private final Path tmp;
+    private final SegmentColumn[] columns = SegmentColumn.values();
+    private final ColumnBuffer[] buffers = new ColumnBuffer[columns.length];
+    private final List<long[]> userIndex = new ArrayList<>();
+
+    private int rowCount;
+    private long minTs = Long.MAX_VALUE, maxTs = Long.MIN_VALUE;
+    private long minUser = Long.MAX_VALUE, maxUser = Long.MIN_VALUE;
+    private boolean seenNullUser;
+    private boolean committed;
+
+    private ActivityLogSegmentWriter(Path target) {
+        this.target = target;
+        this.tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        for (int i = 0; i < columns.length; i++) {
+            buffers[i] = new ColumnBuffer();
+        }
+    }
+
+    public static void write(Path target, List<UserActivityLog> logs) throws IOException {
+        List<UserActivityLog> rows = new ArrayList<>(logs);
+        rows.sort(SEGMENT_ORDER);
+        try (ActivityLogSegmentWriter writer = create(target)) {
+            for (UserActivityLog row : rows) {
+                writer.append(row);
+            }
+            writer.commit();
+        }
+    }
+
+    /**
+     * Writer that takes rows one at a time, so a day never has to be held in memory as objects: only the
+     * compressed column blocks are. Rows must arrive grouped by userId in ascending order, null userIds last,
+     * each user's rows newest first. Nothing replaces the target until {@link #commit()}.
+     */
+    public static ActivityLogSegmentWriter create(Path target) {
+        return new ActivityLogSegmentWriter(target);
+    }
+
+    public void append(UserActivityLog log) throws IOException {
+        Long userId = log.getUserId();
+        long[] last = userIndex.isEmpty() ? null : userIndex.get(userIndex.size() - 1);
+        if (userId == null) {
+            seenNullUser = true;
+        } else if (seenNullUser || (last != null && last[0] > userId)) {
+            throw new IllegalArgumentException("Activity log rows must arrive grouped by ascending userId");
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].write(buffers[i].out, log);
+        }
+
+        long ts = SegmentColumn.toEpochMillis(log.getTimestamp());
+        minTs = Math.min(minTs, ts);
+        maxTs = Math.max(maxTs, ts);
+
+        if (userId != null) {
+            minUser = Math.min(minUser, userId);
+            maxUser = Math.max(maxUser, userId);
+            if (last != null && last[0] == userId) {
+                last[2]++;
+            } else {
+                userIndex.add(new long[]{userId, rowCount, 1});
+            }
+        }
+        rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes the segment and atomically replaces the target with it.
+     */
+    public void commit() throws IOException {
+        byte[][] blocks = new byte[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            blocks[i] = buffers[i].finish();
+        }
+
+        int headerSize = 4 + 4 + 4 + 8 * 4 + 4 + userIndex.size() * 16 + 4 + columns.length * 12;
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(ActivityLogSegment.MAGIC).putInt(ActivityLogSegment.VERSION).putInt(rowCount);
+        header.putLong(minTs).putLong(maxTs).putLong(minUser).putLong(maxUser);
+        header.putInt(userIndex.size());
+        for (long[] entry : userIndex) {
+            header.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]);
+        }
+        header.putInt(columns.length);
+        long offset = headerSize;
+        for (byte[] block : blocks) {
+            header.putLong(offset).putInt(block.length);
+            offset += block.length;
+        }
+        header.flip();
+
+        Files.createDirectories(target.getParent());
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            for (byte[] block : blocks) {
+                writeFully(channel, ByteBuffer.wrap(block));
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    /**
+     * Releases the column buffers; a writer closed without commit leaves the target untouched.
+     */
+    @Override
+    public void close() throws IOException {
+        for (ColumnBuffer buffer : buffers) {
+            buffer.release();
+        }
+        if (!committed) {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static final class ColumnBuffer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 8192));
+
+        byte[] finish() throws IOException {
+            out.close();
+            return bytes.toByteArray();
+        }
+
+        void release() {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demologin.archive;
+
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Column order of an activity log segment. Appending is safe; reordering breaks existing files.
+ */
+enum SegmentColumn {
+    ID {
+        @Override
+        void write(DataOutputStream out, UserActivityLog log) throws IOException {
+            out.writeLong(log.getId() == null ? NULL_LONG : log.getId());
+        }
+
+        @Override
+        void read(DataInputStream in, UserActivityLog log) throws IOException {
+            long value = in.readLong();
+            log.setId(value == NULL_LONG ? null : value);
+        }
+
+        @Override
+        void skip(DataInputStream in) throws IOException {
+            in.readLong();
+        }
+    },
+    USER_ID {
+        @Override
+        void write(DataOutputStream out, UserActivityLog log) throws IOException {
+            out.writeLong(log.getUserId() == null ? NULL_LONG : log.getUserId());
+        }
+
+        @Override
+        void read(DataInputStream in, UserActivityLog log) throws IOException {
+            long value = in.readLong();
+            log.setUserId(value == NULL_LONG ? null : value);
+        }
+
+        @Override
+        void skip(DataInputStream in) throws IOException {
+            in.readLong();
+        }
+    },
+    TIMESTAMP {
+        @Override
+        void write(DataOutputStream out, UserActivityLog log) throws IOException {
+            out.writeLong(toEpochMillis(log.getTimestamp()));
+        }
+
+        @Override
+        void read(DataInputStream in, UserActivityLog log) throws IOException {
+            log.setTimestamp(fromEpochMillis(in.readLong()));
+        }
+
+        @Override
+        void skip(DataInputStream in) throws IOException {
+            in.readLong();
+        }
+    },
+    ACTIVITY_TYPE(log -> log.getActivityType() == null ? null : log.getActivityType().name(),
+            (log, value) -> log.setActivityType(value == null ? null : ActivityType.valueOf(value))),
+    STATUS(UserActivityLog::getStatus, UserActivityLog::setStatus),
+    FULL_NAME(UserActivityLog::getFullName, UserActivityLog::setFullName),
+    DETAILS(UserActivityLog::getDetails, UserActivityLog::setDetails),
+    IP_ADDRESS(UserActivityLog::getIpAddress, UserActivityLog::setIpAddress),
+    USER_AGENT(UserActivityLog::getUserAgent, UserActivityLog::setUserAgent),
+    BROWSER(UserActivityLog::getBrowser, UserActivityLog::setBrowser),
+    BROWSER_VERSION(UserActivityLog::getBrowserVersion, UserActivityLog::setBrowserVersion),
+    OPERATING_SYSTEM(UserActivityLog::getOperatingSystem, UserActivityLog::setOperatingSystem),
+    DEVICE(UserActivityLog::getDevice, UserActivityLog::setDevice),
+    DEVICE_TYPE(UserActivityLog::getDeviceType, UserActivityLog::setDeviceType),
+    CITY(UserActivityLog::getCity, UserActivityLog::setCity),
+    REGION(UserActivityLog::getRegion, UserActivityLog::setRegion),
+    COUNTRY(UserActivityLog::getCountry, UserActivityLog::setCountry),
+    COUNTRY_CODE(UserActivityLog::getCountryCode, UserActivityLog::setCountryCode);
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final Function<UserActivityLog, String> getter;
+    private final BiConsumer<UserActivityLog, String> setter;
+
+    SegmentColumn() {
+        this(null, null);
+    }
+
+    SegmentColumn(Function<UserActivityLog, String> getter, BiConsumer<UserActivityLog, String> setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    void write(DataOutputStream out, UserActivityLog log) throws IOException {
+        String value = getter.apply(log);
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    void read(DataInputStream in, UserActivityLog log) throws IOException {
+        setter.accept(log, in.readBoolean() ? in.readUTF() : null);
+    }
+
+    void skip(DataInputStream in) throws IOException {
+        if (in.readBoolean()) {
+            in.skipBytes(in.readUnsignedShort());
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time == null ? NULL_LONG : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        return millis == NULL_LONG ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -16,6 +16,6 @@ public class AuthenticatedEndpointAspect {
     @Before("@annotation(com.example.demologin.annotation.AuthenticatedEndpoint)")
     public void checkAuthenticated() {
         // Nếu chưa login -> AccountUtils sẽ ném exception
-        accountUtils.getCurrentUser();
+        accountUtils.getCurrentPrincipal();
     }
 }
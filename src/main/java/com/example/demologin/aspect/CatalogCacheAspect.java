@@ -0,0 +1,125 @@
+package com.example.demologin.aspect;
+
+import com.example.demologin.annotation.CatalogCacheable;
+import com.example.demologin.annotation.PageResponse;
+import com.example.demologin.cache.CatalogResponseCache;
+import com.example.demologin.service.BookAutocompleteService;
+import com.example.demologin.service.CatalogVersionService;
+import com.example.demologin.utils.FieldSelection;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conditional GET for @CatalogCacheable endpoints.
+ *
+ * Runs outside @ApiResponse so that a 304 returns null straight to Spring MVC, which then writes no body.
+ * Validators come from CatalogVersionService, which polls them in the background, so they cost no query. With cacheBody, the final envelope bytes
+ * are kept in CatalogResponseCache and later requests are answered with them, skipping the service and Jackson.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CatalogCacheAspect {
+
+    public static final String CATALOG_SURROGATE_KEY = "catalog";
+
+    // Browser cache lifetime
+    @Value("${catalog.http-cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    // Shared (CDN) cache lifetime; the CDN is purged by surrogate key on changes
+    @Value("${catalog.http-cache.cdn-max-age-seconds:300}")
+    private long cdnMaxAgeSeconds;
+
+    @Value("${catalog.http-cache.surrogate-key-header:Surrogate-Key}")
+    private String surrogateKeyHeader;
+
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final BookAutocompleteService bookAutocompleteService;
+
+    @Around("@annotation(catalogCacheable)")
+    public Object handleConditionalGet(ProceedingJoinPoint joinPoint, CatalogCacheable catalogCacheable) throws Throwable {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes) || servletAttributes.getResponse() == null) {
+            return joinPoint.proceed();
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        HttpServletResponse response = servletAttributes.getResponse();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                "public, max-age=" + maxAgeSeconds + ", s-maxage=" + cdnMaxAgeSeconds);
+        Map<String, String> pathVariables = pathVariables(request);
+        response.setHeader(surrogateKeyHeader, String.join(" ", surrogateKeys(catalogCacheable, pathVariables)));
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        String etag = catalogVersionService.etag();
+        if (webRequest.checkNotModified(etag, catalogVersionService.lastModified())) {
+            recordView(catalogCacheable, pathVariables);
+            return null;
+        }
+        if (!catalogCacheable.cacheBody() || !catalogResponseCache.isCacheable(request)) {
+            return joinPoint.proceed();
+        }
+
+        String key = CatalogResponseCache.key(request);
+        boolean gzipAccepted = CatalogResponseCache.acceptsGzip(request);
+        CatalogResponseCache.CachedResponse cached = catalogResponseCache.get(key, etag);
+        if (cached != null) {
+            recordView(catalogCacheable, pathVariables);
+            return cached.toResponseEntity(gzipAccepted);
+        }
+
+        Object result = joinPoint.proceed();
+        PageResponse pageResponse = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(PageResponse.class);
+        cached = catalogResponseCache.store(key, etag, result, pageResponse, FieldSelection.requested(request));
+        return cached == null ? result : cached.toResponseEntity(gzipAccepted);
+    }
+
+    // The method counts views itself when it runs
+    private void recordView(CatalogCacheable catalogCacheable, Map<String, String> pathVariables) {
+        String variable = catalogCacheable.viewedBook();
+        if (variable != null && !variable.isEmpty() && pathVariables.containsKey(variable)) {
+            bookAutocompleteService.recordView(Long.valueOf(pathVariables.get(variable)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map ? (Map<String, String>) map : Map.of();
+    }
+
+    private Set<String> surrogateKeys(CatalogCacheable catalogCacheable, Map<String, String> pathVariables) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(CATALOG_SURROGATE_KEY);
+        for (String key : catalogCacheable.surrogateKeys()) {
+            String resolved = key;
+            for (Map.Entry<String, String> variable : pathVariables.entrySet()) {
+                resolved = resolved.replace("{" + variable.getKey() + "}", variable.getValue());
+            }
+            keys.add(resolved);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demologin.aspect;
+
+import com.example.demologin.annotation.ApiResponse;
+import com.example.demologin.annotation.PageResponse;
+import com.example.demologin.utils.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Set;
+
+/**
+ * Applies ?fields=a,b,c to @ApiResponse / @PageResponse endpoints.
+ *
+ * Only the properties of @SparseFields DTOs are narrowed; the ResponseObject envelope and page metadata
+ * are always written in full. Services can look at FieldSelection.requested() to read less from the
+ * database when the selection allows it.
+ */
+@RestControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class FieldSelectionAspect implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                && (returnType.hasMethodAnnotation(ApiResponse.class) || returnType.hasMethodAnnotation(PageResponse.class));
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType,
+                                  MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        Set<String> fields = FieldSelection.requested(servletRequest.getServletRequest());
+        if (fields.isEmpty()) {
+            return body;
+        }
+
+        MappingJacksonValue value = body instanceof MappingJacksonValue existing ? existing : new MappingJacksonValue(body);
+        value.setFilters(FieldSelection.filters(fields));
+        return value;
+    }
+}
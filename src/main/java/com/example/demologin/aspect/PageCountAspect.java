@@ -0,0 +1,26 @@
+package com.example.demologin.aspect;
+
+import com.example.demologin.annotation.PageResponse;
+import com.example.demologin.utils.PageCountContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the count mode of a @PageResponse endpoint to the services it calls.
+ */
+@Aspect
+@Component
+public class PageCountAspect {
+
+    @Around("@annotation(pageResponse)")
+    public Object applyCountMode(ProceedingJoinPoint joinPoint, PageResponse pageResponse) throws Throwable {
+        PageCountContext.set(pageResponse.count());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PageCountContext.clear();
+        }
+    }
+}
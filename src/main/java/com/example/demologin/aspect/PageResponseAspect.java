@@ -1,10 +1,15 @@
 package com.example.demologin.aspect;
 
 import com.example.demologin.annotation.PageResponse;
+import com.example.demologin.dto.response.ResponseObject;
+import com.example.demologin.dto.response.StreamingPage;
+import com.example.demologin.enums.PageCountMode;
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -20,6 +25,9 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 @RestControllerAdvice
 public class PageResponseAspect implements ResponseBodyAdvice<Object> {
 
+    public static final String COUNT_MODE_HEADER = "X-Total-Count-Mode";
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+
     @Override
     public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
         return returnType.hasMethodAnnotation(PageResponse.class);
@@ -30,10 +38,40 @@ public class PageResponseAspect implements ResponseBodyAdvice<Object> {
     public Object beforeBodyWrite(Object body, MethodParameter returnType,
                                   MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
                                   ServerHttpRequest request, ServerHttpResponse response) {
+        addCountModeHeaders(returnType, body, response);
+
         // Convert Spring Data Page<T> to our custom PageResponse<T>
         if (body instanceof Page<?>) {
             return new com.example.demologin.dto.response.PageResponse<>((Page<?>) body);
         }
         return body;
     }
+
+    /**
+     * Totals of estimated or uncounted pages are not exact; the body keeps its shape and
+     * the headers tell clients how far to trust totalElements and whether a next page exists.
+     */
+    private void addCountModeHeaders(MethodParameter returnType, Object body, ServerHttpResponse response) {
+        HttpHeaders headers = countModeHeaders(returnType.getMethodAnnotation(PageResponse.class), body);
+        if (!headers.isEmpty()) {
+            response.getHeaders().putAll(headers);
+        }
+    }
+
+    public static HttpHeaders countModeHeaders(PageResponse pageResponse, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (pageResponse == null || pageResponse.count() == PageCountMode.EXACT) {
+            return headers;
+        }
+        Object value = body instanceof MappingJacksonValue jacksonValue ? jacksonValue.getValue() : body;
+        Object data = value instanceof ResponseObject responseObject ? responseObject.getData() : value;
+        if (data instanceof Page<?> page) {
+            headers.set(COUNT_MODE_HEADER, pageResponse.count().name());
+            // A streamed page only knows whether more rows follow once it has been written
+            if (!(page instanceof StreamingPage<?>)) {
+                headers.set(HAS_NEXT_HEADER, String.valueOf(page.hasNext()));
+            }
+        }
+        return headers;
+    }
 }
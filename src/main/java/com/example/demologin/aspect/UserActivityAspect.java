@@ -3,11 +3,13 @@ package com.example.demologin.aspect;
 import com.example.demologin.annotation.UserActivity;
 import com.example.demologin.entity.UserActivityLog;
 import com.example.demologin.entity.User;
+import com.example.demologin.enums.ActivityType;
 import com.example.demologin.exception.exceptions.InvalidPrincipalTypeException;
 import com.example.demologin.exception.exceptions.UserActivityLoggingException;
 import com.example.demologin.exception.exceptions.UserNotAuthenticatedException;
 import com.example.demologin.repository.UserActivityLogRepository;
 import com.example.demologin.repository.UserRepository;
+import com.example.demologin.service.LoginHistoryService;
 import com.example.demologin.utils.*;
 import com.example.demologin.dto.request.login.LoginRequest;
 import lombok.RequiredArgsConstructor;
@@ -33,14 +35,16 @@ public class UserActivityAspect {
     private final IpUtilsWrapper ipUtils;
     private final UserAgentUtil userAgentUtil;
     private final LocationUtil locationUtil;
+    private final LoginHistoryService loginHistoryService;
 
     @AfterReturning(value = "@annotation(userActivity)", returning = "result")
     public void logUserActivity(JoinPoint joinPoint, UserActivity userActivity, Object result) {
         try {
-            User currentUser = getCurrentUserOrFromLoginAttempt(joinPoint, userActivity, result);
+            ActingUser currentUser = getCurrentUserOrFromLoginAttempt(joinPoint, userActivity, result);
             UserActivityLog activityLog = createOrUpdateActivityLog(joinPoint, userActivity, currentUser);
 
             userActivityLogRepository.save(activityLog);
+            updateLoginHistory(activityLog);
             logActivitySuccess(userActivity, activityLog);
         } catch (Exception e) {
             log.error("Failed to log user activity for method {}: {}",
@@ -49,19 +53,33 @@ public class UserActivityAspect {
         }
     }
 
-    private User getCurrentUserOrFromLoginAttempt(JoinPoint joinPoint, UserActivity userActivity, Object result) {
+    // Write-through to the login history read model; a failure here must not mark the activity itself as failed
+    private void updateLoginHistory(UserActivityLog activityLog) {
+        if (activityLog.getActivityType() != ActivityType.LOGIN_ATTEMPT || activityLog.getUserId() == null) {
+            return;
+        }
+        try {
+            loginHistoryService.recordLogin(activityLog);
+        } catch (Exception e) {
+            log.warn("Failed to update login history for user {}: {}", activityLog.getUserId(), e.getMessage());
+        }
+    }
+
+    private ActingUser getCurrentUserOrFromLoginAttempt(JoinPoint joinPoint, UserActivity userActivity, Object result) {
         // For login attempts, try to get user from request first
         if ("LOGIN_ATTEMPT".equals(userActivity.activityType().name())) {
             try {
-                return extractUserFromLoginRequest(joinPoint);
+                User user = extractUserFromLoginRequest(joinPoint);
+                return new ActingUser(user.getUserId(), user.getFullName());
             } catch (UserActivityLoggingException e) {
                 log.debug("Could not extract user from login request: {}", e.getMessage());
             }
         }
 
-        // For other activities, get authenticated user
+        // For other activities, the authenticated principal; only the name is read, not the user and its roles
         try {
-            return accountUtils.getCurrentUser();
+            Long userId = accountUtils.getCurrentPrincipal().userId();
+            return new ActingUser(userId, userRepository.findFullNameById(userId).orElse(null));
         } catch (UserNotAuthenticatedException | InvalidPrincipalTypeException e) {
             return null;
         }
@@ -90,13 +108,13 @@ public class UserActivityAspect {
                 .orElseThrow(() -> new UserActivityLoggingException("User not found with username: " + username));
     }
 
-    private UserActivityLog createOrUpdateActivityLog(JoinPoint joinPoint, UserActivity userActivity, User currentUser) {
+    private UserActivityLog createOrUpdateActivityLog(JoinPoint joinPoint, UserActivity userActivity, ActingUser currentUser) {
         ClientInfo clientInfo = getClientInfo();
         UserAgentUtil.DeviceInfo deviceInfo = userAgentUtil.parseUserAgent(clientInfo.userAgent());
         LocationUtil.LocationInfo locationInfo = locationUtil.getLocationFromIP(clientInfo.ipForLocation());
 
-        Long userId = userActivity.logUserId() && currentUser != null ? currentUser.getUserId() : null;
-        String fullName = userActivity.logUserId() && currentUser != null ? currentUser.getFullName() : null;
+        Long userId = userActivity.logUserId() && currentUser != null ? currentUser.userId() : null;
+        String fullName = userActivity.logUserId() && currentUser != null ? currentUser.fullName() : null;
         String status = "SUCCESS";
         String details = getDetails(userActivity, joinPoint);
 
@@ -136,6 +154,8 @@ public class UserActivityAspect {
 
     private record ClientInfo(String clientIp, String userAgent, String ipForLocation) {}
 
+    record ActingUser(Long userId, String fullName) {}
+
     private String formatIpAddress(String rawIp) {
         if (rawIp == null) return "unknown";
         if (rawIp.equals("127.0.0.1") || rawIp.equals("::1")) {
@@ -0,0 +1,179 @@
+package com.example.demologin.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache kept in this JVM: one LRU map per region, bounded in entries and in age.
+ *
+ * Set as hibernate.cache.region.factory_class. Entity and collection regions hold at most max_entries items and
+ * the query results region at most query_max_entries; the update timestamps region has one entry per table and
+ * is never trimmed, since a dropped timestamp would let stale query results through.
+ *
+ * Writes evict only this node's entries, so every entry but the timestamps expires after ttl_seconds; that
+ * bounds how long another node serves rows from before an update.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.bounded.max_entries";
+    public static final String QUERY_MAX_ENTRIES = "hibernate.cache.bounded.query_max_entries";
+    public static final String TTL_SECONDS = "hibernate.cache.bounded.ttl_seconds";
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final int DEFAULT_QUERY_MAX_ENTRIES = 1_000;
+    private static final int DEFAULT_TTL_SECONDS = 30;
+
+    private final Map<String, BoundedStorage> regions = new ConcurrentHashMap<>();
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private int queryMaxEntries = DEFAULT_QUERY_MAX_ENTRIES;
+    private long ttlMs = DEFAULT_TTL_SECONDS * 1000L;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        maxEntries = intSetting(configValues, MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+        queryMaxEntries = intSetting(configValues, QUERY_MAX_ENTRIES, DEFAULT_QUERY_MAX_ENTRIES);
+        ttlMs = intSetting(configValues, TTL_SECONDS, DEFAULT_TTL_SECONDS) * 1000L;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(BoundedStorage::evictData);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return register(regionConfig.getRegionName(), maxEntries, ttlMs);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return register(regionName, queryMaxEntries, ttlMs);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return register(regionName, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Number of entries per region, soft locks of running writes and expired entries not yet read included.
+     */
+    public Map<String, Integer> regionSizes() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        regions.forEach((name, storage) -> sizes.put(name, storage.size()));
+        return sizes;
+    }
+
+    public int maxEntries(String regionName) {
+        BoundedStorage storage = regions.get(regionName);
+        return storage != null ? storage.maxEntries : 0;
+    }
+
+    private BoundedStorage register(String regionName, int limit, long ttlMs) {
+        BoundedStorage storage = new BoundedStorage(limit, ttlMs);
+        regions.put(regionName, storage);
+        return storage;
+    }
+
+    private static int intSetting(Map<String, Object> configValues, String name, int defaultValue) {
+        Object value = configValues.get(name);
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        int parsed = Integer.parseInt(value.toString().trim());
+        if (parsed < 1) {
+            throw new IllegalArgumentException(name + " must be at least 1, got " + parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Access-ordered map that drops the least recently used entry past the limit and treats entries older than
+     * the TTL as absent. Regions are small and Hibernate calls in briefly, so one lock per region is enough.
+     */
+    static final class BoundedStorage implements DomainDataStorageAccess {
+
+        private final int maxEntries;
+        private final long ttlMs;
+        private final LinkedHashMap<Object, Entry> entries;
+
+        private record Entry(Object value, long expiresAt) {
+        }
+
+        BoundedStorage(int maxEntries) {
+            this(maxEntries, Long.MAX_VALUE);
+        }
+
+        BoundedStorage(int maxEntries, long ttlMs) {
+            this.maxEntries = maxEntries;
+            this.ttlMs = ttlMs;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                    return size() > BoundedStorage.this.maxEntries;
+                }
+            };
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Entry entry = live(key);
+            return entry != null ? entry.value() : null;
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            long now = System.currentTimeMillis();
+            entries.put(key, new Entry(value, ttlMs > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttlMs));
+        }
+
+        @Override
+        public synchronized boolean contains(Object key) {
+            return live(key) != null;
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entries.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public void release() {
+            evictData();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private Entry live(Object key) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demologin.cache;
+
+import com.example.demologin.annotation.PageResponse;
+import com.example.demologin.aspect.PageResponseAspect;
+import com.example.demologin.dto.response.ResponseObject;
+import com.example.demologin.dto.response.StreamingPage;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.event.CategoryChangedEvent;
+import com.example.demologin.utils.FieldSelection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final JSON bytes of hot catalog responses, identity and gzip, keyed by normalized request.
+ *
+ * Entries are stamped with the catalog ETag that was current before the response was built and are only
+ * served while it still matches, so a write that commits during serialization cannot leave a stale entry
+ * behind. The ETag is shared by all nodes and moves within one poll of a write on any of them; local change
+ * events clear the whole cache at once. Entries also expire after a bounded age, in case a write ever
+ * escapes the polled stamp.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseCache {
+
+    private static final String PAGE_PARAM = "page";
+
+    @Value("${catalog.response-cache.enabled:true}")
+    private boolean enabled;
+
+    // Least recently used entries are dropped beyond this
+    @Value("${catalog.response-cache.max-entries:512}")
+    private int maxEntries;
+
+    // Upper bound on how long an entry is served, whatever the ETag says
+    @Value("${catalog.response-cache.max-age-ms:30000}")
+    private long maxAgeMs;
+
+    // Paged requests are only cached up to this page number (0-based)
+    @Value("${catalog.response-cache.max-page:2}")
+    private int maxPage;
+
+    private final ObjectMapper objectMapper;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Serialized response with the headers it was written with (count mode of estimated pages).
+     */
+    public record CachedResponse(String etag, long storedAt, byte[] identity, byte[] gzip, HttpHeaders headers) {
+
+        public ResponseEntity<byte[]> toResponseEntity(boolean gzipAccepted) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzipAccepted) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+            return builder.body(identity);
+        }
+    }
+
+    public boolean isCacheable(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        String page = request.getParameter(PAGE_PARAM);
+        if (page == null) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(page.trim()) <= maxPage;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Path plus query parameters in name order, so ?size=20&page=0 and ?page=0&size=20 share an entry.
+     */
+    public static String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    public static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    public synchronized CachedResponse get(String key, String etag) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.etag().equals(etag) || System.currentTimeMillis() - cached.storedAt() >= maxAgeMs) {
+            entries.remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Serializes the envelope with the MVC ObjectMapper and keeps it. Returns null for bodies that are
+     * not cached, such as streamed pages, which the caller then returns as they are.
+     */
+    public CachedResponse store(String key, String etag, Object body, PageResponse pageResponse,
+                                Set<String> fields) throws IOException {
+        if (!(body instanceof ResponseObject responseObject) || responseObject.getData() instanceof StreamingPage<?>) {
+            return null;
+        }
+        ObjectWriter writer = fields.isEmpty()
+                ? objectMapper.writer()
+                : objectMapper.writer(FieldSelection.filters(fields));
+        byte[] identity = writer.writeValueAsBytes(body);
+        CachedResponse cached = new CachedResponse(etag, System.currentTimeMillis(), identity, gzip(identity),
+                HttpHeaders.readOnlyHttpHeaders(PageResponseAspect.countModeHeaders(pageResponse, body)));
+
+        synchronized (this) {
+            entries.put(key, cached);
+            while (entries.size() > Math.max(maxEntries, 1)) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        return cached;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookBatchChanged(BookBatchChangedEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        clear();
+    }
+
+    private static byte[] gzip(byte[] identity) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(identity.length / 4, 64));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(identity);
+        }
+        return buffer.toByteArray();
+    }
+}
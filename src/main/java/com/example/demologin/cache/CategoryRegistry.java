@@ -0,0 +1,90 @@
+package com.example.demologin.cache;
+
+import com.example.demologin.dto.response.CategoryResponse;
+import com.example.demologin.entity.Category;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of all categories: by id, and sorted by name (all, and active only).
+ *
+ * Changes never touch a snapshot; CategoryRegistryService builds a new one and swaps the reference, so readers
+ * on any thread see either the old or the new registry as a whole.
+ */
+public final class CategoryRegistry {
+
+    // Like ORDER BY name under the usual case-insensitive collations; ties by id for a stable paging order
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Entry::categoryId);
+
+    /**
+     * Read-only copy of a category row. Responses are created per call, so callers may modify them freely.
+     */
+    public record Entry(Long categoryId, String name, String description, boolean active,
+                        LocalDateTime createdAt, LocalDateTime updatedAt, int bookCount) {
+
+        public static Entry of(Category category) {
+            return new Entry(category.getCategoryId(), category.getName(), category.getDescription(),
+                    Boolean.TRUE.equals(category.getIsActive()), category.getCreatedAt(), category.getUpdatedAt(),
+                    category.getBookCount() != null ? category.getBookCount() : 0);
+        }
+
+        public CategoryResponse toResponse() {
+            return new CategoryResponse(categoryId, name, description, active, createdAt, updatedAt, bookCount);
+        }
+    }
+
+    private final Map<Long, Entry> byId;
+    private final List<Entry> byName;
+    private final List<Entry> activeByName;
+
+    private CategoryRegistry(Map<Long, Entry> byId, List<Entry> byName) {
+        this.byId = byId;
+        this.byName = byName;
+        this.activeByName = byName.stream().filter(Entry::active).toList();
+    }
+
+    public static CategoryRegistry of(Collection<Entry> entries) {
+        Map<Long, Entry> byId = new HashMap<>();
+        entries.forEach(entry -> byId.put(entry.categoryId(), entry));
+        return new CategoryRegistry(Map.copyOf(byId), entries.stream().sorted(BY_NAME).toList());
+    }
+
+    /**
+     * The category, or null when there is none with this id.
+     */
+    public Entry get(Long categoryId) {
+        return categoryId != null ? byId.get(categoryId) : null;
+    }
+
+    public List<Entry> all() {
+        return byName;
+    }
+
+    public List<Entry> active() {
+        return activeByName;
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * A copy with the given book counts; categories not in the map keep theirs.
+     */
+    public CategoryRegistry withBookCounts(Map<Long, Integer> bookCounts) {
+        return of(byName.stream()
+                .map(entry -> {
+                    Integer count = bookCounts.get(entry.categoryId());
+                    return count == null || count == entry.bookCount() ? entry
+                            : new Entry(entry.categoryId(), entry.name(), entry.description(), entry.active(),
+                                    entry.createdAt(), entry.updatedAt(), count);
+                })
+                .toList());
+    }
+}
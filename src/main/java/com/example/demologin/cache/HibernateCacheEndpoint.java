@@ -0,0 +1,75 @@
+package com.example.demologin.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/hibernatecache: hits, misses, puts and size of every second-level cache region. Sizes and limits are
+ * always reported; the counters are zero unless hibernate.generate_statistics is on. DELETE evicts all regions,
+ * e.g. after editing roles in the database.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public record RegionStats(long hits, long misses, long puts, int entries, int maxEntries) {
+    }
+
+    public record CacheStats(boolean statisticsEnabled, long hits, long misses, long puts,
+                             long queryHits, long queryMisses, long queryPuts, Map<String, RegionStats> regions) {
+    }
+
+    @ReadOperation
+    public CacheStats stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean enabled = statistics.isStatisticsEnabled();
+        Map<String, RegionStats> regions = new LinkedHashMap<>();
+        if (sessionFactory.getCache().getRegionFactory() instanceof BoundedRegionFactory regionFactory) {
+            regionFactory.regionSizes().forEach((name, size) -> {
+                CacheRegionStatistics region = enabled ? regionStatistics(statistics, name) : null;
+                regions.put(name, new RegionStats(
+                        region != null ? region.getHitCount() : 0,
+                        region != null ? region.getMissCount() : 0,
+                        region != null ? region.getPutCount() : 0,
+                        size, regionFactory.maxEntries(name)));
+            });
+        }
+        if (!enabled) {
+            return new CacheStats(false, 0, 0, 0, 0, 0, 0, regions);
+        }
+        return new CacheStats(true,
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), regions);
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    // The update timestamps region keeps no statistics of its own
+    private static CacheRegionStatistics regionStatistics(Statistics statistics, String regionName) {
+        try {
+            return statistics.getCacheRegionStatistics(regionName);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
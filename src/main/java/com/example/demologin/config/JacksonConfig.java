@@ -0,0 +1,25 @@
+package com.example.demologin.config;
+
+import com.example.demologin.utils.FieldSelection;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Registers the ?fields= filter. Without a selection the filter keeps every property.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+                .postConfigurer(objectMapper -> objectMapper.setAnnotationIntrospector(AnnotationIntrospector.pair(
+                        new FieldSelection.Introspector(),
+                        objectMapper.getSerializationConfig().getAnnotationIntrospector())));
+    }
+}
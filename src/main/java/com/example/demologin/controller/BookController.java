@@ -3,17 +3,31 @@ package com.example.demologin.controller;
 import com.example.demologin.annotation.ApiResponse;
 import com.example.demologin.annotation.PageResponse;
 import com.example.demologin.annotation.SecuredEndpoint;
+import com.example.demologin.dto.request.book.BulkStockAdjustmentRequest;
 import com.example.demologin.dto.request.book.CreateBookRequest;
 import com.example.demologin.dto.request.book.UpdateBookRequest;
+import com.example.demologin.dto.response.BookImportEvent;
+import com.example.demologin.enums.BookImportEventType;
+import com.example.demologin.enums.BookImportFormat;
+import com.example.demologin.enums.BookView;
+import com.example.demologin.service.BookImportService;
 import com.example.demologin.service.BookService;
+import com.example.demologin.service.CatalogChangeFeedService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.function.Consumer;
 
 @RestController
 @RequiredArgsConstructor
@@ -22,6 +36,9 @@ import java.math.BigDecimal;
 public class BookController {
     
     private final BookService bookService;
+    private final CatalogChangeFeedService catalogChangeFeedService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping
     @PageResponse
@@ -29,8 +46,12 @@ public class BookController {
     @SecuredEndpoint("BOOK_VIEW")
     @Operation(summary = "Get all books", description = "Retrieve paginated list of all books")
     public Object getAllBooks(
+            @Parameter(description = "Response payload: full or summary (default full)") @RequestParam(required = false) String view,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        if (BookView.resolve(view) == BookView.SUMMARY) {
+            return bookService.getAllBookSummaries(page, size);
+        }
         return bookService.getAllBooks(page, size);
     }
     
@@ -46,8 +67,13 @@ public class BookController {
             @Parameter(description = "Availability status filter") @RequestParam(required = false) Boolean isAvailable,
             @Parameter(description = "Minimum price filter") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price filter") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Response payload: full or summary (default full)") @RequestParam(required = false) String view,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        if (BookView.resolve(view) == BookView.SUMMARY) {
+            return bookService.getBookSummariesByFilters(title, author, categoryId, isAvailable,
+                                                         minPrice, maxPrice, page, size);
+        }
         return bookService.getBooksByFilters(title, author, categoryId, isAvailable, 
                                            minPrice, maxPrice, page, size);
     }
@@ -59,11 +85,26 @@ public class BookController {
     @Operation(summary = "Get books by category", description = "Retrieve books from a specific category")
     public Object getBooksByCategory(
             @Parameter(description = "Category ID") @PathVariable Long categoryId,
+            @Parameter(description = "Response payload: full or summary (default full)") @RequestParam(required = false) String view,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        if (BookView.resolve(view) == BookView.SUMMARY) {
+            return bookService.getBookSummariesByCategory(categoryId, page, size);
+        }
         return bookService.getBooksByCategory(categoryId, page, size);
     }
     
+    @GetMapping("/changes")
+    @ApiResponse(message = "Catalog changes retrieved successfully")
+    @SecuredEndpoint("BOOK_VIEW")
+    @Operation(summary = "Get catalog changes", description = "Delta-sync feed: books and categories changed after the cursor, "
+            + "with tombstones for deleted ones. Start with cursor 0 and pass back the returned cursor")
+    public Object getCatalogChanges(
+            @Parameter(description = "Cursor returned by the previous call (0 for a full sync)") @RequestParam(defaultValue = "0") long cursor,
+            @Parameter(description = "Maximum number of changes") @RequestParam(defaultValue = "500") int limit) {
+        return catalogChangeFeedService.getChanges(cursor, limit);
+    }
+    
     @GetMapping("/{bookId}")
     @ApiResponse(message = "Book retrieved successfully")
     @SecuredEndpoint("BOOK_VIEW")
@@ -82,6 +123,32 @@ public class BookController {
         return bookService.createBook(request);
     }
     
+    @PostMapping("/import")
+    @SecuredEndpoint("BOOK_CREATE")
+    @Operation(summary = "Import books",
+               description = "Stream new books as CSV (header row of field names) or NDJSON in the request body. "
+                       + "Responds with NDJSON lines: an ERROR line per rejected row, PROGRESS lines and a final DONE line")
+    public void importBooks(
+            @Parameter(description = "Body format: csv or ndjson (default csv)") @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BookImportFormat importFormat = BookImportFormat.from(format);
+        response.setContentType(BookImportFormat.NDJSON.getMediaType());
+        OutputStream out = response.getOutputStream();
+        Consumer<BookImportEvent> writeLine = event -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+                // Errors come in bursts; progress lines go out right away
+                if (event.getType() != BookImportEventType.ERROR) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        writeLine.accept(bookImportService.importBooks(request.getInputStream(), importFormat, writeLine));
+    }
+    
     @PutMapping("/{bookId}")
     @ApiResponse(message = "Book updated successfully")
     @SecuredEndpoint("BOOK_UPDATE")
@@ -123,6 +190,15 @@ public class BookController {
         return null;
     }
     
+    @PatchMapping("/stock")
+    @ApiResponse(message = "Book stocks adjusted")
+    @SecuredEndpoint("BOOK_UPDATE")
+    @Operation(summary = "Bulk adjust book stock",
+               description = "Apply many (bookId, delta or quantity) stock adjustments in one transaction; returns a result per item")
+    public Object adjustBookStocks(@Valid @RequestBody BulkStockAdjustmentRequest request) {
+        return bookService.adjustBookStocks(request.getItems());
+    }
+    
     @PatchMapping("/{bookId}/stock/decrease")
     @ApiResponse(message = "Book stock decreased successfully")
     @SecuredEndpoint("BOOK_UPDATE")
@@ -144,4 +220,24 @@ public class BookController {
         bookService.increaseBookStock(bookId, quantity);
         return null;
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/{bookId}/stock/shards")
+    @ApiResponse(message = "Book stock sharded successfully")
+    @SecuredEndpoint("BOOK_UPDATE")
+    @Operation(summary = "Shard book stock", description = "Split the stock of a hot book over several counter slots for a sale")
+    public Object shardBookStock(
+            @Parameter(description = "Book ID") @PathVariable Long bookId,
+            @Parameter(description = "Number of slots") @RequestParam(defaultValue = "8") Integer slots) {
+        bookService.shardBookStock(bookId, slots);
+        return null;
+    }
+    
+    @DeleteMapping("/{bookId}/stock/shards")
+    @ApiResponse(message = "Book stock merged successfully")
+    @SecuredEndpoint("BOOK_UPDATE")
+    @Operation(summary = "Merge book stock", description = "Fold the counter slots of a sharded book back into its stock quantity")
+    public Object mergeBookStock(@Parameter(description = "Book ID") @PathVariable Long bookId) {
+        bookService.mergeBookStock(bookId);
+        return null;
+    }
+}
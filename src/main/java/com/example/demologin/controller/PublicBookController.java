@@ -1,17 +1,35 @@
 package com.example.demologin.controller;
 
 import com.example.demologin.annotation.ApiResponse;
+import com.example.demologin.annotation.CatalogCacheable;
 import com.example.demologin.annotation.PageResponse;
 import com.example.demologin.annotation.PublicEndpoint;
+import com.example.demologin.cache.CatalogResponseCache;
+import com.example.demologin.dto.request.book.BatchBookRequest;
+import com.example.demologin.enums.BookView;
+import com.example.demologin.enums.CatalogExportFormat;
+import com.example.demologin.export.CatalogExport;
+import com.example.demologin.enums.PageCountMode;
 import com.example.demologin.service.BookService;
+import com.example.demologin.service.CatalogExportService;
 import com.example.demologin.service.CategoryService;
+import com.example.demologin.utils.FileTransfer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,48 +39,86 @@ public class PublicBookController {
     
     private final BookService bookService;
     private final CategoryService categoryService;
+    private final CatalogExportService catalogExportService;
     
     @GetMapping
-    @PageResponse
+    @CatalogCacheable(surrogateKeys = "books", cacheBody = true)
+    @PageResponse(count = PageCountMode.ESTIMATED)
     @ApiResponse(message = "Books retrieved successfully")
     @PublicEndpoint
     @Operation(summary = "Browse books", description = "Public endpoint to browse available books")
     public Object browseBooks(
+            @Parameter(description = "Response payload: full or summary (default full)") @RequestParam(required = false) String view,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
-        return bookService.getBooksByFilters(null, null, null, true, null, null, page, size);
+        if (BookView.resolve(view) == BookView.SUMMARY) {
+            return bookService.searchBookSummaries(null, null, null, null, null, null, page, size);
+        }
+        return bookService.searchBooks(null, null, null, null, null, null, page, size);
     }
     
     @GetMapping("/search")
-    @PageResponse
+    @PageResponse(count = PageCountMode.ESTIMATED)
     @ApiResponse(message = "Books retrieved successfully")
     @PublicEndpoint
     @Operation(summary = "Search books", description = "Public endpoint to search available books")
     public Object searchBooks(
+            @Parameter(description = "Free text matched against title, author, publisher and ISBN") @RequestParam(required = false) String q,
             @Parameter(description = "Book title to search") @RequestParam(required = false) String title,
             @Parameter(description = "Author name to search") @RequestParam(required = false) String author,
             @Parameter(description = "Category ID filter") @RequestParam(required = false) Long categoryId,
             @Parameter(description = "Minimum price filter") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price filter") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Response payload: full or summary (default full)") @RequestParam(required = false) String view,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
-        return bookService.getBooksByFilters(title, author, categoryId, true, 
-                                           minPrice, maxPrice, page, size);
+        if (BookView.resolve(view) == BookView.SUMMARY) {
+            return bookService.searchBookSummaries(q, title, author, categoryId, minPrice, maxPrice, page, size);
+        }
+        return bookService.searchBooks(q, title, author, categoryId, minPrice, maxPrice, page, size);
+    }
+    
+    @GetMapping("/autocomplete")
+    @ApiResponse(message = "Suggestions retrieved successfully")
+    @PublicEndpoint
+    @Operation(summary = "Autocomplete books", description = "Public endpoint to suggest books by title or author prefix while typing")
+    public Object autocompleteBooks(
+            @Parameter(description = "Typed prefix") @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") int limit) {
+        return bookService.autocomplete(q, limit);
+    }
+    
+    @GetMapping("/facets")
+    @CatalogCacheable(surrogateKeys = {"books", "categories"})
+    @ApiResponse(message = "Book facets retrieved successfully")
+    @PublicEndpoint
+    @Operation(summary = "Get book facets", description = "Public endpoint to count available books per category and price range")
+    public Object getBookFacets(
+            @Parameter(description = "Category ID filter") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Minimum price filter") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price filter") @RequestParam(required = false) BigDecimal maxPrice) {
+        return bookService.getCatalogFacets(categoryId, minPrice, maxPrice);
     }
     
     @GetMapping("/category/{categoryId}")
+    @CatalogCacheable(surrogateKeys = {"books", "category-{categoryId}"})
     @PageResponse
     @ApiResponse(message = "Books retrieved successfully")
     @PublicEndpoint
     @Operation(summary = "Get books by category", description = "Public endpoint to browse books by category")
     public Object getBooksByCategory(
             @Parameter(description = "Category ID") @PathVariable Long categoryId,
+            @Parameter(description = "Response payload: full or summary (default full)") @RequestParam(required = false) String view,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        if (BookView.resolve(view) == BookView.SUMMARY) {
+            return bookService.getBookSummariesByCategory(categoryId, page, size);
+        }
         return bookService.getBooksByCategory(categoryId, page, size);
     }
     
     @GetMapping("/{bookId}")
+    @CatalogCacheable(surrogateKeys = "book-{bookId}", cacheBody = true, viewedBook = "bookId")
     @ApiResponse(message = "Book retrieved successfully")
     @PublicEndpoint
     @Operation(summary = "Get book details", description = "Public endpoint to get book details")
@@ -71,11 +127,55 @@ public class PublicBookController {
         return bookService.getBookById(bookId);
     }
     
+    @PostMapping("/batch")
+    @ApiResponse(message = "Books retrieved successfully")
+    @PublicEndpoint
+    @Operation(summary = "Get books by IDs", description = "Public endpoint to get up to " + BatchBookRequest.MAX_IDS
+            + " books in one call; results follow the order of the requested IDs")
+    public Object getBooksByIds(@Valid @RequestBody BatchBookRequest request) {
+        return bookService.getBooksByIds(request.getBookIds());
+    }
+    
     @GetMapping("/categories")
+    @CatalogCacheable(surrogateKeys = "categories", cacheBody = true)
     @ApiResponse(message = "Categories retrieved successfully")
     @PublicEndpoint
     @Operation(summary = "Get categories", description = "Public endpoint to get all active categories")
     public Object getActiveCategories() {
         return categoryService.getActiveCategoriesForDropdown();
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/export")
+    @PublicEndpoint
+    @Operation(summary = "Download catalog export", description = "Public endpoint to download all active categories and available books "
+            + "in one file, regenerated after catalog changes; supports If-None-Match")
+    public void downloadCatalogExport(
+            @Parameter(description = "File format: json (gzip) or binary (default json)") @RequestParam(defaultValue = "json") String format,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CatalogExportFormat exportFormat = CatalogExportFormat.from(format);
+        CatalogExport export = catalogExportService.current();
+        // The shared catalog version, so every node answers the same validator for the same catalog
+        String etag = export.etag().substring(0, export.etag().length() - 1)
+                + "-" + exportFormat.name().toLowerCase() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, export.lastModified())) {
+            return;
+        }
+
+        response.setContentType(exportFormat.getMediaType());
+        if (exportFormat != CatalogExportFormat.JSON) {
+            FileTransfer.send(request, response, export.file(exportFormat));
+            return;
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (CatalogResponseCache.acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            FileTransfer.send(request, response, export.file(exportFormat));
+            return;
+        }
+        // Rare clients without gzip get the JSON inflated on the fly
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(export.file(exportFormat)))) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+}
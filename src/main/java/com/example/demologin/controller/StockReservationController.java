@@ -0,0 +1,46 @@
+package com.example.demologin.controller;
+
+import com.example.demologin.annotation.ApiResponse;
+import com.example.demologin.annotation.AuthenticatedEndpoint;
+import com.example.demologin.dto.request.book.ReserveStockRequest;
+import com.example.demologin.service.BookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/books/reservations")
+@Tag(name = "Stock Reservations", description = "APIs for holding book stock for carts")
+public class StockReservationController {
+    
+    private final BookService bookService;
+    
+    @PostMapping
+    @ApiResponse(message = "Stock reserved successfully")
+    @AuthenticatedEndpoint
+    @Operation(summary = "Reserve stock", description = "Hold copies of a book for a cart until confirmed, released or expired")
+    public Object reserveStock(@Valid @RequestBody ReserveStockRequest request) {
+        return bookService.reserveBookStock(request.getBookId(), request.getQuantity());
+    }
+    
+    @PostMapping("/{reservationId}/confirm")
+    @ApiResponse(message = "Reservation confirmed successfully")
+    @AuthenticatedEndpoint
+    @Operation(summary = "Confirm reservation", description = "Turn a hold into a sale; the stock is updated shortly after")
+    public Object confirmReservation(@Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        return bookService.confirmStockReservation(reservationId);
+    }
+    
+    @DeleteMapping("/{reservationId}")
+    @ApiResponse(message = "Reservation released successfully")
+    @AuthenticatedEndpoint
+    @Operation(summary = "Release reservation", description = "Give the held copies back")
+    public Object releaseReservation(@Parameter(description = "Reservation ID") @PathVariable String reservationId) {
+        bookService.releaseStockReservation(reservationId);
+        return null;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demologin.annotation.ApiResponse;
 import com.example.demologin.annotation.PageResponse;
 import com.example.demologin.annotation.SecuredEndpoint;
 import com.example.demologin.dto.request.userActivityLog.UserActivityLogExportRequest;
+import com.example.demologin.enums.PageCountMode;
 import com.example.demologin.service.UserActivityLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,7 +25,7 @@ import java.time.LocalDateTime;
     private final UserActivityLogService userActivityLogService;
 
     @GetMapping
-    @PageResponse
+    @PageResponse(count = PageCountMode.ESTIMATED)
     @ApiResponse(message = "Activity logs retrieved successfully")
     @SecuredEndpoint("LOG_VIEW_ACTIVITY")
     @Operation(summary = "Get all user activity logs", description = "Retrieve paginated list of all user activity logs")
@@ -53,13 +54,14 @@ import java.time.LocalDateTime;
     public Object getActivityLogsByUserId(
             @Parameter(description = "User ID") @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also read history from the cold archive") @RequestParam(defaultValue = "false") boolean includeArchived) {
         
-        return userActivityLogService.getActivityLogsByUserId(userId, page, size);
+        return userActivityLogService.getActivityLogsByUserId(userId, page, size, includeArchived);
     }
 
     @GetMapping("/type/{actionType}")
-    @PageResponse
+    @PageResponse(count = PageCountMode.ESTIMATED)
     @ApiResponse(message = "Activity logs by type retrieved successfully")
     @SecuredEndpoint("LOG_VIEW_ACTIVITY")
     @Operation(summary = "Get activity logs by action type", description = "Retrieve paginated activity logs filtered by action type")
@@ -72,7 +74,7 @@ import java.time.LocalDateTime;
     }
 
     @GetMapping("/date-range")
-    @PageResponse
+    @PageResponse(count = PageCountMode.NONE)
     @ApiResponse(message = "Activity logs by date range retrieved successfully")
     @SecuredEndpoint("LOG_VIEW_ACTIVITY")
     @Operation(summary = "Get activity logs by date range", description = "Retrieve paginated activity logs within a date range")
@@ -88,7 +90,7 @@ import java.time.LocalDateTime;
     }
 
     @PostMapping("/export")
-    @PageResponse
+    @PageResponse(count = PageCountMode.NONE)
     @ApiResponse(message = "Activity logs exported successfully")
     @SecuredEndpoint("ADMIN_ACTIVITY_LOG_EXPORT")
     @Operation(summary = "Export activity logs", description = "Export activity logs within date range with pagination")
@@ -0,0 +1,24 @@
+package com.example.demologin.dto.request.book;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookRequest {
+    
+    public static final int MAX_IDS = 500;
+    
+    @NotEmpty(message = "Book IDs are required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " book IDs per request")
+    private List<@NotNull(message = "Book ID must not be null") Long> bookIds;
+}
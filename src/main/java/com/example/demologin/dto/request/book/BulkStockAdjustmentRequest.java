@@ -0,0 +1,25 @@
+package com.example.demologin.dto.request.book;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockAdjustmentRequest {
+    
+    public static final int MAX_ITEMS = 5000;
+    
+    @NotEmpty(message = "Stock adjustments are required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " stock adjustments per request")
+    private List<@NotNull(message = "Stock adjustment must not be null") @Valid StockAdjustmentItem> items;
+}
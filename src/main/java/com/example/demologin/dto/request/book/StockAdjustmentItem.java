@@ -0,0 +1,39 @@
+package com.example.demologin.dto.request.book;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One book of a bulk stock adjustment: either a delta added to the stock or an absolute quantity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentItem {
+    
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+    
+    private Integer delta;
+    
+    @Min(value = 0, message = "Stock quantity cannot be negative")
+    private Integer quantity;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of delta and quantity is required")
+    public boolean isDeltaOrQuantity() {
+        return (delta == null) != (quantity == null);
+    }
+    
+    @JsonIgnore
+    public boolean isAbsolute() {
+        return quantity != null;
+    }
+}
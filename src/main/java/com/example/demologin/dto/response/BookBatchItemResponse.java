@@ -0,0 +1,26 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry of a batch lookup, in the position of the requested id. book is null when found is false.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchItemResponse {
+    
+    @JsonProperty("bookId")
+    private Long bookId;
+    
+    @JsonProperty("found")
+    private boolean found;
+    
+    @JsonProperty("book")
+    private BookResponse book;
+}
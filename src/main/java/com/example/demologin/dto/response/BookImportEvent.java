@@ -0,0 +1,50 @@
+package com.example.demologin.dto.response;
+
+import com.example.demologin.enums.BookImportEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One line of the import response stream. ERROR lines carry line, isbn and message;
+ * PROGRESS and DONE lines carry the running totals.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookImportEvent {
+    
+    @JsonProperty("type")
+    private BookImportEventType type;
+    
+    @JsonProperty("line")
+    private Long line;
+    
+    @JsonProperty("isbn")
+    private String isbn;
+    
+    @JsonProperty("message")
+    private String message;
+    
+    @JsonProperty("processed")
+    private Long processed;
+    
+    @JsonProperty("imported")
+    private Long imported;
+    
+    @JsonProperty("failed")
+    private Long failed;
+    
+    public static BookImportEvent error(Long line, String isbn, String message) {
+        return new BookImportEvent(BookImportEventType.ERROR, line, isbn, message, null, null, null);
+    }
+    
+    public static BookImportEvent totals(BookImportEventType type, long imported, long failed) {
+        return new BookImportEvent(type, null, null, null, imported + failed, imported, failed);
+    }
+}
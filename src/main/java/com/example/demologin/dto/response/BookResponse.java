@@ -1,5 +1,6 @@
 package com.example.demologin.dto.response;
 
+import com.example.demologin.annotation.SparseFields;
 import com.example.demologin.entity.Book;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+@SparseFields
 @Getter
 @Setter
 @NoArgsConstructor
@@ -90,6 +92,14 @@ public class BookResponse {
         return response;
     }
     
+    /**
+     * Copy with another stock level, for stock changes applied without reading the book back.
+     */
+    public BookResponse withStockQuantity(int stockQuantity) {
+        return new BookResponse(bookId, title, author, isbn, description, price, stockQuantity, isAvailable,
+                publishedDate, publisher, pages, language, createdAt, updatedAt, categoryId, stockQuantity > 0);
+    }
+    
     public static BookResponse toBookResponseWithoutCategory(Book book) {
         BookResponse response = new BookResponse();
         response.setBookId(book.getBookId());
@@ -0,0 +1,27 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestionResponse {
+
+    @JsonProperty("bookId")
+    private Long bookId;
+
+    @JsonProperty("title")
+    private String title;
+
+    @JsonProperty("author")
+    private String author;
+
+    public static BookSuggestionResponse toBookSuggestionResponse(BookResponse book) {
+        return new BookSuggestionResponse(book.getBookId(), book.getTitle(), book.getAuthor());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demologin.dto.response;
+
+import com.example.demologin.annotation.SparseFields;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Card fields of a book for list endpoints. Built directly by constructor queries in BookRepository,
+ * so list pages never load the description or hydrate Book entities.
+ */
+@SparseFields
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookSummaryResponse {
+    
+    public static final Set<String> FIELDS = Set.of(
+            "bookId", "title", "author", "isbn", "price", "stockQuantity", "isAvailable", "categoryId", "inStock");
+    
+    @JsonProperty("bookId")
+    private Long bookId;
+    
+    @JsonProperty("title")
+    private String title;
+    
+    @JsonProperty("author")
+    private String author;
+    
+    @JsonProperty("isbn")
+    private String isbn;
+    
+    @JsonProperty("price")
+    private BigDecimal price;
+    
+    @JsonProperty("stockQuantity")
+    private Integer stockQuantity;
+    
+    @JsonProperty("isAvailable")
+    private Boolean isAvailable;
+    
+    @JsonProperty("categoryId")
+    private Long categoryId;
+    
+    @JsonProperty("inStock")
+    private Boolean inStock;
+    
+    public BookSummaryResponse(Long bookId, String title, String author, String isbn, BigDecimal price,
+                               Integer stockQuantity, Boolean isAvailable, Long categoryId) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.isAvailable = isAvailable;
+        this.categoryId = categoryId;
+        this.inStock = stockQuantity != null && stockQuantity > 0;
+    }
+    
+    public static BookSummaryResponse toBookSummaryResponse(BookResponse book) {
+        return new BookSummaryResponse(book.getBookId(), book.getTitle(), book.getAuthor(), book.getIsbn(),
+                book.getPrice(), book.getStockQuantity(), book.getIsAvailable(), book.getCategoryId());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockAdjustmentResponse {
+    
+    @JsonProperty("applied")
+    private int applied;
+    
+    @JsonProperty("failed")
+    private int failed;
+    
+    @JsonProperty("results")
+    private List<StockAdjustmentResult> results;
+}
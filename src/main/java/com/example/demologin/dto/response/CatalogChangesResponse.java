@@ -0,0 +1,38 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesResponse {
+
+    // Pass back as ?cursor= on the next call; unchanged when nothing new was found
+    @JsonProperty("cursor")
+    private long cursor;
+
+    // More changes are waiting beyond this batch
+    @JsonProperty("hasMore")
+    private boolean hasMore;
+
+    // Current state of books created or updated since the given cursor
+    @JsonProperty("books")
+    private List<BookResponse> books;
+
+    @JsonProperty("categories")
+    private List<CategoryResponse> categories;
+
+    // Tombstones
+    @JsonProperty("deletedBookIds")
+    private List<Long> deletedBookIds;
+
+    @JsonProperty("deletedCategoryIds")
+    private List<Long> deletedCategoryIds;
+}
@@ -0,0 +1,48 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogFacetsResponse {
+
+    @JsonProperty("totalBooks")
+    private long totalBooks;
+
+    @JsonProperty("inStock")
+    private long inStock;
+
+    // categoryId -> number of books
+    @JsonProperty("categories")
+    private Map<Long, Long> categories;
+
+    @JsonProperty("priceBuckets")
+    private List<PriceBucket> priceBuckets;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+
+        @JsonProperty("minPrice")
+        private BigDecimal minPrice;
+
+        // Exclusive; null for the last, open-ended bucket
+        @JsonProperty("maxPrice")
+        private BigDecimal maxPrice;
+
+        @JsonProperty("count")
+        private long count;
+    }
+}
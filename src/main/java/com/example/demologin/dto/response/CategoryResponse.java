@@ -1,5 +1,6 @@
 package com.example.demologin.dto.response;
 
+import com.example.demologin.annotation.SparseFields;
 import com.example.demologin.entity.Category;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+@SparseFields
 @Getter
 @Setter
 @NoArgsConstructor
@@ -44,7 +46,7 @@ public class CategoryResponse {
         response.setIsActive(category.getIsActive());
         response.setCreatedAt(category.getCreatedAt());
         response.setUpdatedAt(category.getUpdatedAt());
-        response.setBookCount(category.getBooks() != null ? category.getBooks().size() : 0);
+        response.setBookCount(category.getBookCount());
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.demologin.dto.response;
+
+import com.example.demologin.enums.StockAdjustmentStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one item of a bulk stock adjustment, in the position of the item.
+ * stockQuantity is the stock after the whole batch when the item failed for lack of stock, null otherwise.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResult {
+    
+    @JsonProperty("bookId")
+    private Long bookId;
+    
+    @JsonProperty("status")
+    private StockAdjustmentStatus status;
+    
+    @JsonProperty("stockQuantity")
+    private Integer stockQuantity;
+    
+    public static StockAdjustmentResult applied(Long bookId) {
+        return new StockAdjustmentResult(bookId, StockAdjustmentStatus.APPLIED, null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demologin.dto.response;
+
+import com.example.demologin.reservation.StockReservation;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    
+    @JsonProperty("reservationId")
+    private String reservationId;
+    
+    @JsonProperty("bookId")
+    private Long bookId;
+    
+    @JsonProperty("quantity")
+    private Integer quantity;
+    
+    @JsonProperty("confirmed")
+    private boolean confirmed;
+    
+    // Only meaningful while the reservation is not confirmed
+    @JsonProperty("expiresAt")
+    private Instant expiresAt;
+    
+    public static StockReservationResponse toStockReservationResponse(StockReservation reservation) {
+        return new StockReservationResponse(reservation.id(), reservation.bookId(), reservation.quantity(),
+                reservation.confirmed(), Instant.ofEpochMilli(reservation.expiresAt()));
+    }
+}
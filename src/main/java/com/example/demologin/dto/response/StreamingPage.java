@@ -0,0 +1,160 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+
+/**
+ * A page whose rows are produced while the response is written instead of being held in a list.
+ *
+ * {@link StreamingPageSerializer} writes the same JSON as a regular page (content, then page metadata),
+ * pulling one row at a time from the source; the total is resolved after the rows, once their number is known.
+ * Calling {@link #getContent()} still works but loads the whole page into memory.
+ */
+@JsonSerialize(using = StreamingPageSerializer.class)
+public class StreamingPage<T> implements Page<T> {
+
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(Consumer<? super T> action);
+    }
+
+    private final Pageable pageable;
+    private final RowSource<T> rows;
+    // Total elements, given the number of rows actually read for this page
+    private final IntToLongFunction total;
+
+    private List<T> content;
+    private int rowsRead = -1;
+    private Long resolvedTotal;
+
+    public StreamingPage(Pageable pageable, RowSource<T> rows, IntToLongFunction total) {
+        this.pageable = pageable;
+        this.rows = rows;
+        this.total = total;
+    }
+
+    /**
+     * Streams the rows to the action and returns how many there were.
+     */
+    public int writeRows(Consumer<? super T> action) {
+        if (content != null) {
+            content.forEach(action);
+            return content.size();
+        }
+        int[] count = {0};
+        rows.forEach(row -> {
+            action.accept(row);
+            count[0]++;
+        });
+        rowsRead = count[0];
+        return rowsRead;
+    }
+
+    @Override
+    public <U> Page<U> map(Function<? super T, ? extends U> converter) {
+        return new StreamingPage<>(pageable, action -> rows.forEach(row -> action.accept(converter.apply(row))), total);
+    }
+
+    @Override
+    public List<T> getContent() {
+        if (content == null) {
+            List<T> loaded = new ArrayList<>();
+            writeRows(loaded::add);
+            content = Collections.unmodifiableList(loaded);
+        }
+        return content;
+    }
+
+    @Override
+    public long getTotalElements() {
+        if (resolvedTotal == null) {
+            resolvedTotal = total.applyAsLong(rowCount());
+        }
+        return resolvedTotal;
+    }
+
+    @Override
+    public int getTotalPages() {
+        return getSize() == 0 ? 1 : (int) Math.ceil((double) getTotalElements() / getSize());
+    }
+
+    @Override
+    public int getNumber() {
+        return pageable.isPaged() ? pageable.getPageNumber() : 0;
+    }
+
+    @Override
+    public int getSize() {
+        return pageable.isPaged() ? pageable.getPageSize() : rowCount();
+    }
+
+    @Override
+    public int getNumberOfElements() {
+        return rowCount();
+    }
+
+    @Override
+    public boolean hasContent() {
+        return rowCount() > 0;
+    }
+
+    @Override
+    public Sort getSort() {
+        return pageable.getSort();
+    }
+
+    @Override
+    public boolean isFirst() {
+        return !hasPrevious();
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return getNumber() + 1 < getTotalPages();
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return getNumber() > 0;
+    }
+
+    @Override
+    public Pageable getPageable() {
+        return pageable;
+    }
+
+    @Override
+    public Pageable nextPageable() {
+        return hasNext() ? pageable.next() : Pageable.unpaged();
+    }
+
+    @Override
+    public Pageable previousPageable() {
+        return hasPrevious() ? pageable.previousOrFirst() : Pageable.unpaged();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return getContent().iterator();
+    }
+
+    // Rows of this page, reading them only if they have not been written yet
+    private int rowCount() {
+        return rowsRead >= 0 ? rowsRead : getContent().size();
+    }
+}
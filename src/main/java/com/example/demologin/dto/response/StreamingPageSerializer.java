@@ -0,0 +1,48 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a {@link StreamingPage} in the same shape Spring Data uses for pages
+ * ({"content": [...], "page": {size, number, totalElements, totalPages}}), one row at a time.
+ */
+public class StreamingPageSerializer extends StdSerializer<StreamingPage<?>> {
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StreamingPageSerializer() {
+        super((Class) StreamingPage.class);
+    }
+
+    @Override
+    public void serialize(StreamingPage<?> page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeArrayFieldStart("content");
+        try {
+            page.writeRows(row -> {
+                try {
+                    provider.defaultSerializeValue(row, gen);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.writeEndArray();
+
+        gen.writeObjectFieldStart("page");
+        gen.writeNumberField("size", page.getSize());
+        gen.writeNumberField("number", page.getNumber());
+        gen.writeNumberField("totalElements", page.getTotalElements());
+        gen.writeNumberField("totalPages", page.getTotalPages());
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demologin.dto.response;
 
+import com.example.demologin.annotation.SparseFields;
 import com.example.demologin.enums.ActivityType;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+@SparseFields
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.example.demologin.dto.response;
 
+import com.example.demologin.annotation.SparseFields;
 import com.example.demologin.entity.User;
 import com.example.demologin.enums.Gender;
 import com.example.demologin.enums.UserStatus;
@@ -8,6 +9,7 @@ import lombok.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+@SparseFields
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,7 +13,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -42,6 +44,10 @@ public class Book {
     @Column(nullable = false)
     private Integer stockQuantity = 0;
     
+    // Number of book_stock_slots rows holding the stock while sharded, null otherwise.
+    // stockQuantity then trails the sum of the slots by at most one sync interval.
+    private Integer stockSlots;
+    
     @Column(nullable = false)
     private Boolean isAvailable = true;
     
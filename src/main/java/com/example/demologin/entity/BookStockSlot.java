@@ -0,0 +1,20 @@
+package com.example.demologin.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One share of a hot book's stock. Decrements lock a single slot row instead of the books row,
+ * so concurrent checkouts of the same book only contend when they pick the same slot.
+ */
+@Entity
+@Table(name = "book_stock_slots")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class BookStockSlot {
+
+    @EmbeddedId
+    private BookStockSlotId id;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -0,0 +1,40 @@
+package com.example.demologin.entity;
+
+import com.example.demologin.enums.CatalogEntityType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest change of a book or category, numbered by a monotonic change sequence (the id).
+ *
+ * Written in the transaction of the change itself; the previous row of the same entity is removed at the
+ * same time, so the table holds one row per book or category ever changed and the delta-sync feed is a
+ * primary key range read from the client's cursor.
+ */
+@Entity
+@Table(name = "catalog_changes", indexes = {
+        @Index(name = "idx_catalog_changes_entity", columnList = "entityType, entityId")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CatalogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogEntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    // Tombstone: the entity was deleted by this change
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -41,6 +42,12 @@ public class Category {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Kept by the book write paths with atomic increments (CategoryRepository.adjustBookCount), never written
+    // through the entity, so a stale copy saved by updateCategory cannot overwrite it
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Integer bookCount = 0;
+    
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Book> books = new ArrayList<>();
     
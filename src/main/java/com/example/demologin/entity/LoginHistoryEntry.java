@@ -0,0 +1,63 @@
+package com.example.demologin.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model behind "my login history": the last N logins of a user, keyed by (userId, slot).
+ * All rows of a user sit next to each other in the primary key, so the history is one key range read.
+ */
+@Entity
+@Table(name = "user_login_history")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class LoginHistoryEntry {
+
+    @EmbeddedId
+    private LoginHistoryEntryId id;
+
+    // Source row in user_activity_logs
+    private Long activityLogId;
+
+    @Column(nullable = false)
+    private LocalDateTime loginAt;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(length = 45)
+    private String ipAddress;
+
+    @Column(length = 1000)
+    private String userAgent;
+
+    // Device and browser information
+    @Column(length = 100)
+    private String browser;
+
+    @Column(length = 50)
+    private String browserVersion;
+
+    @Column(length = 100)
+    private String operatingSystem;
+
+    @Column(length = 100)
+    private String device;
+
+    @Column(length = 20)
+    private String deviceType;
+
+    // Location information
+    @Column(length = 100)
+    private String city;
+
+    @Column(length = 100)
+    private String region;
+
+    @Column(length = 100)
+    private String country;
+
+    @Column(length = 10)
+    private String countryCode;
+}
@@ -0,0 +1,19 @@
+package com.example.demologin.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+public class LoginHistoryEntryId implements Serializable {
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // Position in the user's ring, 0 .. capacity - 1
+    @Column(nullable = false)
+    private Integer slot;
+}
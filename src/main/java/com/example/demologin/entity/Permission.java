@@ -1,8 +1,11 @@
 package com.example.demologin.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Permission {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
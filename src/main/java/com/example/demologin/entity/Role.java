@@ -2,6 +2,8 @@ package com.example.demologin.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -12,6 +14,7 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Role {
 
     @Id
@@ -21,7 +24,9 @@ public class Role {
     @Column(unique = true, nullable = false)
     private String name;
 
+    // Cached like the role; other nodes see a change once the entry expires (hibernate.cache.bounded.ttl_seconds)
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "role_permission",
             joinColumns = @JoinColumn(name = "role_id"),
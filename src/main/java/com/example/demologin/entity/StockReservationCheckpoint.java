@@ -0,0 +1,26 @@
+package com.example.demologin.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Highest reservation write-off generation committed, per reservation journal. Moved in the same transaction
+ * as the stock, so a journal replay after a crash knows which confirmed reservations were written off.
+ */
+@Entity
+@Table(name = "stock_reservation_checkpoints")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class StockReservationCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String journal;
+
+    @Column(nullable = false)
+    private Long generation;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -3,7 +3,11 @@ package com.example.demologin.entity;
 import com.example.demologin.enums.Gender;
 import com.example.demologin.enums.UserStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -28,7 +32,11 @@ public class User implements UserDetails {
     @Column(nullable = false, length = 128)
     private String password;
 
+    // Own select instead of a join, so that loading a user by id can take roles and permissions from the cache;
+    // other nodes see a change of the roles once the entry expires (hibernate.cache.bounded.ttl_seconds)
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
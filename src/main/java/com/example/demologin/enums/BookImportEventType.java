@@ -0,0 +1,13 @@
+package com.example.demologin.enums;
+
+/**
+ * Kinds of lines in the NDJSON response of a bulk book import.
+ */
+public enum BookImportEventType {
+    // A row that was not imported, with its line and reason
+    ERROR,
+    // Running totals, every few thousand rows
+    PROGRESS,
+    // Final totals; the last line of the response
+    DONE
+}
@@ -0,0 +1,33 @@
+package com.example.demologin.enums;
+
+import com.example.demologin.exception.exceptions.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Input formats of the bulk book import, chosen with ?format=csv|ndjson.
+ */
+public enum BookImportFormat {
+    // Header row with CreateBookRequest field names (title, author, isbn, stock_quantity, ...), RFC 4180 quoting
+    CSV("text/csv"),
+    // One CreateBookRequest JSON object per line
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    BookImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static BookImportFormat from(String value) {
+        try {
+            return BookImportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown format: " + value + " (expected csv or ndjson)");
+        }
+    }
+}
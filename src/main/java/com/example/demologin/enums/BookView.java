@@ -0,0 +1,38 @@
+package com.example.demologin.enums;
+
+import com.example.demologin.dto.response.BookSummaryResponse;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.example.demologin.utils.FieldSelection;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Payload of book list endpoints, chosen with ?view=full|summary.
+ */
+public enum BookView {
+    // Every field, as returned by the book detail endpoint
+    FULL,
+    // Card fields only, read with a projection query
+    SUMMARY;
+
+    /**
+     * An explicit view wins. Otherwise a ?fields= selection that only asks for card fields is served
+     * from the summary projection, so the database reads as little as the response needs.
+     */
+    public static BookView resolve(String value) {
+        if (value != null && !value.isBlank()) {
+            return from(value);
+        }
+        Set<String> fields = FieldSelection.requested();
+        return !fields.isEmpty() && BookSummaryResponse.FIELDS.containsAll(fields) ? SUMMARY : FULL;
+    }
+
+    public static BookView from(String value) {
+        try {
+            return BookView.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown view: " + value + " (expected full or summary)");
+        }
+    }
+}
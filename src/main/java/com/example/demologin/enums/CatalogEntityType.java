@@ -0,0 +1,9 @@
+package com.example.demologin.enums;
+
+/**
+ * Kind of catalog row recorded in the change feed.
+ */
+public enum CatalogEntityType {
+    BOOK,
+    CATEGORY
+}
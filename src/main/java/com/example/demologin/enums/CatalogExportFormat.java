@@ -0,0 +1,39 @@
+package com.example.demologin.enums;
+
+import com.example.demologin.exception.exceptions.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * File formats of the full catalog export, chosen with ?format=json|binary.
+ */
+public enum CatalogExportFormat {
+    // Gzip-compressed JSON document, sent as is to clients accepting gzip
+    JSON(".json.gz", "application/json"),
+    // Length-prefixed big-endian records, see CatalogExportWriter
+    BINARY(".bin", "application/octet-stream");
+
+    private final String extension;
+    private final String mediaType;
+
+    CatalogExportFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static CatalogExportFormat from(String value) {
+        try {
+            return CatalogExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown format: " + value + " (expected json or binary)");
+        }
+    }
+}
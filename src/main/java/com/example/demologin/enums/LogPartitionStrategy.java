@@ -0,0 +1,12 @@
+package com.example.demologin.enums;
+
+public enum LogPartitionStrategy {
+    // user_activity_logs is RANGE COLUMNS(timestamp) partitioned (MySQL)
+    MYSQL_NATIVE,
+
+    // user_activity_logs is a declaratively partitioned parent table (PostgreSQL)
+    POSTGRES_NATIVE,
+
+    // Plain table: retained months stay in it and expired months are deleted in id chunks
+    CHUNKED_DELETE
+}
@@ -0,0 +1,13 @@
+package com.example.demologin.enums;
+
+/**
+ * How a paged endpoint fills totalElements / totalPages.
+ */
+public enum PageCountMode {
+    // COUNT(*) for every request
+    EXACT,
+    // Table statistics or a cached count refreshed in the background
+    ESTIMATED,
+    // No count: totals only cover the rows seen so far plus one when there is a next page
+    NONE
+}
@@ -0,0 +1,7 @@
+package com.example.demologin.enums;
+
+public enum StockAdjustmentStatus {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK
+}
@@ -0,0 +1,10 @@
+package com.example.demologin.event;
+
+import java.util.List;
+
+/**
+ * Published once for a bulk write of many books (stock adjustments, imports) instead of one BookChangedEvent
+ * per book. Carries no book state: listeners that keep books in memory read the listed books back after commit.
+ */
+public record BookBatchChangedEvent(List<Long> bookIds) {
+}
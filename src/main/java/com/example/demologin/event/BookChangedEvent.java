@@ -0,0 +1,36 @@
+package com.example.demologin.event;
+
+import com.example.demologin.dto.response.BookResponse;
+
+/**
+ * Published by BookServiceImpl and BookStockServiceImpl whenever a book is written. Listeners that keep
+ * in-memory views of the catalog apply it after the transaction commits.
+ *
+ * @param book       state after the change, or null when the book was deleted or only its stock changed
+ * @param stockDelta for stock-only changes, the amount added to (or taken off) the stock; 0 otherwise
+ */
+public record BookChangedEvent(Long bookId, BookResponse book, int stockDelta) {
+
+    public static BookChangedEvent saved(BookResponse book) {
+        return new BookChangedEvent(book.getBookId(), book, 0);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(bookId, null, 0);
+    }
+
+    /**
+     * Stock updated in place with a conditional UPDATE; the rest of the book is unchanged.
+     */
+    public static BookChangedEvent stockChanged(Long bookId, int stockDelta) {
+        return new BookChangedEvent(bookId, null, stockDelta);
+    }
+
+    public boolean isDeleted() {
+        return book == null && stockDelta == 0;
+    }
+
+    public boolean isStockChange() {
+        return book == null && stockDelta != 0;
+    }
+}
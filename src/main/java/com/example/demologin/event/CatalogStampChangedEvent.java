@@ -0,0 +1,12 @@
+package com.example.demologin.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the catalog version poll when the stamp of the book or category table has moved, whichever
+ * node wrote. Node-local views refresh from it before the shared ETag moves, so no node hands out old bodies
+ * under a new version. booksUpdatedSince is the latest updatedAt of the previous poll, null if there was none.
+ */
+public record CatalogStampChangedEvent(long bookCount, LocalDateTime booksUpdatedSince, boolean booksChanged,
+                                       boolean categoriesChanged) {
+}
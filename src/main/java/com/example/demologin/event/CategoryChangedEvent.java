@@ -0,0 +1,7 @@
+package com.example.demologin.event;
+
+/**
+ * Published by CategoryServiceImpl whenever a category is created, updated, toggled or deleted.
+ */
+public record CategoryChangedEvent(Long categoryId) {
+}
@@ -0,0 +1,7 @@
+package com.example.demologin.event;
+
+/**
+ * Published by RoleServiceImpl whenever a role is renamed, deleted or given other permissions.
+ */
+public record RoleChangedEvent(Long roleId) {
+}
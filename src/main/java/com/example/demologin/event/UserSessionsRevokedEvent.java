@@ -0,0 +1,7 @@
+package com.example.demologin.event;
+
+/**
+ * Published by SessionManagementServiceImpl when a user logs out from all devices.
+ */
+public record UserSessionsRevokedEvent(Long userId) {
+}
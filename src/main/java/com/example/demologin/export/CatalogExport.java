@@ -0,0 +1,19 @@
+package com.example.demologin.export;
+
+import com.example.demologin.enums.CatalogExportFormat;
+
+import java.nio.file.Path;
+
+/**
+ * One generation of the catalog export files on disk. Every generation has its own file names, so a file
+ * that is being sent is never replaced underneath the transfer.
+ */
+public record CatalogExport(Path directory, String generation, String etag, long lastModified,
+                            int categoryCount, int bookCount) {
+
+    public static final String FILE_PREFIX = "catalog-";
+
+    public Path file(CatalogExportFormat format) {
+        return directory.resolve(FILE_PREFIX + generation + format.getExtension());
+    }
+}
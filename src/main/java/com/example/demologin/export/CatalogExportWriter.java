@@ -0,0 +1,160 @@
+package com.example.demologin.export;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CategoryResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the public catalog export files.
+ *
+ * JSON (gzip): {"version", "generatedAt", "categories": [CategoryResponse...], "books": [BookResponse...]}.
+ *
+ * Binary layout (big endian); str is an int byte length (-1 for null) followed by UTF-8 bytes:
+ * <pre>
+ * int    magic, int version, long generatedAt (epoch millis), str catalogVersion
+ * int    categoryCount, categoryCount x (long categoryId, str name, str description)
+ * int    bookCount, bookCount x (long bookId, long categoryId (-1 if none), long priceCents, int stockQuantity,
+ *        int pages (-1 if unknown), long publishedDate (epoch day, Long.MIN_VALUE if unknown),
+ *        str title, str author, str isbn, str publisher, str language, str description)
+ * </pre>
+ * Both files are written to a temporary name and moved into place, so readers never see a partial file.
+ */
+public final class CatalogExportWriter {
+
+    public static final int MAGIC = 0x424B4558; // "BKEX"
+    public static final int VERSION = 1;
+
+    private CatalogExportWriter() {
+    }
+
+    public static void writeJson(Path target, ObjectMapper objectMapper, String catalogVersion, long generatedAt,
+                                 List<CategoryResponse> categories, List<BookResponse> books) throws IOException {
+        writeAtomically(target, out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            };
+            try (JsonGenerator generator = objectMapper.createGenerator(gzip)) {
+                generator.writeStartObject();
+                generator.writeStringField("version", catalogVersion);
+                generator.writeStringField("generatedAt", Instant.ofEpochMilli(generatedAt).toString());
+                generator.writeArrayFieldStart("categories");
+                for (CategoryResponse category : categories) {
+                    generator.writeObject(category);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("books");
+                for (BookResponse book : books) {
+                    generator.writeObject(book);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        });
+    }
+
+    public static void writeBinary(Path target, String catalogVersion, long generatedAt,
+                                   List<CategoryResponse> categories, List<BookResponse> books) throws IOException {
+        writeAtomically(target, out -> {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeLong(generatedAt);
+            writeString(data, catalogVersion);
+
+            data.writeInt(categories.size());
+            for (CategoryResponse category : categories) {
+                data.writeLong(category.getCategoryId());
+                writeString(data, category.getName());
+                writeString(data, category.getDescription());
+            }
+
+            data.writeInt(books.size());
+            for (BookResponse book : books) {
+                data.writeLong(book.getBookId());
+                data.writeLong(book.getCategoryId() == null ? -1 : book.getCategoryId());
+                data.writeLong(toCents(book.getPrice()));
+                data.writeInt(book.getStockQuantity() == null ? 0 : book.getStockQuantity());
+                data.writeInt(book.getPages() == null ? -1 : book.getPages());
+                data.writeLong(book.getPublishedDate() == null ? Long.MIN_VALUE : book.getPublishedDate().toEpochDay());
+                writeString(data, book.getTitle());
+                writeString(data, book.getAuthor());
+                writeString(data, book.getIsbn());
+                writeString(data, book.getPublisher());
+                writeString(data, book.getLanguage());
+                writeString(data, book.getDescription());
+            }
+            data.flush();
+        });
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static void writeAtomically(Path target, FileBody body) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            body.write(new NonClosingOutputStream(out));
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    private interface FileBody {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // Lets the body close its own streams (finishing gzip) while the channel stays open for force()
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
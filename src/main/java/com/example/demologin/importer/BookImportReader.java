@@ -0,0 +1,157 @@
+package com.example.demologin.importer;
+
+import com.example.demologin.enums.BookImportFormat;
+import com.example.demologin.exception.exceptions.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an import stream into records, a chunk at a time, without holding more than one chunk.
+ *
+ * Only the record boundaries are found here (quotes may hide line breaks, so this part is sequential);
+ * converting and validating the records is left to BookImportRowMapper, which can run chunks in parallel.
+ * CSV follows RFC 4180: comma separated, fields optionally in double quotes, "" for a quote inside quotes.
+ * Blank lines are skipped in both formats.
+ */
+public final class BookImportReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final BookImportFormat format;
+    private final StringBuilder field = new StringBuilder();
+    private String[] header;
+    // Lines consumed so far
+    private long line;
+
+    private BookImportReader(BufferedReader reader, BookImportFormat format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * Opens the stream; for CSV the header row is read right away, so a missing header fails before any work.
+     */
+    public static BookImportReader open(InputStream in, BookImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        // Byte order mark, as spreadsheet programs write it
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        BookImportReader importReader = new BookImportReader(reader, format);
+        if (format == BookImportFormat.CSV) {
+            ImportRow header = importReader.readCsvRecord();
+            if (header == null) {
+                throw new BadRequestException("Import file is empty, expected a CSV header row");
+            }
+            importReader.header = header.fields();
+        }
+        return importReader;
+    }
+
+    /**
+     * CSV column names as given in the header row; null for NDJSON.
+     */
+    public String[] header() {
+        return header;
+    }
+
+    /**
+     * Up to max records; empty at the end of the stream.
+     */
+    public List<ImportRow> nextChunk(int max) throws IOException {
+        List<ImportRow> rows = new ArrayList<>(max);
+        while (rows.size() < max) {
+            ImportRow row = format == BookImportFormat.CSV ? readCsvRecord() : readJsonLine();
+            if (row == null) {
+                break;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private ImportRow readJsonLine() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (!text.isBlank()) {
+                return new ImportRow(line, null, text);
+            }
+        }
+        return null;
+    }
+
+    private ImportRow readCsvRecord() throws IOException {
+        int c = reader.read();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                line++;
+            }
+            c = reader.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        long start = line + 1;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new EOFException("Unterminated quoted field in the record on line " + start);
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return new ImportRow(start, fields.toArray(String[]::new), null);
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demologin.importer;
+
+import com.example.demologin.dto.request.book.CreateBookRequest;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Turns import records into CreateBookRequest objects. Stateless after construction, so one instance
+ * serves all parsing threads.
+ *
+ * CSV columns are matched to CreateBookRequest fields ignoring case, underscores, dashes and spaces
+ * (stock_quantity, Stock Quantity and stockQuantity are the same column). Empty fields are null.
+ * A record that cannot be converted fails with IllegalArgumentException naming the field.
+ */
+public final class BookImportRowMapper {
+
+    private static final Map<String, BiConsumer<CreateBookRequest, String>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("title", CreateBookRequest::setTitle);
+        COLUMNS.put("author", CreateBookRequest::setAuthor);
+        COLUMNS.put("isbn", CreateBookRequest::setIsbn);
+        COLUMNS.put("description", CreateBookRequest::setDescription);
+        COLUMNS.put("price", (request, value) -> request.setPrice(convert("price", value, BigDecimal::new)));
+        COLUMNS.put("stockquantity", (request, value) -> request.setStockQuantity(convert("stockQuantity", value, Integer::valueOf)));
+        COLUMNS.put("isavailable", (request, value) -> request.setIsAvailable(convert("isAvailable", value, BookImportRowMapper::parseBoolean)));
+        COLUMNS.put("publisheddate", (request, value) -> request.setPublishedDate(convert("publishedDate", value, LocalDate::parse)));
+        COLUMNS.put("publisher", CreateBookRequest::setPublisher);
+        COLUMNS.put("pages", (request, value) -> request.setPages(convert("pages", value, Integer::valueOf)));
+        COLUMNS.put("language", CreateBookRequest::setLanguage);
+        COLUMNS.put("categoryid", (request, value) -> request.setCategoryId(convert("categoryId", value, Long::valueOf)));
+    }
+
+    private final ObjectMapper objectMapper;
+    // Setter per CSV column position; null for NDJSON
+    private final BiConsumer<CreateBookRequest, String>[] setters;
+
+    private BookImportRowMapper(ObjectMapper objectMapper, BiConsumer<CreateBookRequest, String>[] setters) {
+        this.objectMapper = objectMapper;
+        this.setters = setters;
+    }
+
+    public static BookImportRowMapper forJson(ObjectMapper objectMapper) {
+        return new BookImportRowMapper(objectMapper, null);
+    }
+
+    /**
+     * Throws BadRequestException for unknown or repeated columns, before any record is read.
+     */
+    @SuppressWarnings("unchecked")
+    public static BookImportRowMapper forCsv(String[] header) {
+        BiConsumer<CreateBookRequest, String>[] setters = new BiConsumer[header.length];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < header.length; i++) {
+            String column = normalize(header[i]);
+            setters[i] = COLUMNS.get(column);
+            if (setters[i] == null) {
+                throw new BadRequestException("Unknown import column: " + header[i].trim()
+                        + " (expected " + String.join(", ", COLUMNS.keySet()) + ")");
+            }
+            if (!seen.add(column)) {
+                throw new BadRequestException("Duplicate import column: " + header[i].trim());
+            }
+        }
+        return new BookImportRowMapper(null, setters);
+    }
+
+    public CreateBookRequest map(ImportRow row) {
+        if (setters == null) {
+            try {
+                return objectMapper.readValue(row.json(), CreateBookRequest.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        String[] fields = row.fields();
+        if (fields.length != setters.length) {
+            throw new IllegalArgumentException("Expected " + setters.length + " fields, found " + fields.length);
+        }
+        CreateBookRequest request = new CreateBookRequest();
+        for (int i = 0; i < fields.length; i++) {
+            String value = fields[i].isBlank() ? null : fields[i].trim();
+            setters[i].accept(request, value);
+        }
+        return request;
+    }
+
+    private static String normalize(String column) {
+        return column.trim().toLowerCase(Locale.ROOT).replaceAll("[_\\-\\s]", "");
+    }
+
+    private static <T> T convert(String field, String value, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> Boolean.TRUE;
+            case "false", "no", "0" -> Boolean.FALSE;
+            default -> throw new NumberFormatException(value);
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demologin.importer;
+
+/**
+ * One record of an import file, split but not yet converted: CSV fields, or the JSON text of an NDJSON line.
+ * line is where the record starts in the file (1-based), for error reports.
+ */
+public record ImportRow(long line, String[] fields, String json) {
+}
@@ -13,6 +13,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Book Management Data Initializer
@@ -111,6 +112,9 @@ public class BookManagementDataInitializer {
         );
         
         bookRepository.saveAll(books);
+        books.stream()
+            .collect(Collectors.groupingBy(book -> book.getCategory().getCategoryId(), Collectors.counting()))
+            .forEach((categoryId, count) -> categoryRepository.adjustBookCount(categoryId, count.intValue()));
         return books.size();
     }
     
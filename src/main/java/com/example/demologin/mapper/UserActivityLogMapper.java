@@ -1,7 +1,9 @@
 package com.example.demologin.mapper;
 
 import com.example.demologin.dto.response.UserActivityLogResponse;
+import com.example.demologin.entity.LoginHistoryEntry;
 import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
 import com.example.demologin.repository.UserRepository;
 import com.example.demologin.utils.LocationUtil;
 import com.example.demologin.utils.UserAgentUtil;
@@ -50,34 +52,65 @@ public class UserActivityLogMapper {
         response.setCountryCode(log.getCountryCode());
         
         // Format device info for display
-        if (log.getBrowser() != null && log.getOperatingSystem() != null) {
-            UserAgentUtil.DeviceInfo deviceInfo = new UserAgentUtil.DeviceInfo(
-                log.getBrowser(), 
-                log.getBrowserVersion(), 
-                log.getOperatingSystem(), 
-                log.getDevice(), 
-                log.getDeviceType()
-            );
-            response.setDeviceInfo(UserAgentUtil.formatDeviceInfo(deviceInfo));
-        }
-        
+        response.setDeviceInfo(formatDeviceInfo(log.getBrowser(), log.getBrowserVersion(),
+                log.getOperatingSystem(), log.getDevice(), log.getDeviceType()));
+
         // Format location for display
-        if (log.getCity() != null && log.getCountry() != null) {
-            LocationUtil.LocationInfo locationInfo = new LocationUtil.LocationInfo(
-                log.getCity(), 
-                log.getRegion(), 
-                log.getCountry(), 
-                log.getCountryCode()
-            );
-            response.setLocation(LocationUtil.formatLocationInfo(locationInfo));
-        }
+        response.setLocation(formatLocation(log.getCity(), log.getRegion(), log.getCountry(), log.getCountryCode()));
         
         return response;
     }
 
+    /**
+     * Maps a login history entry without looking the user up again; the caller already knows who it belongs to.
+     */
+    public UserActivityLogResponse toResponse(LoginHistoryEntry entry, String fullName) {
+        UserActivityLogResponse response = new UserActivityLogResponse();
+        response.setId(entry.getActivityLogId());
+        response.setActivityType(ActivityType.LOGIN_ATTEMPT);
+        response.setUserId(entry.getId().getUserId());
+        response.setFullName(fullName);
+        response.setTimestamp(entry.getLoginAt());
+        response.setStatus(entry.getStatus());
+        response.setIpAddress(entry.getIpAddress());
+        response.setUserAgent(entry.getUserAgent());
+
+        response.setBrowser(entry.getBrowser());
+        response.setBrowserVersion(entry.getBrowserVersion());
+        response.setOperatingSystem(entry.getOperatingSystem());
+        response.setDevice(entry.getDevice());
+        response.setDeviceType(entry.getDeviceType());
+
+        response.setCity(entry.getCity());
+        response.setRegion(entry.getRegion());
+        response.setCountry(entry.getCountry());
+        response.setCountryCode(entry.getCountryCode());
+
+        response.setDeviceInfo(formatDeviceInfo(entry.getBrowser(), entry.getBrowserVersion(),
+                entry.getOperatingSystem(), entry.getDevice(), entry.getDeviceType()));
+        response.setLocation(formatLocation(entry.getCity(), entry.getRegion(), entry.getCountry(), entry.getCountryCode()));
+        return response;
+    }
+
     public List<UserActivityLogResponse> toResponseList(List<UserActivityLog> logs) {
         return logs.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
+
+    private String formatDeviceInfo(String browser, String browserVersion, String operatingSystem,
+                                    String device, String deviceType) {
+        if (browser == null || operatingSystem == null) {
+            return null;
+        }
+        return UserAgentUtil.formatDeviceInfo(
+                new UserAgentUtil.DeviceInfo(browser, browserVersion, operatingSystem, device, deviceType));
+    }
+
+    private String formatLocation(String city, String region, String country, String countryCode) {
+        if (city == null || country == null) {
+            return null;
+        }
+        return LocationUtil.formatLocationInfo(new LocationUtil.LocationInfo(city, region, country, countryCode));
+    }
 }
@@ -0,0 +1,189 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
+import com.example.demologin.enums.LogPartitionStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC access to the physical layout of user_activity_logs.
+ *
+ * Native partitioning has to be set up once by a DBA (see resources/db/partitioning);
+ * after that this repository only adds upcoming monthly partitions and drops expired ones.
+ * On a plain table every retained month stays in the hot table, where all read paths look, and
+ * expired months are deleted in chunks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ActivityLogPartitionRepository {
+
+    public static final String HOT_TABLE = "user_activity_logs";
+    private static final String PG_PARTITION_PREFIX = HOT_TABLE + "_p";
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern MONTH_SUFFIX_PATTERN = Pattern.compile("(\\d{6})$");
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LogPartitionStrategy detectStrategy() {
+        String product = databaseProductName();
+        if (product.contains("mysql") || product.contains("mariadb")) {
+            Integer partitions = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                    Integer.class, HOT_TABLE);
+            return partitions != null && partitions > 0 ? LogPartitionStrategy.MYSQL_NATIVE : LogPartitionStrategy.CHUNKED_DELETE;
+        }
+        if (product.contains("postgresql")) {
+            Integer partitioned = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                    "WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                    Integer.class, HOT_TABLE);
+            return partitioned != null && partitioned > 0 ? LogPartitionStrategy.POSTGRES_NATIVE : LogPartitionStrategy.CHUNKED_DELETE;
+        }
+        return LogPartitionStrategy.CHUNKED_DELETE;
+    }
+
+    /**
+     * Months currently held as a native partition; a plain table has none.
+     */
+    public List<YearMonth> findMonthlySegments(LogPartitionStrategy strategy) {
+        List<String> names = switch (strategy) {
+            case MYSQL_NATIVE -> jdbcTemplate.queryForList(
+                    "SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                    String.class, HOT_TABLE);
+            case POSTGRES_NATIVE -> jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_inherits i " +
+                    "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                    "WHERE p.relname = ? AND pg_table_is_visible(p.oid)",
+                    String.class, HOT_TABLE);
+            case CHUNKED_DELETE -> List.of();
+        };
+
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = MONTH_SUFFIX_PATTERN.matcher(name);
+            if (matcher.find()) {
+                months.add(YearMonth.parse(matcher.group(1), MONTH_SUFFIX));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    public void createMonthlyPartition(LogPartitionStrategy strategy, YearMonth month) {
+        String upperBound = month.plusMonths(1).atDay(1).atStartOfDay().toString().replace('T', ' ');
+        switch (strategy) {
+            case MYSQL_NATIVE -> {
+                String partition = "p" + month.format(MONTH_SUFFIX);
+                boolean hasCatchAll = jdbcTemplate.queryForList(
+                        "SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME = 'pmax'",
+                        String.class, HOT_TABLE).size() > 0;
+                if (hasCatchAll) {
+                    jdbcTemplate.execute("ALTER TABLE " + HOT_TABLE + " REORGANIZE PARTITION pmax INTO (" +
+                            "PARTITION " + partition + " VALUES LESS THAN ('" + upperBound + "'), " +
+                            "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+                } else {
+                    jdbcTemplate.execute("ALTER TABLE " + HOT_TABLE + " ADD PARTITION (" +
+                            "PARTITION " + partition + " VALUES LESS THAN ('" + upperBound + "'))");
+                }
+            }
+            case POSTGRES_NATIVE -> {
+                String lowerBound = month.atDay(1).atStartOfDay().toString().replace('T', ' ');
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PG_PARTITION_PREFIX + month.format(MONTH_SUFFIX) +
+                        " PARTITION OF " + HOT_TABLE +
+                        " FOR VALUES FROM ('" + lowerBound + "') TO ('" + upperBound + "')");
+            }
+            case CHUNKED_DELETE -> throw new IllegalArgumentException("A plain table has no partitions");
+        }
+    }
+
+    /**
+     * Drops a whole month in one metadata operation - no row-by-row deletes.
+     */
+    public void dropMonthlySegment(LogPartitionStrategy strategy, YearMonth month) {
+        String suffix = month.format(MONTH_SUFFIX);
+        switch (strategy) {
+            case MYSQL_NATIVE -> jdbcTemplate.execute("ALTER TABLE " + HOT_TABLE + " DROP PARTITION p" + suffix);
+            case POSTGRES_NATIVE -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + PG_PARTITION_PREFIX + suffix);
+            case CHUNKED_DELETE -> throw new IllegalArgumentException("A plain table has no partitions");
+        }
+    }
+
+    public LocalDateTime findOldestHotTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + HOT_TABLE, LocalDateTime.class);
+    }
+
+    public List<Long> findHotIdsBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM " + HOT_TABLE + " WHERE timestamp >= ? AND timestamp < ? ORDER BY id LIMIT ?",
+                Long.class, from, to, limit);
+    }
+
+    /**
+     * Streams the rows of one table in [from, to) to the action in segment order: grouped by ascending
+     * user_id with null users last, each user's rows newest first. Used to copy a day into the cold archive.
+     */
+    public void streamLogsBetween(String table, LocalDateTime from, LocalDateTime to, Consumer<UserActivityLog> action) {
+        jdbcTemplate.query(con -> {
+                    PreparedStatement statement = con.prepareStatement("SELECT * FROM " + table +
+                            " WHERE timestamp >= ? AND timestamp < ?" +
+                            " ORDER BY CASE WHEN user_id IS NULL THEN 1 ELSE 0 END, user_id, timestamp DESC, id DESC");
+                    statement.setFetchSize(STREAM_FETCH_SIZE);
+                    statement.setObject(1, from);
+                    statement.setObject(2, to);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> action.accept(mapLog(rs)));
+    }
+
+    private static UserActivityLog mapLog(ResultSet rs) throws SQLException {
+        String activityType = rs.getString("activity_type");
+        return UserActivityLog.builder()
+                .id(rs.getLong("id"))
+                .activityType(activityType == null ? null : ActivityType.valueOf(activityType))
+                .userId(rs.getObject("user_id") == null ? null : rs.getLong("user_id"))
+                .fullName(rs.getString("full_name"))
+                .timestamp(rs.getTimestamp("timestamp").toLocalDateTime())
+                .status(rs.getString("status"))
+                .details(rs.getString("details"))
+                .ipAddress(rs.getString("ip_address"))
+                .userAgent(rs.getString("user_agent"))
+                .browser(rs.getString("browser"))
+                .browserVersion(rs.getString("browser_version"))
+                .operatingSystem(rs.getString("operating_system"))
+                .device(rs.getString("device"))
+                .deviceType(rs.getString("device_type"))
+                .city(rs.getString("city"))
+                .region(rs.getString("region"))
+                .country(rs.getString("country"))
+                .countryCode(rs.getString("country_code"))
+                .build();
+    }
+
+    private String databaseProductName() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return product == null ? "" : product.toLowerCase(Locale.ROOT);
+    }
+}
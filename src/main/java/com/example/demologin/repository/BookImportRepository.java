@@ -0,0 +1,64 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.dto.request.book.CreateBookRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserts imported books as one JDBC batch, skipping the persistence context and its per-entity overhead.
+ * Callers check ISBNs and categories beforehand; defaults follow the Book entity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookImportRepository {
+
+    private static final String INSERT_BOOK =
+            "INSERT INTO books (title, author, isbn, description, price, stock_quantity, is_available, " +
+            "published_date, publisher, pages, language, category_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(List<CreateBookRequest> books) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_BOOK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CreateBookRequest book = books.get(i);
+                ps.setString(1, book.getTitle());
+                ps.setString(2, book.getAuthor());
+                ps.setString(3, book.getIsbn());
+                ps.setString(4, book.getDescription());
+                ps.setBigDecimal(5, book.getPrice());
+                ps.setInt(6, book.getStockQuantity());
+                ps.setBoolean(7, book.getIsAvailable() == null || book.getIsAvailable());
+                if (book.getPublishedDate() != null) {
+                    ps.setDate(8, Date.valueOf(book.getPublishedDate()));
+                } else {
+                    ps.setNull(8, Types.DATE);
+                }
+                ps.setString(9, book.getPublisher());
+                ps.setInt(10, book.getPages() != null ? book.getPages() : 0);
+                ps.setString(11, book.getLanguage());
+                ps.setLong(12, book.getCategoryId());
+                ps.setTimestamp(13, now);
+                ps.setTimestamp(14, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return books.size();
+            }
+        });
+    }
+}
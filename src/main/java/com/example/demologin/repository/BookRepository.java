@@ -1,15 +1,26 @@
 package com.example.demologin.repository;
 
+import com.example.demologin.dto.response.BookSummaryResponse;
 import com.example.demologin.entity.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
     
@@ -25,14 +36,64 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     List<Book> findByStockQuantityGreaterThan(Integer quantity);
     
-    @Query("SELECT b FROM Book b WHERE " +
+    String FILTER_CONDITIONS =
            "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
            "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))) AND " +
            "(:categoryId IS NULL OR b.category.categoryId = :categoryId) AND " +
            "(:isAvailable IS NULL OR b.isAvailable = :isAvailable) AND " +
            "(:minPrice IS NULL OR b.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR b.price <= :maxPrice)")
-    Page<Book> findBooksByFilters(
+           "(:maxPrice IS NULL OR b.price <= :maxPrice)";
+
+    // Slice only; the total is resolved by PageCountService with countBooksByFilters
+    @Query("SELECT b FROM Book b WHERE " + FILTER_CONDITIONS)
+    Slice<Book> findBooksByFilters(
+            @Param("title") String title,
+            @Param("author") String author,
+            @Param("categoryId") Long categoryId,
+            @Param("isAvailable") Boolean isAvailable,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            Pageable pageable);
+
+    @Query("SELECT b.bookId FROM Book b ORDER BY b.bookId")
+    List<Long> findAllBookIds();
+
+    // Set-based ISBN lookups for imports, one query per chunk
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT b.bookId FROM Book b WHERE b.isbn IN :isbns")
+    List<Long> findIdsByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    long countByIsbnIsNotNull();
+
+    // Every ISBN through a cursor, for the ISBN filter
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IS NOT NULL")
+    Stream<String> streamAllIsbns();
+
+    // [count, latest updatedAt, total stock] of all books; polled for the catalog version shared by all nodes
+    @Query("SELECT COUNT(b), MAX(b.updatedAt), COALESCE(SUM(b.stockQuantity), 0) FROM Book b")
+    List<Object[]> findCatalogStamp();
+
+    // Whole catalog through a cursor, for in-memory views that are rebuilt from scratch
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Book> streamAllBy();
+
+    // Books written since a time, for in-memory views catching up with writes of other nodes
+    @Query("SELECT b FROM Book b WHERE b.updatedAt >= :since")
+    List<Book> findUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT b.bookId FROM Book b WHERE b.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.updatedAt >= :since AND b.isbn IS NOT NULL")
+    List<String> findIsbnsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Streamed variant for large pages; see PageCountService
+    @Query("SELECT b FROM Book b WHERE " + FILTER_CONDITIONS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Book> streamBooksByFilters(
             @Param("title") String title,
             @Param("author") String author,
             @Param("categoryId") Long categoryId,
@@ -40,7 +101,70 @@ public interface BookRepository extends JpaRepository<Book, Long> {
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
             Pageable pageable);
+
+    // Card fields only: no description, no Book entities in the persistence context
+    String SUMMARY_SELECT =
+           "SELECT new com.example.demologin.dto.response.BookSummaryResponse(" +
+           "b.bookId, b.title, b.author, b.isbn, b.price, b.stockQuantity, b.isAvailable, b.category.categoryId) " +
+           "FROM Book b";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookSummaryResponse> findAllSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE b.category.categoryId = :categoryId",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE b.category.categoryId = :categoryId")
+    Page<BookSummaryResponse> findSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE " + FILTER_CONDITIONS)
+    Slice<BookSummaryResponse> findBookSummariesByFilters(
+            @Param("title") String title,
+            @Param("author") String author,
+            @Param("categoryId") Long categoryId,
+            @Param("isAvailable") Boolean isAvailable,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Book b WHERE " + FILTER_CONDITIONS)
+    long countBooksByFilters(
+            @Param("title") String title,
+            @Param("author") String author,
+            @Param("categoryId") Long categoryId,
+            @Param("isAvailable") Boolean isAvailable,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice);
     
     @Query("SELECT COUNT(b) FROM Book b WHERE b.category.categoryId = :categoryId")
     Long countBooksByCategory(@Param("categoryId") Long categoryId);
-}
\ No newline at end of file
+    
+    // [categoryId, count] for every category with books, in one pass
+    @Query("SELECT b.category.categoryId, COUNT(b) FROM Book b GROUP BY b.category.categoryId")
+    List<Object[]> countBooksPerCategory();
+    
+    // Check and decrement in one statement: concurrent checkouts cannot both take the last copy.
+    // Books with sharded stock never match; their stock lives in book_stock_slots.
+    @Modifying
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity - :quantity, b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.bookId = :bookId AND b.stockQuantity >= :quantity AND b.stockSlots IS NULL")
+    int decreaseStockIfAvailable(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity + :quantity, b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.bookId = :bookId AND b.stockSlots IS NULL")
+    int increaseStock(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+    
+    @Query("SELECT b.stockQuantity FROM Book b WHERE b.bookId = :bookId")
+    Optional<Integer> findStockQuantity(@Param("bookId") Long bookId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.bookId = :bookId")
+    Optional<Book> lockById(@Param("bookId") Long bookId);
+    
+    List<Book> findByStockSlotsIsNotNull();
+    
+    // Writes the sum of the slots back to a sharded book; a no-op while it is already current
+    @Modifying
+    @Query("UPDATE Book b SET b.stockQuantity = :quantity, b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.bookId = :bookId AND b.stockSlots IS NOT NULL AND b.stockQuantity <> :quantity")
+    int syncShardedStock(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+}
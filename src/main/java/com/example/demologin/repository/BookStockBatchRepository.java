@@ -0,0 +1,73 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.dto.request.book.StockAdjustmentItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Stock adjustments of many books as one JDBC batch of conditional UPDATE statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookStockBatchRepository {
+
+    // new stock = base + factor * stock: (delta, 1) adds a delta, (quantity, 0) sets an absolute quantity.
+    // One statement shape for both keeps the whole request in a single batch. Sharded books are left alone.
+    private static final String ADJUST_STOCK =
+            "UPDATE books SET stock_quantity = ? + ? * stock_quantity, updated_at = ? " +
+            "WHERE book_id = ? AND stock_slots IS NULL AND ? + ? * stock_quantity >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Update count per item, in order: 1 when applied, 0 when the book is missing, sharded or short of stock.
+     *
+     * The statements run in ascending book id, so concurrent batches lock their rows in the same order and
+     * cannot deadlock; items of the same book keep their order.
+     */
+    public int[] adjustStock(List<StockAdjustmentItem> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Stable sort: request index of each statement
+        Integer[] order = new Integer[items.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> items.get(i).getBookId()));
+
+        int[] executed = jdbcTemplate.batchUpdate(ADJUST_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockAdjustmentItem item = items.get(order[i]);
+                int base = item.isAbsolute() ? item.getQuantity() : item.getDelta();
+                int factor = item.isAbsolute() ? 0 : 1;
+                ps.setInt(1, base);
+                ps.setInt(2, factor);
+                ps.setTimestamp(3, now);
+                ps.setLong(4, item.getBookId());
+                ps.setInt(5, base);
+                ps.setInt(6, factor);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+
+        int[] counts = new int[executed.length];
+        for (int i = 0; i < executed.length; i++) {
+            counts[order[i]] = executed[i];
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.entity.BookStockSlot;
+import com.example.demologin.entity.BookStockSlotId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookStockSlotRepository extends JpaRepository<BookStockSlot, BookStockSlotId> {
+
+    @Modifying
+    @Query("UPDATE BookStockSlot s SET s.quantity = s.quantity - :quantity " +
+           "WHERE s.id.bookId = :bookId AND s.id.slot = :slot AND s.quantity >= :quantity")
+    int decreaseIfAvailable(@Param("bookId") Long bookId, @Param("slot") int slot, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE BookStockSlot s SET s.quantity = s.quantity + :quantity " +
+           "WHERE s.id.bookId = :bookId AND s.id.slot = :slot")
+    int increase(@Param("bookId") Long bookId, @Param("slot") int slot, @Param("quantity") int quantity);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM BookStockSlot s WHERE s.id.bookId = :bookId")
+    long sumQuantity(@Param("bookId") Long bookId);
+
+    // Indexed by slot; a projection, so managed slots are not loaded stale next to the bulk updates above
+    @Query("SELECT s.quantity FROM BookStockSlot s WHERE s.id.bookId = :bookId ORDER BY s.id.slot")
+    List<Integer> findQuantities(@Param("bookId") Long bookId);
+
+    // Every slot of the book, locked; for moves across slots
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookStockSlot s WHERE s.id.bookId = :bookId ORDER BY s.id.slot")
+    List<BookStockSlot> lockSlots(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("DELETE FROM BookStockSlot s WHERE s.id.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+}
@@ -0,0 +1,26 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.entity.CatalogChange;
+import com.example.demologin.enums.CatalogEntityType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT c FROM CatalogChange c WHERE c.id > :cursor AND c.changedAt <= :settledBefore ORDER BY c.id")
+    List<CatalogChange> findChangesAfter(@Param("cursor") long cursor,
+                                         @Param("settledBefore") LocalDateTime settledBefore,
+                                         Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.entityType = :entityType AND c.entityId = :entityId")
+    int deleteByEntity(@Param("entityType") CatalogEntityType entityType, @Param("entityId") Long entityId);
+}
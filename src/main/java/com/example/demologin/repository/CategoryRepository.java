@@ -1,9 +1,12 @@
 package com.example.demologin.repository;
 
 import com.example.demologin.entity.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -22,6 +25,31 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     List<Category> findByIsActiveOrderByName(Boolean isActive);
     
+    @Query("SELECT c.categoryId FROM Category c ORDER BY c.categoryId")
+    List<Long> findAllCategoryIds();
+    
+    // Book writes hold the category row until commit; callers changing two categories go in id order
+    @Modifying
+    @Query("UPDATE Category c SET c.bookCount = c.bookCount + :delta WHERE c.categoryId = :categoryId")
+    int adjustBookCount(@Param("categoryId") Long categoryId, @Param("delta") int delta);
+    
+    @Modifying
+    @Query("UPDATE Category c SET c.bookCount = :bookCount WHERE c.categoryId = :categoryId")
+    int setBookCount(@Param("categoryId") Long categoryId, @Param("bookCount") int bookCount);
+    
+    // [count, latest updatedAt] of all categories; polled for the catalog version shared by all nodes
+    @Query("SELECT COUNT(c), MAX(c.updatedAt) FROM Category c")
+    List<Object[]> findCatalogStamp();
+    
+    // [categoryId, bookCount, updatedAt] of every category; polled by the category registry to see other nodes' writes
+    @Query("SELECT c.categoryId, c.bookCount, c.updatedAt FROM Category c")
+    List<Object[]> findRegistryStamps();
+    
+    // All categories, locked in id order, so no book write can move a count while it is recomputed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c ORDER BY c.categoryId")
+    List<Category> lockAll();
+    
     @Query("SELECT c FROM Category c WHERE " +
            "(:name IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
            "(:isActive IS NULL OR c.isActive = :isActive)")
@@ -0,0 +1,21 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.entity.LoginHistoryEntry;
+import com.example.demologin.entity.LoginHistoryEntryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LoginHistoryEntryRepository extends JpaRepository<LoginHistoryEntry, LoginHistoryEntryId> {
+
+    List<LoginHistoryEntry> findByIdUserIdOrderByLoginAtDesc(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM LoginHistoryEntry h WHERE h.id.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,10 +1,15 @@
 package com.example.demologin.repository;
 
 import com.example.demologin.entity.Permission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
 import java.util.Optional;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Permission> findByCode(String code);
     boolean existsByCode(String code);
 } 
@@ -0,0 +1,21 @@
+package com.example.demologin.repository;
+
+import com.example.demologin.entity.StockReservationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StockReservationCheckpointRepository extends JpaRepository<StockReservationCheckpoint, String> {
+
+    // Forward only: write-offs of one node commit in any order
+    @Modifying
+    @Query("UPDATE StockReservationCheckpoint c SET c.generation = :generation, c.updatedAt = :updatedAt " +
+           "WHERE c.journal = :journal AND c.generation < :generation")
+    int advance(@Param("journal") String journal, @Param("generation") long generation,
+                @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -2,31 +2,49 @@ package com.example.demologin.repository;
 
 import com.example.demologin.entity.UserActivityLog;
 import com.example.demologin.enums.ActivityType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface UserActivityLogRepository extends JpaRepository<UserActivityLog, Long> {
     
     // Find by user ID
     Page<UserActivityLog> findByUserIdOrderByTimestampDesc(Long userId, Pageable pageable);
     
+    // Unfiltered, without the count query; see PageCountService
+    Slice<UserActivityLog> findAllBy(Pageable pageable);
+
+    // Same rows read through a cursor for streamed pages; on MySQL the fetch size relies on useCursorFetch (application.properties)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<UserActivityLog> streamAllBy(Pageable pageable);
+
     // Find by activity type
-    Page<UserActivityLog> findByActivityTypeOrderByTimestampDesc(ActivityType activityType, Pageable pageable);
+    Slice<UserActivityLog> findByActivityTypeOrderByTimestampDesc(ActivityType activityType, Pageable pageable);
+
+    long countByActivityType(ActivityType activityType);
     
     // Find by status
     Page<UserActivityLog> findByStatusOrderByTimestampDesc(String status, Pageable pageable);
     
     // Find by date range
     @Query("SELECT u FROM UserActivityLog u WHERE u.timestamp BETWEEN :startTime AND :endTime ORDER BY u.timestamp DESC")
-    Page<UserActivityLog> findByTimestampBetween(@Param("startTime") LocalDateTime startTime, 
-                                                @Param("endTime") LocalDateTime endTime, 
-                                                Pageable pageable);
+    Slice<UserActivityLog> findByTimestampBetween(@Param("startTime") LocalDateTime startTime, 
+                                                 @Param("endTime") LocalDateTime endTime, 
+                                                 Pageable pageable);
+
+    long countByTimestampBetween(LocalDateTime startTime, LocalDateTime endTime);
     
     @Query("SELECT u FROM UserActivityLog u WHERE u.timestamp BETWEEN :startTime AND :endTime ORDER BY u.timestamp DESC")
     List<UserActivityLog> findByTimestampBetween(@Param("startTime") LocalDateTime startTime, 
@@ -63,6 +81,12 @@ public interface UserActivityLogRepository extends JpaRepository<UserActivityLog
     Page<UserActivityLog> findByUserIdAndActivityTypeOrderByTimestampDesc(
         Long userId, ActivityType activityType, Pageable pageable);
 
-    void deleteByUserId(Long userId);
+    // Id chunks for set-based purges (avoids loading whole entities)
+    @Query("SELECT u.id FROM UserActivityLog u WHERE u.userId = :userId ORDER BY u.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UserActivityLog u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
 
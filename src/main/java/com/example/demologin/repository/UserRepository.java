@@ -4,7 +4,11 @@ import com.example.demologin.entity.User;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -20,4 +24,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findByRoles_Name(String roleName, Pageable pageable);
 
     boolean existsByRoles_Id(Long id);
+
+    // Checked on every authenticated request; a projection, so neither the user nor its roles are loaded
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.userId = :userId")
+    Optional<Integer> findTokenVersionById(@Param("userId") Long userId);
+
+    // For activity logs of the current principal, without loading the user and its roles
+    @Query("SELECT u.fullName FROM User u WHERE u.userId = :userId")
+    Optional<String> findFullNameById(@Param("userId") Long userId);
+
+    // Locks the users row without loading the user, so per-user writes can be serialized cheaply
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.userId FROM User u WHERE u.userId = :userId")
+    Optional<Long> lockById(@Param("userId") Long userId);
 }
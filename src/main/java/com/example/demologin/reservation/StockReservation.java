@@ -0,0 +1,16 @@
+package com.example.demologin.reservation;
+
+/**
+ * A hold on copies of a book, e.g. for a cart. Held until it is confirmed, released or expires; confirming
+ * writes its copies off books.stock_quantity.
+ */
+public record StockReservation(String id, Long bookId, int quantity, long expiresAt, boolean confirmed) {
+
+    public StockReservation confirm() {
+        return new StockReservation(id, bookId, quantity, expiresAt, true);
+    }
+
+    public boolean isExpired(long now) {
+        return !confirmed && expiresAt <= now;
+    }
+}
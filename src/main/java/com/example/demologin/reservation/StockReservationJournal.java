@@ -0,0 +1,160 @@
+package com.example.demologin.reservation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only text journal of the reservations of this node, one record per line:
+ * <pre>
+ * R id bookId quantity expiresAt   reserved (expiresAt in epoch millis)
+ * X id                             released or expired
+ * W generation id,id,...           confirmed reservations about to be written off under generation
+ * </pre>
+ * A write-off line is written before its database transaction; that transaction moves the checkpoint up to
+ * the generation, never down. On replay, write-offs up to the checkpoint were applied and their reservations
+ * are dropped; later ones never committed and their reservations are holds again, to be confirmed anew.
+ * Write-offs commit in any order, so one that had not committed when a later one did counts as applied after
+ * a crash: its hold is lost, but no copy is ever written off twice. Replay ignores repeated and unknown ids,
+ * so records may be appended after the in-memory change they describe.
+ */
+public final class StockReservationJournal implements AutoCloseable {
+
+    private final Path file;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long appendedSinceCompaction;
+
+    private StockReservationJournal(Path file, boolean fsync) throws IOException {
+        this.file = file;
+        this.fsync = fsync;
+        this.channel = openForAppend(file);
+    }
+
+    public static StockReservationJournal open(Path file, boolean fsync) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new StockReservationJournal(file, fsync);
+    }
+
+    /**
+     * Live reservations and the highest write-off generation found in the journal, given the generation
+     * last committed to the database.
+     */
+    public record Replay(Map<String, StockReservation> reservations, long lastGeneration) {
+    }
+
+    public static Replay replay(Path file, long checkpoint) throws IOException {
+        Map<String, StockReservation> reservations = new LinkedHashMap<>();
+        long lastGeneration = checkpoint;
+        if (!Files.exists(file)) {
+            return new Replay(reservations, lastGeneration);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                try {
+                    switch (parts[0]) {
+                        case "R" -> reservations.putIfAbsent(parts[1], new StockReservation(parts[1],
+                                Long.parseLong(parts[2]), Integer.parseInt(parts[3]), Long.parseLong(parts[4]), false));
+                        case "X" -> reservations.remove(parts[1]);
+                        case "W" -> {
+                            long generation = Long.parseLong(parts[1]);
+                            lastGeneration = Math.max(lastGeneration, generation);
+                            if (generation <= checkpoint && parts.length > 2) {
+                                for (String id : parts[2].split(",")) {
+                                    reservations.remove(id);
+                                }
+                            }
+                        }
+                        default -> {
+                            // Unknown record
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // A line torn by a crash can only be the last one
+                    break;
+                }
+            }
+        }
+        return new Replay(reservations, lastGeneration);
+    }
+
+    public synchronized void reserved(StockReservation reservation) throws IOException {
+        append("R " + reservation.id() + " " + reservation.bookId() + " " + reservation.quantity()
+                + " " + reservation.expiresAt());
+    }
+
+    public synchronized void released(String id) throws IOException {
+        append("X " + id);
+    }
+
+    public synchronized void writingOff(long generation, Collection<StockReservation> reservations) throws IOException {
+        List<String> ids = new ArrayList<>(reservations.size());
+        for (StockReservation reservation : reservations) {
+            ids.add(reservation.id());
+        }
+        append("W " + generation + " " + String.join(",", ids));
+    }
+
+    public synchronized long appendedSinceCompaction() {
+        return appendedSinceCompaction;
+    }
+
+    /**
+     * Replaces the journal with one record per live reservation, written to a temporary file and moved
+     * into place. Appends wait meanwhile; those of changes already in the snapshot are repeated, which replay ignores.
+     */
+    public synchronized void compact(Collection<StockReservation> live) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder lines = new StringBuilder();
+            for (StockReservation reservation : live) {
+                lines.append("R ").append(reservation.id()).append(' ').append(reservation.bookId()).append(' ')
+                        .append(reservation.quantity()).append(' ').append(reservation.expiresAt()).append('\n');
+            }
+            write(out, lines.toString());
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openForAppend(file);
+        appendedSinceCompaction = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(String line) throws IOException {
+        write(channel, line + "\n");
+        if (fsync) {
+            channel.force(false);
+        }
+        appendedSinceCompaction++;
+    }
+
+    private static void write(FileChannel out, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static FileChannel openForAppend(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.demologin.search;
+
+import com.example.demologin.dto.response.BookResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over title, author, publisher and ISBN of the catalog.
+ *
+ * Every word is indexed under its prefixes (edge n-grams) per field, so "harr pot" finds "Harry Potter".
+ * Posting lists are delta-encoded {@link PostingList}s. Matches are ranked by field weight, with a bonus
+ * for whole-word matches, then ordered by title. Readers never lock; writers are serialized.
+ */
+public class BookSearchIndex {
+
+    enum Field {
+        TITLE('t', 3), AUTHOR('a', 2), PUBLISHER('p', 1), ISBN('i', 4);
+
+        private final char code;
+        private final int weight;
+
+        Field(char code, int weight) {
+            this.code = code;
+            this.weight = weight;
+        }
+
+        String key(String prefix) {
+            return code + ":" + prefix;
+        }
+    }
+
+    private static final Set<Field> TEXT_FIELDS = Set.of(Field.TITLE, Field.AUTHOR, Field.PUBLISHER, Field.ISBN);
+    private static final Pattern ISBN_QUERY = Pattern.compile("[0-9xX][0-9xX\\- ]{2,}");
+    private static final Comparator<IndexedBook> BY_TITLE = Comparator
+            .comparing(IndexedBook::sortKey)
+            .thenComparing(indexed -> indexed.book().getBookId());
+
+    // sortKey is the normalized title, so accented titles sort with their plain spelling
+    private record IndexedBook(int doc, BookResponse book, String sortKey, Map<Field, Set<String>> tokens, Set<String> keys) {
+    }
+
+    private record Clause(Set<Field> fields, String token) {
+    }
+
+    private record Match(IndexedBook indexed, int score) {
+    }
+
+    private final Map<Long, IndexedBook> byBookId = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedBook> byDoc = new ConcurrentHashMap<>();
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private int nextDoc;
+
+    /**
+     * Bulk build: posting lists are encoded once per term instead of being grown one document at a time.
+     */
+    public static BookSearchIndex build(Collection<BookResponse> books) {
+        BookSearchIndex index = new BookSearchIndex();
+        Map<String, int[]> docsByKey = new HashMap<>();
+        Map<String, Integer> lengths = new HashMap<>();
+
+        for (BookResponse book : books) {
+            if (book.getBookId() == null || index.byBookId.containsKey(book.getBookId())) {
+                continue;
+            }
+            IndexedBook indexed = index.analyze(index.nextDoc++, book);
+            index.byBookId.put(book.getBookId(), indexed);
+            index.byDoc.put(indexed.doc(), indexed);
+            for (String key : indexed.keys()) {
+                int length = lengths.getOrDefault(key, 0);
+                int[] docs = docsByKey.computeIfAbsent(key, k -> new int[4]);
+                if (length == docs.length) {
+                    docs = Arrays.copyOf(docs, length * 2);
+                    docsByKey.put(key, docs);
+                }
+                docs[length] = indexed.doc();
+                lengths.put(key, length + 1);
+            }
+        }
+        docsByKey.forEach((key, docs) -> index.postings.put(key, PostingList.of(docs, lengths.get(key))));
+        return index;
+    }
+
+    public int size() {
+        return byBookId.size();
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    public BookResponse get(Long bookId) {
+        IndexedBook indexed = byBookId.get(bookId);
+        return indexed == null ? null : indexed.book();
+    }
+
+    public List<BookResponse> books() {
+        List<BookResponse> books = new ArrayList<>(byBookId.size());
+        byBookId.values().forEach(indexed -> books.add(indexed.book()));
+        return books;
+    }
+
+    public synchronized void put(BookResponse book) {
+        IndexedBook previous = byBookId.get(book.getBookId());
+        IndexedBook indexed = analyze(previous != null ? previous.doc() : nextDoc++, book);
+
+        // Stock or availability changes leave the text alone: only the stored book is replaced
+        if (previous == null || !previous.keys().equals(indexed.keys())) {
+            Set<String> oldKeys = previous != null ? previous.keys() : Set.of();
+            for (String key : oldKeys) {
+                if (!indexed.keys().contains(key)) {
+                    removePosting(key, indexed.doc());
+                }
+            }
+            for (String key : indexed.keys()) {
+                if (!oldKeys.contains(key)) {
+                    postings.merge(key, PostingList.of(new int[]{indexed.doc()}, 1), (current, added) -> current.with(indexed.doc()));
+                }
+            }
+        }
+        byDoc.put(indexed.doc(), indexed);
+        byBookId.put(book.getBookId(), indexed);
+    }
+
+    public synchronized void remove(Long bookId) {
+        IndexedBook previous = byBookId.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        byDoc.remove(previous.doc());
+        for (String key : previous.keys()) {
+            removePosting(key, previous.doc());
+        }
+    }
+
+    public Page<BookResponse> search(BookSearchQuery query, Pageable pageable) {
+        List<Clause> clauses = clauses(query);
+        List<Match> matches = new ArrayList<>();
+
+        if (clauses.isEmpty()) {
+            for (IndexedBook indexed : byDoc.values()) {
+                if (passesFilters(indexed.book(), query)) {
+                    matches.add(new Match(indexed, 0));
+                }
+            }
+        } else {
+            for (int doc : candidates(clauses)) {
+                IndexedBook indexed = byDoc.get(doc);
+                if (indexed == null || !passesFilters(indexed.book(), query)) {
+                    continue;
+                }
+                int score = score(indexed, clauses);
+                if (score > 0) {
+                    matches.add(new Match(indexed, score));
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::score).reversed()
+                .thenComparing(Match::indexed, BY_TITLE));
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = (int) Math.min(from + (long) pageable.getPageSize(), matches.size());
+        List<BookResponse> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(matches.get(i).indexed().book());
+        }
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    private List<Clause> clauses(BookSearchQuery query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query.text() != null && !query.text().isBlank()) {
+            if (ISBN_QUERY.matcher(query.text().trim()).matches()) {
+                clauses.add(new Clause(Set.of(Field.ISBN), SearchTokenizer.isbnToken(query.text())));
+            } else {
+                SearchTokenizer.tokens(query.text()).forEach(token -> clauses.add(new Clause(TEXT_FIELDS, token)));
+            }
+        }
+        if (query.title() != null) {
+            SearchTokenizer.tokens(query.title()).forEach(token -> clauses.add(new Clause(Set.of(Field.TITLE), token)));
+        }
+        if (query.author() != null) {
+            SearchTokenizer.tokens(query.author()).forEach(token -> clauses.add(new Clause(Set.of(Field.AUTHOR), token)));
+        }
+        return clauses;
+    }
+
+    // Intersection of the clauses, smallest first; each clause is the union of its fields
+    private int[] candidates(List<Clause> clauses) {
+        List<int[]> perClause = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            int[] docs = new int[0];
+            for (Field field : clause.fields()) {
+                PostingList list = postings.get(field.key(SearchTokenizer.lookupKey(clause.token())));
+                if (list != null) {
+                    docs = union(docs, list.toArray());
+                }
+            }
+            if (docs.length == 0) {
+                return docs;
+            }
+            perClause.add(docs);
+        }
+        perClause.sort(Comparator.comparingInt(docs -> docs.length));
+
+        int[] result = perClause.get(0);
+        for (int i = 1; i < perClause.size() && result.length > 0; i++) {
+            result = intersect(result, perClause.get(i));
+        }
+        return result;
+    }
+
+    private int score(IndexedBook indexed, List<Clause> clauses) {
+        int score = 0;
+        for (Clause clause : clauses) {
+            int best = 0;
+            for (Field field : clause.fields()) {
+                Set<String> tokens = indexed.tokens().getOrDefault(field, Set.of());
+                if (tokens.contains(clause.token())) {
+                    best = Math.max(best, field.weight * 2);
+                } else if (tokens.stream().anyMatch(token -> token.startsWith(clause.token()))) {
+                    best = Math.max(best, field.weight);
+                }
+            }
+            // Tokens longer than the indexed prefixes are only verified here
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    private boolean passesFilters(BookResponse book, BookSearchQuery query) {
+        if (query.categoryId() != null && !query.categoryId().equals(book.getCategoryId())) {
+            return false;
+        }
+        if (query.isAvailable() != null && !query.isAvailable().equals(book.getIsAvailable())) {
+            return false;
+        }
+        if (query.minPrice() != null && (book.getPrice() == null || book.getPrice().compareTo(query.minPrice()) < 0)) {
+            return false;
+        }
+        return query.maxPrice() == null || (book.getPrice() != null && book.getPrice().compareTo(query.maxPrice()) <= 0);
+    }
+
+    private IndexedBook analyze(int doc, BookResponse book) {
+        Map<Field, Set<String>> tokens = new EnumMap<>(Field.class);
+        tokens.put(Field.TITLE, new HashSet<>(SearchTokenizer.tokens(book.getTitle())));
+        tokens.put(Field.AUTHOR, new HashSet<>(SearchTokenizer.tokens(book.getAuthor())));
+        tokens.put(Field.PUBLISHER, new HashSet<>(SearchTokenizer.tokens(book.getPublisher())));
+        String isbn = SearchTokenizer.isbnToken(book.getIsbn());
+        tokens.put(Field.ISBN, isbn.isEmpty() ? Set.of() : Set.of(isbn));
+
+        Set<String> keys = new HashSet<>();
+        tokens.forEach((field, fieldTokens) -> fieldTokens.forEach(token ->
+                SearchTokenizer.prefixes(token).forEach(prefix -> keys.add(field.key(prefix)))));
+        return new IndexedBook(doc, book, SearchTokenizer.normalize(book.getTitle()), tokens, keys);
+    }
+
+    private void removePosting(String key, int doc) {
+        postings.computeIfPresent(key, (k, list) -> {
+            PostingList updated = list.without(doc);
+            return updated.size() == 0 ? null : updated;
+        });
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            result[n++] = next;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demologin.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Public catalog search: free text over all indexed fields, field-specific text and the usual filters.
+ * Null means "no constraint".
+ */
+public record BookSearchQuery(String text,
+                              String title,
+                              String author,
+                              Long categoryId,
+                              Boolean isAvailable,
+                              BigDecimal minPrice,
+                              BigDecimal maxPrice) {
+}
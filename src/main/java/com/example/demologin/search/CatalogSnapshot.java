@@ -0,0 +1,268 @@
+package com.example.demologin.search;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CatalogFacetsResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable column-oriented copy of the catalog used for filter-only queries and facet counts.
+ *
+ * Rows are stored in title order, so walking a filter bitset with nextSetBit already yields the page in sort
+ * order. Prices are kept as cents, categories as small ordinals with one bitset per category, and availability
+ * as a bitset; a filter is the intersection of those bitsets and never touches a BookResponse until the page
+ * is read.
+ */
+public final class CatalogSnapshot {
+
+    private final int rowCount;
+    private final BookResponse[] books;
+    private final long[] priceCents;
+    private final int[] categoryOrdinals;
+    private final int[] stock;
+    private final BitSet available;
+    private final long[] categoryIds;
+    private final BitSet[] byCategory;
+    private final Map<Long, Integer> categoryOrdinalById;
+    private final Map<Long, Integer> rowByBookId;
+    private final long[] bucketEdgesCents;
+
+    private CatalogSnapshot(List<BookResponse> sorted, long[] bucketEdgesCents) {
+        this.rowCount = sorted.size();
+        this.books = sorted.toArray(new BookResponse[0]);
+        this.priceCents = new long[rowCount];
+        this.categoryOrdinals = new int[rowCount];
+        this.stock = new int[rowCount];
+        this.available = new BitSet(rowCount);
+        this.categoryOrdinalById = new HashMap<>();
+        this.rowByBookId = new HashMap<>(rowCount * 2);
+        this.bucketEdgesCents = bucketEdgesCents;
+
+        List<Long> ids = new ArrayList<>();
+        List<BitSet> sets = new ArrayList<>();
+        for (int row = 0; row < rowCount; row++) {
+            BookResponse book = books[row];
+            rowByBookId.put(book.getBookId(), row);
+            priceCents[row] = toCents(book.getPrice());
+            stock[row] = book.getStockQuantity() == null ? 0 : book.getStockQuantity();
+            if (Boolean.TRUE.equals(book.getIsAvailable())) {
+                available.set(row);
+            }
+            Integer ordinal = categoryOrdinalById.get(book.getCategoryId());
+            if (ordinal == null) {
+                ordinal = ids.size();
+                categoryOrdinalById.put(book.getCategoryId(), ordinal);
+                ids.add(book.getCategoryId());
+                sets.add(new BitSet(rowCount));
+            }
+            categoryOrdinals[row] = ordinal;
+            sets.get(ordinal).set(row);
+        }
+        this.categoryIds = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            categoryIds[i] = ids.get(i) == null ? -1 : ids.get(i);
+        }
+        this.byCategory = sets.toArray(new BitSet[0]);
+    }
+
+    // Same rows in the same order; only the book, stock and availability columns are replaced
+    private CatalogSnapshot(CatalogSnapshot base, BookResponse[] books, int[] stock, BitSet available) {
+        this.rowCount = base.rowCount;
+        this.books = books;
+        this.priceCents = base.priceCents;
+        this.categoryOrdinals = base.categoryOrdinals;
+        this.stock = stock;
+        this.available = available;
+        this.categoryIds = base.categoryIds;
+        this.byCategory = base.byCategory;
+        this.categoryOrdinalById = base.categoryOrdinalById;
+        this.rowByBookId = base.rowByBookId;
+        this.bucketEdgesCents = base.bucketEdgesCents;
+    }
+
+    /**
+     * @param priceBucketEdges ascending upper bounds of the price facet buckets; a last open-ended bucket is added
+     */
+    public static CatalogSnapshot build(Collection<BookResponse> books, List<BigDecimal> priceBucketEdges) {
+        List<BookResponse> sorted = new ArrayList<>(books);
+        Map<BookResponse, String> sortKeys = new HashMap<>(books.size() * 2);
+        for (BookResponse book : sorted) {
+            sortKeys.put(book, SearchTokenizer.normalize(book.getTitle()));
+        }
+        sorted.sort(Comparator.comparing((BookResponse book) -> sortKeys.get(book))
+                .thenComparing(BookResponse::getBookId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        long[] edges = new long[priceBucketEdges.size()];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = toCents(priceBucketEdges.get(i));
+        }
+        return new CatalogSnapshot(sorted, edges);
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Copy with the stock and availability of the given books replaced, for stock-only changes. Sorting,
+     * prices and categories are shared with this snapshot. Returns null when a book is not part of the
+     * snapshot; that needs a full build.
+     */
+    public CatalogSnapshot withStock(Collection<BookResponse> changed) {
+        BookResponse[] patchedBooks = books.clone();
+        int[] patchedStock = stock.clone();
+        BitSet patchedAvailable = (BitSet) available.clone();
+        for (BookResponse book : changed) {
+            Integer row = rowByBookId.get(book.getBookId());
+            if (row == null) {
+                return null;
+            }
+            patchedBooks[row] = book;
+            patchedStock[row] = book.getStockQuantity() == null ? 0 : book.getStockQuantity();
+            patchedAvailable.set(row, Boolean.TRUE.equals(book.getIsAvailable()));
+        }
+        return new CatalogSnapshot(this, patchedBooks, patchedStock, patchedAvailable);
+    }
+
+    /**
+     * True when the query only uses the columns of the snapshot; text clauses need the inverted index.
+     */
+    public static boolean supports(BookSearchQuery query) {
+        return isBlank(query.text()) && isBlank(query.title()) && isBlank(query.author());
+    }
+
+    public Page<BookResponse> filter(BookSearchQuery query, Pageable pageable) {
+        BitSet matches = availabilityMask(query.isAvailable());
+        matches.and(priceMask(query.minPrice(), query.maxPrice()));
+        matches.and(categoryMask(query.categoryId()));
+
+        int total = matches.cardinality();
+        long offset = pageable.getOffset();
+        List<BookResponse> content = new ArrayList<>(Math.min(pageable.getPageSize(), total));
+        int row = matches.nextSetBit(0);
+        for (long skipped = 0; row >= 0 && skipped < offset; skipped++) {
+            row = matches.nextSetBit(row + 1);
+        }
+        while (row >= 0 && content.size() < pageable.getPageSize()) {
+            content.add(books[row]);
+            row = matches.nextSetBit(row + 1);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Facet counts for the query. Each facet ignores its own filter, so the category counts show what
+     * picking another category would return under the same price range, and vice versa.
+     */
+    public CatalogFacetsResponse facets(BookSearchQuery query) {
+        BitSet availability = availabilityMask(query.isAvailable());
+        BitSet price = priceMask(query.minPrice(), query.maxPrice());
+        BitSet category = categoryMask(query.categoryId());
+
+        BitSet forCategories = (BitSet) availability.clone();
+        forCategories.and(price);
+        int[] categoryCounts = new int[categoryIds.length];
+        for (int row = forCategories.nextSetBit(0); row >= 0; row = forCategories.nextSetBit(row + 1)) {
+            categoryCounts[categoryOrdinals[row]]++;
+        }
+
+        BitSet forPrices = availability;
+        forPrices.and(category);
+        long[] bucketCounts = new long[bucketEdgesCents.length + 1];
+        for (int row = forPrices.nextSetBit(0); row >= 0; row = forPrices.nextSetBit(row + 1)) {
+            bucketCounts[bucketOf(priceCents[row])]++;
+        }
+
+        forPrices.and(price);
+        int total = forPrices.cardinality();
+        int inStock = 0;
+        for (int row = forPrices.nextSetBit(0); row >= 0; row = forPrices.nextSetBit(row + 1)) {
+            if (stock[row] > 0) {
+                inStock++;
+            }
+        }
+
+        Map<Long, Long> categories = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < categoryIds.length; ordinal++) {
+            if (categoryCounts[ordinal] > 0 && categoryIds[ordinal] >= 0) {
+                categories.put(categoryIds[ordinal], (long) categoryCounts[ordinal]);
+            }
+        }
+        List<CatalogFacetsResponse.PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            buckets.add(new CatalogFacetsResponse.PriceBucket(
+                    i == 0 ? BigDecimal.ZERO.setScale(2) : fromCents(bucketEdgesCents[i - 1]),
+                    i < bucketEdgesCents.length ? fromCents(bucketEdgesCents[i]) : null,
+                    bucketCounts[i]));
+        }
+        return new CatalogFacetsResponse(total, inStock, categories, buckets);
+    }
+
+    private BitSet availabilityMask(Boolean isAvailable) {
+        BitSet mask = (BitSet) available.clone();
+        if (isAvailable == null) {
+            mask.set(0, rowCount);
+        } else if (!isAvailable) {
+            mask.flip(0, rowCount);
+        }
+        return mask;
+    }
+
+    private BitSet priceMask(BigDecimal minPrice, BigDecimal maxPrice) {
+        BitSet mask = new BitSet(rowCount);
+        if (minPrice == null && maxPrice == null) {
+            mask.set(0, rowCount);
+            return mask;
+        }
+        long min = minPrice == null ? Long.MIN_VALUE : toCents(minPrice);
+        long max = maxPrice == null ? Long.MAX_VALUE : toCents(maxPrice);
+        for (int row = 0; row < rowCount; row++) {
+            if (priceCents[row] >= min && priceCents[row] <= max) {
+                mask.set(row);
+            }
+        }
+        return mask;
+    }
+
+    private BitSet categoryMask(Long categoryId) {
+        if (categoryId == null) {
+            BitSet all = new BitSet(rowCount);
+            all.set(0, rowCount);
+            return all;
+        }
+        Integer ordinal = categoryOrdinalById.get(categoryId);
+        return ordinal == null ? new BitSet() : byCategory[ordinal];
+    }
+
+    private int bucketOf(long cents) {
+        int bucket = 0;
+        while (bucket < bucketEdgesCents.length && cents >= bucketEdgesCents[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
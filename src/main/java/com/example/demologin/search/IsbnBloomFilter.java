@@ -0,0 +1,115 @@
+package com.example.demologin.search;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over catalog ISBNs: mightContain never answers false for an added ISBN, and answers true for
+ * an absent one with roughly the configured probability while no more than the expected number was added.
+ *
+ * ISBNs are normalized first (hyphens and spaces dropped, upper case), so "978-0-13-468599-1" and
+ * "9780134685991" are one key; that can only add positives. Bits are set with atomic operations, so adds and
+ * lookups may run concurrently without locks. Nothing can be removed: deleted ISBNs stay until a rebuild.
+ */
+public final class IsbnBloomFilter {
+
+    private static final int MAX_HASHES = 16;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong added = new AtomicLong();
+
+    public IsbnBloomFilter(long capacity, double falsePositiveRate) {
+        if (capacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing: " + capacity + ", " + falsePositiveRate);
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) bitCount / capacity * ln2)));
+        this.capacity = capacity;
+    }
+
+    public void add(String isbn) {
+        String key = normalize(isbn);
+        if (key.isEmpty()) {
+            return;
+        }
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+        added.incrementAndGet();
+    }
+
+    public boolean mightContain(String isbn) {
+        String key = normalize(isbn);
+        if (key.isEmpty()) {
+            return false;
+        }
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True once more ISBNs were added than the filter was sized for; lookups stay correct, but match more often.
+     */
+    public boolean isSaturated() {
+        return added.get() > capacity;
+    }
+
+    public long addedCount() {
+        return added.get();
+    }
+
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    public static String normalize(String isbn) {
+        if (isbn == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString().toUpperCase(Locale.ROOT);
+    }
+
+    // FNV-1a
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Finalizer of SplitMix64, spreads FNV's weak low bits over the whole word
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demologin.search;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Immutable, sorted set of document numbers stored as variable-length deltas.
+ *
+ * Neighbouring documents usually differ by a small number, so most entries take a single byte
+ * instead of four. Updates return a new list; readers never see a list change under them.
+ */
+final class PostingList {
+
+    static final PostingList EMPTY = new PostingList(new byte[0], 0);
+
+    private final byte[] data;
+    private final int size;
+
+    private PostingList(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    static PostingList of(int[] sortedDocs, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 4);
+        int previous = 0;
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int doc = sortedDocs[i];
+            if (i > 0 && doc == previous) {
+                continue;
+            }
+            writeVarInt(out, doc - previous);
+            previous = doc;
+            count++;
+        }
+        return new PostingList(out.toByteArray(), count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        int[] docs = new int[size];
+        int position = 0;
+        int doc = 0;
+        for (int i = 0; i < size; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            doc += delta;
+            docs[i] = doc;
+        }
+        return docs;
+    }
+
+    PostingList with(int doc) {
+        int[] docs = toArray();
+        int index = Arrays.binarySearch(docs, doc);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        int[] updated = new int[docs.length + 1];
+        System.arraycopy(docs, 0, updated, 0, insertAt);
+        updated[insertAt] = doc;
+        System.arraycopy(docs, insertAt, updated, insertAt + 1, docs.length - insertAt);
+        return of(updated, updated.length);
+    }
+
+    PostingList without(int doc) {
+        int[] docs = toArray();
+        int index = Arrays.binarySearch(docs, doc);
+        if (index < 0) {
+            return this;
+        }
+        int[] updated = new int[docs.length - 1];
+        System.arraycopy(docs, 0, updated, 0, index);
+        System.arraycopy(docs, index + 1, updated, index, docs.length - index - 1);
+        return of(updated, updated.length);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demologin.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization and tokenization shared by indexing and querying, so both sides always agree.
+ */
+public final class SearchTokenizer {
+
+    // Longest prefix stored in the index; longer query tokens are looked up by this prefix and then verified
+    public static final int MAX_PREFIX = 12;
+    static final int MIN_PREFIX = 2;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Lower case without accents ("Đắc Nhân Tâm" -> "dac nhan tam").
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.replace('đ', 'd').replace('Đ', 'D'), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * ISBNs are matched on their digits only, so "978-0-13" and "978013" are the same query.
+     */
+    public static String isbnToken(String isbn) {
+        return normalize(isbn).replaceAll("[^0-9x]", "");
+    }
+
+    /**
+     * Edge n-grams of a token, from MIN_PREFIX up to MAX_PREFIX characters.
+     */
+    static List<String> prefixes(String token) {
+        List<String> prefixes = new ArrayList<>();
+        int longest = Math.min(token.length(), MAX_PREFIX);
+        for (int length = Math.min(MIN_PREFIX, longest); length <= longest; length++) {
+            prefixes.add(token.substring(0, length));
+        }
+        return prefixes;
+    }
+
+    static String lookupKey(String token) {
+        return token.length() > MAX_PREFIX ? token.substring(0, MAX_PREFIX) : token;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demologin.search;
+
+import com.example.demologin.dto.response.BookSuggestionResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie for autocomplete, packed into flat arrays once built.
+ *
+ * Every title and author is inserted from each word start ("harry potter" also under "potter"), normalized
+ * like the search index. Suggestions are numbered by rank (popularity, then title), and every node stores the
+ * ranks of its best maxResults suggestions, so a lookup is a walk down the prefix plus a copy of that list.
+ * Instances are never modified and can be shared between threads freely.
+ */
+public final class SuggestionTrie {
+
+    // Longest indexed key; longer prefixes are cut to this length before the walk and then checked
+    static final int MAX_KEY_LENGTH = 24;
+
+    /**
+     * A book to suggest and its popularity; higher scores are suggested first.
+     */
+    public record Candidate(BookSuggestionResponse suggestion, long score) {
+    }
+
+    public static final SuggestionTrie EMPTY = build(List.of(), 1);
+
+    private final BookSuggestionResponse[] suggestions;
+    private final String[][] keys;
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final int[] topCount;
+    private final int[] top;
+
+    private SuggestionTrie(BookSuggestionResponse[] suggestions, String[][] keys, char[] labels, int[] firstChild,
+                           int[] childCount, int[] topStart, int[] topCount, int[] top) {
+        this.suggestions = suggestions;
+        this.keys = keys;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topCount = topCount;
+        this.top = top;
+    }
+
+    public static SuggestionTrie build(List<Candidate> candidates, int maxResults) {
+        List<Candidate> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingLong(Candidate::score).reversed()
+                .thenComparing(candidate -> SearchTokenizer.normalize(candidate.suggestion().getTitle())));
+
+        BookSuggestionResponse[] suggestions = new BookSuggestionResponse[ranked.size()];
+        String[][] keys = new String[ranked.size()][];
+        Node root = new Node();
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            BookSuggestionResponse suggestion = ranked.get(rank).suggestion();
+            suggestions[rank] = suggestion;
+            List<String> suggestionKeys = new ArrayList<>();
+            addKeys(suggestionKeys, suggestion.getTitle());
+            addKeys(suggestionKeys, suggestion.getAuthor());
+            keys[rank] = suggestionKeys.toArray(new String[0]);
+            for (String key : suggestionKeys) {
+                root.insert(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key, rank);
+            }
+        }
+        root.collectTop(Math.max(maxResults, 1));
+        return pack(root, suggestions, keys);
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * Best suggestions whose title or author has a word starting with the prefix.
+     */
+    public List<BookSuggestionResponse> complete(String prefix, int limit) {
+        String normalized = String.join(" ", SearchTokenizer.tokens(prefix));
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        String walk = normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+        int node = 0;
+        for (int i = 0; i < walk.length() && node >= 0; i++) {
+            node = child(node, walk.charAt(i));
+        }
+        if (node < 0) {
+            return List.of();
+        }
+
+        List<BookSuggestionResponse> result = new ArrayList<>(Math.min(limit, topCount[node]));
+        for (int i = topStart[node]; i < topStart[node] + topCount[node] && result.size() < limit; i++) {
+            int rank = top[i];
+            if (walk.length() == normalized.length() || matchesLongPrefix(rank, normalized)) {
+                result.add(suggestions[rank]);
+            }
+        }
+        return result;
+    }
+
+    private boolean matchesLongPrefix(int rank, String normalized) {
+        for (String key : keys[rank]) {
+            if (key.startsWith(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Children of a node are contiguous and sorted by label
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < label) {
+                low = mid + 1;
+            } else if (labels[mid] > label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Every word start of the text, as the rest of the text from that word on
+    private static void addKeys(List<String> keys, String text) {
+        List<String> tokens = SearchTokenizer.tokens(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+    }
+
+    // Breadth-first numbering keeps the children of every node next to each other
+    private static SuggestionTrie pack(Node root, BookSuggestionResponse[] suggestions, String[][] keys) {
+        List<Node> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            order.addAll(order.get(i).children.values());
+        }
+
+        int nodes = order.size();
+        char[] labels = new char[nodes];
+        int[] firstChild = new int[nodes];
+        int[] childCount = new int[nodes];
+        int[] topStart = new int[nodes];
+        int[] topCount = new int[nodes];
+        int topSize = 0;
+        for (Node node : order) {
+            topSize += node.top.length;
+        }
+        int[] top = new int[topSize];
+
+        int nextChild = 1;
+        int nextTop = 0;
+        for (int i = 0; i < nodes; i++) {
+            Node node = order.get(i);
+            labels[i] = node.label;
+            firstChild[i] = nextChild;
+            childCount[i] = node.children.size();
+            nextChild += node.children.size();
+            topStart[i] = nextTop;
+            topCount[i] = node.top.length;
+            System.arraycopy(node.top, 0, top, nextTop, node.top.length);
+            nextTop += node.top.length;
+        }
+        return new SuggestionTrie(suggestions, keys, labels, firstChild, childCount, topStart, topCount, top);
+    }
+
+    // Mutable build-time node, discarded after packing
+    private static final class Node {
+        private char label;
+        private final Map<Character, Node> children = new TreeMap<>();
+        private int[] ranks = new int[0];
+        private int[] top;
+
+        void insert(String key, int rank) {
+            Node node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                Node next = node.children.get(c);
+                if (next == null) {
+                    next = new Node();
+                    next.label = c;
+                    node.children.put(c, next);
+                }
+                node = next;
+            }
+            node.ranks = Arrays.copyOf(node.ranks, node.ranks.length + 1);
+            node.ranks[node.ranks.length - 1] = rank;
+        }
+
+        // Lower rank is better, so the best k of a subtree are its k smallest distinct ranks
+        int[] collectTop(int k) {
+            int[] merged = ranks;
+            for (Node child : children.values()) {
+                int[] childTop = child.collectTop(k);
+                int[] combined = Arrays.copyOf(merged, merged.length + childTop.length);
+                System.arraycopy(childTop, 0, combined, merged.length, childTop.length);
+                merged = combined;
+            }
+            top = Arrays.stream(merged).distinct().sorted().limit(k).toArray();
+            ranks = null;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demologin.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What the SecurityContext holds for a JWT request, instead of the User entity with its role and permission sets.
+ *
+ * Immutable and detached from any persistence context. Role ids are sorted, permissions are a bitset indexed by
+ * permission id, and the authorities list is shared by all principals with the same roles. Services that need
+ * the entity get it from AccountUtils.getCurrentUser, which loads it by userId.
+ */
+public record UserPrincipal(Long userId, String username, int tokenVersion, long[] roleIds, long[] permissionBits,
+                            List<GrantedAuthority> authorities) implements Principal, Serializable {
+
+    public UserPrincipal {
+        Objects.requireNonNull(userId, "userId");
+        roleIds = roleIds.clone();
+        Arrays.sort(roleIds);
+        permissionBits = permissionBits.clone();
+        // No copy for lists that are already immutable, so shared lists stay shared
+        authorities = List.copyOf(authorities);
+    }
+
+    @Override
+    public long[] roleIds() {
+        return roleIds.clone();
+    }
+
+    @Override
+    public long[] permissionBits() {
+        return permissionBits.clone();
+    }
+
+    public boolean hasRole(long roleId) {
+        return Arrays.binarySearch(roleIds, roleId) >= 0;
+    }
+
+    public boolean hasPermission(long permissionId) {
+        if (permissionId < 0) {
+            return false;
+        }
+        long word = permissionId >>> 6;
+        return word < permissionBits.length && (permissionBits[(int) word] & (1L << permissionId)) != 0;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof UserPrincipal that
+                && userId.equals(that.userId)
+                && tokenVersion == that.tokenVersion
+                && Objects.equals(username, that.username)
+                && Arrays.equals(roleIds, that.roleIds)
+                && Arrays.equals(permissionBits, that.permissionBits)
+                && authorities.equals(that.authorities);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, tokenVersion, username, Arrays.hashCode(roleIds));
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal[userId=" + userId + ", username=" + username + ", tokenVersion=" + tokenVersion
+                + ", roleIds=" + Arrays.toString(roleIds) + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demologin.service;
+
+import com.example.demologin.entity.UserActivityLog;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Cold archive of activity logs that left the database: one compressed columnar segment file per day
+ */
+public interface ActivityLogArchiveService {
+
+    boolean isEnabled();
+
+    /**
+     * Copies a month's rows from the given tables into day segments. Existing segments are merged, so
+     * archiving the same month twice is harmless.
+     */
+    void archiveMonth(List<String> tables, YearMonth month);
+
+    long countArchivedByUserId(Long userId);
+
+    /**
+     * Archived rows of a user, newest first.
+     */
+    List<UserActivityLog> findArchivedByUserId(Long userId, long offset, int limit);
+}
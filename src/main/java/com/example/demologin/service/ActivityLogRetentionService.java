@@ -0,0 +1,19 @@
+package com.example.demologin.service;
+
+/**
+ * Keeps user_activity_logs bounded: monthly partition maintenance, retention and per-user purges
+ */
+public interface ActivityLogRetentionService {
+
+    /**
+     * Deletes every log row of a user in small set-based chunks, each in its own transaction, so the
+     * purge commits independently of the caller. Returns the number of rows deleted.
+     */
+    long purgeUserLogs(Long userId);
+
+    /**
+     * Pre-creates upcoming partitions and removes whole months that are past the retention window.
+     * On a plain table, retained months stay in the hot table and expired ones are deleted in chunks.
+     */
+    void applyRetentionPolicy();
+}
@@ -0,0 +1,16 @@
+package com.example.demologin.service;
+
+import com.example.demologin.dto.response.BookSuggestionResponse;
+
+import java.util.List;
+
+public interface BookAutocompleteService {
+
+    List<BookSuggestionResponse> suggest(String prefix, int limit);
+
+    void recordView(Long bookId);
+
+    void recordSale(Long bookId, int quantity);
+
+    void rebuild();
+}
@@ -0,0 +1,19 @@
+package com.example.demologin.service;
+
+import com.example.demologin.dto.response.BookImportEvent;
+import com.example.demologin.enums.BookImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface BookImportService {
+
+    /**
+     * Imports new books from a CSV or NDJSON stream in chunks that commit on their own, so memory stays flat
+     * however long the file is. Every book needs an ISBN; rows whose ISBN already exists are reported, not updated.
+     * Row errors and progress go to the listener as they happen; returns the final totals.
+     * Throws BadRequestException for a bad CSV header, before anything is imported.
+     */
+    BookImportEvent importBooks(InputStream in, BookImportFormat format, Consumer<BookImportEvent> listener) throws IOException;
+}
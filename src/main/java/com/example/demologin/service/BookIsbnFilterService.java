@@ -0,0 +1,17 @@
+package com.example.demologin.service;
+
+import java.util.Collection;
+
+public interface BookIsbnFilterService {
+
+    /**
+     * False only when no book has this ISBN, so the uniqueness query can be skipped. True means "ask the database":
+     * the ISBN may exist, or the filter is not built yet.
+     */
+    boolean mightExist(String isbn);
+
+    /**
+     * Registers ISBNs written outside BookServiceImpl (e.g. imports); call after the transaction committed.
+     */
+    void addAll(Collection<String> isbns);
+}
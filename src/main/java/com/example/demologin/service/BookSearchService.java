@@ -0,0 +1,43 @@
+package com.example.demologin.service;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CatalogFacetsResponse;
+import com.example.demologin.search.BookSearchQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface BookSearchService {
+
+    /**
+     * False until the first bulk build has finished; callers fall back to the database meanwhile.
+     */
+    boolean isReady();
+
+    Page<BookResponse> search(BookSearchQuery query, Pageable pageable);
+
+    /**
+     * Category and price-bucket counts for the filters of the query; text clauses are ignored.
+     */
+    CatalogFacetsResponse facets(BookSearchQuery query);
+
+    /**
+     * Indexed books among the given ids; ids that are not indexed (or everything, before the first build) are absent.
+     */
+    Map<Long, BookResponse> findIndexed(Collection<Long> bookIds);
+
+    /**
+     * Copy of every indexed book; empty until the index is ready.
+     */
+    List<BookResponse> catalog();
+
+    /**
+     * Increases whenever the indexed catalog changes, so derived views can tell when they are outdated.
+     */
+    long catalogVersion();
+
+    void rebuild();
+}
@@ -1,24 +1,61 @@
 package com.example.demologin.service;
 
 import com.example.demologin.dto.request.book.CreateBookRequest;
+import com.example.demologin.dto.request.book.StockAdjustmentItem;
 import com.example.demologin.dto.request.book.UpdateBookRequest;
+import com.example.demologin.dto.response.BookBatchItemResponse;
 import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.BookSuggestionResponse;
+import com.example.demologin.dto.response.BookSummaryResponse;
+import com.example.demologin.dto.response.BulkStockAdjustmentResponse;
+import com.example.demologin.dto.response.CatalogFacetsResponse;
+import com.example.demologin.dto.response.StockReservationResponse;
 import org.springframework.data.domain.Page;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface BookService {
     
     Page<BookResponse> getAllBooks(int page, int size);
     
+    Page<BookSummaryResponse> getAllBookSummaries(int page, int size);
+    
     Page<BookResponse> getBooksByFilters(String title, String author, Long categoryId, 
                                        Boolean isAvailable, BigDecimal minPrice, 
                                        BigDecimal maxPrice, int page, int size);
     
+    Page<BookSummaryResponse> getBookSummariesByFilters(String title, String author, Long categoryId,
+                                                        Boolean isAvailable, BigDecimal minPrice,
+                                                        BigDecimal maxPrice, int page, int size);
+    
+    /**
+     * Public catalog search over available books. text matches word prefixes in title, author, publisher and ISBN.
+     */
+    Page<BookResponse> searchBooks(String text, String title, String author, Long categoryId,
+                                   BigDecimal minPrice, BigDecimal maxPrice, int page, int size);
+    
+    Page<BookSummaryResponse> searchBookSummaries(String text, String title, String author, Long categoryId,
+                                                  BigDecimal minPrice, BigDecimal maxPrice, int page, int size);
+    
+    /**
+     * Top available books, by popularity, whose title or author has a word starting with the prefix.
+     */
+    List<BookSuggestionResponse> autocomplete(String prefix, int limit);
+    
+    CatalogFacetsResponse getCatalogFacets(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice);
+    
     Page<BookResponse> getBooksByCategory(Long categoryId, int page, int size);
     
+    Page<BookSummaryResponse> getBookSummariesByCategory(Long categoryId, int page, int size);
+    
     BookResponse getBookById(Long bookId);
     
+    /**
+     * One entry per requested id, in request order, with not-found entries for unknown ids.
+     */
+    List<BookBatchItemResponse> getBooksByIds(List<Long> bookIds);
+    
     BookResponse createBook(CreateBookRequest request);
     
     BookResponse updateBook(Long bookId, UpdateBookRequest request);
@@ -32,4 +69,16 @@ public interface BookService {
     void decreaseBookStock(Long bookId, Integer quantity);
     
     void increaseBookStock(Long bookId, Integer quantity);
+    
+    void shardBookStock(Long bookId, Integer slots);
+    
+    void mergeBookStock(Long bookId);
+    
+    BulkStockAdjustmentResponse adjustBookStocks(List<StockAdjustmentItem> items);
+    
+    StockReservationResponse reserveBookStock(Long bookId, Integer quantity);
+    
+    StockReservationResponse confirmStockReservation(String reservationId);
+    
+    void releaseStockReservation(String reservationId);
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.demologin.service;
+
+import com.example.demologin.dto.request.book.StockAdjustmentItem;
+import com.example.demologin.dto.response.StockAdjustmentResult;
+
+import java.util.List;
+
+public interface BookStockService {
+
+    /**
+     * Takes quantity off the stock in one conditional UPDATE.
+     * Throws NotFoundException for unknown books and BadRequestException when too little is left.
+     */
+    void decreaseStock(Long bookId, int quantity);
+
+    /**
+     * Like decreaseStock, but returns false instead of throwing when the book is gone or too little is left,
+     * so batches in one transaction can go on with the next book.
+     */
+    boolean tryDecreaseStock(Long bookId, int quantity);
+
+    void increaseStock(Long bookId, int quantity);
+
+    /**
+     * Applies many stock adjustments in one transaction, as one JDBC batch, and publishes a single
+     * BookBatchChangedEvent. Items fail on their own; the result list follows the order of the items.
+     */
+    List<StockAdjustmentResult> adjustStock(List<StockAdjustmentItem> items);
+
+    /**
+     * Splits the stock of a hot book over the given number of slot rows, so that concurrent
+     * decrements lock one slot each instead of the books row.
+     */
+    void shardStock(Long bookId, int slots);
+
+    /**
+     * Folds the slots back into the books row, e.g. when the sale has ended. No-op for unsharded books.
+     */
+    void mergeStock(Long bookId);
+
+    /**
+     * Sets the total stock of a sharded book, spread evenly over its slots.
+     */
+    void resetShardedStock(Long bookId, int quantity);
+
+    /**
+     * Stock of a sharded book: the sum of its slots, cached for a short time.
+     */
+    int shardedStock(Long bookId);
+
+    /**
+     * Whether the stock of the book lives in slots, as far as this node's registry knows. Costs no query.
+     */
+    boolean isSharded(Long bookId);
+
+    /**
+     * Stock of any book, sharded or not. Throws NotFoundException for unknown books.
+     */
+    int currentStock(Long bookId);
+}
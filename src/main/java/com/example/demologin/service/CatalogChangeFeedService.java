@@ -0,0 +1,11 @@
+package com.example.demologin.service;
+
+import com.example.demologin.dto.response.CatalogChangesResponse;
+
+public interface CatalogChangeFeedService {
+
+    /**
+     * Books and categories changed after the cursor, oldest change first. Cursor 0 returns the whole catalog.
+     */
+    CatalogChangesResponse getChanges(long cursor, int limit);
+}
@@ -0,0 +1,16 @@
+package com.example.demologin.service;
+
+import com.example.demologin.export.CatalogExport;
+
+public interface CatalogExportService {
+
+    /**
+     * Latest generated export; throws NotFoundException while none has been written yet.
+     */
+    CatalogExport current();
+
+    /**
+     * Writes a new generation of the export files from the current catalog.
+     */
+    CatalogExport regenerate();
+}
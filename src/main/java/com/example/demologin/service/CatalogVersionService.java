@@ -0,0 +1,14 @@
+package com.example.demologin.service;
+
+public interface CatalogVersionService {
+
+    /**
+     * Strong ETag of the current public catalog; changes with every book or category write on any node.
+     */
+    String etag();
+
+    /**
+     * Last catalog change seen by this node, in epoch milliseconds truncated to seconds for HTTP dates.
+     */
+    long lastModified();
+}
@@ -0,0 +1,17 @@
+package com.example.demologin.service;
+
+import com.example.demologin.cache.CategoryRegistry;
+
+public interface CategoryRegistryService {
+
+    /**
+     * Current snapshot of all categories; loaded on first use. Reflects local writes as soon as they commit and
+     * writes of other nodes within the refresh interval.
+     */
+    CategoryRegistry current();
+
+    /**
+     * Reloads all categories from the database and swaps the snapshot in.
+     */
+    void reload();
+}
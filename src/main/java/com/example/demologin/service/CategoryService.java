@@ -24,4 +24,10 @@ public interface CategoryService {
     void deleteCategory(Long categoryId);
     
     void toggleCategoryStatus(Long categoryId);
+    
+    /**
+     * Recomputes the denormalized book count of every category with one GROUP BY over books and fixes
+     * the ones that drifted. Returns the number of categories fixed.
+     */
+    int repairBookCounts();
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.demologin.service;
+
+import com.example.demologin.entity.LoginHistoryEntry;
+import com.example.demologin.entity.UserActivityLog;
+
+import java.util.List;
+
+public interface LoginHistoryService {
+
+    void recordLogin(UserActivityLog login);
+
+    List<LoginHistoryEntry> findRecentLogins(Long userId);
+
+    void clear(Long userId);
+}
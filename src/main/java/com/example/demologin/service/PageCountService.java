@@ -0,0 +1,38 @@
+package com.example.demologin.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+public interface PageCountService {
+
+    /**
+     * Turns a slice into a page using the count mode of the current endpoint.
+     * Estimates come from a per-key cached count that is refreshed in the background.
+     */
+    <T> Page<T> toPage(Slice<T> slice, String countKey, LongSupplier exactCount);
+
+    /**
+     * Same as {@link #toPage}, for unfiltered queries: estimates come from the table statistics first.
+     */
+    <T> Page<T> toTablePage(Slice<T> slice, String table, LongSupplier exactCount);
+
+    /**
+     * Whether a page of this size should be streamed instead of loaded into a list.
+     */
+    boolean shouldStream(Pageable pageable);
+
+    /**
+     * Page whose rows are read from the query stream while the response is written,
+     * so memory per request stays at about one row. The total follows the endpoint's count mode.
+     */
+    <T> Page<T> toStreamingPage(Pageable pageable, Function<Pageable, Stream<T>> query,
+                                String countKey, LongSupplier exactCount);
+
+    <T> Page<T> toStreamingTablePage(Pageable pageable, Function<Pageable, Stream<T>> query,
+                                     String table, LongSupplier exactCount);
+}
@@ -0,0 +1,19 @@
+package com.example.demologin.service;
+
+import com.example.demologin.dto.response.StockReservationResponse;
+
+public interface StockReservationService {
+
+    /**
+     * Holds copies of a book without touching its row; BadRequestException when not enough are left unheld.
+     */
+    StockReservationResponse reserve(Long bookId, int quantity);
+
+    /**
+     * Turns the hold into a sale and writes its copies off books.stock_quantity at once. ConflictException,
+     * and the hold is dropped, when the stock no longer covers them.
+     */
+    StockReservationResponse confirm(String reservationId);
+
+    void release(String reservationId);
+}
@@ -1,6 +1,7 @@
 package com.example.demologin.service;
 
 import com.example.demologin.entity.User;
+import com.example.demologin.security.UserPrincipal;
 
 /**
  * Service for token-related business operations
@@ -17,4 +18,9 @@ public interface TokenService {
      * Get user account by token with full validation
      */
     User getUserByToken(String token);
+
+    /**
+     * Get the cached security principal of the token's user, without loading the user entity
+     */
+    UserPrincipal getPrincipalByToken(String token);
 }
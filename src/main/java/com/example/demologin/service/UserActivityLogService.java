@@ -17,6 +17,7 @@ public interface UserActivityLogService {
     Page<UserActivityLogResponse> getAllActivityLogs(int page, int size);
     UserActivityLogResponse getActivityLogById(Long id);
     Page<UserActivityLogResponse> getActivityLogsByUserId(Long userId, int page, int size);
+    Page<UserActivityLogResponse> getActivityLogsByUserId(Long userId, int page, int size, boolean includeArchived);
     Page<UserActivityLogResponse> getActivityLogsByType(String activityType, int page, int size);
     Page<UserActivityLogResponse> getActivityLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime, int page, int size);
     Page<UserActivityLogResponse> exportActivityLogs(UserActivityLogExportRequest request, int page, int size);
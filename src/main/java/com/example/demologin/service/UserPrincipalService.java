@@ -0,0 +1,17 @@
+package com.example.demologin.service;
+
+import com.example.demologin.security.UserPrincipal;
+
+public interface UserPrincipalService {
+
+    /**
+     * Principal of the user at its current token version, or null for unknown users. Costs one projection
+     * query; the user and its roles are only loaded when the token version moved or the cached principal expired.
+     */
+    UserPrincipal getPrincipal(Long userId);
+
+    /**
+     * Drops all cached principals and shared authority lists, e.g. after a role change.
+     */
+    void evictAll();
+}
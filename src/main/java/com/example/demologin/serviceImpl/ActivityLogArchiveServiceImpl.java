@@ -0,0 +1,206 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.archive.ActivityLogSegment;
+import com.example.demologin.archive.ActivityLogSegmentWriter;
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.exception.exceptions.InternalServerErrorException;
+import com.example.demologin.repository.ActivityLogPartitionRepository;
+import com.example.demologin.service.ActivityLogArchiveService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityLogArchiveServiceImpl implements ActivityLogArchiveService {
+
+    private static final String SEGMENT_EXTENSION = ".seg";
+
+    @Value("${activity-log.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${activity-log.archive.dir:./data/activity-log-archive}")
+    private String archiveDir;
+
+    private final ActivityLogPartitionRepository partitionRepository;
+
+    // Open segments, newest day first
+    private final NavigableMap<LocalDate, ActivityLogSegment> segments =
+            new ConcurrentSkipListMap<>(Collections.reverseOrder());
+
+    @PostConstruct
+    public void loadSegments() {
+        Path dir = Paths.get(archiveDir);
+        if (!archiveEnabled || !Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SEGMENT_EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    LocalDate day = LocalDate.parse(name.substring(0, name.length() - SEGMENT_EXTENSION.length()));
+                    segments.put(day, ActivityLogSegment.open(file, day));
+                } catch (DateTimeParseException | IOException e) {
+                    log.warn("Skipping unreadable activity log segment {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to list activity log archive {}: {}", dir, e.getMessage());
+        }
+        log.info("Loaded {} activity log archive segments from {}", segments.size(), dir);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return archiveEnabled;
+    }
+
+    @Override
+    public void archiveMonth(List<String> tables, YearMonth month) {
+        for (LocalDate day = month.atDay(1); !day.isAfter(month.atEndOfMonth()); day = day.plusDays(1)) {
+            for (String table : tables) {
+                archiveDay(table, day);
+            }
+        }
+    }
+
+    /**
+     * Streams a day of one table into a new segment, merged by id with what is already archived for the day.
+     * Neither side is held in memory as rows; the segment is only replaced when the table had rows for the day.
+     */
+    private void archiveDay(String table, LocalDate day) {
+        Path file = segmentPath(day);
+        ActivityLogSegment existing = segments.get(day);
+        int archived;
+        try (ActivityLogSegmentWriter writer = ActivityLogSegmentWriter.create(file);
+             ActivityLogSegment.RowCursor archivedRows = existing == null ? null : existing.rows()) {
+            SegmentMerge merge = new SegmentMerge(writer, archivedRows);
+            partitionRepository.streamLogsBetween(table, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), merge);
+            if (merge.tableRows == 0) {
+                return;
+            }
+            merge.finish();
+            archived = writer.getRowCount();
+            writer.commit();
+            segments.put(day, ActivityLogSegment.open(file, day));
+        } catch (IOException | UncheckedIOException e) {
+            throw new InternalServerErrorException("Failed to archive activity logs of " + day + ": " + e.getMessage());
+        }
+        log.info("Archived {} activity logs of {}", archived, day);
+    }
+
+    /**
+     * Merges table rows, which arrive in segment order, with the rows of the existing segment.
+     * A row already archived under the same id is replaced by the table's copy.
+     */
+    private static final class SegmentMerge implements Consumer<UserActivityLog> {
+
+        private static final Comparator<UserActivityLog> ORDER = Comparator
+                .comparing(UserActivityLog::getUserId, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing((UserActivityLog row) -> row.getTimestamp().truncatedTo(ChronoUnit.MILLIS),
+                        Comparator.reverseOrder())
+                .thenComparing(UserActivityLog::getId, Comparator.reverseOrder());
+
+        private final ActivityLogSegmentWriter writer;
+        private final ActivityLogSegment.RowCursor archivedRows;
+        private UserActivityLog pending;
+        private int tableRows;
+
+        SegmentMerge(ActivityLogSegmentWriter writer, ActivityLogSegment.RowCursor archivedRows) throws IOException {
+            this.writer = writer;
+            this.archivedRows = archivedRows;
+            this.pending = archivedRows == null ? null : archivedRows.next();
+        }
+
+        @Override
+        public void accept(UserActivityLog row) {
+            try {
+                while (pending != null && ORDER.compare(pending, row) <= 0) {
+                    if (!pending.getId().equals(row.getId())) {
+                        writer.append(pending);
+                    }
+                    pending = archivedRows.next();
+                }
+                writer.append(row);
+                tableRows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            while (pending != null) {
+                writer.append(pending);
+                pending = archivedRows.next();
+            }
+        }
+    }
+
+    @Override
+    public long countArchivedByUserId(Long userId) {
+        if (!archiveEnabled || userId == null) {
+            return 0;
+        }
+        long count = 0;
+        for (ActivityLogSegment segment : segments.values()) {
+            count += segment.countForUser(userId);
+        }
+        return count;
+    }
+
+    @Override
+    public List<UserActivityLog> findArchivedByUserId(Long userId, long offset, int limit) {
+        List<UserActivityLog> result = new ArrayList<>();
+        if (!archiveEnabled || userId == null || limit <= 0) {
+            return result;
+        }
+
+        long skip = offset;
+        for (ActivityLogSegment segment : segments.values()) {
+            int userRows = segment.countForUser(userId);
+            if (userRows == 0) {
+                continue;
+            }
+            // Whole segments before the requested window are skipped using the index alone
+            if (skip >= userRows) {
+                skip -= userRows;
+                continue;
+            }
+            try {
+                result.addAll(segment.readUser(userId, (int) skip, limit - result.size()));
+            } catch (IOException e) {
+                throw new InternalServerErrorException("Failed to read activity log archive of " + segment.getDay() + ": " + e.getMessage());
+            }
+            skip = 0;
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Path segmentPath(LocalDate day) {
+        return Paths.get(archiveDir).resolve(day + SEGMENT_EXTENSION);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.enums.LogPartitionStrategy;
+import com.example.demologin.event.UserSessionsRevokedEvent;
+import com.example.demologin.repository.ActivityLogPartitionRepository;
+import com.example.demologin.repository.UserActivityLogRepository;
+import com.example.demologin.service.ActivityLogArchiveService;
+import com.example.demologin.service.ActivityLogRetentionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class ActivityLogRetentionServiceImpl implements ActivityLogRetentionService {
+
+    @Value("${activity-log.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    // Months kept in total, current month included
+    @Value("${activity-log.retention.months:12}")
+    private int retentionMonths;
+
+    // Native partitions created ahead of time
+    @Value("${activity-log.partition.premake-months:2}")
+    private int premakeMonths;
+
+    @Value("${activity-log.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    private final UserActivityLogRepository userActivityLogRepository;
+    private final ActivityLogPartitionRepository partitionRepository;
+    private final ActivityLogArchiveService archiveService;
+    private final TransactionTemplate chunkTransaction;
+
+    public ActivityLogRetentionServiceImpl(UserActivityLogRepository userActivityLogRepository,
+                                           ActivityLogPartitionRepository partitionRepository,
+                                           ActivityLogArchiveService archiveService,
+                                           PlatformTransactionManager transactionManager) {
+        this.userActivityLogRepository = userActivityLogRepository;
+        this.partitionRepository = partitionRepository;
+        this.archiveService = archiveService;
+        // Every chunk commits on its own, even when the caller already runs in a transaction
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public long purgeUserLogs(Long userId) {
+        long deleted = runInChunks(() -> {
+            List<Long> ids = userActivityLogRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+            return ids.isEmpty() ? 0 : userActivityLogRepository.deleteByIdIn(ids);
+        });
+        log.info("Purged {} activity logs of user {}", deleted, userId);
+        return deleted;
+    }
+
+    /**
+     * Purges after the logout has committed, so the chunk transactions never run ahead of it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionsRevoked(UserSessionsRevokedEvent event) {
+        purgeUserLogs(event.userId());
+    }
+
+    @Override
+    @Scheduled(cron = "${activity-log.retention.cron:0 30 2 * * *}")
+    public void applyRetentionPolicy() {
+        if (!retentionEnabled) {
+            return;
+        }
+
+        LogPartitionStrategy strategy = partitionRepository.detectStrategy();
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth oldestRetainedMonth = currentMonth.minusMonths(Math.max(retentionMonths, 1) - 1L);
+
+        if (strategy == LogPartitionStrategy.CHUNKED_DELETE) {
+            deleteExpiredHotMonths(oldestRetainedMonth);
+            return;
+        }
+
+        premakePartitions(strategy, currentMonth);
+
+        for (YearMonth month : partitionRepository.findMonthlySegments(strategy)) {
+            if (month.isBefore(oldestRetainedMonth)
+                    && archiveBeforeRemoval(List.of(ActivityLogPartitionRepository.HOT_TABLE), month)) {
+                partitionRepository.dropMonthlySegment(strategy, month);
+                log.info("Dropped activity log segment {} ({})", month, strategy);
+            }
+        }
+    }
+
+    private void premakePartitions(LogPartitionStrategy strategy, YearMonth currentMonth) {
+        List<YearMonth> existing = partitionRepository.findMonthlySegments(strategy);
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!existing.contains(month)) {
+                partitionRepository.createMonthlyPartition(strategy, month);
+                log.info("Created activity log partition {} ({})", month, strategy);
+            }
+        }
+    }
+
+    /**
+     * Deletes every hot month that is past retention, one chunk per transaction, after copying it to the
+     * cold archive. Retained months stay in the hot table, where every read path looks.
+     */
+    private void deleteExpiredHotMonths(YearMonth oldestRetainedMonth) {
+        LocalDateTime oldest = partitionRepository.findOldestHotTimestamp();
+        if (oldest == null) {
+            return;
+        }
+
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(oldestRetainedMonth); month = month.plusMonths(1)) {
+            if (!archiveBeforeRemoval(List.of(ActivityLogPartitionRepository.HOT_TABLE), month)) {
+                continue;
+            }
+            LocalDateTime from = month.atDay(1).atStartOfDay();
+            LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+            long deleted = runInChunks(() -> {
+                List<Long> ids = partitionRepository.findHotIdsBetween(from, to, chunkSize);
+                return ids.isEmpty() ? 0 : userActivityLogRepository.deleteByIdIn(ids);
+            });
+            if (deleted > 0) {
+                log.info("Deleted {} expired activity logs of {}", deleted, month);
+            }
+        }
+    }
+
+    /**
+     * Copies a month into the cold archive before it leaves the database.
+     * Returns false when archiving failed, in which case the month must be kept.
+     */
+    private boolean archiveBeforeRemoval(List<String> tables, YearMonth month) {
+        if (!archiveService.isEnabled()) {
+            return true;
+        }
+        try {
+            archiveService.archiveMonth(tables, month);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Keeping activity logs of {}: archiving failed: {}", month, e.getMessage());
+            return false;
+        }
+    }
+
+    private long runInChunks(Supplier<Integer> chunk) {
+        long total = 0;
+        while (true) {
+            Integer affected = chunkTransaction.execute(status -> chunk.get());
+            int count = affected == null ? 0 : affected;
+            total += count;
+            if (count < chunkSize) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.BookSuggestionResponse;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.search.SuggestionTrie;
+import com.example.demologin.service.BookAutocompleteService;
+import com.example.demologin.service.BookSearchService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookAutocompleteServiceImpl implements BookAutocompleteService {
+
+    // A unit sold counts as much as this many detail views
+    private static final int SALE_WEIGHT = 5;
+
+    @Value("${book-autocomplete.max-results:10}")
+    private int maxResults;
+
+    // Changes arriving within this window are folded into one rebuild
+    @Value("${book-autocomplete.rebuild-delay-ms:500}")
+    private long rebuildDelayMs;
+
+    private final BookSearchService bookSearchService;
+
+    private final Map<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> unitsSold = new ConcurrentHashMap<>();
+    private final AtomicLong popularityVersion = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Replaced as a whole by the rebuild thread; lookups only ever read this reference
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+    private volatile long builtCatalogVersion = -1;
+    private volatile long builtPopularityVersion = -1;
+
+    @Override
+    public List<BookSuggestionResponse> suggest(String prefix, int limit) {
+        return trie.complete(prefix, Math.min(limit, maxResults));
+    }
+
+    @Override
+    public void recordView(Long bookId) {
+        // Cached detail requests are counted without loading the book; unknown ids must not grow the map
+        if (bookSearchService.isReady() && bookSearchService.findIndexed(List.of(bookId)).isEmpty()) {
+            return;
+        }
+        views.computeIfAbsent(bookId, id -> new LongAdder()).increment();
+        popularityVersion.incrementAndGet();
+    }
+
+    @Override
+    public void recordSale(Long bookId, int quantity) {
+        unitsSold.computeIfAbsent(bookId, id -> new LongAdder()).add(quantity);
+        popularityVersion.incrementAndGet();
+    }
+
+    // After the search index has been built by its own ApplicationReadyEvent listener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        // Suggestions do not show stock; sales reach the ranking through the popularity refresh
+        if (!event.isStockChange()) {
+            scheduleRebuild();
+        }
+    }
+
+    // Imports add books; bulk stock adjustments ride along, the rebuild is debounced anyway
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookBatchChanged(BookBatchChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Picks up popularity changes and index rebuilds that did not come with a BookChangedEvent.
+     */
+    @Scheduled(fixedDelayString = "${book-autocomplete.refresh-interval-ms:60000}")
+    public void refreshIfOutdated() {
+        if (builtCatalogVersion != bookSearchService.catalogVersion()
+                || builtPopularityVersion != popularityVersion.get()) {
+            scheduleRebuild();
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long catalogVersion = bookSearchService.catalogVersion();
+        long popularity = popularityVersion.get();
+
+        List<SuggestionTrie.Candidate> candidates = new ArrayList<>();
+        for (BookResponse book : bookSearchService.catalog()) {
+            if (Boolean.TRUE.equals(book.getIsAvailable())) {
+                candidates.add(new SuggestionTrie.Candidate(
+                        BookSuggestionResponse.toBookSuggestionResponse(book), popularityOf(book.getBookId())));
+            }
+        }
+        trie = SuggestionTrie.build(candidates, maxResults);
+        builtCatalogVersion = catalogVersion;
+        builtPopularityVersion = popularity;
+        log.debug("Rebuilt book autocomplete over {} books", candidates.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Failed to rebuild book autocomplete: {}", e.getMessage());
+                }
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long popularityOf(Long bookId) {
+        LongAdder viewCount = views.get(bookId);
+        LongAdder soldCount = unitsSold.get(bookId);
+        return (viewCount == null ? 0 : viewCount.sum()) + SALE_WEIGHT * (soldCount == null ? 0 : soldCount.sum());
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.cache.CategoryRegistry;
+import com.example.demologin.dto.request.book.CreateBookRequest;
+import com.example.demologin.dto.response.BookImportEvent;
+import com.example.demologin.enums.BookImportEventType;
+import com.example.demologin.enums.BookImportFormat;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.exception.exceptions.InternalServerErrorException;
+import com.example.demologin.importer.BookImportReader;
+import com.example.demologin.importer.BookImportRowMapper;
+import com.example.demologin.importer.ImportRow;
+import com.example.demologin.repository.BookImportRepository;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.BookImportService;
+import com.example.demologin.service.BookIsbnFilterService;
+import com.example.demologin.service.CategoryRegistryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming book import.
+ *
+ * The request thread splits the stream into chunks and hands them to a fork-join pool, which converts and
+ * validates several chunks at once. Parsed chunks are written back on the request thread in file order, one
+ * transaction each: categories come from the category registry, existing ISBNs are looked up with one query per
+ * chunk, the new books go in as one JDBC batch, and one BookBatchChangedEvent tells the in-memory views. At most
+ * a few chunks are in flight, so reading stops while the database falls behind. ISBNs repeated within the file
+ * are caught because earlier chunks are committed before later ones are checked.
+ */
+@Slf4j
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    // Parsing threads; 0 for one per core
+    @Value("${book-import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${book-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${book-import.progress-every-rows:10000}")
+    private long progressEveryRows;
+
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryRegistryService categoryRegistryService;
+    private final BookImportRepository bookImportRepository;
+    private final BookIsbnFilterService bookIsbnFilterService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+
+    private ForkJoinPool parsers;
+
+    public BookImportServiceImpl(BookRepository bookRepository,
+                                 CategoryRepository categoryRepository,
+                                 CategoryRegistryService categoryRegistryService,
+                                 BookImportRepository bookImportRepository,
+                                 BookIsbnFilterService bookIsbnFilterService,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryRegistryService = categoryRegistryService;
+        this.bookImportRepository = bookImportRepository;
+        this.bookIsbnFilterService = bookIsbnFilterService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        // Every chunk commits on its own, so a failing chunk only loses its own rows
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        parsers = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("book-import-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsers.shutdownNow();
+    }
+
+    @Override
+    public BookImportEvent importBooks(InputStream in, BookImportFormat format, Consumer<BookImportEvent> listener)
+            throws IOException {
+        ImportRun run = new ImportRun(listener);
+        try (BookImportReader reader = BookImportReader.open(in, format)) {
+            BookImportRowMapper mapper = format == BookImportFormat.CSV
+                    ? BookImportRowMapper.forCsv(reader.header())
+                    : BookImportRowMapper.forJson(objectMapper);
+            Deque<Future<List<ParsedRow>>> inFlight = new ArrayDeque<>();
+            int maxInFlight = parsers.getParallelism() * 2;
+            try {
+                try {
+                    List<ImportRow> rows;
+                    while (!(rows = reader.nextChunk(chunkSize)).isEmpty()) {
+                        List<ImportRow> chunk = rows;
+                        inFlight.add(parsers.submit(() -> parse(mapper, chunk)));
+                        if (inFlight.size() >= maxInFlight) {
+                            write(await(inFlight.poll()), run);
+                        }
+                    }
+                } catch (IOException e) {
+                    // Unreadable rest of the stream; what was read so far is still imported
+                    log.warn("Book import stopped reading after {} rows: {}", run.processed(), e.getMessage());
+                    run.listener.accept(BookImportEvent.error(null, null, "Import stopped: " + e.getMessage()));
+                }
+                while (!inFlight.isEmpty()) {
+                    write(await(inFlight.poll()), run);
+                }
+            } finally {
+                // Only left over when the client went away or the import failed
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+        log.info("Book import finished: {} imported, {} failed", run.imported, run.failed);
+        return BookImportEvent.totals(BookImportEventType.DONE, run.imported, run.failed);
+    }
+
+    private List<ParsedRow> parse(BookImportRowMapper mapper, List<ImportRow> rows) {
+        List<ParsedRow> parsed = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            parsed.add(parse(mapper, row));
+        }
+        return parsed;
+    }
+
+    private ParsedRow parse(BookImportRowMapper mapper, ImportRow row) {
+        CreateBookRequest book;
+        try {
+            book = mapper.map(row);
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(row.line(), null, e.getMessage());
+        }
+        // The ISBN is how imports find duplicates and the ids of the new books
+        if (!StringUtils.hasText(book.getIsbn())) {
+            return new ParsedRow(row.line(), book, "ISBN is required for imports");
+        }
+        book.setIsbn(book.getIsbn().trim());
+        Set<ConstraintViolation<CreateBookRequest>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new ParsedRow(row.line(), book, message);
+        }
+        return new ParsedRow(row.line(), book, null);
+    }
+
+    private List<ParsedRow> await(Future<List<ParsedRow>> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Book import was interrupted");
+        } catch (ExecutionException e) {
+            throw new InternalServerErrorException("Book import failed: " + e.getCause().getMessage());
+        }
+    }
+
+    private void write(List<ParsedRow> rows, ImportRun run) {
+        List<BookImportEvent> errors = new ArrayList<>();
+        List<ParsedRow> accepted;
+        try {
+            accepted = chunkTransaction.execute(status -> insert(rows, errors));
+            bookIsbnFilterService.addAll(accepted.stream().map(ParsedRow::isbn).toList());
+        } catch (RuntimeException e) {
+            log.warn("Book import chunk starting on line {} failed", rows.get(0).line(), e);
+            errors.clear();
+            accepted = List.of();
+            for (ParsedRow row : rows) {
+                errors.add(BookImportEvent.error(row.line(), row.isbn(),
+                        row.error() != null ? row.error() : "Chunk not imported: " + e.getMessage()));
+            }
+        }
+        errors.forEach(run.listener);
+        run.add(accepted.size(), errors.size());
+        if (run.processed() >= run.nextProgress) {
+            run.nextProgress += progressEveryRows;
+            run.listener.accept(BookImportEvent.totals(BookImportEventType.PROGRESS, run.imported, run.failed));
+        }
+    }
+
+    // Runs in the chunk transaction; returns the inserted rows and adds an error per rejected row
+    private List<ParsedRow> insert(List<ParsedRow> rows, List<BookImportEvent> errors) {
+        CategoryRegistry categories = categoryRegistryService.current();
+        // Only ISBNs the filter may have seen are looked up
+        Set<String> isbns = rows.stream()
+                .filter(row -> row.error() == null)
+                .map(ParsedRow::isbn)
+                .filter(bookIsbnFilterService::mightExist)
+                .collect(Collectors.toSet());
+        // Compared ignoring case, as the unique index may do
+        Set<String> taken = isbns.isEmpty() ? new HashSet<>() : bookRepository.findExistingIsbns(isbns).stream()
+                .map(isbn -> isbn.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<ParsedRow> accepted = new ArrayList<>();
+        for (ParsedRow row : rows) {
+            String error = row.error();
+            if (error == null) {
+                CategoryRegistry.Entry category = categories.get(row.book().getCategoryId());
+                if (category == null) {
+                    error = "Category not found with id: " + row.book().getCategoryId();
+                } else if (!category.active()) {
+                    error = "Cannot assign book to inactive category: " + category.name();
+                } else if (!taken.add(row.isbn().toUpperCase(Locale.ROOT))) {
+                    error = "ISBN already exists: " + row.isbn();
+                }
+            }
+            if (error != null) {
+                errors.add(BookImportEvent.error(row.line(), row.isbn(), error));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+
+        bookImportRepository.insert(accepted.stream().map(ParsedRow::book).toList());
+        // In id order, like every writer that touches several categories
+        accepted.stream()
+                .collect(Collectors.groupingBy(row -> row.book().getCategoryId(), TreeMap::new, Collectors.counting()))
+                .forEach((categoryId, count) -> categoryRepository.adjustBookCount(categoryId, count.intValue()));
+        List<Long> bookIds = bookRepository.findIdsByIsbnIn(accepted.stream().map(ParsedRow::isbn).toList());
+        eventPublisher.publishEvent(new BookBatchChangedEvent(bookIds));
+        return accepted;
+    }
+
+    private record ParsedRow(long line, CreateBookRequest book, String error) {
+
+        String isbn() {
+            return book != null ? book.getIsbn() : null;
+        }
+    }
+
+    // Totals of one import; only touched by the request thread
+    private final class ImportRun {
+
+        private final Consumer<BookImportEvent> listener;
+        private long imported;
+        private long failed;
+        private long nextProgress = progressEveryRows;
+
+        private ImportRun(Consumer<BookImportEvent> listener) {
+            this.listener = listener;
+        }
+
+        private void add(int importedRows, int failedRows) {
+            imported += importedRows;
+            failed += failedRows;
+        }
+
+        private long processed() {
+            return imported + failed;
+        }
+    }
+}
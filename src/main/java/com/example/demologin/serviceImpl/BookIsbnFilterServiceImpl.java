@@ -0,0 +1,146 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.CatalogStampChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.search.IsbnBloomFilter;
+import com.example.demologin.service.BookIsbnFilterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a Bloom filter of all catalog ISBNs so that creating or re-ISBN-ing a book usually skips the
+ * existsByIsbn query: most new ISBNs are definitely absent.
+ *
+ * The filter is built from the table at startup, sized for twice the catalog, and rebuilt when it has taken in
+ * more ISBNs than that or to shed deleted ones. Writes are added after commit; writes of other nodes when the
+ * polled catalog stamp moves, so for up to one poll interval another node's ISBN is "definitely absent" here and
+ * the unique index has the final word. While a build reads the table, added ISBNs are also kept aside and
+ * replayed into the new filter, so a book committed after the read began is never missed. Until the first build
+ * is done every ISBN "might exist".
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookIsbnFilterServiceImpl implements BookIsbnFilterService {
+
+    @Value("${book-isbn-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${book-isbn-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${book-isbn-filter.min-capacity:10000}")
+    private long minCapacity;
+
+    // How far before the previous poll's latest updatedAt the ISBNs of other nodes' writes are read back
+    @Value("${book-isbn-filter.refresh-lookback-ms:60000}")
+    private long refreshLookbackMs;
+
+    private final BookRepository bookRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Null until the startup build is done
+    private volatile IsbnBloomFilter filter;
+    private volatile boolean building = true;
+    // ISBNs added while a build reads the table
+    private final Set<String> addedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean mightExist(String isbn) {
+        IsbnBloomFilter current = filter;
+        return current == null || current.mightContain(isbn);
+    }
+
+    @Override
+    public void addAll(Collection<String> isbns) {
+        isbns.forEach(this::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.book() != null) {
+            add(event.book().getIsbn());
+        }
+    }
+
+    @EventListener
+    public void onCatalogStampChanged(CatalogStampChangedEvent event) {
+        if (!enabled || !event.booksChanged() || event.booksUpdatedSince() == null) {
+            return;
+        }
+        LocalDateTime since = event.booksUpdatedSince().minus(refreshLookbackMs, ChronoUnit.MILLIS);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        addAll(readOnly.execute(status -> bookRepository.findIsbnsUpdatedSince(since)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${book-isbn-filter.check-interval-ms:60000}")
+    public void rebuildIfSaturated() {
+        IsbnBloomFilter current = filter;
+        if (current != null && current.isSaturated()) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        addedDuringBuild.clear();
+        building = true;
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            IsbnBloomFilter rebuilt = readOnly.execute(status -> {
+                long capacity = Math.max(minCapacity, bookRepository.countByIsbnIsNotNull() * 2);
+                IsbnBloomFilter fresh = new IsbnBloomFilter(capacity, falsePositiveRate);
+                try (Stream<String> isbns = bookRepository.streamAllIsbns()) {
+                    isbns.forEach(fresh::add);
+                }
+                return fresh;
+            });
+            filter = rebuilt;
+            addedDuringBuild.forEach(rebuilt::add);
+            log.info("Built ISBN filter: {} ISBNs, {} KB in {} ms", rebuilt.addedCount(),
+                    rebuilt.sizeInBytes() / 1024, System.currentTimeMillis() - start);
+        } finally {
+            building = false;
+        }
+    }
+
+    private void add(String isbn) {
+        if (!enabled || !StringUtils.hasText(isbn)) {
+            return;
+        }
+        if (building) {
+            addedDuringBuild.add(isbn);
+        }
+        // Read after the set above: a build that swapped in a new filter before replaying the set is seen here
+        IsbnBloomFilter current = filter;
+        if (current != null) {
+            current.add(isbn);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CatalogFacetsResponse;
+import com.example.demologin.entity.Book;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.event.CatalogStampChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.search.BookSearchIndex;
+import com.example.demologin.search.BookSearchQuery;
+import com.example.demologin.search.CatalogSnapshot;
+import com.example.demologin.service.BookSearchService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchServiceImpl implements BookSearchService {
+
+    @Value("${book-search.enabled:true}")
+    private boolean searchEnabled;
+
+    // Upper bounds of the price facet buckets
+    @Value("${book-search.facets.price-buckets:100000,200000,500000,1000000}")
+    private List<BigDecimal> priceBucketEdges;
+
+    // Changes arriving within this window are folded into one snapshot rebuild
+    @Value("${book-search.snapshot-rebuild-delay-ms:200}")
+    private long snapshotRebuildDelayMs;
+
+    // How far before the previous poll's latest updatedAt a catch-up reads back: covers transactions that
+    // commit after a later one and clock skew between the nodes and the database
+    @Value("${book-search.refresh-lookback-ms:60000}")
+    private long refreshLookbackMs;
+
+    private final BookRepository bookRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile BookSearchIndex index;
+
+    // Columnar copy for filter-only queries. Stock changes patch a copy of it; other changes rebuild it on
+    // the builder thread while reads keep the previous copy. Never built under the lock the listeners take.
+    private volatile CatalogSnapshot snapshot;
+    private boolean snapshotStale;
+    // Stock changes seen while a snapshot is built from an older copy of the index; patched on before publishing
+    private Set<Long> restockedDuringBuild;
+    private final Object snapshotBuildLock = new Object();
+    private final AtomicBoolean snapshotRebuildPending = new AtomicBoolean();
+    private final ScheduledExecutorService snapshotBuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    // One rebuild at a time: the scheduled one and those started by a moved catalog stamp
+    private final Object rebuildLock = new Object();
+    // Changes seen while a rebuild reads the table; replayed on the new index before it is published
+    private List<BookChangedEvent> pendingChanges;
+    private Set<Long> pendingReloads;
+
+    @Override
+    public boolean isReady() {
+        return searchEnabled && index != null;
+    }
+
+    @Override
+    public Page<BookResponse> search(BookSearchQuery query, Pageable pageable) {
+        if (CatalogSnapshot.supports(query)) {
+            return currentSnapshot().filter(query, pageable);
+        }
+        return index.search(query, pageable);
+    }
+
+    @Override
+    public CatalogFacetsResponse facets(BookSearchQuery query) {
+        return currentSnapshot().facets(query);
+    }
+
+    @Override
+    public Map<Long, BookResponse> findIndexed(Collection<Long> bookIds) {
+        BookSearchIndex current = index;
+        Map<Long, BookResponse> found = new HashMap<>();
+        if (current == null || !searchEnabled) {
+            return found;
+        }
+        for (Long bookId : bookIds) {
+            BookResponse book = current.get(bookId);
+            if (book != null) {
+                found.put(bookId, book);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<BookResponse> catalog() {
+        BookSearchIndex current = index;
+        return current == null ? List.of() : current.books();
+    }
+
+    @Override
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    private CatalogSnapshot currentSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            // Only until the first build has been published
+            rebuildSnapshot();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Builds a snapshot from a copy of the index. Only the copy is taken under the listeners' lock; stock
+     * changes that arrive during the build are patched onto the result before it replaces the current one.
+     */
+    private void rebuildSnapshot() {
+        synchronized (snapshotBuildLock) {
+            List<BookResponse> books;
+            synchronized (this) {
+                if (index == null || (snapshot != null && !snapshotStale)) {
+                    return;
+                }
+                snapshotStale = false;
+                restockedDuringBuild = new HashSet<>();
+                books = index.books();
+            }
+
+            CatalogSnapshot built = CatalogSnapshot.build(books, priceBucketEdges);
+
+            synchronized (this) {
+                if (!restockedDuringBuild.isEmpty()) {
+                    CatalogSnapshot patched = built.withStock(restockedDuringBuild.stream()
+                            .map(index::get)
+                            .filter(Objects::nonNull)
+                            .toList());
+                    if (patched != null) {
+                        built = patched;
+                    } else {
+                        invalidateSnapshot();
+                    }
+                }
+                restockedDuringBuild = null;
+                snapshot = built;
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void invalidateSnapshot() {
+        snapshotStale = true;
+        if (snapshotRebuildPending.compareAndSet(false, true)) {
+            snapshotBuilder.schedule(() -> {
+                snapshotRebuildPending.set(false);
+                try {
+                    rebuildSnapshot();
+                } catch (RuntimeException e) {
+                    log.error("Failed to rebuild catalog snapshot: {}", e.getMessage());
+                }
+            }, snapshotRebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Caller holds the lock; the index already has the new stock
+    private void patchSnapshotStock(Long bookId) {
+        if (restockedDuringBuild != null) {
+            restockedDuringBuild.add(bookId);
+        }
+        BookResponse book = index.get(bookId);
+        CatalogSnapshot current = snapshot;
+        if (book == null || current == null) {
+            return;
+        }
+        CatalogSnapshot patched = current.withStock(List.of(book));
+        if (patched != null) {
+            snapshot = patched;
+        } else {
+            invalidateSnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotBuilder.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (searchEnabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Catches up with writes of other nodes, which reach this node only through the polled catalog stamp. Runs
+     * before the shared ETag moves, so bodies cached under it are never built from an index that lags behind.
+     * Books written since the previous poll are read again; deletes and category changes leave nothing to read
+     * back and take a full rebuild.
+     */
+    @EventListener
+    public void onCatalogStampChanged(CatalogStampChangedEvent event) {
+        if (!searchEnabled || index == null) {
+            return;
+        }
+        if (event.categoriesChanged() || event.booksUpdatedSince() == null) {
+            rebuild();
+            return;
+        }
+        if (!event.booksChanged()) {
+            return;
+        }
+        LocalDateTime since = event.booksUpdatedSince().minus(refreshLookbackMs, ChronoUnit.MILLIS);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<BookResponse> books = readOnly.execute(status -> bookRepository.findUpdatedSince(since).stream()
+                .map(BookResponse::toBookResponse)
+                .toList());
+        boolean complete;
+        synchronized (this) {
+            books.forEach(index::put);
+            if (pendingReloads != null) {
+                // A running rebuild may have read these books before this did; it also sees the deletes
+                books.forEach(book -> pendingReloads.add(book.getBookId()));
+            }
+            invalidateSnapshot();
+            catalogVersion.incrementAndGet();
+            complete = pendingReloads != null || index.size() == event.bookCount();
+        }
+        if (!complete) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Full rebuild from the database. Also runs periodically to repair anything an event could have missed.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${book-search.rebuild-interval-ms:900000}", initialDelayString = "${book-search.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            if (!searchEnabled) {
+                return;
+            }
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+                pendingReloads = new HashSet<>();
+            }
+
+            long start = System.currentTimeMillis();
+            BookSearchIndex rebuilt;
+            try {
+                rebuilt = BookSearchIndex.build(loadAllBooks());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                    pendingReloads = null;
+                }
+                log.error("Failed to build book search index: {}", e.getMessage());
+                return;
+            }
+
+            // A stock delta may or may not be part of what was loaded, so those books are read again instead
+            List<Long> restocked = new ArrayList<>();
+            synchronized (this) {
+                restocked.addAll(pendingReloads);
+                for (BookChangedEvent change : pendingChanges) {
+                    if (change.isStockChange()) {
+                        restocked.add(change.bookId());
+                    } else {
+                        apply(rebuilt, change);
+                    }
+                }
+                pendingChanges = null;
+                pendingReloads = null;
+                index = rebuilt;
+                snapshotStale = true;
+                catalogVersion.incrementAndGet();
+            }
+            rebuildSnapshot();
+            if (!restocked.isEmpty()) {
+                reload(restocked);
+            }
+            log.info("Built book search index: {} books, {} terms in {} ms",
+                    rebuilt.size(), rebuilt.termCount(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private void reload(List<Long> bookIds) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<BookResponse> books = readOnly.execute(status -> bookRepository.findAllById(bookIds).stream()
+                .map(BookResponse::toBookResponse)
+                .toList());
+        synchronized (this) {
+            books.forEach(index::put);
+            invalidateSnapshot();
+            catalogVersion.incrementAndGet();
+        }
+    }
+
+    // Runs before other listeners of the event, which may read the catalog back from here
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        if (pendingChanges != null) {
+            pendingChanges.add(event);
+        }
+        if (index != null) {
+            apply(index, event);
+            if (event.isStockChange()) {
+                patchSnapshotStock(event.bookId());
+            } else {
+                invalidateSnapshot();
+            }
+            catalogVersion.incrementAndGet();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookBatchChanged(BookBatchChangedEvent event) {
+        synchronized (this) {
+            if (pendingReloads != null) {
+                pendingReloads.addAll(event.bookIds());
+            }
+            if (index == null) {
+                return;
+            }
+        }
+        reload(event.bookIds());
+    }
+
+    private void apply(BookSearchIndex target, BookChangedEvent event) {
+        if (event.isStockChange()) {
+            BookResponse current = target.get(event.bookId());
+            if (current != null) {
+                target.put(current.withStockQuantity(current.getStockQuantity() + event.stockDelta()));
+            }
+        } else if (event.isDeleted()) {
+            target.remove(event.bookId());
+        } else {
+            target.put(event.book());
+        }
+    }
+
+    private List<BookResponse> loadAllBooks() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            List<BookResponse> books = new ArrayList<>();
+            try (Stream<Book> rows = bookRepository.streamAllBy()) {
+                rows.forEach(book -> {
+                    books.add(BookResponse.toBookResponse(book));
+                    entityManager.detach(book);
+                });
+            }
+            return books;
+        });
+    }
+}
@@ -1,17 +1,40 @@
 package com.example.demologin.serviceImpl;
 
+import com.example.demologin.cache.CategoryRegistry;
 import com.example.demologin.dto.request.book.CreateBookRequest;
+import com.example.demologin.dto.request.book.StockAdjustmentItem;
 import com.example.demologin.dto.request.book.UpdateBookRequest;
+import com.example.demologin.dto.response.BookBatchItemResponse;
 import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.BookSuggestionResponse;
+import com.example.demologin.dto.response.BookSummaryResponse;
+import com.example.demologin.dto.response.BulkStockAdjustmentResponse;
+import com.example.demologin.dto.response.CatalogFacetsResponse;
+import com.example.demologin.dto.response.StockAdjustmentResult;
+import com.example.demologin.dto.response.StockReservationResponse;
 import com.example.demologin.entity.Book;
 import com.example.demologin.entity.Category;
+import com.example.demologin.enums.StockAdjustmentStatus;
+import com.example.demologin.event.BookChangedEvent;
 import com.example.demologin.exception.exceptions.BadRequestException;
 import com.example.demologin.exception.exceptions.ConflictException;
 import com.example.demologin.exception.exceptions.NotFoundException;
 import com.example.demologin.repository.BookRepository;
 import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.search.BookSearchQuery;
+import com.example.demologin.search.CatalogSnapshot;
+import com.example.demologin.service.BookAutocompleteService;
+import com.example.demologin.service.BookIsbnFilterService;
+import com.example.demologin.service.BookSearchService;
+import com.example.demologin.service.CategoryRegistryService;
 import com.example.demologin.service.BookService;
+import com.example.demologin.service.BookStockService;
+import com.example.demologin.service.PageCountService;
+import com.example.demologin.service.StockReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,14 +44,32 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookServiceImpl implements BookService {
     
+    @Value("${book-search.facets.price-buckets:100000,200000,500000,1000000}")
+    private List<BigDecimal> priceBucketEdges;
+    
     private final BookRepository bookRepository;
     private final CategoryRepository categoryRepository;
+    private final PageCountService pageCountService;
+    private final BookSearchService bookSearchService;
+    private final BookAutocompleteService bookAutocompleteService;
+    private final BookStockService bookStockService;
+    private final BookIsbnFilterService bookIsbnFilterService;
+    private final CategoryRegistryService categoryRegistryService;
+    private final StockReservationService stockReservationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     public Page<BookResponse> getAllBooks(int page, int size) {
@@ -37,32 +78,137 @@ public class BookServiceImpl implements BookService {
         return books.map(BookResponse::toBookResponse);
     }
     
+    @Override
+    public Page<BookSummaryResponse> getAllBookSummaries(int page, int size) {
+        return bookRepository.findAllSummaries(PageRequest.of(page, size, Sort.by("title")));
+    }
+    
     @Override
     public Page<BookResponse> getBooksByFilters(String title, String author, Long categoryId, 
                                               Boolean isAvailable, BigDecimal minPrice, 
                                               BigDecimal maxPrice, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("title"));
-        Page<Book> books = bookRepository.findBooksByFilters(
-                title, author, categoryId, isAvailable, minPrice, maxPrice, pageable);
+        String countKey = filterCountKey(title, author, categoryId, isAvailable, minPrice, maxPrice);
+        LongSupplier count = () -> bookRepository.countBooksByFilters(title, author, categoryId, isAvailable, minPrice, maxPrice);
+
+        Page<Book> books = pageCountService.shouldStream(pageable)
+                ? pageCountService.toStreamingPage(pageable,
+                        p -> bookRepository.streamBooksByFilters(title, author, categoryId, isAvailable, minPrice, maxPrice, p),
+                        countKey, count)
+                : pageCountService.toPage(
+                        bookRepository.findBooksByFilters(title, author, categoryId, isAvailable, minPrice, maxPrice, pageable),
+                        countKey, count);
         return books.map(BookResponse::toBookResponse);
     }
     
+    @Override
+    public Page<BookSummaryResponse> getBookSummariesByFilters(String title, String author, Long categoryId,
+                                                               Boolean isAvailable, BigDecimal minPrice,
+                                                               BigDecimal maxPrice, int page, int size) {
+        // Summary rows are small DTOs, so even large pages are read in one go instead of streamed
+        Pageable pageable = PageRequest.of(page, size, Sort.by("title"));
+        return pageCountService.toPage(
+                bookRepository.findBookSummariesByFilters(title, author, categoryId, isAvailable, minPrice, maxPrice, pageable),
+                filterCountKey(title, author, categoryId, isAvailable, minPrice, maxPrice),
+                () -> bookRepository.countBooksByFilters(title, author, categoryId, isAvailable, minPrice, maxPrice));
+    }
+    
+    @Override
+    public Page<BookResponse> searchBooks(String text, String title, String author, Long categoryId,
+                                          BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        if (!bookSearchService.isReady()) {
+            // Index still building: the database has no free-text search, so only the field filters apply
+            return getBooksByFilters(StringUtils.hasText(title) ? title : text, author, categoryId, true,
+                    minPrice, maxPrice, page, size);
+        }
+        BookSearchQuery query = new BookSearchQuery(text, title, author, categoryId, true, minPrice, maxPrice);
+        return bookSearchService.search(query, PageRequest.of(page, size));
+    }
+
+    @Override
+    public Page<BookSummaryResponse> searchBookSummaries(String text, String title, String author, Long categoryId,
+                                                         BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        if (!bookSearchService.isReady()) {
+            return getBookSummariesByFilters(StringUtils.hasText(title) ? title : text, author, categoryId, true,
+                    minPrice, maxPrice, page, size);
+        }
+        return searchBooks(text, title, author, categoryId, minPrice, maxPrice, page, size)
+                .map(BookSummaryResponse::toBookSummaryResponse);
+    }
+    
+    @Override
+    public List<BookSuggestionResponse> autocomplete(String prefix, int limit) {
+        return bookAutocompleteService.suggest(prefix, limit);
+    }
+    
+    @Override
+    public CatalogFacetsResponse getCatalogFacets(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        BookSearchQuery query = new BookSearchQuery(null, null, null, categoryId, true, minPrice, maxPrice);
+        if (bookSearchService.isReady()) {
+            return bookSearchService.facets(query);
+        }
+        // Index still building: count over a one-off snapshot of the available books
+        List<BookResponse> books = bookRepository.findBooksByFilters(null, null, null, true, null, null, Pageable.unpaged())
+                .map(BookResponse::toBookResponse)
+                .getContent();
+        return CatalogSnapshot.build(books, priceBucketEdges).facets(query);
+    }
+    
     @Override
     public Page<BookResponse> getBooksByCategory(Long categoryId, int page, int size) {
         // Validate category exists
-        if (!categoryRepository.existsById(categoryId)) {
-            throw new NotFoundException("Category not found with id: " + categoryId);
-        }
+        findRegisteredCategory(categoryId);
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("title"));
         Page<Book> books = bookRepository.findByCategory_CategoryId(categoryId, pageable);
         return books.map(BookResponse::toBookResponse);
     }
     
+    @Override
+    public Page<BookSummaryResponse> getBookSummariesByCategory(Long categoryId, int page, int size) {
+        findRegisteredCategory(categoryId);
+        
+        return bookRepository.findSummariesByCategoryId(categoryId, PageRequest.of(page, size, Sort.by("title")));
+    }
+    
     @Override
     public BookResponse getBookById(Long bookId) {
         Book book = findBookById(bookId);
-        return BookResponse.toBookResponse(book);
+        bookAutocompleteService.recordView(bookId);
+        BookResponse response = BookResponse.toBookResponse(book);
+        // books.stock_quantity of a sharded book trails its slots by up to one sync interval
+        return book.getStockSlots() != null
+                ? response.withStockQuantity(bookStockService.shardedStock(bookId))
+                : response;
+    }
+    
+    @Override
+    public List<BookBatchItemResponse> getBooksByIds(List<Long> bookIds) {
+        Set<Long> distinctIds = new LinkedHashSet<>(bookIds);
+        
+        // Served from the search index where possible; the rest in a single IN query
+        Map<Long, BookResponse> books = bookSearchService.findIndexed(distinctIds);
+        List<Long> misses = distinctIds.stream().filter(id -> !books.containsKey(id)).toList();
+        Set<Long> sharded = new HashSet<>();
+        if (!misses.isEmpty()) {
+            for (Book book : bookRepository.findAllById(misses)) {
+                books.put(book.getBookId(), BookResponse.toBookResponse(book));
+                if (book.getStockSlots() != null) {
+                    sharded.add(book.getBookId());
+                }
+            }
+        }
+        // As in getBookById: the stock of a sharded book is the sum of its slots, not the trailing books row
+        books.replaceAll((bookId, book) -> sharded.contains(bookId) || bookStockService.isSharded(bookId)
+                ? book.withStockQuantity(bookStockService.shardedStock(bookId))
+                : book);
+        
+        List<BookBatchItemResponse> items = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            BookResponse book = books.get(bookId);
+            items.add(new BookBatchItemResponse(bookId, book != null, book));
+        }
+        return items;
     }
     
     @Override
@@ -86,8 +232,9 @@ public class BookServiceImpl implements BookService {
         book.setLanguage(request.getLanguage());
         book.setCategory(category);
         
-        Book savedBook = bookRepository.save(book);
-        return BookResponse.toBookResponse(savedBook);
+        Book savedBook = saveChecked(book);
+        categoryRepository.adjustBookCount(category.getCategoryId(), 1);
+        return publishSaved(savedBook);
     }
     
     @Override
@@ -97,6 +244,7 @@ public class BookServiceImpl implements BookService {
         validateBookData(request.getIsbn(), bookId, request.getCategoryId());
         
         Category category = findCategoryById(request.getCategoryId());
+        Long previousCategoryId = book.getCategory().getCategoryId();
         
         book.setTitle(request.getTitle());
         book.setAuthor(request.getAuthor());
@@ -112,16 +260,27 @@ public class BookServiceImpl implements BookService {
         book.setPages(request.getPages());
         book.setLanguage(request.getLanguage());
         book.setCategory(category);
+        if (book.getStockSlots() != null) {
+            bookStockService.resetShardedStock(bookId, request.getStockQuantity());
+        }
         
-        Book updatedBook = bookRepository.save(book);
-        return BookResponse.toBookResponse(updatedBook);
+        Book updatedBook = saveChecked(book);
+        if (!previousCategoryId.equals(category.getCategoryId())) {
+            moveBookCount(previousCategoryId, category.getCategoryId());
+        }
+        return publishSaved(updatedBook);
     }
     
     @Override
     @Transactional
     public void deleteBook(Long bookId) {
         Book book = findBookById(bookId);
+        if (book.getStockSlots() != null) {
+            bookStockService.mergeStock(bookId);
+        }
         bookRepository.delete(book);
+        categoryRepository.adjustBookCount(book.getCategory().getCategoryId(), -1);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(bookId));
     }
     
     @Override
@@ -129,7 +288,7 @@ public class BookServiceImpl implements BookService {
     public void toggleBookAvailability(Long bookId) {
         Book book = findBookById(bookId);
         book.setIsAvailable(!book.getIsAvailable());
-        bookRepository.save(book);
+        publishSaved(bookRepository.save(book));
     }
     
     @Override
@@ -141,35 +300,93 @@ public class BookServiceImpl implements BookService {
         
         Book book = findBookById(bookId);
         book.setStockQuantity(newQuantity);
-        bookRepository.save(book);
+        if (book.getStockSlots() != null) {
+            bookStockService.resetShardedStock(bookId, newQuantity);
+        }
+        publishSaved(bookRepository.save(book));
     }
     
     @Override
     @Transactional
     public void decreaseBookStock(Long bookId, Integer quantity) {
-        if (quantity <= 0) {
-            throw new BadRequestException("Quantity must be greater than 0");
-        }
-        
-        Book book = findBookById(bookId);
-        if (book.getStockQuantity() < quantity) {
-            throw new BadRequestException("Insufficient stock. Available: " + book.getStockQuantity() + ", Requested: " + quantity);
-        }
-        
-        book.decreaseStock(quantity);
-        bookRepository.save(book);
+        bookStockService.decreaseStock(bookId, quantity);
     }
     
     @Override
     @Transactional
     public void increaseBookStock(Long bookId, Integer quantity) {
-        if (quantity <= 0) {
-            throw new BadRequestException("Quantity must be greater than 0");
+        bookStockService.increaseStock(bookId, quantity);
+    }
+    
+    @Override
+    @Transactional
+    public void shardBookStock(Long bookId, Integer slots) {
+        bookStockService.shardStock(bookId, slots);
+    }
+    
+    @Override
+    @Transactional
+    public void mergeBookStock(Long bookId) {
+        bookStockService.mergeStock(bookId);
+    }
+    
+    @Override
+    @Transactional
+    public BulkStockAdjustmentResponse adjustBookStocks(List<StockAdjustmentItem> items) {
+        List<StockAdjustmentResult> results = bookStockService.adjustStock(items);
+        int applied = (int) results.stream().filter(result -> result.getStatus() == StockAdjustmentStatus.APPLIED).count();
+        return new BulkStockAdjustmentResponse(applied, results.size() - applied, results);
+    }
+    
+    @Override
+    public StockReservationResponse reserveBookStock(Long bookId, Integer quantity) {
+        return stockReservationService.reserve(bookId, quantity);
+    }
+    
+    @Override
+    public StockReservationResponse confirmStockReservation(String reservationId) {
+        return stockReservationService.confirm(reservationId);
+    }
+    
+    @Override
+    public void releaseStockReservation(String reservationId) {
+        stockReservationService.release(reservationId);
+    }
+    
+    private String filterCountKey(String title, String author, Long categoryId, Boolean isAvailable,
+                                  BigDecimal minPrice, BigDecimal maxPrice) {
+        return String.join(":", "books", String.valueOf(title), String.valueOf(author),
+                String.valueOf(categoryId), String.valueOf(isAvailable), String.valueOf(minPrice), String.valueOf(maxPrice));
+    }
+    
+    private BookResponse publishSaved(Book book) {
+        BookResponse response = BookResponse.toBookResponse(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(response));
+        return response;
+    }
+    
+    // Both rows in id order, so two books moving in opposite directions cannot deadlock
+    private void moveBookCount(Long fromCategoryId, Long toCategoryId) {
+        if (fromCategoryId < toCategoryId) {
+            categoryRepository.adjustBookCount(fromCategoryId, -1);
+            categoryRepository.adjustBookCount(toCategoryId, 1);
+        } else {
+            categoryRepository.adjustBookCount(toCategoryId, 1);
+            categoryRepository.adjustBookCount(fromCategoryId, -1);
+        }
+    }
+    
+    // The ISBN filter learns other nodes' books only with the next catalog poll, so a duplicate can get past
+    // validateBookData; the unique index has the final word and is answered like the check
+    private Book saveChecked(Book book) {
+        try {
+            return bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            if (StringUtils.hasText(book.getIsbn())) {
+                throw new ConflictException("ISBN already exists: " + book.getIsbn());
+            }
+            throw e;
         }
-        
-        Book book = findBookById(bookId);
-        book.increaseStock(quantity);
-        bookRepository.save(book);
     }
     
     private Book findBookById(Long bookId) {
@@ -177,14 +394,23 @@ public class BookServiceImpl implements BookService {
                 .orElseThrow(() -> new NotFoundException("Book not found with id: " + bookId));
     }
     
+    // Checked against the registry; the reference carries the id for the foreign key without loading the row
     private Category findCategoryById(Long categoryId) {
-        return categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new NotFoundException("Category not found with id: " + categoryId));
+        findRegisteredCategory(categoryId);
+        return categoryRepository.getReferenceById(categoryId);
+    }
+    
+    private CategoryRegistry.Entry findRegisteredCategory(Long categoryId) {
+        CategoryRegistry.Entry category = categoryRegistryService.current().get(categoryId);
+        if (category == null) {
+            throw new NotFoundException("Category not found with id: " + categoryId);
+        }
+        return category;
     }
     
     private void validateBookData(String isbn, Long excludeBookId, Long categoryId) {
-        // Validate ISBN uniqueness if provided
-        if (StringUtils.hasText(isbn)) {
+        // Validate ISBN uniqueness if provided; ISBNs the filter has never seen need no query
+        if (StringUtils.hasText(isbn) && bookIsbnFilterService.mightExist(isbn)) {
             boolean isbnExists = (excludeBookId == null) 
                 ? bookRepository.existsByIsbn(isbn)
                 : bookRepository.existsByIsbnAndBookIdNot(isbn, excludeBookId);
@@ -195,9 +421,9 @@ public class BookServiceImpl implements BookService {
         }
         
         // Validate category exists and is active
-        Category category = findCategoryById(categoryId);
-        if (!category.getIsActive()) {
-            throw new BadRequestException("Cannot assign book to inactive category: " + category.getName());
+        CategoryRegistry.Entry category = findRegisteredCategory(categoryId);
+        if (!category.active()) {
+            throw new BadRequestException("Cannot assign book to inactive category: " + category.name());
         }
     }
 }
\ No newline at end of file
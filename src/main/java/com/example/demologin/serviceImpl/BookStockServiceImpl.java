@@ -0,0 +1,399 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.request.book.StockAdjustmentItem;
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.StockAdjustmentResult;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.BookStockSlot;
+import com.example.demologin.entity.BookStockSlotId;
+import com.example.demologin.enums.StockAdjustmentStatus;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.example.demologin.exception.exceptions.ConflictException;
+import com.example.demologin.exception.exceptions.NotFoundException;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.BookStockBatchRepository;
+import com.example.demologin.repository.BookStockSlotRepository;
+import com.example.demologin.service.BookAutocompleteService;
+import com.example.demologin.service.BookStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock changes as single conditional UPDATE statements.
+ *
+ * The database checks and applies the change atomically, so concurrent calls on the same book neither
+ * oversell nor lose updates, and the happy path is one round trip. The book is only read again to
+ * explain a failed decrease.
+ *
+ * Hot books can be sharded: their stock moves into book_stock_slots and a decrement takes a random slot,
+ * so checkouts only serialize when they pick the same slot. While sharded, books.stock_quantity is
+ * written back from the sum of the slots every sync interval, and the search index follows every
+ * decrement through stock-change events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookStockServiceImpl implements BookStockService {
+
+    // Passes over the slots before a checkout falls back to locking all of them
+    private static final int CHECKOUT_ROUNDS = 3;
+
+    @Value("${book-stock.shards.max-slots:64}")
+    private int maxSlots;
+
+    // How long a summed slot total is served before the slots are read again
+    @Value("${book-stock.shards.aggregate-ttl-ms:1000}")
+    private long aggregateTtlMs;
+
+    private final BookRepository bookRepository;
+    private final BookStockSlotRepository slotRepository;
+    private final BookStockBatchRepository stockBatchRepository;
+    private final BookAutocompleteService bookAutocompleteService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // bookId -> slot count of the sharded books this node knows of; a miss is corrected on the first failed update
+    private final Map<Long, Integer> shardedBooks = new ConcurrentHashMap<>();
+    private final Map<Long, CachedTotal> totals = new ConcurrentHashMap<>();
+
+    private record CachedTotal(int quantity, long readAt) {
+    }
+
+    @Override
+    @Transactional
+    public void decreaseStock(Long bookId, int quantity) {
+        if (!tryDecreaseStock(bookId, quantity)) {
+            throw insufficientStock(currentStock(bookId), quantity);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean tryDecreaseStock(Long bookId, int quantity) {
+        requirePositive(quantity);
+        if (shardedBooks.containsKey(bookId)) {
+            return decreaseSharded(bookId, quantity);
+        }
+        if (bookRepository.decreaseStockIfAvailable(bookId, quantity) == 1) {
+            stockDecreased(bookId, quantity);
+            return true;
+        }
+        Integer slots = bookRepository.findById(bookId).map(Book::getStockSlots).orElse(null);
+        if (slots == null) {
+            return false;
+        }
+        // Sharded by another node
+        shardedBooks.put(bookId, slots);
+        return decreaseSharded(bookId, quantity);
+    }
+
+    @Override
+    @Transactional
+    public void increaseStock(Long bookId, int quantity) {
+        requirePositive(quantity);
+        Integer slots = shardedBooks.get(bookId);
+        if (slots != null && slotRepository.increase(bookId, randomSlot(slots), quantity) == 1) {
+            stockIncreased(bookId, quantity);
+            return;
+        }
+        if (bookRepository.increaseStock(bookId, quantity) == 0) {
+            Book book = bookRepository.findById(bookId)
+                    .orElseThrow(() -> new NotFoundException("Book not found with id: " + bookId));
+            if (book.getStockSlots() == null || slotRepository.increase(bookId, randomSlot(book.getStockSlots()), quantity) == 0) {
+                throw new ConflictException("Stock of book " + bookId + " is being resharded, please retry");
+            }
+            shardedBooks.put(bookId, book.getStockSlots());
+        } else {
+            shardedBooks.remove(bookId);
+        }
+        stockIncreased(bookId, quantity);
+    }
+
+    @Override
+    @Transactional
+    public List<StockAdjustmentResult> adjustStock(List<StockAdjustmentItem> items) {
+        int[] updated = stockBatchRepository.adjustStock(items);
+
+        // Misses are told apart with one read: missing, sharded or short of stock
+        Set<Long> missedIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (updated[i] == 0) {
+                missedIds.add(items.get(i).getBookId());
+            }
+        }
+        Map<Long, Book> missed = new HashMap<>();
+        bookRepository.findAllById(missedIds).forEach(book -> missed.put(book.getBookId(), book));
+
+        List<StockAdjustmentResult> results = new ArrayList<>(items.size());
+        Set<Long> changed = new LinkedHashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            StockAdjustmentItem item = items.get(i);
+            Long bookId = item.getBookId();
+            if (updated[i] != 0) {
+                changed.add(bookId);
+                results.add(StockAdjustmentResult.applied(bookId));
+                continue;
+            }
+            Book book = missed.get(bookId);
+            if (book == null) {
+                results.add(new StockAdjustmentResult(bookId, StockAdjustmentStatus.NOT_FOUND, null));
+            } else if (book.getStockSlots() == null) {
+                results.add(new StockAdjustmentResult(bookId, StockAdjustmentStatus.INSUFFICIENT_STOCK, book.getStockQuantity()));
+            } else {
+                // Sharded books go through their slots one by one; they publish their own events
+                shardedBooks.put(bookId, book.getStockSlots());
+                results.add(adjustSharded(item));
+            }
+        }
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new BookBatchChangedEvent(List.copyOf(changed)));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public void shardStock(Long bookId, int slots) {
+        if (slots < 2 || slots > maxSlots) {
+            throw new BadRequestException("Slots must be between 2 and " + maxSlots);
+        }
+        Book book = bookRepository.lockById(bookId)
+                .orElseThrow(() -> new NotFoundException("Book not found with id: " + bookId));
+        if (book.getStockSlots() != null) {
+            throw new ConflictException("Stock of book " + bookId + " is already sharded");
+        }
+
+        List<BookStockSlot> rows = new ArrayList<>(slots);
+        int[] shares = spread(book.getStockQuantity(), slots);
+        for (int slot = 0; slot < slots; slot++) {
+            rows.add(new BookStockSlot(new BookStockSlotId(bookId, slot), shares[slot]));
+        }
+        slotRepository.saveAll(rows);
+        book.setStockSlots(slots);
+        bookRepository.save(book);
+        shardedBooks.put(bookId, slots);
+        log.info("Sharded stock of book {} ({} copies) over {} slots", bookId, book.getStockQuantity(), slots);
+    }
+
+    @Override
+    @Transactional
+    public void mergeStock(Long bookId) {
+        Book book = bookRepository.lockById(bookId)
+                .orElseThrow(() -> new NotFoundException("Book not found with id: " + bookId));
+        if (book.getStockSlots() == null) {
+            shardedBooks.remove(bookId);
+            return;
+        }
+
+        List<BookStockSlot> slots = slotRepository.lockSlots(bookId);
+        int total = slots.stream().mapToInt(BookStockSlot::getQuantity).sum();
+        slotRepository.deleteAllInBatch(slots);
+        book.setStockQuantity(total);
+        book.setStockSlots(null);
+        eventPublisher.publishEvent(BookChangedEvent.saved(BookResponse.toBookResponse(bookRepository.save(book))));
+        shardedBooks.remove(bookId);
+        totals.remove(bookId);
+        log.info("Merged stock slots of book {} back into the book ({} copies)", bookId, total);
+    }
+
+    @Override
+    @Transactional
+    public void resetShardedStock(Long bookId, int quantity) {
+        resetSlots(bookId, quantity);
+    }
+
+    @Override
+    public int shardedStock(Long bookId) {
+        CachedTotal cached = totals.get(bookId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.readAt() < aggregateTtlMs) {
+            return cached.quantity();
+        }
+        int total = (int) slotRepository.sumQuantity(bookId);
+        totals.put(bookId, new CachedTotal(total, now));
+        return total;
+    }
+
+    @Override
+    public boolean isSharded(Long bookId) {
+        return shardedBooks.containsKey(bookId);
+    }
+
+    @Override
+    public int currentStock(Long bookId) {
+        if (shardedBooks.containsKey(bookId)) {
+            return shardedStock(bookId);
+        }
+        return bookRepository.findStockQuantity(bookId)
+                .orElseThrow(() -> new NotFoundException("Book not found with id: " + bookId));
+    }
+
+    // Also runs right after startup, which loads the registry
+    @Scheduled(fixedDelayString = "${book-stock.shards.registry-refresh-ms:10000}")
+    public void refreshShardedBooks() {
+        Map<Long, Integer> current = new HashMap<>();
+        for (Book book : bookRepository.findByStockSlotsIsNotNull()) {
+            current.put(book.getBookId(), book.getStockSlots());
+        }
+        shardedBooks.keySet().retainAll(current.keySet());
+        shardedBooks.putAll(current);
+        totals.keySet().retainAll(current.keySet());
+    }
+
+    /**
+     * Writes the slot totals back to books.stock_quantity and evens out slots that ran dry,
+     * so random picks keep finding stock while the book still has some.
+     */
+    @Scheduled(fixedDelayString = "${book-stock.shards.sync-interval-ms:1000}")
+    @Transactional
+    public void syncShardedStock() {
+        for (Long bookId : List.copyOf(shardedBooks.keySet())) {
+            List<Integer> quantities = slotRepository.findQuantities(bookId);
+            int total = quantities.stream().mapToInt(Integer::intValue).sum();
+            totals.put(bookId, new CachedTotal(total, System.currentTimeMillis()));
+            bookRepository.syncShardedStock(bookId, total);
+
+            if (quantities.contains(0) && total >= quantities.size()) {
+                List<BookStockSlot> locked = slotRepository.lockSlots(bookId);
+                rebalance(locked, locked.stream().mapToInt(BookStockSlot::getQuantity).sum());
+            }
+        }
+    }
+
+    private boolean decreaseSharded(Long bookId, int quantity) {
+        List<Integer> quantities = slotRepository.findQuantities(bookId);
+        if (quantities.isEmpty()) {
+            // Merged in the meantime
+            shardedBooks.remove(bookId);
+            if (bookRepository.decreaseStockIfAvailable(bookId, quantity) == 0) {
+                return false;
+            }
+            stockDecreased(bookId, quantity);
+            return true;
+        }
+
+        // Candidates are tried from a random one onwards, wrapping around, so concurrent checkouts spread over
+        // the slots and a copy left in any of them is found. Losing every candidate only means other checkouts
+        // were faster: the slots are read again and tried again while one of them still holds enough.
+        for (int round = 0; round < CHECKOUT_ROUNDS; round++) {
+            List<Integer> candidates = new ArrayList<>();
+            for (int slot = 0; slot < quantities.size(); slot++) {
+                if (quantities.get(slot) >= quantity) {
+                    candidates.add(slot);
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            int start = ThreadLocalRandom.current().nextInt(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                if (slotRepository.decreaseIfAvailable(bookId, candidates.get((start + i) % candidates.size()), quantity) == 1) {
+                    stockDecreased(bookId, quantity);
+                    return true;
+                }
+            }
+            quantities = slotRepository.findQuantities(bookId);
+        }
+
+        int available = quantities.stream().mapToInt(Integer::intValue).sum();
+        if (available < quantity) {
+            return false;
+        }
+
+        // No single slot holds enough, or the rounds kept losing: the locked read has the final word. Failed
+        // conditional updates may keep their rows locked, so this is the last resort, not the first retry.
+        List<BookStockSlot> locked = slotRepository.lockSlots(bookId);
+        if (locked.stream().mapToInt(BookStockSlot::getQuantity).sum() < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (BookStockSlot slot : locked) {
+            int taken = Math.min(slot.getQuantity(), remaining);
+            slot.setQuantity(slot.getQuantity() - taken);
+            remaining -= taken;
+        }
+        stockDecreased(bookId, quantity);
+        return true;
+    }
+
+    private StockAdjustmentResult adjustSharded(StockAdjustmentItem item) {
+        Long bookId = item.getBookId();
+        if (item.isAbsolute()) {
+            int delta = item.getQuantity() - resetSlots(bookId, item.getQuantity());
+            if (delta != 0) {
+                eventPublisher.publishEvent(BookChangedEvent.stockChanged(bookId, delta));
+            }
+        } else if (item.getDelta() > 0) {
+            increaseStock(bookId, item.getDelta());
+        } else if (item.getDelta() < 0 && !tryDecreaseStock(bookId, -item.getDelta())) {
+            return new StockAdjustmentResult(bookId, StockAdjustmentStatus.INSUFFICIENT_STOCK, shardedStock(bookId));
+        }
+        return StockAdjustmentResult.applied(bookId);
+    }
+
+    // Returns the total the slots held before
+    private int resetSlots(Long bookId, int quantity) {
+        List<BookStockSlot> slots = slotRepository.lockSlots(bookId);
+        int previous = slots.stream().mapToInt(BookStockSlot::getQuantity).sum();
+        rebalance(slots, quantity);
+        totals.put(bookId, new CachedTotal(quantity, System.currentTimeMillis()));
+        return previous;
+    }
+
+    private void stockDecreased(Long bookId, int quantity) {
+        totals.computeIfPresent(bookId, (id, cached) -> new CachedTotal(cached.quantity() - quantity, cached.readAt()));
+        eventPublisher.publishEvent(BookChangedEvent.stockChanged(bookId, -quantity));
+        bookAutocompleteService.recordSale(bookId, quantity);
+    }
+
+    private void stockIncreased(Long bookId, int quantity) {
+        totals.computeIfPresent(bookId, (id, cached) -> new CachedTotal(cached.quantity() + quantity, cached.readAt()));
+        eventPublisher.publishEvent(BookChangedEvent.stockChanged(bookId, quantity));
+    }
+
+    // Locked slots are managed entities; the new quantities are flushed with the transaction
+    private static void rebalance(List<BookStockSlot> slots, int total) {
+        int[] shares = spread(total, slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            slots.get(i).setQuantity(shares[i]);
+        }
+    }
+
+    private static int[] spread(int total, int slots) {
+        int[] shares = new int[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            shares[slot] = total / slots + (slot < total % slots ? 1 : 0);
+        }
+        return shares;
+    }
+
+    private static int randomSlot(int slots) {
+        return ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    private static BadRequestException insufficientStock(int available, int requested) {
+        return new BadRequestException("Insufficient stock. Available: " + available + ", Requested: " + requested);
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestException("Quantity must be greater than 0");
+        }
+    }
+}
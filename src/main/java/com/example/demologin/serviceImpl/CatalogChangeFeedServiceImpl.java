@@ -0,0 +1,227 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CatalogChangesResponse;
+import com.example.demologin.dto.response.CategoryResponse;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.CatalogChange;
+import com.example.demologin.entity.Category;
+import com.example.demologin.enums.CatalogEntityType;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.event.CategoryChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CatalogChangeRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.CatalogChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeFeedServiceImpl implements CatalogChangeFeedService {
+
+    @Value("${catalog.changes.max-limit:1000}")
+    private int maxLimit;
+
+    // Change ids are taken at insert but become visible at commit, so a slow transaction can commit a lower id
+    // after a higher one. Changes younger than this are held back until every earlier one has committed.
+    // changedAt is taken when the row is written, before the commit: a transaction that stays open longer than
+    // this after recording its change can still commit below a cursor already handed out, and that change is
+    // missed. Stock changes are written by short flush transactions of their own and are not affected.
+    @Value("${catalog.changes.settle-ms:5000}")
+    private long settleMs;
+
+    // Stock changes wait in memory until the next flush and are lost if the node dies first. On startup, books
+    // written within this window are recorded again; the stock updates touch updatedAt in their own transaction.
+    @Value("${catalog.changes.recovery-window-ms:600000}")
+    private long recoveryWindowMs;
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Books with committed stock-only or bulk changes not yet in the feed
+    private final Set<Long> stockChangedBooks = ConcurrentHashMap.newKeySet();
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse getChanges(long cursor, int limit) {
+        int batchSize = Math.max(1, Math.min(limit, maxLimit));
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settleMs, ChronoUnit.MILLIS);
+        List<CatalogChange> changes = catalogChangeRepository.findChangesAfter(
+                Math.max(cursor, 0), settledBefore, PageRequest.of(0, batchSize + 1));
+        boolean hasMore = changes.size() > batchSize;
+        if (hasMore) {
+            changes = changes.subList(0, batchSize);
+        }
+
+        // entity id -> deleted, in change order; a later change of the same entity wins
+        Map<Long, Boolean> bookChanges = new LinkedHashMap<>();
+        Map<Long, Boolean> categoryChanges = new LinkedHashMap<>();
+        long nextCursor = cursor;
+        for (CatalogChange change : changes) {
+            Map<Long, Boolean> target = change.getEntityType() == CatalogEntityType.BOOK ? bookChanges : categoryChanges;
+            target.remove(change.getEntityId());
+            target.put(change.getEntityId(), change.isDeleted());
+            nextCursor = change.getId();
+        }
+
+        Map<Long, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(liveIds(bookChanges))) {
+            books.put(book.getBookId(), book);
+        }
+        Map<Long, Category> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAllById(liveIds(categoryChanges))) {
+            categories.put(category.getCategoryId(), category);
+        }
+
+        // Rows missing now were deleted after this batch; their tombstone is sent early rather than never
+        List<BookResponse> changedBooks = new ArrayList<>();
+        List<Long> deletedBookIds = new ArrayList<>();
+        for (Long bookId : bookChanges.keySet()) {
+            Book book = books.get(bookId);
+            if (book == null) {
+                deletedBookIds.add(bookId);
+            } else {
+                changedBooks.add(BookResponse.toBookResponse(book));
+            }
+        }
+        List<CategoryResponse> changedCategories = new ArrayList<>();
+        List<Long> deletedCategoryIds = new ArrayList<>();
+        for (Long categoryId : categoryChanges.keySet()) {
+            Category category = categories.get(categoryId);
+            if (category == null) {
+                deletedCategoryIds.add(categoryId);
+            } else {
+                changedCategories.add(CategoryResponse.toCategoryResponse(category));
+            }
+        }
+        return new CatalogChangesResponse(nextCursor, hasMore, changedBooks, changedCategories,
+                deletedBookIds, deletedCategoryIds);
+    }
+
+    // Runs inside the transaction of the change, so the feed row commits or rolls back with it
+    @EventListener
+    @Transactional
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.isStockChange()) {
+            record(CatalogEntityType.BOOK, event.bookId(), event.isDeleted());
+        }
+    }
+
+    /**
+     * Stock changes of a hot book would all wait on its single feed row, so they are only noted after
+     * commit and written once per flush interval.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(BookChangedEvent event) {
+        if (event.isStockChange()) {
+            stockChangedBooks.add(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookBatchChanged(BookBatchChangedEvent event) {
+        stockChangedBooks.addAll(event.bookIds());
+    }
+
+    /**
+     * Writes the noted changes in a transaction of its own, after the changes themselves have committed. Books of
+     * a failed flush are noted again and retried with the next one.
+     */
+    @Scheduled(fixedDelayString = "${catalog.changes.stock-flush-ms:1000}")
+    public void flushStockChanges() {
+        if (stockChangedBooks.isEmpty()) {
+            return;
+        }
+        // Taken out first, so a change noted while the flush runs stays for the next one
+        List<Long> bookIds = List.copyOf(stockChangedBooks);
+        stockChangedBooks.removeAll(bookIds);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    bookIds.forEach(bookId -> record(CatalogEntityType.BOOK, bookId, false)));
+        } catch (RuntimeException e) {
+            stockChangedBooks.addAll(bookIds);
+            log.warn("Failed to flush {} stock changes to the catalog change feed, retrying: {}",
+                    bookIds.size(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        record(CatalogEntityType.CATEGORY, event.categoryId(), !categoryRepository.existsById(event.categoryId()));
+    }
+
+    /**
+     * Seeds the feed with every existing book and category the first time it runs against a database. Later
+     * starts note the books written within the recovery window for the next flush instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedOnStartup() {
+        if (catalogChangeRepository.count() > 0) {
+            stockChangedBooks.addAll(bookRepository.findIdsUpdatedSince(
+                    LocalDateTime.now().minus(recoveryWindowMs, ChronoUnit.MILLIS)));
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<CatalogChange> seed = new ArrayList<>();
+        for (Long categoryId : categoryRepository.findAllCategoryIds()) {
+            seed.add(change(CatalogEntityType.CATEGORY, categoryId, false, now));
+        }
+        for (Long bookId : bookRepository.findAllBookIds()) {
+            seed.add(change(CatalogEntityType.BOOK, bookId, false, now));
+        }
+        catalogChangeRepository.saveAll(seed);
+        log.info("Seeded the catalog change feed with {} rows", seed.size());
+    }
+
+    private void record(CatalogEntityType entityType, Long entityId, boolean deleted) {
+        catalogChangeRepository.deleteByEntity(entityType, entityId);
+        catalogChangeRepository.save(change(entityType, entityId, deleted, LocalDateTime.now()));
+    }
+
+    private static CatalogChange change(CatalogEntityType entityType, Long entityId, boolean deleted,
+                                        LocalDateTime changedAt) {
+        return CatalogChange.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .deleted(deleted)
+                .changedAt(changedAt)
+                .build();
+    }
+
+    private static List<Long> liveIds(Map<Long, Boolean> changes) {
+        List<Long> ids = new ArrayList<>();
+        changes.forEach((id, deleted) -> {
+            if (!deleted) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+}
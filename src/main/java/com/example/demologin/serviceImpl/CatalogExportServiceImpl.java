@@ -0,0 +1,218 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CategoryResponse;
+import com.example.demologin.enums.CatalogExportFormat;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.event.CatalogStampChangedEvent;
+import com.example.demologin.event.CategoryChangedEvent;
+import com.example.demologin.exception.exceptions.NotFoundException;
+import com.example.demologin.export.CatalogExport;
+import com.example.demologin.export.CatalogExportWriter;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.service.BookSearchService;
+import com.example.demologin.service.CatalogExportService;
+import com.example.demologin.service.CatalogVersionService;
+import com.example.demologin.service.CategoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the full public catalog (active categories and available books) on disk as a gzip JSON file and a
+ * binary file, for clients and CDNs that sync the whole catalog at once.
+ *
+ * A change batch is folded into one regeneration after a short delay. Writes of other nodes arrive through the
+ * polled catalog stamp; stock-only changes are left to it, so a busy sale costs at most one regeneration per
+ * poll. Each generation is tagged with the shared catalog version, so all nodes answer the same ETag for the
+ * same catalog. Each generation gets new file names; the previous ones are kept a little longer so that
+ * transfers still reading them can finish.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    @Value("${catalog.export.enabled:true}")
+    private boolean exportEnabled;
+
+    @Value("${catalog.export.dir:./data/catalog-export}")
+    private String exportDir;
+
+    // Changes arriving within this window are folded into one regeneration
+    @Value("${catalog.export.regenerate-delay-ms:2000}")
+    private long regenerateDelayMs;
+
+    // Generations kept on disk, the current one included
+    @Value("${catalog.export.keep-generations:2}")
+    private int keepGenerations;
+
+    private final BookSearchService bookSearchService;
+    private final BookRepository bookRepository;
+    private final CategoryService categoryService;
+    private final CatalogVersionService catalogVersionService;
+    private final ObjectMapper objectMapper;
+
+    private final List<CatalogExport> generations = new ArrayList<>();
+    private final AtomicBoolean regenerationPending = new AtomicBoolean();
+    private final ScheduledExecutorService regenerator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile CatalogExport current;
+    private long lastGeneratedAt;
+
+    @Override
+    public CatalogExport current() {
+        CatalogExport export = current;
+        if (export == null) {
+            throw new NotFoundException("Catalog export is not available yet");
+        }
+        return export;
+    }
+
+    @Override
+    public synchronized CatalogExport regenerate() {
+        String etag = catalogVersionService.etag();
+        if (current != null && current.etag().equals(etag)) {
+            return current;
+        }
+        long lastModified = catalogVersionService.lastModified();
+        List<CategoryResponse> categories = categoryService.getActiveCategoriesForDropdown();
+        List<BookResponse> books = availableBooks();
+
+        long generatedAt = Math.max(System.currentTimeMillis(), lastGeneratedAt + 1);
+        lastGeneratedAt = generatedAt;
+        CatalogExport export = new CatalogExport(Paths.get(exportDir), Long.toString(generatedAt, 36), etag,
+                lastModified, categories.size(), books.size());
+        try {
+            CatalogExportWriter.writeJson(export.file(CatalogExportFormat.JSON), objectMapper, etag, generatedAt,
+                    categories, books);
+            CatalogExportWriter.writeBinary(export.file(CatalogExportFormat.BINARY), etag, generatedAt,
+                    categories, books);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog export", e);
+        }
+
+        current = export;
+        generations.add(export);
+        deleteOldGenerations();
+        log.info("Wrote catalog export {} with {} categories and {} books", export.generation(),
+                categories.size(), books.size());
+        return export;
+    }
+
+    // After the search index has been built by its own ApplicationReadyEvent listener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        scheduleRegeneration();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.isStockChange()) {
+            scheduleRegeneration();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookBatchChanged(BookBatchChangedEvent event) {
+        scheduleRegeneration();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        scheduleRegeneration();
+    }
+
+    // Runs before the shared version moves; the delayed regeneration reads the new one
+    @EventListener
+    public void onCatalogStampChanged(CatalogStampChangedEvent event) {
+        scheduleRegeneration();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        regenerator.shutdownNow();
+    }
+
+    private void scheduleRegeneration() {
+        if (exportEnabled && regenerationPending.compareAndSet(false, true)) {
+            regenerator.schedule(() -> {
+                regenerationPending.set(false);
+                try {
+                    regenerate();
+                } catch (RuntimeException e) {
+                    log.error("Failed to regenerate catalog export: {}", e.getMessage());
+                }
+            }, regenerateDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private List<BookResponse> availableBooks() {
+        if (bookSearchService.isReady()) {
+            List<BookResponse> books = new ArrayList<>();
+            for (BookResponse book : bookSearchService.catalog()) {
+                if (Boolean.TRUE.equals(book.getIsAvailable())) {
+                    books.add(book);
+                }
+            }
+            return books;
+        }
+        return bookRepository.findBooksByFilters(null, null, null, true, null, null, Pageable.unpaged())
+                .map(BookResponse::toBookResponse)
+                .getContent();
+    }
+
+    /**
+     * Drops generations beyond keepGenerations, including files left over from before a restart.
+     */
+    private void deleteOldGenerations() {
+        while (generations.size() > Math.max(keepGenerations, 1)) {
+            generations.remove(0);
+        }
+        Set<String> kept = new HashSet<>();
+        for (CatalogExport export : generations) {
+            for (CatalogExportFormat format : CatalogExportFormat.values()) {
+                kept.add(export.file(format).getFileName().toString());
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(exportDir), CatalogExport.FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!kept.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete old catalog exports: {}", e.getMessage());
+        }
+    }
+}
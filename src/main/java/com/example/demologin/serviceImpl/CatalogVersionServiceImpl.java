@@ -0,0 +1,152 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.event.CatalogStampChangedEvent;
+import com.example.demologin.event.CategoryChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.CatalogVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Catalog version shared by all nodes, like the category registry: every node polls a stamp of the book and
+ * category tables (row counts, latest updatedAt, total stock), so a write on any node moves the validators of
+ * every node within one poll. Counts catch deletes, which leave no updatedAt behind.
+ *
+ * Nodes that read the same stamp hand out the same ETag. Commits on this node move the ETag at once through a
+ * local suffix, which is dropped again once a poll has read a stamp that includes them.
+ *
+ * A moved stamp is published as a CatalogStampChangedEvent before the new hash is taken, so node-local views
+ * of the catalog have caught up with other nodes' writes by the time the shared ETag names them. A poll whose
+ * listeners fail keeps the old hash and is repeated.
+ */
+@Slf4j
+@Service
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnly;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Only until the first poll; a restart must not answer 304 to validators of a stamp it never read
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile String stampHash;
+    private Object[] bookStamp;
+    private Object[] categoryStamp;
+    // Local commits not yet covered by the polled stamp
+    private final AtomicLong localChanges = new AtomicLong();
+    private final AtomicLong lastModified = new AtomicLong(truncateToSeconds(System.currentTimeMillis()));
+
+    public CatalogVersionServiceImpl(BookRepository bookRepository, CategoryRepository categoryRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.bookRepository = bookRepository;
+        this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Override
+    public String etag() {
+        String stamp = stampHash;
+        long local = localChanges.get();
+        String base = stamp == null ? "init-" + epoch : stamp;
+        return "\"catalog-" + base + (local == 0 ? "" : "-" + local) + "\"";
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookBatchChanged(BookBatchChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        bump();
+    }
+
+    // Before the node-local views are built on startup, so the versions they are tagged with are shared ones
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read the catalog stamp on startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.version.refresh-ms:2000}")
+    public synchronized void refresh() {
+        // Commits counted so far happened before the stamp is read, so the stamp covers them
+        long covered = localChanges.get();
+        List<Object[]> stamps = readOnly.execute(status -> List.of(
+                bookRepository.findCatalogStamp().get(0), categoryRepository.findCatalogStamp().get(0)));
+        Object[] books = stamps.get(0);
+        Object[] categories = stamps.get(1);
+        String stamp = hash(books, categories);
+        if (!stamp.equals(stampHash)) {
+            if (stampHash != null) {
+                eventPublisher.publishEvent(new CatalogStampChangedEvent(((Number) books[0]).longValue(),
+                        (LocalDateTime) bookStamp[1], !Arrays.equals(books, bookStamp),
+                        !Arrays.equals(categories, categoryStamp)));
+                touch();
+                log.debug("Catalog changed, version {}", stamp);
+            }
+            bookStamp = books;
+            categoryStamp = categories;
+            stampHash = stamp;
+        }
+        localChanges.addAndGet(-covered);
+    }
+
+    private void bump() {
+        localChanges.incrementAndGet();
+        touch();
+    }
+
+    private void touch() {
+        lastModified.accumulateAndGet(truncateToSeconds(System.currentTimeMillis()), Math::max);
+    }
+
+    private static String hash(Object[] books, Object[] categories) {
+        CRC32 crc = new CRC32();
+        String stamp = Arrays.toString(books) + Arrays.toString(categories);
+        crc.update(stamp.getBytes(StandardCharsets.UTF_8));
+        return Long.toString(crc.getValue(), 36);
+    }
+
+    private static long truncateToSeconds(long millis) {
+        return millis - millis % 1000;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.cache.CategoryRegistry;
+import com.example.demologin.event.CategoryChangedEvent;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.CategoryRegistryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holds the category registry that book writes and category listings read instead of querying categories.
+ *
+ * Category writes on this node reload it right after commit. There is no message bus between nodes, so the
+ * database is the broadcast channel: every node polls (id, book count, updated at) of all categories, a few
+ * hundred bytes, and reloads when a category was added, removed or updated elsewhere. Book counts move with
+ * every book write and only replace the counts of the snapshot.
+ */
+@Slf4j
+@Service
+public class CategoryRegistryServiceImpl implements CategoryRegistryService {
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnly;
+
+    // Null until first use
+    private volatile CategoryRegistry registry;
+
+    public CategoryRegistryServiceImpl(CategoryRepository categoryRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Override
+    public CategoryRegistry current() {
+        CategoryRegistry current = registry;
+        if (current == null) {
+            synchronized (this) {
+                current = registry;
+                if (current == null) {
+                    reload();
+                    current = registry;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public synchronized void reload() {
+        List<CategoryRegistry.Entry> entries = readOnly.execute(status -> categoryRepository.findAll().stream()
+                .map(CategoryRegistry.Entry::of)
+                .toList());
+        registry = CategoryRegistry.of(entries);
+        log.debug("Loaded category registry: {} categories", entries.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        current();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${category-registry.refresh-ms:2000}")
+    public synchronized void refresh() {
+        CategoryRegistry current = registry;
+        if (current == null) {
+            return;
+        }
+        List<Object[]> stamps = readOnly.execute(status -> categoryRepository.findRegistryStamps());
+        Map<Long, Integer> bookCounts = new HashMap<>();
+        boolean changed = stamps.size() != current.size();
+        for (Object[] stamp : stamps) {
+            Long categoryId = (Long) stamp[0];
+            CategoryRegistry.Entry entry = current.get(categoryId);
+            if (entry == null || !Objects.equals(entry.updatedAt(), stamp[2])) {
+                changed = true;
+                break;
+            }
+            int bookCount = (Integer) stamp[1];
+            if (bookCount != entry.bookCount()) {
+                bookCounts.put(categoryId, bookCount);
+            }
+        }
+        if (changed) {
+            reload();
+        } else if (!bookCounts.isEmpty()) {
+            registry = current.withBookCounts(bookCounts);
+        }
+    }
+}
@@ -1,25 +1,38 @@
 package com.example.demologin.serviceImpl;
 
+import com.example.demologin.cache.CategoryRegistry;
 import com.example.demologin.dto.request.category.CreateCategoryRequest;
 import com.example.demologin.dto.request.category.UpdateCategoryRequest;
 import com.example.demologin.dto.response.CategoryResponse;
 import com.example.demologin.entity.Category;
+import com.example.demologin.event.CategoryChangedEvent;
 import com.example.demologin.exception.exceptions.ConflictException;
 import com.example.demologin.exception.exceptions.NotFoundException;
 import com.example.demologin.repository.BookRepository;
 import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.CategoryRegistryService;
 import com.example.demologin.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -27,33 +40,39 @@ public class CategoryServiceImpl implements CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final BookRepository bookRepository;
+    private final CategoryRegistryService categoryRegistryService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Reads are served from the category registry and never query categories
     
     @Override
     public Page<CategoryResponse> getAllCategories(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("name"));
-        Page<Category> categories = categoryRepository.findAll(pageable);
-        return categories.map(CategoryResponse::toCategoryResponse);
+        return toPage(categoryRegistryService.current().all(), page, size);
     }
     
     @Override
     public Page<CategoryResponse> getCategoriesByFilters(String name, Boolean isActive, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("name"));
-        Page<Category> categories = categoryRepository.findByNameContainingIgnoreCaseAndIsActive(
-                name, isActive, pageable);
-        return categories.map(CategoryResponse::toCategoryResponse);
+        String namePart = name != null ? name.toLowerCase(Locale.ROOT) : null;
+        List<CategoryRegistry.Entry> matches = categoryRegistryService.current().all().stream()
+                .filter(entry -> namePart == null || entry.name().toLowerCase(Locale.ROOT).contains(namePart))
+                .filter(entry -> isActive == null || entry.active() == isActive)
+                .toList();
+        return toPage(matches, page, size);
     }
     
     @Override
     public CategoryResponse getCategoryById(Long categoryId) {
-        Category category = findCategoryById(categoryId);
-        return CategoryResponse.toCategoryResponse(category);
+        CategoryRegistry.Entry category = categoryRegistryService.current().get(categoryId);
+        if (category == null) {
+            throw new NotFoundException("Category not found with id: " + categoryId);
+        }
+        return category.toResponse();
     }
     
     @Override
     public List<CategoryResponse> getActiveCategoriesForDropdown() {
-        List<Category> categories = categoryRepository.findByIsActiveOrderByName(true);
-        return categories.stream()
-                .map(CategoryResponse::toCategoryResponse)
+        return categoryRegistryService.current().active().stream()
+                .map(CategoryRegistry.Entry::toResponse)
                 .collect(Collectors.toList());
     }
     
@@ -68,6 +87,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setIsActive(request.getIsActive());
         
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getCategoryId()));
         return CategoryResponse.toCategoryResponse(savedCategory);
     }
     
@@ -84,6 +104,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
         
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
         return CategoryResponse.toCategoryResponse(updatedCategory);
     }
     
@@ -99,6 +120,32 @@ public class CategoryServiceImpl implements CategoryService {
         }
         
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+    }
+    
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${catalog.category-counts.repair-cron:0 15 3 * * *}")
+    public int repairBookCounts() {
+        // Locked first: a book write that counted before the lock has committed, one after waits for this
+        List<Category> categories = categoryRepository.lockAll();
+        Map<Long, Long> counted = new HashMap<>();
+        for (Object[] row : bookRepository.countBooksPerCategory()) {
+            counted.put((Long) row[0], (Long) row[1]);
+        }
+        int repaired = 0;
+        for (Category category : categories) {
+            int actual = counted.getOrDefault(category.getCategoryId(), 0L).intValue();
+            if (category.getBookCount() != actual) {
+                log.warn("Book count of category {} drifted: {} stored, {} counted",
+                        category.getCategoryId(), category.getBookCount(), actual);
+                categoryRepository.setBookCount(category.getCategoryId(), actual);
+                eventPublisher.publishEvent(new CategoryChangedEvent(category.getCategoryId()));
+                repaired++;
+            }
+        }
+        return repaired;
     }
     
     @Override
@@ -107,6 +154,17 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = findCategoryById(categoryId);
         category.setIsActive(!category.getIsActive());
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+    }
+    
+    private static Page<CategoryResponse> toPage(List<CategoryRegistry.Entry> entries, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name"));
+        int from = (int) Math.min(pageable.getOffset(), entries.size());
+        int to = Math.min(from + size, entries.size());
+        List<CategoryResponse> content = entries.subList(from, to).stream()
+                .map(CategoryRegistry.Entry::toResponse)
+                .toList();
+        return new PageImpl<>(content, pageable, entries.size());
     }
     
     private Category findCategoryById(Long categoryId) {
@@ -0,0 +1,127 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.entity.LoginHistoryEntry;
+import com.example.demologin.entity.LoginHistoryEntryId;
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
+import com.example.demologin.repository.LoginHistoryEntryRepository;
+import com.example.demologin.repository.UserActivityLogRepository;
+import com.example.demologin.repository.UserRepository;
+import com.example.demologin.service.LoginHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginHistoryServiceImpl implements LoginHistoryService {
+
+    // Logins kept per user
+    @Value("${login-history.size:50}")
+    private int capacity;
+
+    private final LoginHistoryEntryRepository loginHistoryEntryRepository;
+    private final UserActivityLogRepository userActivityLogRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public void recordLogin(UserActivityLog login) {
+        if (login.getUserId() == null) {
+            return;
+        }
+
+        // Concurrent logins of one user wait here, so they never pick the same free slot
+        userRepository.lockById(login.getUserId());
+        List<LoginHistoryEntry> stored = loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(login.getUserId());
+        // The first login after the read model was introduced brings the user's earlier logins along;
+        // the activity log of this login is already saved and is refreshed below like any other
+        List<LoginHistoryEntry> ring = stored.isEmpty() ? seedFromActivityLogs(login.getUserId()) : stored;
+
+        // The activity log reuses its row for a known device, so the ring refreshes that entry as well;
+        // otherwise take a free slot, or overwrite the oldest login once the ring is full
+        LoginHistoryEntry entry = ring.stream()
+                .filter(existing -> login.getId() != null && Objects.equals(existing.getActivityLogId(), login.getId()))
+                .findFirst()
+                .orElseGet(() -> ring.size() < capacity
+                        ? LoginHistoryEntry.builder().id(new LoginHistoryEntryId(login.getUserId(), freeSlot(ring))).build()
+                        : ring.get(ring.size() - 1));
+
+        copyLogin(login, entry);
+        loginHistoryEntryRepository.save(entry);
+    }
+
+    @Override
+    @Transactional
+    public List<LoginHistoryEntry> findRecentLogins(Long userId) {
+        List<LoginHistoryEntry> ring = loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(userId);
+        if (ring.isEmpty()) {
+            ring = seedFromActivityLogs(userId);
+        }
+        return ring.size() > capacity ? ring.subList(0, capacity) : ring;
+    }
+
+    @Override
+    @Transactional
+    public void clear(Long userId) {
+        int deleted = loginHistoryEntryRepository.deleteByUserId(userId);
+        log.debug("Cleared {} login history entries of user {}", deleted, userId);
+    }
+
+    // Users who logged in before the read model existed get their ring filled once from the activity log,
+    // on their next login or on their first read, whichever comes first
+    private List<LoginHistoryEntry> seedFromActivityLogs(Long userId) {
+        List<UserActivityLog> logins = userActivityLogRepository
+                .findByUserIdAndActivityTypeOrderByTimestampDesc(userId, ActivityType.LOGIN_ATTEMPT, PageRequest.of(0, capacity))
+                .getContent();
+
+        List<LoginHistoryEntry> ring = new ArrayList<>(logins.size());
+        for (int slot = 0; slot < logins.size(); slot++) {
+            LoginHistoryEntry entry = LoginHistoryEntry.builder().id(new LoginHistoryEntryId(userId, slot)).build();
+            copyLogin(logins.get(slot), entry);
+            ring.add(entry);
+        }
+        if (!ring.isEmpty()) {
+            loginHistoryEntryRepository.saveAll(ring);
+            log.info("Seeded login history of user {} with {} entries", userId, ring.size());
+        }
+        return ring;
+    }
+
+    private int freeSlot(List<LoginHistoryEntry> ring) {
+        Set<Integer> used = new HashSet<>();
+        ring.forEach(entry -> used.add(entry.getId().getSlot()));
+        int slot = 0;
+        while (used.contains(slot)) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private void copyLogin(UserActivityLog login, LoginHistoryEntry entry) {
+        entry.setActivityLogId(login.getId());
+        entry.setLoginAt(login.getTimestamp());
+        entry.setStatus(login.getStatus());
+        entry.setIpAddress(login.getIpAddress());
+        entry.setUserAgent(login.getUserAgent());
+        entry.setBrowser(login.getBrowser());
+        entry.setBrowserVersion(login.getBrowserVersion());
+        entry.setOperatingSystem(login.getOperatingSystem());
+        entry.setDevice(login.getDevice());
+        entry.setDeviceType(login.getDeviceType());
+        entry.setCity(login.getCity());
+        entry.setRegion(login.getRegion());
+        entry.setCountry(login.getCountry());
+        entry.setCountryCode(login.getCountryCode());
+    }
+}
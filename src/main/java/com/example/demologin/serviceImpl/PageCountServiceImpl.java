@@ -0,0 +1,173 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.StreamingPage;
+import com.example.demologin.enums.PageCountMode;
+import com.example.demologin.repository.TableStatisticsRepository;
+import com.example.demologin.service.PageCountService;
+import com.example.demologin.utils.PageCountContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PageCountServiceImpl implements PageCountService {
+
+    @Value("${pagination.count-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${pagination.count-cache.max-entries:10000}")
+    private int maxEntries;
+
+    // Pages at least this large are streamed row by row; 0 disables streaming
+    @Value("${pagination.streaming.min-page-size:200}")
+    private int streamingMinPageSize;
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ConcurrentMap<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "page-count-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public <T> Page<T> toPage(Slice<T> slice, String countKey, LongSupplier exactCount) {
+        return toPage(slice, () -> cachedCount(countKey, exactCount), exactCount);
+    }
+
+    @Override
+    public <T> Page<T> toTablePage(Slice<T> slice, String table, LongSupplier exactCount) {
+        return toPage(slice, tableEstimate(table, exactCount), exactCount);
+    }
+
+    @Override
+    public boolean shouldStream(Pageable pageable) {
+        return streamingMinPageSize > 0 && pageable.isPaged() && pageable.getPageSize() >= streamingMinPageSize;
+    }
+
+    @Override
+    public <T> Page<T> toStreamingPage(Pageable pageable, Function<Pageable, Stream<T>> query,
+                                       String countKey, LongSupplier exactCount) {
+        return toStreamingPage(pageable, query, () -> cachedCount(countKey, exactCount), exactCount);
+    }
+
+    @Override
+    public <T> Page<T> toStreamingTablePage(Pageable pageable, Function<Pageable, Stream<T>> query,
+                                            String table, LongSupplier exactCount) {
+        return toStreamingPage(pageable, query, tableEstimate(table, exactCount), exactCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private <T> Page<T> toPage(Slice<T> slice, LongSupplier estimate, LongSupplier exactCount) {
+        List<T> content = slice.getContent();
+        return new PageImpl<>(content, slice.getPageable(), resolveTotal(PageCountContext.current(),
+                slice.getPageable(), content.size(), slice.hasNext(), estimate, exactCount));
+    }
+
+    /**
+     * Rows are read inside a read-only transaction while the response is written. Each entity is detached
+     * once it has been mapped and serialized, so the persistence context does not grow with the page.
+     */
+    private <T> Page<T> toStreamingPage(Pageable pageable, Function<Pageable, Stream<T>> query,
+                                        LongSupplier estimate, LongSupplier exactCount) {
+        // The endpoint's mode is captured now: rows and total are produced after the controller returned
+        PageCountMode mode = PageCountContext.current();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return new StreamingPage<>(pageable,
+                action -> readOnly.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.apply(pageable)) {
+                        rows.forEach(row -> {
+                            action.accept(row);
+                            entityManager.detach(row);
+                        });
+                    }
+                }),
+                rowsRead -> resolveTotal(mode, pageable, rowsRead, rowsRead >= pageable.getPageSize(), estimate, exactCount));
+    }
+
+    // Once there is no next page the total is known exactly, whatever the mode
+    private long resolveTotal(PageCountMode mode, Pageable pageable, int rows, boolean hasNext,
+                              LongSupplier estimate, LongSupplier exactCount) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long seen = offset + rows;
+        return switch (mode) {
+            case EXACT -> pageable.isUnpaged() || (rows > 0 && rows < pageable.getPageSize())
+                    || (offset == 0 && rows < pageable.getPageSize()) ? seen : exactCount.getAsLong();
+            case ESTIMATED -> hasNext ? Math.max(estimate.getAsLong(), seen + 1) : seen;
+            case NONE -> hasNext ? seen + 1 : seen;
+        };
+    }
+
+    private LongSupplier tableEstimate(String table, LongSupplier exactCount) {
+        return () -> {
+            OptionalLong estimate = tableStatisticsRepository.estimateRowCount(table);
+            return estimate.isPresent() ? estimate.getAsLong() : cachedCount("table:" + table, exactCount);
+        };
+    }
+
+    // Stale entries are served while a single background thread recounts them
+    private long cachedCount(String key, LongSupplier exactCount) {
+        CachedCount cached = counts.get(key);
+        if (cached == null) {
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+            long value = exactCount.getAsLong();
+            counts.put(key, new CachedCount(value, System.currentTimeMillis()));
+            return value;
+        }
+
+        if (System.currentTimeMillis() - cached.countedAt() > ttlSeconds * 1000
+                && cached.refreshing().compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                try {
+                    counts.put(key, new CachedCount(exactCount.getAsLong(), System.currentTimeMillis()));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh count {}: {}", key, e.getMessage());
+                    cached.refreshing().set(false);
+                }
+            });
+        }
+        return cached.value();
+    }
+
+    private record CachedCount(long value, long countedAt, AtomicBoolean refreshing) {
+        CachedCount(long value, long countedAt) {
+            this(value, countedAt, new AtomicBoolean());
+        }
+    }
+}
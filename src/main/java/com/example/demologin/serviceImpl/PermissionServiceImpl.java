@@ -9,6 +9,7 @@ import com.example.demologin.mapper.PermissionMapper;
 import com.example.demologin.service.PermissionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.LinkedHashMap;
@@ -31,6 +32,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @Transactional
     public PermissionResponse updatePermissionName(Long id, PermissionRequest req) {
         Permission p = permissionRepository.findById(id).orElseThrow(() -> new NotFoundException("Permission with id " + id + " not found"));
         permissionMapper.updateEntityFromDto(req, p);
@@ -5,6 +5,7 @@ import com.example.demologin.dto.request.role.RolePermissionsRequest;
 import com.example.demologin.dto.request.role.UpdateRoleRequest;
 import com.example.demologin.dto.response.RoleResponse;
 import com.example.demologin.entity.Role;
+import com.example.demologin.event.RoleChangedEvent;
 import com.example.demologin.exception.exceptions.BusinessException;
 import com.example.demologin.exception.exceptions.NotFoundException;
 import com.example.demologin.mapper.RoleMapper;
@@ -12,7 +13,9 @@ import com.example.demologin.repository.RoleRepository;
 import com.example.demologin.repository.UserRepository;
 import com.example.demologin.service.RoleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Service
@@ -22,6 +25,7 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final RoleMapper roleMapper;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<RoleResponse> getAll() {
@@ -45,15 +49,18 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional
     public RoleResponse update(Long id, UpdateRoleRequest req) {
         Role r = roleRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Role with id " + id + " not found"));
         roleMapper.fromUpdateDto(req, r);
         Role updatedRole = roleRepository.save(r);
+        eventPublisher.publishEvent(new RoleChangedEvent(id));
         return roleMapper.toResponse(updatedRole);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         Role r = roleRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Role with id " + id + " not found"));
@@ -63,13 +70,16 @@ public class RoleServiceImpl implements RoleService {
         }
 
         roleRepository.delete(r);
+        eventPublisher.publishEvent(new RoleChangedEvent(id));
     }
 
     @Override
+    @Transactional
     public RoleResponse updatePermissions(Long id, RolePermissionsRequest req) {
         Role r = roleRepository.findById(id).orElseThrow(() -> new NotFoundException("Role with id " + id + " not found"));
         roleMapper.fromPermissionDto(req, r);
         Role updatedRole = roleRepository.save(r);
+        eventPublisher.publishEvent(new RoleChangedEvent(id));
         return roleMapper.toResponse(updatedRole);
     }
 
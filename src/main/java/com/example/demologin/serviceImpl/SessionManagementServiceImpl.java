@@ -1,16 +1,18 @@
 package com.example.demologin.serviceImpl;
 
 import com.example.demologin.entity.User;
+import com.example.demologin.event.UserSessionsRevokedEvent;
 import com.example.demologin.exception.exceptions.NotFoundException;
 import com.example.demologin.repository.RefreshTokenRepository;
-import com.example.demologin.repository.UserActivityLogRepository;
 import com.example.demologin.repository.UserRepository;
+import com.example.demologin.service.LoginHistoryService;
 import com.example.demologin.service.SessionManagementService;
 import com.example.demologin.service.TokenVersionService;
 import com.example.demologin.utils.AccountUtils;
 import com.example.demologin.utils.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,7 +28,8 @@ public class SessionManagementServiceImpl implements SessionManagementService {
     private final AccountUtils accountUtils;
     private final JwtUtil jwtUtil;
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserActivityLogRepository userActivityLogReppsitory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoginHistoryService loginHistoryService;
 
     @Override
     @Transactional
@@ -41,7 +44,7 @@ public class SessionManagementServiceImpl implements SessionManagementService {
         // Revoke access token trong memory
         jwtUtil.revokeToken(jti, expiryDate);
 
-        log.info("User {} logged out from current device", accountUtils.getCurrentUser().getUsername());
+        log.info("User {} logged out from current device", accountUtils.getCurrentPrincipal().username());
     }
 
 
@@ -53,7 +56,9 @@ public class SessionManagementServiceImpl implements SessionManagementService {
         refreshTokenRepository.deleteByUser(currentUser);
         // Invalidate all tokens by incrementing token version
         tokenVersionService.incrementTokenVersionByUserId(currentUser.getUserId());
-        userActivityLogReppsitory.deleteByUserId(currentUser.getUserId());
+        // Activity logs are purged in chunks once this transaction has committed (ActivityLogRetentionService)
+        eventPublisher.publishEvent(new UserSessionsRevokedEvent(currentUser.getUserId()));
+        loginHistoryService.clear(currentUser.getUserId());
     }
     
     @Override
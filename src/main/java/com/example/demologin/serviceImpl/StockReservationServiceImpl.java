@@ -0,0 +1,328 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.StockReservationResponse;
+import com.example.demologin.entity.StockReservationCheckpoint;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.example.demologin.exception.exceptions.ConflictException;
+import com.example.demologin.exception.exceptions.InternalServerErrorException;
+import com.example.demologin.exception.exceptions.NotFoundException;
+import com.example.demologin.repository.StockReservationCheckpointRepository;
+import com.example.demologin.reservation.StockReservation;
+import com.example.demologin.reservation.StockReservationJournal;
+import com.example.demologin.service.BookStockService;
+import com.example.demologin.service.StockReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cart holds kept in memory, so adding to a cart neither locks nor writes the books row.
+ *
+ * Per book, the last known stock and the copies held on this node live in one immutable value swapped by
+ * compare-and-set; a reservation succeeds while stock - reserved covers it. Holds are per node and direct
+ * sales do not see them, so confirming writes the copies off the stock at once with a conditional decrement
+ * and fails when the stock no longer covers them: a confirmed reservation is never oversold. Every change is
+ * appended to a local journal first, so holds survive a restart of the same node. A write-off is journaled
+ * under a generation of its own, and its transaction moves this node's checkpoint past it.
+ *
+ * The journal is found again by node id only: the node id must be stable across restarts and replacements,
+ * and the journal directory must be on storage that outlives the process, or the holds are lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+
+    // Journal lines appended since the last compaction before the sweep compacts
+    private static final long COMPACT_AFTER_APPENDS = 10_000;
+
+    @Value("${book-stock.reservations.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    // How long the stock read from the database is trusted; sales outside reservations show up after this
+    @Value("${book-stock.reservations.stock-refresh-ms:1000}")
+    private long stockRefreshMs;
+
+    @Value("${book-stock.reservations.journal-dir:./data/reservations}")
+    private String journalDir;
+
+    // Names this node's journal and its checkpoint row; must be unique per node and stable across restarts
+    @Value("${book-stock.reservations.node-id:}")
+    private String nodeId;
+
+    @Value("${book-stock.reservations.journal-fsync:true}")
+    private boolean journalFsync;
+
+    private final BookStockService bookStockService;
+    private final StockReservationCheckpointRepository checkpointRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<String, StockReservation> reservations = new ConcurrentHashMap<>();
+    // Confirmed and written off, kept until they would have expired so that repeated confirms get the same answer
+    private final Map<String, StockReservation> writtenOff = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicReference<BookCounts>> counts = new ConcurrentHashMap<>();
+
+    private StockReservationJournal journal;
+    private final AtomicLong writeOffGeneration = new AtomicLong();
+
+    /**
+     * epoch changes whenever a write-off moves copies from reserved to the stock, so a refresh that read the
+     * database before the write-off committed cannot overwrite the adjusted stock.
+     */
+    private record BookCounts(int stock, int reserved, long stockReadAt, long epoch) {
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new IllegalStateException("book-stock.reservations.node-id must be set to a name that stays the same"
+                    + " across restarts of this node; its journal and checkpoint are found by it");
+        }
+        Path file = Paths.get(journalDir, nodeId + ".journal");
+        Optional<StockReservationCheckpoint> stored = checkpointRepository.findById(nodeId);
+        long checkpoint = stored.map(StockReservationCheckpoint::getGeneration).orElse(0L);
+        if (stored.isEmpty()) {
+            checkpointRepository.save(new StockReservationCheckpoint(nodeId, 0L, LocalDateTime.now()));
+        } else if (!Files.exists(file)) {
+            log.error("Node {} has written off reservations before but its journal {} is missing; holds of the previous"
+                    + " run are lost. Is the journal directory on durable storage?", nodeId, file.toAbsolutePath());
+        }
+        StockReservationJournal.Replay replay = StockReservationJournal.replay(file, checkpoint);
+        writeOffGeneration.set(replay.lastGeneration());
+
+        long now = System.currentTimeMillis();
+        for (StockReservation reservation : replay.reservations().values()) {
+            if (!reservation.isExpired(now)) {
+                reservations.put(reservation.id(), reservation);
+                adjust(reservation.bookId(), 0, reservation.quantity(), false);
+            }
+        }
+        journal = StockReservationJournal.open(file, journalFsync);
+        journal.compact(reservations.values());
+        log.info("Restored {} stock reservations from {}", reservations.size(), file);
+    }
+
+    @Override
+    public StockReservationResponse reserve(Long bookId, int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestException("Quantity must be greater than 0");
+        }
+        AtomicReference<BookCounts> ref = counts.get(bookId);
+        if (ref == null) {
+            // Unknown books fail here, before they get an entry
+            int stock = bookStockService.currentStock(bookId);
+            long now = System.currentTimeMillis();
+            ref = counts.computeIfAbsent(bookId, id -> new AtomicReference<>(new BookCounts(stock, 0, now, 0)));
+        } else {
+            refreshStockIfStale(bookId, ref);
+        }
+        while (true) {
+            BookCounts current = ref.get();
+            int available = current.stock() - current.reserved();
+            if (available < quantity) {
+                throw new BadRequestException("Insufficient stock. Available: " + Math.max(available, 0)
+                        + ", Requested: " + quantity);
+            }
+            if (ref.compareAndSet(current, new BookCounts(current.stock(), current.reserved() + quantity,
+                    current.stockReadAt(), current.epoch()))) {
+                break;
+            }
+        }
+
+        StockReservation reservation = new StockReservation(UUID.randomUUID().toString(), bookId, quantity,
+                System.currentTimeMillis() + ttlSeconds * 1000, false);
+        reservations.put(reservation.id(), reservation);
+        try {
+            journal.reserved(reservation);
+        } catch (IOException e) {
+            reservations.remove(reservation.id());
+            adjust(bookId, 0, -quantity, false);
+            throw journalFailure(e);
+        }
+        return StockReservationResponse.toStockReservationResponse(reservation);
+    }
+
+    @Override
+    public StockReservationResponse confirm(String reservationId) {
+        StockReservation done = writtenOff.get(reservationId);
+        if (done != null) {
+            return StockReservationResponse.toStockReservationResponse(done);
+        }
+        StockReservation reservation = findLive(reservationId);
+        // Taken out first, so release and expiry leave it alone while its copies are written off
+        if (!reservations.remove(reservationId, reservation)) {
+            throw new ConflictException("Reservation " + reservationId + " was changed concurrently, please retry");
+        }
+        StockReservation confirmed = reservation.confirm();
+
+        long generation = writeOffGeneration.incrementAndGet();
+        try {
+            journal.writingOff(generation, List.of(confirmed));
+        } catch (IOException e) {
+            reservations.put(reservationId, reservation);
+            throw journalFailure(e);
+        }
+
+        Boolean taken;
+        try {
+            taken = new TransactionTemplate(transactionManager).execute(status -> {
+                if (!bookStockService.tryDecreaseStock(reservation.bookId(), reservation.quantity())) {
+                    return false;
+                }
+                checkpointRepository.advance(nodeId, generation, LocalDateTime.now());
+                return true;
+            });
+        } catch (RuntimeException e) {
+            restoreHold(reservation);
+            throw e;
+        }
+        if (!Boolean.TRUE.equals(taken)) {
+            // Sold outside reservations or by another node meanwhile; the hold cannot be honoured
+            dropHold(reservation);
+            forgetStock(reservation.bookId());
+            throw new ConflictException("Reservation " + reservationId
+                    + " can no longer be confirmed: not enough copies left in stock");
+        }
+
+        adjust(reservation.bookId(), -reservation.quantity(), -reservation.quantity(), true);
+        writtenOff.put(reservationId, confirmed);
+        return StockReservationResponse.toStockReservationResponse(confirmed);
+    }
+
+    @Override
+    public void release(String reservationId) {
+        StockReservation done = writtenOff.get(reservationId);
+        StockReservation reservation = done != null ? done : findLive(reservationId);
+        if (reservation.confirmed()) {
+            throw new ConflictException("Reservation " + reservationId + " is already confirmed");
+        }
+        if (!reservations.remove(reservationId, reservation)) {
+            throw new ConflictException("Reservation " + reservationId + " was changed concurrently, please retry");
+        }
+        dropHold(reservation);
+    }
+
+    @Scheduled(fixedDelayString = "${book-stock.reservations.sweep-interval-ms:5000}")
+    public void releaseExpired() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (StockReservation reservation : reservations.values()) {
+            if (reservation.isExpired(now) && reservations.remove(reservation.id(), reservation)) {
+                dropHold(reservation);
+                expired++;
+            }
+        }
+        writtenOff.values().removeIf(reservation -> reservation.isExpired(now));
+        if (expired > 0) {
+            log.debug("Released {} expired stock reservations", expired);
+        }
+        compactIfLong();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private StockReservation findLive(String reservationId) {
+        StockReservation reservation = reservations.get(reservationId);
+        if (reservation == null || reservation.isExpired(System.currentTimeMillis())) {
+            throw new NotFoundException("Reservation not found or expired: " + reservationId);
+        }
+        return reservation;
+    }
+
+    private void dropHold(StockReservation reservation) {
+        adjust(reservation.bookId(), 0, -reservation.quantity(), false);
+        try {
+            journal.released(reservation.id());
+        } catch (IOException e) {
+            // Replay restores the hold, which then expires again
+            log.warn("Failed to journal release of reservation {}: {}", reservation.id(), e.getMessage());
+        }
+    }
+
+    // A failed write-off rolled back; the hold comes back and is journaled again, since a later checkpoint
+    // makes replay treat its generation as written off
+    private void restoreHold(StockReservation reservation) {
+        reservations.put(reservation.id(), reservation);
+        try {
+            journal.reserved(reservation);
+        } catch (IOException e) {
+            log.warn("Failed to journal restored reservation {}: {}", reservation.id(), e.getMessage());
+        }
+    }
+
+    // The next reservation reads the stock again
+    private void forgetStock(Long bookId) {
+        AtomicReference<BookCounts> ref = countsOf(bookId);
+        BookCounts current;
+        do {
+            current = ref.get();
+        } while (!ref.compareAndSet(current, new BookCounts(current.stock(), current.reserved(), 0, current.epoch())));
+    }
+
+    private AtomicReference<BookCounts> countsOf(Long bookId) {
+        return counts.computeIfAbsent(bookId, id -> new AtomicReference<>(new BookCounts(0, 0, 0, 0)));
+    }
+
+    private void adjust(Long bookId, int stockDelta, int reservedDelta, boolean writtenOff) {
+        AtomicReference<BookCounts> ref = countsOf(bookId);
+        BookCounts current;
+        do {
+            current = ref.get();
+        } while (!ref.compareAndSet(current, new BookCounts(current.stock() + stockDelta,
+                current.reserved() + reservedDelta, current.stockReadAt(), writtenOff ? current.epoch() + 1 : current.epoch())));
+    }
+
+    private void refreshStockIfStale(Long bookId, AtomicReference<BookCounts> ref) {
+        BookCounts seen = ref.get();
+        long now = System.currentTimeMillis();
+        if (now - seen.stockReadAt() < stockRefreshMs) {
+            return;
+        }
+        int stock = bookStockService.currentStock(bookId);
+        BookCounts current;
+        do {
+            current = ref.get();
+            if (current.epoch() != seen.epoch()) {
+                // A write-off adjusted the stock meanwhile; the next reservation reads it again
+                return;
+            }
+        } while (!ref.compareAndSet(current, new BookCounts(stock, current.reserved(), now, current.epoch())));
+    }
+
+    private void compactIfLong() {
+        try {
+            if (journal.appendedSinceCompaction() > COMPACT_AFTER_APPENDS) {
+                journal.compact(reservations.values());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to compact the stock reservation journal: {}", e.getMessage());
+        }
+    }
+
+    private static RuntimeException journalFailure(IOException e) {
+        log.error("Failed to write the stock reservation journal: {}", e.getMessage());
+        return new InternalServerErrorException("Reservation could not be recorded, please retry");
+    }
+}
@@ -4,7 +4,9 @@ import com.example.demologin.entity.User;
 import com.example.demologin.exception.exceptions.NotFoundException;
 import com.example.demologin.exception.exceptions.ValidationException;
 import com.example.demologin.repository.UserRepository;
+import com.example.demologin.security.UserPrincipal;
 import com.example.demologin.service.TokenService;
+import com.example.demologin.service.UserPrincipalService;
 import com.example.demologin.utils.JwtUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +28,8 @@ public class TokenServiceImpl implements TokenService {
 
     private final UserRepository userRepository;
 
+    private final UserPrincipalService userPrincipalService;
+
     @Override
     public String generateTokenForUser(User user) {
         log.debug("Generating token for user: {}", user.getUsername());
@@ -49,4 +53,25 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
+    @Override
+    public UserPrincipal getPrincipalByToken(String token) {
+        try {
+            String userIdStr = jwtUtil.extractUsername(token);
+            if (userIdStr == null || userIdStr.trim().isEmpty()) {
+                throw new ValidationException("Invalid token: userId not found");
+            }
+
+            Long userId = Long.parseLong(userIdStr);
+
+            UserPrincipal principal = userPrincipalService.getPrincipal(userId);
+            if (principal == null) {
+                throw new NotFoundException("User not found with id: " + userId);
+            }
+            return principal;
+        } catch (Exception e) {
+            log.warn("Failed to extract user from token: {}", e.getMessage());
+            throw new ValidationException("Invalid token: " + e.getMessage());
+        }
+    }
+
 }
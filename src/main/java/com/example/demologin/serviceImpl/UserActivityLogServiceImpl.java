@@ -1,24 +1,33 @@
 package com.example.demologin.serviceImpl;
 
 import com.example.demologin.dto.request.userActivityLog.UserActivityLogExportRequest;
+import com.example.demologin.dto.response.StreamingPage;
 import com.example.demologin.dto.response.UserActivityLogResponse;
+import com.example.demologin.entity.LoginHistoryEntry;
 import com.example.demologin.entity.UserActivityLog;
 import com.example.demologin.entity.User;
 import com.example.demologin.enums.ActivityType;
 import com.example.demologin.exception.exceptions.NotFoundException;
 import com.example.demologin.mapper.UserActivityLogMapper;
 import com.example.demologin.repository.UserActivityLogRepository;
+import com.example.demologin.repository.UserRepository;
+import com.example.demologin.service.ActivityLogArchiveService;
+import com.example.demologin.service.LoginHistoryService;
+import com.example.demologin.service.PageCountService;
 import com.example.demologin.service.UserActivityLogService;
 import com.example.demologin.utils.AccountUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -26,8 +35,12 @@ import java.time.LocalDateTime;
 public class UserActivityLogServiceImpl implements UserActivityLogService {
 
     private final UserActivityLogRepository userActivityLogRepository;
+    private final UserRepository userRepository;
     private final UserActivityLogMapper userActivityLogMapper;
     private final AccountUtils accountUtils;
+    private final ActivityLogArchiveService activityLogArchiveService;
+    private final LoginHistoryService loginHistoryService;
+    private final PageCountService pageCountService;
 
     @Override
     @Transactional
@@ -51,10 +64,10 @@ public class UserActivityLogServiceImpl implements UserActivityLogService {
     @Override
     public Page<UserActivityLogResponse> getAllActivityLogs(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserActivityLog> logs = userActivityLogRepository.findAll(pageable);
+        Page<UserActivityLog> logs = findAllLogs(pageable);
         Page<UserActivityLogResponse> mappedLogs = logs.map(userActivityLogMapper::toResponse);
         
-        if (mappedLogs.getContent().isEmpty()) {
+        if (isEmptyPage(mappedLogs)) {
             throw new NotFoundException("No activity logs found");
         }
         return mappedLogs;
@@ -79,12 +92,39 @@ public class UserActivityLogServiceImpl implements UserActivityLogService {
         return mappedLogs;
     }
 
+    @Override
+    public Page<UserActivityLogResponse> getActivityLogsByUserId(Long userId, int page, int size, boolean includeArchived) {
+        if (!includeArchived) {
+            return getActivityLogsByUserId(userId, page, size);
+        }
+
+        // Hot rows come first (newest), the cold archive continues where the table ends
+        Pageable pageable = PageRequest.of(page, size);
+        Page<UserActivityLog> hotLogs = userActivityLogRepository.findByUserIdOrderByTimestampDesc(userId, pageable);
+        List<UserActivityLogResponse> content = new ArrayList<>(hotLogs.map(userActivityLogMapper::toResponse).getContent());
+
+        if (content.size() < size) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - hotLogs.getTotalElements());
+            activityLogArchiveService.findArchivedByUserId(userId, archiveOffset, size - content.size())
+                    .forEach(archived -> content.add(userActivityLogMapper.toResponse(archived)));
+        }
+
+        if (content.isEmpty()) {
+            throw new NotFoundException("No activity logs found for user ID: " + userId);
+        }
+        long total = hotLogs.getTotalElements() + activityLogArchiveService.countArchivedByUserId(userId);
+        return new PageImpl<>(content, pageable, total);
+    }
+
     @Override
     public Page<UserActivityLogResponse> getActivityLogsByType(String activityType, int page, int size) {
         try {
             ActivityType type = ActivityType.valueOf(activityType.toUpperCase());
             Pageable pageable = PageRequest.of(page, size);
-            Page<UserActivityLog> logs = userActivityLogRepository.findByActivityTypeOrderByTimestampDesc(type, pageable);
+            Page<UserActivityLog> logs = pageCountService.toPage(
+                userActivityLogRepository.findByActivityTypeOrderByTimestampDesc(type, pageable),
+                "activity-logs:type:" + type,
+                () -> userActivityLogRepository.countByActivityType(type));
             Page<UserActivityLogResponse> mappedLogs = logs.map(userActivityLogMapper::toResponse);
             
             if (mappedLogs.getContent().isEmpty()) {
@@ -99,7 +139,10 @@ public class UserActivityLogServiceImpl implements UserActivityLogService {
     @Override
     public Page<UserActivityLogResponse> getActivityLogsByDateRange(LocalDateTime startTime, LocalDateTime endTime, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserActivityLog> logs = userActivityLogRepository.findByTimestampBetween(startTime, endTime, pageable);
+        Page<UserActivityLog> logs = pageCountService.toPage(
+            userActivityLogRepository.findByTimestampBetween(startTime, endTime, pageable),
+            "activity-logs:range:" + startTime + ":" + endTime,
+            () -> userActivityLogRepository.countByTimestampBetween(startTime, endTime));
         Page<UserActivityLogResponse> mappedLogs = logs.map(userActivityLogMapper::toResponse);
         
         if (mappedLogs.getContent().isEmpty()) {
@@ -114,10 +157,10 @@ public class UserActivityLogServiceImpl implements UserActivityLogService {
         Pageable pageable = PageRequest.of(page, size);
         
         // For now, export all - you can add filtering logic based on request
-        Page<UserActivityLog> logs = userActivityLogRepository.findAll(pageable);
+        Page<UserActivityLog> logs = findAllLogs(pageable);
         Page<UserActivityLogResponse> mappedLogs = logs.map(userActivityLogMapper::toResponse);
         
-        if (mappedLogs.getContent().isEmpty()) {
+        if (isEmptyPage(mappedLogs)) {
             throw new NotFoundException("No activity logs found for export");
         }
         return mappedLogs;
@@ -134,24 +177,41 @@ public class UserActivityLogServiceImpl implements UserActivityLogService {
 
     @Override
     public Page<UserActivityLogResponse> getMyLoginHistory(int page, int size) {
-        User currentUser = accountUtils.getCurrentUser();
-        
-        if (currentUser == null) {
-            throw new NotFoundException("Current user not found");
-        }
+        Long userId = accountUtils.getCurrentPrincipal().userId();
         
+        // Served from the per-user login ring instead of paging through the activity log table
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserActivityLog> loginLogs = userActivityLogRepository
-            .findByUserIdAndActivityTypeOrderByTimestampDesc(
-                currentUser.getUserId(), 
-                ActivityType.LOGIN_ATTEMPT,
-                pageable
-            );
-
-        if (loginLogs.getContent().isEmpty()) {
+        List<LoginHistoryEntry> recentLogins = loginHistoryService.findRecentLogins(userId);
+        List<LoginHistoryEntry> entries = recentLogins.stream()
+            .skip(pageable.getOffset())
+            .limit(size)
+            .toList();
+
+        if (entries.isEmpty()) {
             throw new NotFoundException("No login history found for current user");
         }
         
-        return loginLogs.map(userActivityLogMapper::toResponse);
+        // Only the name, not the user with its roles
+        String fullName = userRepository.findFullNameById(userId)
+            .orElseThrow(() -> new NotFoundException("Current user not found"));
+        List<UserActivityLogResponse> content = entries.stream()
+            .map(entry -> userActivityLogMapper.toResponse(entry, fullName))
+            .toList();
+        
+        return new PageImpl<>(content, pageable, recentLogins.size());
+    }
+
+    private Page<UserActivityLog> findAllLogs(Pageable pageable) {
+        if (pageCountService.shouldStream(pageable)) {
+            return pageCountService.toStreamingTablePage(
+                pageable, userActivityLogRepository::streamAllBy, "user_activity_logs", userActivityLogRepository::count);
+        }
+        return pageCountService.toTablePage(
+            userActivityLogRepository.findAllBy(pageable), "user_activity_logs", userActivityLogRepository::count);
+    }
+
+    // Streamed pages are only read while the response is written, so they are never reported as empty here
+    private boolean isEmptyPage(Page<?> page) {
+        return !(page instanceof StreamingPage) && page.getContent().isEmpty();
     }
 }
@@ -0,0 +1,148 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.entity.Permission;
+import com.example.demologin.entity.Role;
+import com.example.demologin.entity.User;
+import com.example.demologin.event.RoleChangedEvent;
+import com.example.demologin.repository.UserRepository;
+import com.example.demologin.security.UserPrincipal;
+import com.example.demologin.service.UserPrincipalService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches one UserPrincipal per user for the JWT filter, so requests no longer load the user and its roles.
+ *
+ * The token version is still read from the database on every call, so logging out everywhere takes effect at
+ * once on every node. Role changes on this node drop everything after commit; the TTL bounds how long another
+ * node keeps authorities from before a role change. A principal rebuilt there may still take User.roles and
+ * Role.permissions from the second-level cache, so in the worst case a grant lingers for this TTL plus
+ * hibernate.cache.bounded.ttl_seconds. Authority lists are built once per set of roles.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserPrincipalServiceImpl implements UserPrincipalService {
+
+    @Value("${user-principal.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${user-principal.max-entries:10000}")
+    private int maxEntries;
+
+    private final UserRepository userRepository;
+
+    // Authorities are few and never change; one instance per name for all lists
+    private final Map<String, GrantedAuthority> authorityPool = new ConcurrentHashMap<>();
+
+    // Replaced by evictAll; a principal built from an older generation is returned but not kept
+    private volatile Generation generation = new Generation();
+
+    private record CachedPrincipal(UserPrincipal principal, long expiresAt) {
+    }
+
+    private static final class Generation {
+        private final LinkedHashMap<Long, CachedPrincipal> principals = new LinkedHashMap<>(64, 0.75f, true);
+        // Keyed by the sorted role ids
+        private final Map<List<Long>, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public UserPrincipal getPrincipal(Long userId) {
+        Generation current = generation;
+        Integer tokenVersion = userRepository.findTokenVersionById(userId).orElse(null);
+        if (tokenVersion == null) {
+            synchronized (current.principals) {
+                current.principals.remove(userId);
+            }
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (current.principals) {
+            CachedPrincipal cached = current.principals.get(userId);
+            if (cached != null && cached.expiresAt() > now && cached.principal().tokenVersion() == tokenVersion) {
+                return cached.principal();
+            }
+        }
+
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        UserPrincipal principal = build(user, current);
+        if (generation == current) {
+            synchronized (current.principals) {
+                current.principals.put(userId, new CachedPrincipal(principal, now + ttlMs));
+                Iterator<Long> eldest = current.principals.keySet().iterator();
+                while (current.principals.size() > Math.max(maxEntries, 1) && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return principal;
+    }
+
+    @Override
+    public void evictAll() {
+        generation = new Generation();
+        log.debug("Dropped cached user principals");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        evictAll();
+    }
+
+    private UserPrincipal build(User user, Generation current) {
+        List<Role> roles = user.getRoles().stream()
+                .sorted(Comparator.comparing(Role::getId))
+                .toList();
+        long[] roleIds = roles.stream().mapToLong(Role::getId).toArray();
+        BitSet permissions = new BitSet();
+        for (Role role : roles) {
+            for (Permission permission : role.getPermissions()) {
+                permissions.set(Math.toIntExact(permission.getId()));
+            }
+        }
+        List<GrantedAuthority> authorities = current.authoritiesByRoles.computeIfAbsent(
+                Arrays.stream(roleIds).boxed().toList(), key -> authorities(roles));
+        return new UserPrincipal(user.getUserId(), user.getUsername(), user.getTokenVersion(), roleIds,
+                permissions.toLongArray(), authorities);
+    }
+
+    // Role names, then permission codes in alphabetical order; the same authorities as User.getAuthorities
+    private List<GrantedAuthority> authorities(List<Role> roles) {
+        Set<String> names = new LinkedHashSet<>();
+        List<String> codes = new ArrayList<>();
+        for (Role role : roles) {
+            names.add(role.getName());
+            for (Permission permission : role.getPermissions()) {
+                codes.add(permission.getCode());
+            }
+        }
+        codes.stream().sorted().forEach(names::add);
+        // List.copyOf rather than Stream.toList, whose lists UserPrincipal would copy again
+        return List.copyOf(names.stream()
+                .map(name -> authorityPool.computeIfAbsent(name, SimpleGrantedAuthority::new))
+                .toList());
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demologin.entity.User;
 import com.example.demologin.exception.exceptions.InvalidPrincipalTypeException;
 import com.example.demologin.exception.exceptions.UserNotAuthenticatedException;
 import com.example.demologin.repository.UserRepository;
+import com.example.demologin.security.UserPrincipal;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -19,15 +20,18 @@ public class AccountUtils {
 
     private final UserRepository userRepository;
 
+    /**
+     * The user entity of the request, loaded from the database when the filter stored a UserPrincipal.
+     * Callers that only need the id or username should use getCurrentPrincipal.
+     */
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = currentAuthentication().getPrincipal();
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new UserNotAuthenticatedException("No authenticated user found");
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userRepository.findById(userPrincipal.userId())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userPrincipal.userId()));
         }
 
-        Object principal = authentication.getPrincipal();
-
         if (principal instanceof User user) {
             return user;
         }
@@ -40,6 +44,25 @@ public class AccountUtils {
         throw new InvalidPrincipalTypeException("Principal is of unsupported type: " + principal.getClass().getName());
     }
 
+    public UserPrincipal getCurrentPrincipal() {
+        Object principal = currentAuthentication().getPrincipal();
+
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal;
+        }
+
+        throw new InvalidPrincipalTypeException("Principal is of unsupported type: " + principal.getClass().getName());
+    }
+
+    private Authentication currentAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UserNotAuthenticatedException("No authenticated user found");
+        }
+        return authentication;
+    }
+
     public String getCurrentToken() {
         ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attrs == null) {
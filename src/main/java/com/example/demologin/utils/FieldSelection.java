@@ -0,0 +1,76 @@
+package com.example.demologin.utils;
+
+import com.example.demologin.annotation.SparseFields;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The ?fields= selection of the current request. An empty set means every field.
+ */
+public final class FieldSelection {
+
+    public static final String PARAM = "fields";
+    public static final String FILTER_ID = "sparseFields";
+
+    private FieldSelection() {
+    }
+
+    public static Set<String> requested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return Collections.emptySet();
+        }
+        return parse(servletAttributes.getRequest().getParameter(PARAM));
+    }
+
+    public static Set<String> requested(HttpServletRequest request) {
+        return parse(request.getParameter(PARAM));
+    }
+
+    public static Set<String> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : value.split(",")) {
+            if (!field.isBlank()) {
+                fields.add(field.trim());
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Filters that keep only the given properties of @SparseFields classes.
+     */
+    public static FilterProvider filters(Set<String> fields) {
+        return new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    /**
+     * Gives every @SparseFields class the FILTER_ID property filter. Only installed on the MVC ObjectMapper,
+     * so other mappers serialize those classes as usual.
+     */
+    public static class Introspector extends JacksonAnnotationIntrospector {
+
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            if (annotated.hasAnnotation(SparseFields.class)) {
+                return FILTER_ID;
+            }
+            return super.findFilterId(annotated);
+        }
+    }
+}
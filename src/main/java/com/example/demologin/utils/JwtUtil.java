@@ -4,6 +4,7 @@ import com.example.demologin.entity.RefreshToken;
 import com.example.demologin.entity.User;
 import com.example.demologin.exception.exceptions.TokenValidationException;
 import com.example.demologin.repository.RefreshTokenRepository;
+import com.example.demologin.security.UserPrincipal;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
@@ -265,6 +266,14 @@ public class JwtUtil {
     }
 
     public boolean validateTokenWithJtiCheck(String token, User user) {
+        return validateTokenWithJtiCheck(token, user.getUserId(), user.getTokenVersion());
+    }
+
+    public boolean validateTokenWithJtiCheck(String token, UserPrincipal principal) {
+        return validateTokenWithJtiCheck(token, principal.userId(), principal.tokenVersion());
+    }
+
+    private boolean validateTokenWithJtiCheck(String token, Long userId, int userTokenVersion) {
         try {
             Claims claims = extractAllClaims(token);
             String userIdFromToken = claims.getSubject(); // giờ subject là userId
@@ -284,12 +293,12 @@ public class JwtUtil {
                 return false;
             }
 
-            return userIdFromToken.equals(String.valueOf(user.getUserId())) // so sánh theo id
-                    && tokenVersion.equals(user.getTokenVersion())
+            return userIdFromToken.equals(String.valueOf(userId)) // so sánh theo id
+                    && tokenVersion.equals(userTokenVersion)
                     && !isTokenExpired(token);
         } catch (Exception e) {
             log.debug("Token validation with JTI failed for userId {}: {}",
-                    user.getUserId(), e.getMessage());
+                    userId, e.getMessage());
             return false;
         }
     }
@@ -0,0 +1,27 @@
+package com.example.demologin.utils;
+
+import com.example.demologin.enums.PageCountMode;
+
+/**
+ * Count mode of the @PageResponse endpoint handling the current request.
+ */
+public final class PageCountContext {
+
+    private static final ThreadLocal<PageCountMode> CURRENT = new ThreadLocal<>();
+
+    private PageCountContext() {
+    }
+
+    public static PageCountMode current() {
+        PageCountMode mode = CURRENT.get();
+        return mode != null ? mode : PageCountMode.EXACT;
+    }
+
+    public static void set(PageCountMode mode) {
+        CURRENT.set(mode);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
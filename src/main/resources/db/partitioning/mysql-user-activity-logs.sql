@@ -0,0 +1,14 @@
+-- One-time migration: monthly RANGE partitioning of user_activity_logs (MySQL 8).
+-- MySQL requires the partition column in every unique key, so the primary key becomes (id, timestamp).
+-- Run during a maintenance window; ActivityLogRetentionServiceImpl then keeps partitions rolling.
+
+ALTER TABLE user_activity_logs
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, timestamp);
+
+-- Replace the first partition bound with the month of MIN(timestamp); add one line per month up to now.
+ALTER TABLE user_activity_logs
+    PARTITION BY RANGE COLUMNS (timestamp) (
+        PARTITION p202501 VALUES LESS THAN ('2025-02-01 00:00:00'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
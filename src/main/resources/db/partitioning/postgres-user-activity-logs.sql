@@ -0,0 +1,38 @@
+-- One-time migration: declarative monthly partitioning of user_activity_logs (PostgreSQL 12+).
+-- The parent is recreated as a partitioned table and the old rows are copied into it.
+-- Run during a maintenance window; ActivityLogRetentionServiceImpl then keeps partitions rolling.
+
+BEGIN;
+
+ALTER TABLE user_activity_logs RENAME TO user_activity_logs_legacy;
+
+CREATE TABLE user_activity_logs (LIKE user_activity_logs_legacy INCLUDING DEFAULTS INCLUDING IDENTITY)
+    PARTITION BY RANGE (timestamp);
+
+ALTER TABLE user_activity_logs ADD PRIMARY KEY (id, timestamp);
+
+-- One partition per month from the oldest row up to two months ahead
+DO $$
+DECLARE
+    m date;
+BEGIN
+    FOR m IN
+        SELECT generate_series(
+                   date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM user_activity_logs_legacy), now())),
+                   date_trunc('month', now()) + interval '2 months',
+                   interval '1 month')::date
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS user_activity_logs_p%s PARTITION OF user_activity_logs FOR VALUES FROM (%L) TO (%L)',
+                       to_char(m, 'YYYYMM'), m, (m + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO user_activity_logs SELECT * FROM user_activity_logs_legacy;
+
+SELECT setval(pg_get_serial_sequence('user_activity_logs', 'id'),
+              (SELECT COALESCE(MAX(id), 0) + 1 FROM user_activity_logs_legacy), false);
+
+COMMIT;
+
+-- After verifying the copy:
+-- DROP TABLE user_activity_logs_legacy;
@@ -0,0 +1,97 @@
+package com.example.demologin.archive;
+
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityLogSegmentTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeAndRead_userRowsNewestFirst() throws Exception {
+        Path file = tempDir.resolve(DAY + ".seg");
+        ActivityLogSegmentWriter.write(file, List.of(
+                log(1L, 10L, 8, "Hanoi"),
+                log(2L, 20L, 9, null),
+                log(3L, 10L, 12, "Da Nang"),
+                log(4L, null, 13, null)
+        ));
+
+        ActivityLogSegment segment = ActivityLogSegment.open(file, DAY);
+
+        assertEquals(4, segment.getRowCount());
+        assertEquals(DAY.atTime(8, 0), segment.getMinTimestamp());
+        assertEquals(DAY.atTime(13, 0), segment.getMaxTimestamp());
+        assertEquals(2, segment.countForUser(10L));
+        assertEquals(1, segment.countForUser(20L));
+        assertEquals(0, segment.countForUser(15L));
+        assertFalse(segment.mayContainUser(99L));
+
+        List<UserActivityLog> rows = segment.readUser(10L, 0, 10);
+        assertEquals(2, rows.size());
+        assertEquals(3L, rows.get(0).getId());
+        assertEquals("Da Nang", rows.get(0).getCity());
+        assertEquals(ActivityType.LOGIN_ATTEMPT, rows.get(0).getActivityType());
+        assertEquals(1L, rows.get(1).getId());
+        assertNull(segment.readUser(20L, 0, 10).get(0).getCity());
+    }
+
+    @Test
+    void readUser_offsetAndLimit() throws Exception {
+        Path file = tempDir.resolve(DAY + ".seg");
+        ActivityLogSegmentWriter.write(file, List.of(
+                log(1L, 10L, 8, null),
+                log(2L, 10L, 9, null),
+                log(3L, 10L, 10, null)
+        ));
+
+        ActivityLogSegment segment = ActivityLogSegment.open(file, DAY);
+
+        List<UserActivityLog> rows = segment.readUser(10L, 1, 1);
+        assertEquals(1, rows.size());
+        assertEquals(2L, rows.get(0).getId());
+        assertEquals(3, segment.readAll().size());
+    }
+
+    @Test
+    void streamingWriter_requiresRowsGroupedByUser() throws Exception {
+        Path file = tempDir.resolve(DAY + ".seg");
+        ActivityLogSegmentWriter.write(file, List.of(log(1L, 10L, 8, null)));
+
+        try (ActivityLogSegmentWriter writer = ActivityLogSegmentWriter.create(file)) {
+            writer.append(log(2L, 20L, 9, null));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(log(3L, 10L, 10, null)));
+        }
+
+        // Never committed, so the previous segment is still in place
+        ActivityLogSegment segment = ActivityLogSegment.open(file, DAY);
+        assertEquals(1, segment.getRowCount());
+        try (ActivityLogSegment.RowCursor rows = segment.rows()) {
+            assertEquals(1L, rows.next().getId());
+            assertNull(rows.next());
+        }
+    }
+
+    private UserActivityLog log(Long id, Long userId, int hour, String city) {
+        return UserActivityLog.builder()
+                .id(id)
+                .userId(userId)
+                .activityType(ActivityType.LOGIN_ATTEMPT)
+                .timestamp(LocalDateTime.of(DAY, java.time.LocalTime.of(hour, 0)))
+                .status("SUCCESS")
+                .city(city)
+                .build();
+    }
+}
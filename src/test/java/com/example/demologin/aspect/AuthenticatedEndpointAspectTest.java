@@ -23,8 +23,9 @@ class AuthenticatedEndpointAspectTest {
     }
 
     @Test
-    void testCheckAuthenticated_callsGetCurrentUser() {
+    void testCheckAuthenticated_callsGetCurrentPrincipal() {
         aspect.checkAuthenticated();
-        verify(accountUtils, times(1)).getCurrentUser();
+        verify(accountUtils, times(1)).getCurrentPrincipal();
+        verify(accountUtils, never()).getCurrentUser();
     }
 }
@@ -0,0 +1,100 @@
+package com.example.demologin.aspect;
+
+import com.example.demologin.annotation.CatalogCacheable;
+import com.example.demologin.cache.CatalogResponseCache;
+import com.example.demologin.service.BookAutocompleteService;
+import com.example.demologin.service.CatalogVersionService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheAspectTest {
+
+    private static final String ETAG = "\"catalog-abc-3\"";
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+    @Mock
+    private CatalogResponseCache catalogResponseCache;
+    @Mock
+    private BookAutocompleteService bookAutocompleteService;
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+    @Mock
+    private CatalogCacheable catalogCacheable;
+
+    private CatalogCacheAspect aspect;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new CatalogCacheAspect(catalogVersionService, catalogResponseCache, bookAutocompleteService);
+        ReflectionTestUtils.setField(aspect, "maxAgeSeconds", 60L);
+        ReflectionTestUtils.setField(aspect, "cdnMaxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(aspect, "surrogateKeyHeader", "Surrogate-Key");
+        request = new MockHttpServletRequest("GET", "/api/public/books/7");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("bookId", "7"));
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        when(catalogCacheable.surrogateKeys()).thenReturn(new String[]{"book-{bookId}"});
+        when(catalogVersionService.etag()).thenReturn(ETAG);
+        when(catalogVersionService.lastModified()).thenReturn(1_700_000_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void matchingEtag_answers304WithoutRunningTheMethod() throws Throwable {
+        request.addHeader("If-None-Match", ETAG);
+
+        Object result = aspect.handleConditionalGet(joinPoint, catalogCacheable);
+
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    void notModifiedDetailRequest_stillCountsAsAView() throws Throwable {
+        request.addHeader("If-None-Match", ETAG);
+        when(catalogCacheable.viewedBook()).thenReturn("bookId");
+
+        aspect.handleConditionalGet(joinPoint, catalogCacheable);
+
+        verify(bookAutocompleteService).recordView(7L);
+    }
+
+    @Test
+    void staleEtag_runsTheMethodAndAddsCacheHeaders() throws Throwable {
+        request.addHeader("If-None-Match", "\"catalog-abc-2\"");
+        when(joinPoint.proceed()).thenReturn("body");
+
+        Object result = aspect.handleConditionalGet(joinPoint, catalogCacheable);
+
+        assertEquals("body", result);
+        assertEquals(200, response.getStatus());
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertEquals("public, max-age=60, s-maxage=300", response.getHeader("Cache-Control"));
+        assertEquals("catalog book-7", response.getHeader("Surrogate-Key"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demologin.aspect;
+
+import com.example.demologin.annotation.ApiResponse;
+import com.example.demologin.config.JacksonConfig;
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.ResponseObject;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FieldSelectionAspectTest {
+
+    private FieldSelectionAspect aspect;
+    private ObjectMapper objectMapper;
+    private MethodParameter methodParameter;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new FieldSelectionAspect();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().sparseFieldsCustomizer().customize(builder);
+        objectMapper = builder.build();
+        methodParameter = mock(MethodParameter.class);
+        when(methodParameter.hasMethodAnnotation(ApiResponse.class)).thenReturn(true);
+    }
+
+    @Test
+    void supports_onlyJsonResponsesOfApiEndpoints() {
+        assertTrue(aspect.supports(methodParameter, MappingJackson2HttpMessageConverter.class));
+        assertFalse(aspect.supports(methodParameter, StringHttpMessageConverter.class));
+    }
+
+    @Test
+    void beforeBodyWrite_keepsOnlySelectedFieldsOfDtos() throws Exception {
+        Object body = new ResponseObject(200, "ok", new PageImpl<>(List.of(book()), PageRequest.of(0, 1), 1));
+
+        Object result = aspect.beforeBodyWrite(body, methodParameter, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, request("bookId, title,inStock"), mock(ServerHttpResponse.class));
+
+        assertInstanceOf(MappingJacksonValue.class, result);
+        MappingJacksonValue value = (MappingJacksonValue) result;
+        JsonNode json = objectMapper.readTree(objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue()));
+        JsonNode row = json.get("data").get("content").get(0);
+        assertEquals(3, row.size());
+        assertEquals("Dune", row.get("title").asText());
+        assertTrue(row.has("inStock"));
+        // the envelope is never filtered
+        assertEquals(200, json.get("statusCode").asInt());
+    }
+
+    @Test
+    void beforeBodyWrite_withoutSelectionWritesEverything() throws Exception {
+        Object body = new ResponseObject(200, "ok", book());
+
+        Object result = aspect.beforeBodyWrite(body, methodParameter, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, request(null), mock(ServerHttpResponse.class));
+
+        assertSame(body, result);
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(result));
+        assertEquals(0, new BigDecimal("9.50").compareTo(json.get("data").get("price").decimalValue()));
+        assertTrue(json.get("data").has("description"));
+        // mappers without the introspector are unaffected
+        assertTrue(new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(book())).has("description"));
+    }
+
+    private ServletServerHttpRequest request(String fields) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/books");
+        if (fields != null) {
+            request.setParameter("fields", fields);
+        }
+        return new ServletServerHttpRequest(request);
+    }
+
+    private BookResponse book() {
+        BookResponse book = new BookResponse();
+        book.setBookId(1L);
+        book.setTitle("Dune");
+        book.setDescription("Long text");
+        book.setPrice(new BigDecimal("9.50"));
+        book.setInStock(true);
+        return book;
+    }
+}
@@ -64,4 +64,22 @@ class PageResponseAspectTest {
     Object result = aspect.beforeBodyWrite(body, methodParameter, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class, request, response);
     assertEquals(body, result);
     }
+
+    @Test
+    void testBeforeBodyWrite_estimatedCountAddsHeaders() {
+        PageResponse annotation = mock(PageResponse.class);
+        when(annotation.count()).thenReturn(com.example.demologin.enums.PageCountMode.ESTIMATED);
+        when(methodParameter.getMethodAnnotation(PageResponse.class)).thenReturn(annotation);
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        when(response.getHeaders()).thenReturn(headers);
+        Page<String> page = new org.springframework.data.domain.PageImpl<>(
+                java.util.List.of("a"), org.springframework.data.domain.PageRequest.of(0, 1), 5);
+        Object body = new com.example.demologin.dto.response.ResponseObject(200, "ok", page);
+
+        Object result = aspect.beforeBodyWrite(body, methodParameter, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class, request, response);
+
+        assertSame(body, result);
+        assertEquals("ESTIMATED", headers.getFirst(PageResponseAspect.COUNT_MODE_HEADER));
+        assertEquals("true", headers.getFirst(PageResponseAspect.HAS_NEXT_HEADER));
+    }
 }
@@ -5,6 +5,7 @@ import com.example.demologin.entity.User;
 import com.example.demologin.entity.UserActivityLog;
 import com.example.demologin.repository.UserActivityLogRepository;
 import com.example.demologin.repository.UserRepository;
+import com.example.demologin.service.LoginHistoryService;
 import com.example.demologin.utils.AccountUtils;
 import com.example.demologin.utils.IpUtilsWrapper;
 import com.example.demologin.utils.LocationUtil;
@@ -91,13 +92,13 @@ class UserActivityAspectTest {
     @Test
     void testFindExistingActivityLog_mapOrElseGetBranches() throws Exception {
         // Chuẩn bị ClientInfo
-        var clientInfoCtor = aspect.getClass().getDeclaredClasses()[0].getDeclaredConstructor(String.class, String.class, String.class);
+        var clientInfoCtor = clientInfoClass().getDeclaredConstructor(String.class, String.class, String.class);
         clientInfoCtor.setAccessible(true);
         Object clientInfo = clientInfoCtor.newInstance("127.0.0.1", "Mozilla", "127.0.0.1");
         // userId != null, có log cũ
         UserActivityLog existingLog = new UserActivityLog();
         when(userActivityLogRepository.findTopByUserIdAndActivityTypeAndIpAddressAndUserAgentOrderByTimestampDesc(any(), any(), any(), any())).thenReturn(existingLog);
-        var method = aspect.getClass().getDeclaredMethod("findExistingActivityLog", Long.class, UserActivity.class, aspect.getClass().getDeclaredClasses()[0]);
+        var method = aspect.getClass().getDeclaredMethod("findExistingActivityLog", Long.class, UserActivity.class, clientInfoClass());
         method.setAccessible(true);
         Object result = method.invoke(aspect, 1L, userActivity, clientInfo);
         assertTrue(result instanceof java.util.Optional);
@@ -133,9 +134,9 @@ class UserActivityAspectTest {
 
     @Test
     void testCreateNewActivityLog_nullDeviceOrLocation() throws Exception {
-        var method = aspect.getClass().getDeclaredMethod("createNewActivityLog", UserActivity.class, Long.class, String.class, String.class, String.class, aspect.getClass().getDeclaredClasses()[0], com.example.demologin.utils.UserAgentUtil.DeviceInfo.class, com.example.demologin.utils.LocationUtil.LocationInfo.class);
+        var method = aspect.getClass().getDeclaredMethod("createNewActivityLog", UserActivity.class, Long.class, String.class, String.class, String.class, clientInfoClass(), com.example.demologin.utils.UserAgentUtil.DeviceInfo.class, com.example.demologin.utils.LocationUtil.LocationInfo.class);
         method.setAccessible(true);
-        var clientInfoCtor = aspect.getClass().getDeclaredClasses()[0].getDeclaredConstructor(String.class, String.class, String.class);
+        var clientInfoCtor = clientInfoClass().getDeclaredConstructor(String.class, String.class, String.class);
         clientInfoCtor.setAccessible(true);
         Object clientInfo = clientInfoCtor.newInstance("127.0.0.1", "Mozilla", "127.0.0.1");
         // deviceInfo null
@@ -209,10 +210,10 @@ class UserActivityAspectTest {
         when(deviceInfo.getDevice()).thenReturn("PC");
         when(deviceInfo.getDeviceType()).thenReturn("Desktop");
         com.example.demologin.utils.LocationUtil.LocationInfo locationInfo = new com.example.demologin.utils.LocationUtil.LocationInfo("Hanoi", "HN", "VN", "VN");
-        var method = aspect.getClass().getDeclaredMethod("createNewActivityLog", UserActivity.class, Long.class, String.class, String.class, String.class, aspect.getClass().getDeclaredClasses()[0], com.example.demologin.utils.UserAgentUtil.DeviceInfo.class, com.example.demologin.utils.LocationUtil.LocationInfo.class);
+        var method = aspect.getClass().getDeclaredMethod("createNewActivityLog", UserActivity.class, Long.class, String.class, String.class, String.class, clientInfoClass(), com.example.demologin.utils.UserAgentUtil.DeviceInfo.class, com.example.demologin.utils.LocationUtil.LocationInfo.class);
         method.setAccessible(true);
         // Tạo ClientInfo qua reflection
-        var clientInfoCtor = aspect.getClass().getDeclaredClasses()[0].getDeclaredConstructor(String.class, String.class, String.class);
+        var clientInfoCtor = clientInfoClass().getDeclaredConstructor(String.class, String.class, String.class);
         clientInfoCtor.setAccessible(true);
         Object clientInfo = clientInfoCtor.newInstance("127.0.0.1", "Mozilla", "127.0.0.1");
         Object result = method.invoke(aspect, userActivity, 1L, "FullName", "SUCCESS", "details", clientInfo, deviceInfo, locationInfo);
@@ -221,10 +222,10 @@ class UserActivityAspectTest {
 
     @Test
     void testFindExistingActivityLog_branches() throws Exception {
-        var method = aspect.getClass().getDeclaredMethod("findExistingActivityLog", Long.class, UserActivity.class, aspect.getClass().getDeclaredClasses()[0]);
+        var method = aspect.getClass().getDeclaredMethod("findExistingActivityLog", Long.class, UserActivity.class, clientInfoClass());
         method.setAccessible(true);
         // userId null
-    var clientInfoCtor = aspect.getClass().getDeclaredClasses()[0].getDeclaredConstructor(String.class, String.class, String.class);
+    var clientInfoCtor = clientInfoClass().getDeclaredConstructor(String.class, String.class, String.class);
     clientInfoCtor.setAccessible(true);
     Object clientInfo = clientInfoCtor.newInstance("127.0.0.1", "Mozilla", "127.0.0.1");
         Object result = method.invoke(aspect, null, userActivity, clientInfo);
@@ -294,6 +295,7 @@ class UserActivityAspectTest {
         method.setAccessible(true);
         // extractUserFromLoginRequest sẽ throw
         when(joinPoint.getArgs()).thenReturn(new Object[] {"not a login request"});
+        when(accountUtils.getCurrentPrincipal()).thenThrow(new com.example.demologin.exception.exceptions.UserNotAuthenticatedException("not auth"));
         Object result = method.invoke(aspect, joinPoint, userActivity, null);
         assertNull(result);
     }
@@ -301,7 +303,7 @@ class UserActivityAspectTest {
     @Test
     void testGetCurrentUserOrFromLoginAttempt_otherException() throws Exception {
         when(userActivity.activityType()).thenReturn(com.example.demologin.enums.ActivityType.LOGIN_SUCCESS);
-        when(accountUtils.getCurrentUser()).thenThrow(new com.example.demologin.exception.exceptions.UserNotAuthenticatedException("not auth"));
+        when(accountUtils.getCurrentPrincipal()).thenThrow(new com.example.demologin.exception.exceptions.UserNotAuthenticatedException("not auth"));
         var method = aspect.getClass().getDeclaredMethod("getCurrentUserOrFromLoginAttempt", JoinPoint.class, UserActivity.class, Object.class);
         method.setAccessible(true);
         Object result = method.invoke(aspect, joinPoint, userActivity, null);
@@ -310,9 +312,7 @@ class UserActivityAspectTest {
 
     @Test
     void testCreateOrUpdateActivityLog_updateExisting() throws Exception {
-        User user = new User();
-        user.setUserId(1L);
-        user.setFullName("Test User");
+        UserActivityAspect.ActingUser user = new UserActivityAspect.ActingUser(1L, "Test User");
         when(userActivity.logUserId()).thenReturn(true);
         when(userActivity.details()).thenReturn("");
         when(userActivity.activityType()).thenReturn(com.example.demologin.enums.ActivityType.LOGIN_SUCCESS);
@@ -324,7 +324,7 @@ class UserActivityAspectTest {
             when(locationUtil.getLocationFromIP(any())).thenReturn(mock(com.example.demologin.utils.LocationUtil.LocationInfo.class));
             UserActivityLog existingLog = mock(UserActivityLog.class);
             when(userActivityLogRepository.findTopByUserIdAndActivityTypeAndIpAddressAndUserAgentOrderByTimestampDesc(any(), any(), any(), any())).thenReturn(existingLog);
-            var method = aspect.getClass().getDeclaredMethod("createOrUpdateActivityLog", JoinPoint.class, UserActivity.class, User.class);
+            var method = aspect.getClass().getDeclaredMethod("createOrUpdateActivityLog", JoinPoint.class, UserActivity.class, UserActivityAspect.ActingUser.class);
             method.setAccessible(true);
             Object result = method.invoke(aspect, joinPoint, userActivity, user);
             assertNotNull(result);
@@ -333,9 +333,7 @@ class UserActivityAspectTest {
 
     @Test
     void testCreateOrUpdateActivityLog_createNew() throws Exception {
-        User user = new User();
-        user.setUserId(1L);
-        user.setFullName("Test User");
+        UserActivityAspect.ActingUser user = new UserActivityAspect.ActingUser(1L, "Test User");
         when(userActivity.logUserId()).thenReturn(true);
         when(userActivity.details()).thenReturn("");
         when(userActivity.activityType()).thenReturn(com.example.demologin.enums.ActivityType.LOGIN_SUCCESS);
@@ -345,7 +343,7 @@ class UserActivityAspectTest {
             userAgentMocked.when(() -> com.example.demologin.utils.UserAgentUtil.parseUserAgent(any())).thenReturn(mock(com.example.demologin.utils.UserAgentUtil.DeviceInfo.class));
             when(locationUtil.getLocationFromIP(any())).thenReturn(mock(com.example.demologin.utils.LocationUtil.LocationInfo.class));
             when(userActivityLogRepository.findTopByUserIdAndActivityTypeAndIpAddressAndUserAgentOrderByTimestampDesc(any(), any(), any(), any())).thenReturn(null);
-            var method = aspect.getClass().getDeclaredMethod("createOrUpdateActivityLog", JoinPoint.class, UserActivity.class, User.class);
+            var method = aspect.getClass().getDeclaredMethod("createOrUpdateActivityLog", JoinPoint.class, UserActivity.class, UserActivityAspect.ActingUser.class);
             method.setAccessible(true);
             Object result = method.invoke(aspect, joinPoint, userActivity, user);
             assertNotNull(result);
@@ -416,6 +414,7 @@ class UserActivityAspectTest {
     @Mock IpUtilsWrapper ipUtils;
     @Mock UserAgentUtil userAgentUtil;
     @Mock LocationUtil locationUtil;
+    @Mock LoginHistoryService loginHistoryService;
     @Mock JoinPoint joinPoint;
     @Mock org.aspectj.lang.Signature signature;
     @Mock UserActivity userActivity;
@@ -425,26 +424,57 @@ class UserActivityAspectTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-    aspect = new UserActivityAspect(userActivityLogRepository, userRepository, accountUtils, ipUtils, userAgentUtil, locationUtil);
+    aspect = new UserActivityAspect(userActivityLogRepository, userRepository, accountUtils, ipUtils, userAgentUtil, locationUtil, loginHistoryService);
     when(joinPoint.getSignature()).thenReturn(signature);
     when(signature.getName()).thenReturn("testMethod");
     }
 
     @Test
     void testLogUserActivity_success() {
-        User user = new User();
-        when(accountUtils.getCurrentUser()).thenReturn(user);
+        when(accountUtils.getCurrentPrincipal()).thenReturn(new com.example.demologin.security.UserPrincipal(
+                7L, "tester", 0, new long[0], new long[0], java.util.List.of()));
+        when(userRepository.findFullNameById(7L)).thenReturn(java.util.Optional.of("Test User"));
         when(userActivity.activityType()).thenReturn(com.example.demologin.enums.ActivityType.LOGIN_SUCCESS);
         when(userActivity.details()).thenReturn("");
         when(userActivity.logUserId()).thenReturn(true);
         when(ipUtils.getClientIpAddress()).thenReturn("127.0.0.1");
         when(ipUtils.getUserAgent()).thenReturn("Mozilla");
-        // Mock static methods for UserAgentUtil and LocationUtil
         try (var userAgentMocked = org.mockito.Mockito.mockStatic(com.example.demologin.utils.UserAgentUtil.class)) {
-            userAgentMocked.when(() -> com.example.demologin.utils.UserAgentUtil.parseUserAgent(any())).thenReturn(null);
-            when(locationUtil.getLocationFromIP(any())).thenReturn(null);
+            userAgentMocked.when(() -> com.example.demologin.utils.UserAgentUtil.parseUserAgent(any())).thenReturn(mock(com.example.demologin.utils.UserAgentUtil.DeviceInfo.class));
+            when(locationUtil.getLocationFromIP(any())).thenReturn(mock(com.example.demologin.utils.LocationUtil.LocationInfo.class));
             aspect.logUserActivity(joinPoint, userActivity, null);
         }
-        verify(userActivityLogRepository, atLeastOnce()).save(any(UserActivityLog.class));
+        verify(userActivityLogRepository).save(argThat(log -> Long.valueOf(7L).equals(log.getUserId())
+                && "Test User".equals(log.getFullName())));
+        // Neither the user nor its roles are loaded
+        verify(accountUtils, never()).getCurrentUser();
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testUpdateLoginHistory_onlyForUserLoginAttempts() throws Exception {
+        var method = aspect.getClass().getDeclaredMethod("updateLoginHistory", UserActivityLog.class);
+        method.setAccessible(true);
+
+        UserActivityLog login = UserActivityLog.builder()
+                .activityType(com.example.demologin.enums.ActivityType.LOGIN_ATTEMPT).userId(1L).build();
+        method.invoke(aspect, login);
+        verify(loginHistoryService).recordLogin(login);
+
+        method.invoke(aspect, UserActivityLog.builder()
+                .activityType(com.example.demologin.enums.ActivityType.LOGIN_ATTEMPT).build());
+        method.invoke(aspect, UserActivityLog.builder()
+                .activityType(com.example.demologin.enums.ActivityType.LOGIN_SUCCESS).userId(1L).build());
+        verifyNoMoreInteractions(loginHistoryService);
+
+        // A failing read model does not propagate into the activity pipeline
+        doThrow(new RuntimeException("db down")).when(loginHistoryService).recordLogin(any());
+        method.invoke(aspect, login);
+    }
+
+    private Class<?> clientInfoClass() {
+        return java.util.Arrays.stream(UserActivityAspect.class.getDeclaredClasses())
+                .filter(c -> c.getSimpleName().equals("ClientInfo"))
+                .findFirst().orElseThrow();
     }
 }
@@ -0,0 +1,110 @@
+package com.example.demologin.cache;
+
+import com.example.demologin.dto.response.ResponseObject;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogResponseCacheTest {
+
+    private static final String ETAG = "\"catalog-abc-1\"";
+
+    private CatalogResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "maxPage", 1);
+        ReflectionTestUtils.setField(cache, "maxAgeMs", 60_000L);
+    }
+
+    @Test
+    void store_keepsIdentityAndGzipBytesOfTheEnvelope() throws Exception {
+        ResponseObject body = new ResponseObject(200, "Categories retrieved successfully", List.of("Fiction"));
+
+        cache.store("/api/public/books/categories", ETAG, body, null, Set.of());
+        CatalogResponseCache.CachedResponse cached = cache.get("/api/public/books/categories", ETAG);
+
+        String expected = "{\"statusCode\":200,\"message\":\"Categories retrieved successfully\",\"data\":[\"Fiction\"]}";
+        assertEquals(expected, new String(cached.identity(), StandardCharsets.UTF_8));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(cached.gzip()))) {
+            assertEquals(expected, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        ResponseEntity<byte[]> gzipped = cached.toResponseEntity(true);
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(cached.toResponseEntity(false).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void get_missesOnceTheEntryIsTooOld() throws Exception {
+        ReflectionTestUtils.setField(cache, "maxAgeMs", 0L);
+        cache.store("/a", ETAG, new ResponseObject(200, "ok", 1), null, Set.of());
+
+        assertNull(cache.get("/a", ETAG));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_missesOnceTheCatalogEtagMoved() throws Exception {
+        cache.store("/a", ETAG, new ResponseObject(200, "ok", 1), null, Set.of());
+
+        assertNull(cache.get("/a", "\"catalog-abc-2\""));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void store_evictsLeastRecentlyUsed() throws Exception {
+        cache.store("/a", ETAG, new ResponseObject(200, "ok", 1), null, Set.of());
+        cache.store("/b", ETAG, new ResponseObject(200, "ok", 2), null, Set.of());
+        cache.get("/a", ETAG);
+        cache.store("/c", ETAG, new ResponseObject(200, "ok", 3), null, Set.of());
+
+        assertNotNull(cache.get("/a", ETAG));
+        assertNull(cache.get("/b", ETAG));
+        assertNotNull(cache.get("/c", ETAG));
+    }
+
+    @Test
+    void store_skipsBodiesOutsideTheEnvelope() throws Exception {
+        assertNull(cache.store("/a", ETAG, "raw", null, Set.of()));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void key_ordersQueryParameters() {
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/public/books");
+        first.addParameter("size", "20");
+        first.addParameter("page", "0");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/api/public/books");
+        second.addParameter("page", "0");
+        second.addParameter("size", "20");
+
+        assertEquals("/api/public/books?page=0&size=20", CatalogResponseCache.key(first));
+        assertEquals(CatalogResponseCache.key(first), CatalogResponseCache.key(second));
+    }
+
+    @Test
+    void isCacheable_onlyFirstPages() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/books");
+        assertTrue(cache.isCacheable(request));
+        request.setParameter("page", "1");
+        assertTrue(cache.isCacheable(request));
+        request.setParameter("page", "2");
+        assertFalse(cache.isCacheable(request));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demologin.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryRegistryTest {
+
+    private final CategoryRegistry registry = CategoryRegistry.of(List.of(
+            entry(3L, "science", true, 4),
+            entry(1L, "Fiction", true, 2),
+            entry(2L, "Archive", false, 7)
+    ));
+
+    @Test
+    void sortsByNameIgnoringCase() {
+        assertEquals(List.of(2L, 1L, 3L), ids(registry.all()));
+        assertEquals(List.of(1L, 3L), ids(registry.active()));
+        assertEquals("Fiction", registry.get(1L).name());
+        assertNull(registry.get(9L));
+        assertNull(registry.get(null));
+    }
+
+    @Test
+    void withBookCounts_copiesAndLeavesTheOriginalAlone() {
+        CategoryRegistry updated = registry.withBookCounts(Map.of(1L, 5));
+
+        assertEquals(5, updated.get(1L).bookCount());
+        assertEquals(4, updated.get(3L).bookCount());
+        assertEquals(2, registry.get(1L).bookCount());
+        assertEquals(ids(registry.all()), ids(updated.all()));
+    }
+
+    @Test
+    void toResponse_createsAFreshResponse() {
+        assertNotSame(registry.get(1L).toResponse(), registry.get(1L).toResponse());
+        assertEquals(7, registry.get(2L).toResponse().getBookCount());
+        assertFalse(registry.get(2L).toResponse().getIsActive());
+    }
+
+    private static CategoryRegistry.Entry entry(Long id, String name, boolean active, int bookCount) {
+        return new CategoryRegistry.Entry(id, name, null, active, null, null, bookCount);
+    }
+
+    private static List<Long> ids(List<CategoryRegistry.Entry> entries) {
+        return entries.stream().map(CategoryRegistry.Entry::categoryId).toList();
+    }
+}
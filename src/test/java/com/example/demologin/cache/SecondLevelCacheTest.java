@@ -0,0 +1,246 @@
+package com.example.demologin.cache;
+
+import com.example.demologin.dto.request.PermissionRequest;
+import com.example.demologin.dto.request.role.RolePermissionsRequest;
+import com.example.demologin.entity.Permission;
+import com.example.demologin.entity.Role;
+import com.example.demologin.entity.User;
+import com.example.demologin.enums.Gender;
+import com.example.demologin.enums.UserStatus;
+import com.example.demologin.mapper.PermissionMapper;
+import com.example.demologin.mapper.RoleMapper;
+import com.example.demologin.repository.PermissionRepository;
+import com.example.demologin.repository.RoleRepository;
+import com.example.demologin.repository.UserRepository;
+import com.example.demologin.serviceImpl.PermissionServiceImpl;
+import com.example.demologin.serviceImpl.RoleServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.bounded.ttl_seconds=" + SecondLevelCacheTest.TTL_SECONDS})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    static final int TTL_SECONDS = 2;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private PermissionRepository permissionRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Long userId;
+    private Role role;
+    private Permission view;
+    private Permission edit;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        view = permissionRepository.save(new Permission("CACHE_TEST_VIEW", "View"));
+        edit = permissionRepository.save(new Permission("CACHE_TEST_EDIT", "Edit"));
+        role = roleRepository.save(Role.builder().name("CACHE_TEST_ROLE").permissions(Set.of(view)).build());
+        userId = userRepository.save(user(role)).getUserId();
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    void loadingUserAgain_takesRolesAndPermissionsFromCache() {
+        assertEquals(Set.of("CACHE_TEST_VIEW"), permissionCodes());
+        long coldStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(Set.of("CACHE_TEST_VIEW"), permissionCodes());
+
+        // Only the users row itself
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(coldStatements > 1);
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        // Role, its permission, and both collections
+        assertEquals(4, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void roleById_comesFromCacheOnceLoaded() {
+        transaction.execute(status -> roleRepository.findById(role.getId()).orElseThrow());
+        statistics.clear();
+
+        transaction.execute(status -> roleRepository.findById(role.getId()).orElseThrow());
+
+        // The role, its permissions collection and the permission
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    void grantsChangedByAnotherNode_areSeenOnceTheCachedEntriesExpire() throws InterruptedException {
+        assertEquals(Set.of("CACHE_TEST_VIEW"), permissionCodes());
+
+        // Straight to the tables, as another node's commit would look from here
+        jdbcTemplate.update("INSERT INTO role_permission (role_id, permission_id) VALUES (?, ?)",
+                role.getId(), edit.getId());
+        assertEquals(Set.of("CACHE_TEST_VIEW"), permissionCodes());
+
+        Thread.sleep(TTL_SECONDS * 1000L + 100);
+
+        assertEquals(Set.of("CACHE_TEST_VIEW", "CACHE_TEST_EDIT"), permissionCodes());
+    }
+
+    @Test
+    void adminWrites_invalidateCachedRolesAndPermissions() {
+        permissionCodes();
+        RoleServiceImpl roleService = new RoleServiceImpl(roleRepository, roleMapper(), userRepository,
+                event -> { });
+        PermissionServiceImpl permissionService = new PermissionServiceImpl(permissionRepository,
+                new PermissionMapper());
+
+        RolePermissionsRequest permissions = new RolePermissionsRequest();
+        permissions.permissionIds = Set.of(view.getId(), edit.getId());
+        transaction.executeWithoutResult(status -> roleService.updatePermissions(role.getId(), permissions));
+        PermissionRequest rename = new PermissionRequest();
+        rename.setName("Read");
+        transaction.executeWithoutResult(status -> permissionService.updatePermissionName(view.getId(), rename));
+
+        assertEquals(Set.of("CACHE_TEST_VIEW", "CACHE_TEST_EDIT"), permissionCodes());
+        String viewName = transaction.execute(status -> userRepository.findById(userId).orElseThrow()
+                .getRoles().iterator().next().getPermissions().stream()
+                .filter(p -> p.getCode().equals("CACHE_TEST_VIEW")).findFirst().orElseThrow().getName());
+        assertEquals("Read", viewName);
+    }
+
+    @Test
+    void roleLookupByName_usesQueryCacheUntilRolesChange() {
+        Set<String> names = Set.of("CACHE_TEST_ROLE");
+        roleRepository.findAllByNameIn(names);
+        roleRepository.findAllByNameIn(names);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        roleRepository.save(Role.builder().name("CACHE_TEST_OTHER").build());
+        List<Role> roles = roleRepository.findAllByNameIn(names);
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, roles.size());
+    }
+
+    @Test
+    void endpoint_reportsRegionStatistics() {
+        transaction.execute(status -> roleRepository.findById(role.getId()).orElseThrow());
+        transaction.execute(status -> roleRepository.findById(role.getId()).orElseThrow());
+
+        HibernateCacheEndpoint.CacheStats stats = new HibernateCacheEndpoint(entityManagerFactory).stats();
+
+        assertTrue(stats.statisticsEnabled());
+        HibernateCacheEndpoint.RegionStats roles = stats.regions().get(Role.class.getName());
+        assertEquals(1, roles.entries());
+        assertEquals(1, roles.hits());
+        assertEquals(10_000, roles.maxEntries());
+        assertEquals(1, stats.regions().get(Role.class.getName() + ".permissions").entries());
+    }
+
+    @Test
+    void endpoint_reportsSizesWithStatisticsOff() {
+        transaction.execute(status -> roleRepository.findById(role.getId()).orElseThrow());
+        statistics.setStatisticsEnabled(false);
+        try {
+            HibernateCacheEndpoint.CacheStats stats = new HibernateCacheEndpoint(entityManagerFactory).stats();
+
+            assertFalse(stats.statisticsEnabled());
+            assertEquals(0, stats.hits());
+            HibernateCacheEndpoint.RegionStats roles = stats.regions().get(Role.class.getName());
+            assertEquals(1, roles.entries());
+            assertEquals(0, roles.hits());
+            assertEquals(10_000, roles.maxEntries());
+        } finally {
+            statistics.setStatisticsEnabled(true);
+        }
+    }
+
+    @Test
+    void storage_dropsLeastRecentlyUsedEntry() {
+        BoundedRegionFactory.BoundedStorage storage = new BoundedRegionFactory.BoundedStorage(2);
+        storage.putIntoCache(1, "a", null);
+        storage.putIntoCache(2, "b", null);
+        storage.getFromCache(1, null);
+        storage.putIntoCache(3, "c", null);
+
+        assertTrue(storage.contains(1));
+        assertFalse(storage.contains(2));
+        assertTrue(storage.contains(3));
+    }
+
+    @Test
+    void storage_dropsEntriesPastTheTtl() throws InterruptedException {
+        BoundedRegionFactory.BoundedStorage storage = new BoundedRegionFactory.BoundedStorage(2, 50);
+        storage.putIntoCache(1, "a", null);
+        assertEquals("a", storage.getFromCache(1, null));
+
+        Thread.sleep(60);
+
+        assertNull(storage.getFromCache(1, null));
+        assertFalse(storage.contains(1));
+        assertEquals(0, storage.size());
+    }
+
+    private Set<String> permissionCodes() {
+        return transaction.execute(status -> userRepository.findById(userId).orElseThrow().getRoles().stream()
+                .flatMap(r -> r.getPermissions().stream())
+                .map(Permission::getCode)
+                .collect(Collectors.toSet()));
+    }
+
+    private RoleMapper roleMapper() {
+        RoleMapper mapper = new RoleMapper();
+        ReflectionTestUtils.setField(mapper, "permissionRepository", permissionRepository);
+        return mapper;
+    }
+
+    private static User user(Role role) {
+        User user = new User("cache-test", "secret", "Cache Test", "cache@test.local", "0900000000", "Somewhere");
+        user.setIdentityCard("000000000");
+        user.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        user.setStatus(UserStatus.ACTIVE);
+        user.setGender(Gender.OTHER);
+        user.addRole(role);
+        return user;
+    }
+}
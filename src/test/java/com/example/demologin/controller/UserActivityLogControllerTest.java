@@ -97,9 +97,9 @@ class UserActivityLogControllerTest {
     @Test
     void getActivityLogsByUserId() {
         Page<UserActivityLogResponse> page = new org.springframework.data.domain.PageImpl<>(java.util.Collections.emptyList(), org.springframework.data.domain.PageRequest.of(0, 20), 0);
-        when(userActivityLogService.getActivityLogsByUserId(1L, 0, 20)).thenReturn(page);
-        Object result = controller.getActivityLogsByUserId(1L, 0, 20);
+        when(userActivityLogService.getActivityLogsByUserId(1L, 0, 20, false)).thenReturn(page);
+        Object result = controller.getActivityLogsByUserId(1L, 0, 20, false);
         assertEquals(page, result);
-        verify(userActivityLogService).getActivityLogsByUserId(1L, 0, 20);
+        verify(userActivityLogService).getActivityLogsByUserId(1L, 0, 20, false);
     }
 }
@@ -0,0 +1,52 @@
+package com.example.demologin.dto.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingPageTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize_writesPagedModelShapeWithoutLoadingContent() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        StreamingPage<Integer> page = new StreamingPage<>(PageRequest.of(1, 2), action -> {
+            reads.incrementAndGet();
+            List.of(3, 4).forEach(action);
+        }, rows -> 2 + rows + 1L);
+
+        Page<String> mapped = page.map(n -> "row-" + n);
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(new ResponseObject(200, "ok", mapped)));
+
+        JsonNode data = json.get("data");
+        assertEquals("row-3", data.get("content").get(0).asText());
+        assertEquals(2, data.get("content").size());
+        assertEquals(2, data.get("page").get("size").asInt());
+        assertEquals(1, data.get("page").get("number").asInt());
+        assertEquals(5, data.get("page").get("totalElements").asLong());
+        assertEquals(3, data.get("page").get("totalPages").asInt());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void getContent_loadsRowsOnce() {
+        AtomicInteger reads = new AtomicInteger();
+        StreamingPage<Integer> page = new StreamingPage<>(PageRequest.of(0, 5), action -> {
+            reads.incrementAndGet();
+            List.of(1, 2).forEach(action);
+        }, rows -> rows);
+
+        assertEquals(List.of(1, 2), page.getContent());
+        assertEquals(2, page.getTotalElements());
+        assertTrue(page.isLast());
+        assertEquals(1, reads.get());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demologin.export;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CategoryResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogExportWriterTest {
+
+    private static final long GENERATED_AT = 1_700_000_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeJson_gzipDocumentWithCategoriesAndBooks() throws Exception {
+        Path file = tempDir.resolve("catalog-1.json.gz");
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        CatalogExportWriter.writeJson(file, objectMapper, "\"catalog-abc-1\"", GENERATED_AT,
+                List.of(category(1L, "Fiction")), List.of(book(10L, "Dune", 1L), book(11L, "Emma", 1L)));
+
+        JsonNode root;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            root = objectMapper.readTree(in);
+        }
+        assertEquals("\"catalog-abc-1\"", root.get("version").asText());
+        assertEquals("Fiction", root.get("categories").get(0).get("name").asText());
+        assertEquals(2, root.get("books").size());
+        assertEquals("Emma", root.get("books").get(1).get("title").asText());
+        assertFalse(Files.exists(tempDir.resolve("catalog-1.json.gz.tmp")));
+    }
+
+    @Test
+    void writeBinary_lengthPrefixedRecords() throws Exception {
+        Path file = tempDir.resolve("catalog-1.bin");
+
+        CatalogExportWriter.writeBinary(file, "v1", GENERATED_AT,
+                List.of(category(1L, "Fiction")), List.of(book(10L, "Đất rừng", null)));
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            assertEquals(CatalogExportWriter.MAGIC, in.readInt());
+            assertEquals(CatalogExportWriter.VERSION, in.readInt());
+            assertEquals(GENERATED_AT, in.readLong());
+            assertEquals("v1", readString(in));
+
+            assertEquals(1, in.readInt());
+            assertEquals(1L, in.readLong());
+            assertEquals("Fiction", readString(in));
+            assertNull(readString(in));
+
+            assertEquals(1, in.readInt());
+            assertEquals(10L, in.readLong());
+            assertEquals(-1L, in.readLong());
+            assertEquals(1250L, in.readLong());
+            assertEquals(3, in.readInt());
+            assertEquals(-1, in.readInt());
+            assertEquals(LocalDate.of(2020, 1, 2).toEpochDay(), in.readLong());
+            assertEquals("Đất rừng", readString(in));
+            assertEquals("Author", readString(in));
+        }
+    }
+
+    private static String readString(DataInputStream in) throws Exception {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static CategoryResponse category(Long id, String name) {
+        CategoryResponse category = new CategoryResponse();
+        category.setCategoryId(id);
+        category.setName(name);
+        category.setIsActive(true);
+        return category;
+    }
+
+    private static BookResponse book(Long id, String title, Long categoryId) {
+        BookResponse book = new BookResponse();
+        book.setBookId(id);
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setPrice(new BigDecimal("12.50"));
+        book.setStockQuantity(3);
+        book.setIsAvailable(true);
+        book.setPublishedDate(LocalDate.of(2020, 1, 2));
+        book.setCategoryId(categoryId);
+        return book;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demologin.search;
+
+import com.example.demologin.dto.response.BookResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private final BookSearchIndex index = BookSearchIndex.build(List.of(
+            book(1L, "Harry Potter and the Philosopher's Stone", "J.K. Rowling", "9780747532699", 1L, "10.00"),
+            book(2L, "Đắc Nhân Tâm", "Dale Carnegie", "9786045895423", 2L, "5.00"),
+            book(3L, "The Pottery Handbook", "Harry Smith", "9780000000001", 1L, "30.00"),
+            book(4L, "Clean Code", "Robert C. Martin", "9780132350884", 3L, "40.00")
+    ));
+
+    @Test
+    void search_matchesWordPrefixesAcrossFields() {
+        Page<BookResponse> result = search(new BookSearchQuery("harr pot", null, null, null, null, null, null));
+
+        assertEquals(2, result.getTotalElements());
+        // "Harry" in the title outranks "Harry" as the author
+        assertEquals(List.of(1L, 3L), ids(result));
+    }
+
+    @Test
+    void search_ignoresAccentsAndCase() {
+        assertEquals(List.of(2L), ids(search(new BookSearchQuery("DAC nhan", null, null, null, null, null, null))));
+        assertEquals(List.of(2L), ids(search(new BookSearchQuery("đắc", null, null, null, null, null, null))));
+    }
+
+    @Test
+    void normalize_ignoresTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            // Turkish would lower-case the I to a dotless i
+            assertEquals("ink", SearchTokenizer.normalize("INK"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void search_isbnWithSeparators() {
+        assertEquals(List.of(4L), ids(search(new BookSearchQuery("978-0-13-235088-4", null, null, null, null, null, null))));
+    }
+
+    @Test
+    void search_fieldClausesAndFilters() {
+        assertEquals(List.of(3L), ids(search(new BookSearchQuery(null, null, "harry", null, null, null, null))));
+        assertEquals(List.of(1L, 3L), ids(search(new BookSearchQuery(null, null, null, 1L, null, null, null))));
+        assertEquals(List.of(1L), ids(search(new BookSearchQuery(null, null, null, 1L, null, null, new BigDecimal("20")))));
+    }
+
+    @Test
+    void search_longTokensAreVerified() {
+        assertEquals(1, search(new BookSearchQuery("philosopher", null, null, null, null, null, null)).getTotalElements());
+        assertEquals(0, search(new BookSearchQuery("philosophers", null, null, null, null, null, null)).getTotalElements());
+    }
+
+    @Test
+    void putAndRemove_updateTheIndex() {
+        index.put(book(4L, "Refactoring", "Martin Fowler", "9780201485677", 3L, "45.00"));
+        index.put(book(5L, "Clean Architecture", "Robert C. Martin", null, 3L, "35.00"));
+
+        assertEquals(List.of(5L), ids(search(new BookSearchQuery("clean", null, null, null, null, null, null))));
+        assertEquals(List.of(4L), ids(search(new BookSearchQuery("refact", null, null, null, null, null, null))));
+
+        index.remove(5L);
+
+        assertEquals(0, search(new BookSearchQuery("clean", null, null, null, null, null, null)).getTotalElements());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void search_pagesAreOrderedByTitleWithoutText() {
+        Page<BookResponse> result = index.search(new BookSearchQuery(null, null, null, null, null, null, null), PageRequest.of(1, 2));
+
+        assertEquals(4, result.getTotalElements());
+        assertEquals(List.of(1L, 3L), ids(result));
+    }
+
+    private Page<BookResponse> search(BookSearchQuery query) {
+        return index.search(query, PageRequest.of(0, 20));
+    }
+
+    private List<Long> ids(Page<BookResponse> page) {
+        return page.getContent().stream().map(BookResponse::getBookId).toList();
+    }
+
+    private BookResponse book(Long id, String title, String author, String isbn, Long categoryId, String price) {
+        BookResponse book = new BookResponse();
+        book.setBookId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn(isbn);
+        book.setCategoryId(categoryId);
+        book.setPrice(new BigDecimal(price));
+        book.setIsAvailable(true);
+        return book;
+    }
+}
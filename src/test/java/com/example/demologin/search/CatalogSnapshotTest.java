@@ -0,0 +1,87 @@
+package com.example.demologin.search;
+
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.dto.response.CatalogFacetsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private final CatalogSnapshot snapshot = CatalogSnapshot.build(List.of(
+            book(1L, "Zen", 1L, "15.00", true, 3),
+            book(2L, "Ánh trăng", 1L, "60.00", true, 0),
+            book(3L, "Clean Code", 2L, "40.00", true, 5),
+            book(4L, "Dune", 2L, "120.00", false, 1),
+            book(5L, "Bếp", 3L, "50.00", true, 2)
+    ), List.of(new BigDecimal("50"), new BigDecimal("100")));
+
+    @Test
+    void filter_readsPagesInTitleOrder() {
+        Page<BookResponse> page = snapshot.filter(query(null, null, null, true), PageRequest.of(0, 3));
+
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of(2L, 5L, 3L), ids(page));
+        assertEquals(List.of(1L), ids(snapshot.filter(query(null, null, null, true), PageRequest.of(1, 3))));
+    }
+
+    @Test
+    void filter_intersectsCategoryPriceAndAvailability() {
+        assertEquals(List.of(3L), ids(snapshot.filter(query(2L, null, null, true), PageRequest.of(0, 10))));
+        assertEquals(List.of(4L), ids(snapshot.filter(query(null, null, null, false), PageRequest.of(0, 10))));
+        assertEquals(List.of(5L, 3L), ids(snapshot.filter(query(null, "40", "50", null), PageRequest.of(0, 10))));
+        assertEquals(0, snapshot.filter(query(99L, null, null, null), PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void facets_eachFacetIgnoresItsOwnFilter() {
+        CatalogFacetsResponse facets = snapshot.facets(query(1L, null, "55", true));
+
+        assertEquals(1, facets.getTotalBooks());
+        assertEquals(1, facets.getInStock());
+        // categories are counted under the price filter only
+        assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 1L), facets.getCategories());
+        // price buckets are counted under the category filter only: [0,50) [50,100) [100,)
+        assertEquals(List.of(1L, 1L, 0L), facets.getPriceBuckets().stream().map(CatalogFacetsResponse.PriceBucket::getCount).toList());
+        assertNull(facets.getPriceBuckets().get(2).getMaxPrice());
+    }
+
+    @Test
+    void withStock_patchesOnlyStockAndAvailability() {
+        CatalogSnapshot patched = snapshot.withStock(List.of(
+                book(3L, "Clean Code", 2L, "40.00", false, 0),
+                book(4L, "Dune", 2L, "120.00", true, 7)));
+
+        assertEquals(List.of(4L), ids(patched.filter(query(2L, null, null, true), PageRequest.of(0, 10))));
+        assertEquals(3, patched.facets(query(null, null, null, true)).getInStock());
+        // The original is untouched
+        assertEquals(List.of(3L), ids(snapshot.filter(query(2L, null, null, true), PageRequest.of(0, 10))));
+        assertNull(snapshot.withStock(List.of(book(99L, "New", 1L, "10.00", true, 1))));
+    }
+
+    private BookSearchQuery query(Long categoryId, String minPrice, String maxPrice, Boolean isAvailable) {
+        return new BookSearchQuery(null, null, null, categoryId, isAvailable,
+                minPrice == null ? null : new BigDecimal(minPrice), maxPrice == null ? null : new BigDecimal(maxPrice));
+    }
+
+    private List<Long> ids(Page<BookResponse> page) {
+        return page.getContent().stream().map(BookResponse::getBookId).toList();
+    }
+
+    private BookResponse book(Long id, String title, Long categoryId, String price, boolean available, int stock) {
+        BookResponse book = new BookResponse();
+        book.setBookId(id);
+        book.setTitle(title);
+        book.setCategoryId(categoryId);
+        book.setPrice(new BigDecimal(price));
+        book.setIsAvailable(available);
+        book.setStockQuantity(stock);
+        return book;
+    }
+}
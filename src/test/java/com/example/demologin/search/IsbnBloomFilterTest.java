@@ -0,0 +1,66 @@
+package com.example.demologin.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnBloomFilterTest {
+
+    private static final int ISBNS = 20_000;
+
+    @Test
+    void mightContain_neverMissesAnAddedIsbn() {
+        IsbnBloomFilter filter = new IsbnBloomFilter(ISBNS, 0.01);
+        for (int i = 0; i < ISBNS; i++) {
+            filter.add(isbn(i));
+        }
+
+        for (int i = 0; i < ISBNS; i++) {
+            assertTrue(filter.mightContain(isbn(i)));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void mightContain_falsePositivesStayNearTheConfiguredRate() {
+        IsbnBloomFilter filter = new IsbnBloomFilter(ISBNS, 0.01);
+        for (int i = 0; i < ISBNS; i++) {
+            filter.add(isbn(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = ISBNS; i < ISBNS * 2; i++) {
+            if (filter.mightContain(isbn(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < ISBNS * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void normalize_ignoresHyphensSpacesAndCase() {
+        IsbnBloomFilter filter = new IsbnBloomFilter(100, 0.01);
+        filter.add("978-0-306-40615-7");
+        filter.add("0-8044-2957-x");
+
+        assertTrue(filter.mightContain("9780306406157"));
+        assertTrue(filter.mightContain("978 0 306 40615 7"));
+        assertTrue(filter.mightContain("080442957X"));
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain(null));
+    }
+
+    @Test
+    void isSaturated_afterMoreThanCapacity() {
+        IsbnBloomFilter filter = new IsbnBloomFilter(10, 0.01);
+        for (int i = 0; i <= 10; i++) {
+            filter.add(isbn(i));
+        }
+
+        assertTrue(filter.isSaturated());
+    }
+
+    private static String isbn(int i) {
+        return String.format("978-%010d", i);
+    }
+}
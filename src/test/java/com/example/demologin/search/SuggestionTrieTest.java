@@ -0,0 +1,47 @@
+package com.example.demologin.search;
+
+import com.example.demologin.dto.response.BookSuggestionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+            candidate(1L, "Harry Potter and the Philosopher's Stone", "J.K. Rowling", 10),
+            candidate(2L, "Harry Potter and the Chamber of Secrets", "J.K. Rowling", 50),
+            candidate(3L, "Hard Times", "Charles Dickens", 5),
+            candidate(4L, "Đắc Nhân Tâm", "Dale Carnegie", 1)
+    ), 3);
+
+    @Test
+    void complete_ranksByPopularity() {
+        assertEquals(List.of(2L, 1L, 3L), ids(trie.complete("har", 10)));
+        assertEquals(List.of(2L, 1L), ids(trie.complete("Harry P", 10)));
+    }
+
+    @Test
+    void complete_matchesAnyWordStartOfTitleOrAuthor() {
+        assertEquals(List.of(2L, 1L), ids(trie.complete("potter", 10)));
+        assertEquals(List.of(3L), ids(trie.complete("dick", 10)));
+        assertEquals(List.of(4L), ids(trie.complete("dac nh", 10)));
+    }
+
+    @Test
+    void complete_respectsLimitAndLongPrefixes() {
+        assertEquals(List.of(2L), ids(trie.complete("h", 1)));
+        assertEquals(List.of(1L), ids(trie.complete("harry potter and the philosopher", 10)));
+        assertTrue(trie.complete("xyz", 10).isEmpty());
+        assertTrue(trie.complete("  ", 10).isEmpty());
+    }
+
+    private SuggestionTrie.Candidate candidate(Long id, String title, String author, long score) {
+        return new SuggestionTrie.Candidate(new BookSuggestionResponse(id, title, author), score);
+    }
+
+    private List<Long> ids(List<BookSuggestionResponse> suggestions) {
+        return suggestions.stream().map(BookSuggestionResponse::getBookId).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
+import com.example.demologin.repository.ActivityLogPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ActivityLogArchiveServiceImplTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+    private static final LocalDate DAY = MONTH.atDay(15);
+
+    private final ActivityLogPartitionRepository partitionRepository = mock(ActivityLogPartitionRepository.class);
+
+    @TempDir
+    Path tempDir;
+
+    private ActivityLogArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new ActivityLogArchiveServiceImpl(partitionRepository);
+        ReflectionTestUtils.setField(archiveService, "archiveEnabled", true);
+        ReflectionTestUtils.setField(archiveService, "archiveDir", tempDir.toString());
+    }
+
+    @Test
+    void archiveMonth_mergesStreamedRowsIntoExistingSegment() {
+        streamDay(log(1L, 10L, 8), log(2L, 20L, 9));
+        archiveService.archiveMonth(List.of("t"), MONTH);
+
+        // Row 2 again, plus a newer row for user 10 and an anonymous row
+        streamDay(log(3L, 10L, 12), log(2L, 20L, 9), log(4L, null, 13));
+        archiveService.archiveMonth(List.of("t"), MONTH);
+
+        assertEquals(List.of(3L, 1L), ids(archiveService.findArchivedByUserId(10L, 0, 10)));
+        assertEquals(List.of(2L), ids(archiveService.findArchivedByUserId(20L, 0, 10)));
+        assertEquals(3, archiveService.countArchivedByUserId(10L) + archiveService.countArchivedByUserId(20L));
+    }
+
+    @Test
+    void archiveMonth_leavesSegmentAloneWhenTableHasNoRows() {
+        streamDay(log(1L, 10L, 8));
+        archiveService.archiveMonth(List.of("t"), MONTH);
+
+        streamDay();
+        archiveService.archiveMonth(List.of("t"), MONTH);
+
+        assertEquals(1, archiveService.countArchivedByUserId(10L));
+    }
+
+    private void streamDay(UserActivityLog... rows) {
+        reset(partitionRepository);
+        doAnswer(invocation -> {
+            Consumer<UserActivityLog> action = invocation.getArgument(3);
+            for (UserActivityLog row : rows) {
+                action.accept(row);
+            }
+            return null;
+        }).when(partitionRepository).streamLogsBetween(eq("t"), eq(DAY.atStartOfDay()), any(), any());
+    }
+
+    private static List<Long> ids(List<UserActivityLog> rows) {
+        return rows.stream().map(UserActivityLog::getId).toList();
+    }
+
+    private static UserActivityLog log(Long id, Long userId, int hour) {
+        return UserActivityLog.builder()
+                .id(id)
+                .userId(userId)
+                .activityType(ActivityType.LOGIN_ATTEMPT)
+                .timestamp(LocalDateTime.of(DAY, java.time.LocalTime.of(hour, 0)))
+                .status("SUCCESS")
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.enums.LogPartitionStrategy;
+import com.example.demologin.repository.ActivityLogPartitionRepository;
+import com.example.demologin.repository.UserActivityLogRepository;
+import com.example.demologin.service.ActivityLogArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityLogRetentionServiceImplTest {
+
+    @Mock
+    private UserActivityLogRepository userActivityLogRepository;
+    @Mock
+    private ActivityLogPartitionRepository partitionRepository;
+    @Mock
+    private ActivityLogArchiveService archiveService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActivityLogRetentionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ActivityLogRetentionServiceImpl(userActivityLogRepository, partitionRepository, archiveService, transactionManager);
+        ReflectionTestUtils.setField(service, "retentionEnabled", true);
+        ReflectionTestUtils.setField(service, "retentionMonths", 3);
+        ReflectionTestUtils.setField(service, "premakeMonths", 1);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+    }
+
+    @Test
+    void purgeUserLogs_deletesInChunksUntilExhausted() {
+        when(userActivityLogRepository.findIdsByUserId(eq(7L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(userActivityLogRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(userActivityLogRepository.deleteByIdIn(List.of(3L))).thenReturn(1);
+
+        long deleted = service.purgeUserLogs(7L);
+
+        assertEquals(3, deleted);
+        verify(userActivityLogRepository, times(2)).deleteByIdIn(anyCollection());
+        // one short transaction per chunk
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void purgeUserLogs_noRows() {
+        when(userActivityLogRepository.findIdsByUserId(eq(7L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        assertEquals(0, service.purgeUserLogs(7L));
+        verify(userActivityLogRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    void applyRetentionPolicy_nativePartitions_premakesAndDropsExpiredMonths() {
+        YearMonth now = YearMonth.now();
+        YearMonth expired = now.minusMonths(3);
+        when(partitionRepository.detectStrategy()).thenReturn(LogPartitionStrategy.MYSQL_NATIVE);
+        when(partitionRepository.findMonthlySegments(LogPartitionStrategy.MYSQL_NATIVE))
+                .thenReturn(List.of(expired, now.minusMonths(2), now));
+        when(archiveService.isEnabled()).thenReturn(true);
+
+        service.applyRetentionPolicy();
+
+        verify(archiveService).archiveMonth(List.of(ActivityLogPartitionRepository.HOT_TABLE), expired);
+        verify(partitionRepository).createMonthlyPartition(LogPartitionStrategy.MYSQL_NATIVE, now.plusMonths(1));
+        verify(partitionRepository, never()).createMonthlyPartition(LogPartitionStrategy.MYSQL_NATIVE, now);
+        verify(partitionRepository).dropMonthlySegment(LogPartitionStrategy.MYSQL_NATIVE, expired);
+        verify(partitionRepository, never()).dropMonthlySegment(LogPartitionStrategy.MYSQL_NATIVE, now.minusMonths(2));
+    }
+
+    @Test
+    void applyRetentionPolicy_plainTable_deletesOnlyExpiredMonths() {
+        YearMonth now = YearMonth.now();
+        YearMonth expired = now.minusMonths(3);
+        when(partitionRepository.detectStrategy()).thenReturn(LogPartitionStrategy.CHUNKED_DELETE);
+        when(partitionRepository.findOldestHotTimestamp()).thenReturn(expired.atDay(5).atStartOfDay());
+        when(partitionRepository.findHotIdsBetween(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L));
+        when(userActivityLogRepository.deleteByIdIn(List.of(1L))).thenReturn(1);
+
+        service.applyRetentionPolicy();
+
+        // Retained months stay in the hot table
+        verify(partitionRepository, times(1)).findHotIdsBetween(any(), any(), anyInt());
+        verify(partitionRepository).findHotIdsBetween(expired.atDay(1).atStartOfDay(),
+                now.minusMonths(2).atDay(1).atStartOfDay(), 2);
+        verify(partitionRepository, never()).dropMonthlySegment(any(), any());
+    }
+
+    @Test
+    void applyRetentionPolicy_keepsMonthWhenArchivingFails() {
+        YearMonth expired = YearMonth.now().minusMonths(3);
+        when(partitionRepository.detectStrategy()).thenReturn(LogPartitionStrategy.POSTGRES_NATIVE);
+        when(partitionRepository.findMonthlySegments(LogPartitionStrategy.POSTGRES_NATIVE)).thenReturn(List.of(expired));
+        when(archiveService.isEnabled()).thenReturn(true);
+        doThrow(new RuntimeException("disk full")).when(archiveService).archiveMonth(anyList(), eq(expired));
+
+        service.applyRetentionPolicy();
+
+        verify(partitionRepository, never()).dropMonthlySegment(any(), eq(expired));
+    }
+
+    @Test
+    void applyRetentionPolicy_disabled() {
+        ReflectionTestUtils.setField(service, "retentionEnabled", false);
+
+        service.applyRetentionPolicy();
+
+        verifyNoInteractions(partitionRepository);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.BookImportEvent;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.Category;
+import com.example.demologin.enums.BookImportEventType;
+import com.example.demologin.enums.BookImportFormat;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.example.demologin.repository.BookImportRepository;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Imports against an in-memory database in chunks of two rows, so that checks across chunks are exercised.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookImportServiceImplTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<BookImportEvent> events = new ArrayList<>();
+
+    private BookIsbnFilterServiceImpl isbnFilter;
+    private BookImportServiceImpl importService;
+    private Long categoryId;
+    private Long inactiveCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        isbnFilter = new BookIsbnFilterServiceImpl(bookRepository, transactionManager);
+        ReflectionTestUtils.setField(isbnFilter, "enabled", true);
+        ReflectionTestUtils.setField(isbnFilter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(isbnFilter, "minCapacity", 1000L);
+        importService = new BookImportServiceImpl(bookRepository, categoryRepository,
+                new CategoryRegistryServiceImpl(categoryRepository, transactionManager),
+                new BookImportRepository(jdbcTemplate), isbnFilter, new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher, transactionManager);
+        ReflectionTestUtils.setField(importService, "parallelism", 2);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "progressEveryRows", 4L);
+        importService.start();
+
+        categoryId = saveCategory("Import test", true);
+        inactiveCategoryId = saveCategory("Import retired", false);
+
+        Book existing = new Book();
+        existing.setTitle("Existing book");
+        existing.setAuthor("Author");
+        existing.setIsbn("978-0000000001");
+        existing.setPrice(new BigDecimal("10.00"));
+        existing.setStockQuantity(1);
+        existing.setIsAvailable(true);
+        existing.setCategory(categoryRepository.findById(categoryId).orElseThrow());
+        bookRepository.save(existing);
+        isbnFilter.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+        bookRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void importCsv_insertsValidRowsAndReportsTheRest() throws IOException {
+        String csv = "title,author,ISBN,price,Stock Quantity,published_date,category_id\r\n"
+                + "\"Dune, Part One\",Frank Herbert,978-1,9.99,5,1965-08-01," + categoryId + "\r\n"
+                + "\"Multi\nline \"\"title\"\"\",Author,978-2,12.50,0,," + categoryId + "\r\n"
+                + "Taken,Author,978-0000000001,5.00,1,," + categoryId + "\r\n"
+                + "Retired,Author,978-3,5.00,1,," + inactiveCategoryId + "\r\n"
+                + "Cheap,Author,978-4,free,1,," + categoryId + "\r\n"
+                + "\r\n"
+                + "Repeat,Author,978-1,5.00,1,," + categoryId + "\r\n"
+                + "No isbn,Author,,5.00,1,," + categoryId + "\r\n";
+
+        BookImportEvent done = importService.importBooks(stream(csv), BookImportFormat.CSV, events::add);
+
+        assertEquals(BookImportEventType.DONE, done.getType());
+        assertEquals(2L, done.getImported());
+        assertEquals(5L, done.getFailed());
+        Map<Long, String> errors = events.stream()
+                .filter(event -> event.getType() == BookImportEventType.ERROR)
+                .collect(Collectors.toMap(BookImportEvent::getLine, BookImportEvent::getMessage));
+        assertEquals(Map.of(
+                5L, "ISBN already exists: 978-0000000001",
+                6L, "Cannot assign book to inactive category: Import retired",
+                7L, "Invalid price: free",
+                9L, "ISBN already exists: 978-1",
+                10L, "ISBN is required for imports"), errors);
+        assertTrue(events.stream().anyMatch(event -> event.getType() == BookImportEventType.PROGRESS));
+        assertTrue(isbnFilter.mightExist("9781"));
+        // The existing book was saved around the counter; only the imports counted
+        assertEquals(2, categoryRepository.findById(categoryId).orElseThrow().getBookCount());
+
+        Book dune = bookRepository.findByIsbn("978-1").orElseThrow();
+        assertEquals("Dune, Part One", dune.getTitle());
+        assertEquals(LocalDate.of(1965, 8, 1), dune.getPublishedDate());
+        assertTrue(dune.getIsAvailable());
+        assertEquals("Multi\nline \"title\"", bookRepository.findByIsbn("978-2").orElseThrow().getTitle());
+
+        ArgumentCaptor<BookBatchChangedEvent> published = ArgumentCaptor.forClass(BookBatchChangedEvent.class);
+        verify(eventPublisher).publishEvent(published.capture());
+        assertEquals(List.of(dune.getBookId(), bookRepository.findByIsbn("978-2").orElseThrow().getBookId()),
+                published.getValue().bookIds().stream().sorted().toList());
+    }
+
+    @Test
+    void importNdjson_reportsMalformedLines() throws IOException {
+        String ndjson = "{\"title\":\"Json book\",\"author\":\"Author\",\"isbn\":\"978-5\",\"price\":3.5,"
+                + "\"stockQuantity\":2,\"categoryId\":" + categoryId + "}\n"
+                + "\n"
+                + "{\"title\":\"Broken\"\n"
+                + "{\"title\":\"X\",\"author\":\"Author\",\"isbn\":\"978-6\",\"price\":3.5,\"stockQuantity\":2}\n";
+
+        BookImportEvent done = importService.importBooks(stream(ndjson), BookImportFormat.NDJSON, events::add);
+
+        assertEquals(1L, done.getImported());
+        assertEquals(2L, done.getFailed());
+        List<Long> failedLines = events.stream()
+                .filter(event -> event.getType() == BookImportEventType.ERROR)
+                .map(BookImportEvent::getLine)
+                .toList();
+        assertEquals(List.of(3L, 4L), failedLines);
+        assertEquals(2, bookRepository.findByIsbn("978-5").orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void importCsv_unknownColumnFailsBeforeImporting() {
+        assertThrows(BadRequestException.class,
+                () -> importService.importBooks(stream("title,colour\nA,red\n"), BookImportFormat.CSV, events::add));
+        assertEquals(1, bookRepository.count());
+    }
+
+    private Long saveCategory(String name, boolean active) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsActive(active);
+        return categoryRepository.save(category).getCategoryId();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.cache.CategoryRegistry;
+import com.example.demologin.dto.request.book.CreateBookRequest;
+import com.example.demologin.dto.response.BookBatchItemResponse;
+import com.example.demologin.dto.response.BookResponse;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.Category;
+import com.example.demologin.exception.exceptions.ConflictException;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.BookIsbnFilterService;
+import com.example.demologin.service.BookSearchService;
+import com.example.demologin.service.BookStockService;
+import com.example.demologin.service.CategoryRegistryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private BookSearchService bookSearchService;
+    @Mock
+    private BookStockService bookStockService;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private BookIsbnFilterService bookIsbnFilterService;
+    @Mock
+    private CategoryRegistryService categoryRegistryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BookServiceImpl bookService;
+
+    @Test
+    void getBooksByIds_indexHitsAndOneQueryForMisses() {
+        BookResponse indexed = new BookResponse();
+        indexed.setBookId(1L);
+        Map<Long, BookResponse> hits = new HashMap<>(Map.of(1L, indexed));
+        when(bookSearchService.findIndexed(Set.of(3L, 1L, 2L))).thenReturn(hits);
+        Book fromDb = new Book();
+        fromDb.setBookId(2L);
+        fromDb.setStockQuantity(1);
+        when(bookRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(fromDb));
+
+        List<BookBatchItemResponse> items = bookService.getBooksByIds(List.of(3L, 1L, 2L, 1L));
+
+        assertEquals(List.of(3L, 1L, 2L, 1L), items.stream().map(BookBatchItemResponse::getBookId).toList());
+        assertFalse(items.get(0).isFound());
+        assertNull(items.get(0).getBook());
+        assertSame(indexed, items.get(1).getBook());
+        assertEquals(2L, items.get(2).getBook().getBookId());
+        assertTrue(items.get(3).isFound());
+        verify(bookRepository, times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    void getBooksByIds_allIndexed_noQuery() {
+        BookResponse indexed = new BookResponse();
+        indexed.setBookId(5L);
+        when(bookSearchService.findIndexed(Set.of(5L))).thenReturn(new HashMap<>(Map.of(5L, indexed)));
+
+        List<BookBatchItemResponse> items = bookService.getBooksByIds(List.of(5L));
+
+        assertTrue(items.get(0).isFound());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBooksByIds_shardedBooks_takeTheStockOfTheirSlots() {
+        BookResponse indexed = new BookResponse();
+        indexed.setBookId(1L);
+        indexed.setStockQuantity(40);
+        when(bookSearchService.findIndexed(Set.of(1L, 2L))).thenReturn(new HashMap<>(Map.of(1L, indexed)));
+        Book fromDb = new Book();
+        fromDb.setBookId(2L);
+        fromDb.setStockQuantity(30);
+        fromDb.setStockSlots(4);
+        when(bookRepository.findAllById(List.of(2L))).thenReturn(List.of(fromDb));
+        when(bookStockService.isSharded(1L)).thenReturn(true);
+        when(bookStockService.shardedStock(1L)).thenReturn(37);
+        when(bookStockService.shardedStock(2L)).thenReturn(25);
+
+        List<BookBatchItemResponse> items = bookService.getBooksByIds(List.of(1L, 2L));
+
+        assertEquals(37, items.get(0).getBook().getStockQuantity());
+        assertEquals(25, items.get(1).getBook().getStockQuantity());
+    }
+
+    @Test
+    void createBook_isbnTakenOnAnotherNode_isAConflictNotAServerError() {
+        CategoryRegistry registry = CategoryRegistry.of(List.of(
+                new CategoryRegistry.Entry(7L, "Fiction", null, true, null, null, 0)));
+        when(categoryRegistryService.current()).thenReturn(registry);
+        when(categoryRepository.getReferenceById(7L)).thenReturn(new Category());
+        // Not yet in this node's filter
+        when(bookIsbnFilterService.mightExist("9780000000001")).thenReturn(false);
+        when(bookRepository.saveAndFlush(any(Book.class)))
+                .thenThrow(new DataIntegrityViolationException("unique index on isbn"));
+        CreateBookRequest request = new CreateBookRequest();
+        request.setTitle("Title");
+        request.setIsbn("9780000000001");
+        request.setCategoryId(7L);
+
+        ConflictException e = assertThrows(ConflictException.class, () -> bookService.createBook(request));
+
+        assertEquals("ISBN already exists: 9780000000001", e.getMessage());
+        verify(bookRepository, never()).existsByIsbn(any());
+        verifyNoInteractions(eventPublisher);
+    }
+}
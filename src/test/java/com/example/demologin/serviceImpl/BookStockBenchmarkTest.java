@@ -0,0 +1,128 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.Category;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.BookStockBatchRepository;
+import com.example.demologin.repository.BookStockSlotRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.BookAutocompleteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of stock decrements on one hot book: the conditional UPDATE against the former
+ * findById / check / save sequence. Run with -Dbenchmark=true; numbers are printed, not asserted.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookStockBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 2_000;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookStockSlotRepository slotRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void hotBook_conditionalUpdateVersusReadModifyWrite() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        BookStockServiceImpl stockService = new BookStockServiceImpl(bookRepository, slotRepository,
+                new BookStockBatchRepository(jdbcTemplate), mock(BookAutocompleteService.class), mock(ApplicationEventPublisher.class));
+        int calls = THREADS * CALLS_PER_THREAD;
+
+        Long conditionalBook = createBook(calls);
+        long conditionalNanos = run(() -> transaction.executeWithoutResult(
+                status -> stockService.decreaseStock(conditionalBook, 1)));
+        int conditionalLeft = bookRepository.findStockQuantity(conditionalBook).orElseThrow();
+
+        Long readModifyWriteBook = createBook(calls);
+        long readModifyWriteNanos = run(() -> transaction.executeWithoutResult(status -> {
+            Book book = bookRepository.findById(readModifyWriteBook).orElseThrow();
+            book.decreaseStock(1);
+            bookRepository.save(book);
+        }));
+        int readModifyWriteLeft = bookRepository.findStockQuantity(readModifyWriteBook).orElseThrow();
+
+        System.out.printf("conditional UPDATE : %,8.0f ops/s, lost updates: %d%n",
+                calls / (conditionalNanos / 1e9), conditionalLeft);
+        System.out.printf("read-modify-write  : %,8.0f ops/s, lost updates: %d%n",
+                calls / (readModifyWriteNanos / 1e9), readModifyWriteLeft);
+        assertEquals(0, conditionalLeft);
+    }
+
+    private long run(Runnable call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    call.run();
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    private Long createBook(int stock) {
+        Category category = new Category();
+        category.setName("Benchmark " + System.nanoTime());
+        category.setIsActive(true);
+        category = categoryRepository.save(category);
+
+        Book book = new Book();
+        book.setTitle("Hot book");
+        book.setAuthor("Author");
+        book.setIsbn("979" + System.nanoTime() % 10_000_000_000L);
+        book.setPrice(new BigDecimal("10.00"));
+        book.setStockQuantity(stock);
+        book.setIsAvailable(true);
+        book.setCategory(category);
+        return bookRepository.save(book).getBookId();
+    }
+}
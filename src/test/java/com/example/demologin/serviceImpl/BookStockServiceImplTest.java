@@ -0,0 +1,244 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.request.book.StockAdjustmentItem;
+import com.example.demologin.dto.response.StockAdjustmentResult;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.Category;
+import com.example.demologin.enums.StockAdjustmentStatus;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.BookBatchChangedEvent;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.example.demologin.exception.exceptions.NotFoundException;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.BookStockBatchRepository;
+import com.example.demologin.repository.BookStockSlotRepository;
+import com.example.demologin.repository.CategoryRepository;
+import com.example.demologin.service.BookAutocompleteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the conditional UPDATE statements against an in-memory database; every call commits on its own,
+ * as concurrent checkouts would.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookStockServiceImplTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookStockSlotRepository slotRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BookAutocompleteService autocompleteService = mock(BookAutocompleteService.class);
+
+    private BookStockServiceImpl stockService;
+    private TransactionTemplate transaction;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        stockService = new BookStockServiceImpl(bookRepository, slotRepository,
+                new BookStockBatchRepository(jdbcTemplate), autocompleteService, eventPublisher);
+        ReflectionTestUtils.setField(stockService, "maxSlots", 64);
+        ReflectionTestUtils.setField(stockService, "aggregateTtlMs", 1000L);
+        transaction = new TransactionTemplate(transactionManager);
+
+        Category category = new Category();
+        category.setName("Stock test " + System.nanoTime());
+        category.setIsActive(true);
+        category = categoryRepository.save(category);
+
+        Book book = new Book();
+        book.setTitle("Hot book");
+        book.setAuthor("Author");
+        book.setIsbn("978" + System.nanoTime() % 10_000_000_000L);
+        book.setPrice(new BigDecimal("10.00"));
+        book.setStockQuantity(INITIAL_STOCK);
+        book.setIsAvailable(true);
+        book.setCategory(category);
+        bookId = bookRepository.save(book).getBookId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotRepository.deleteAll();
+        bookRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void decreaseStock_concurrentCheckoutsNeverOversell() throws Exception {
+        assertEquals(INITIAL_STOCK, checkoutConcurrently());
+        assertEquals(0, bookRepository.findStockQuantity(bookId).orElseThrow());
+        verify(eventPublisher, times(INITIAL_STOCK)).publishEvent(BookChangedEvent.stockChanged(bookId, -1));
+    }
+
+    @Test
+    void shardedStock_concurrentCheckoutsNeverOversell() throws Exception {
+        transaction.executeWithoutResult(status -> stockService.shardStock(bookId, 8));
+
+        assertEquals(INITIAL_STOCK, checkoutConcurrently());
+        assertEquals(0, slotRepository.sumQuantity(bookId));
+        verify(eventPublisher, times(INITIAL_STOCK)).publishEvent(BookChangedEvent.stockChanged(bookId, -1));
+
+        // The books row catches up on the next sync
+        transaction.executeWithoutResult(status -> stockService.syncShardedStock());
+        assertEquals(0, bookRepository.findStockQuantity(bookId).orElseThrow());
+    }
+
+    @Test
+    void shardedStock_takesAcrossSlotsAndMergesBack() {
+        transaction.executeWithoutResult(status -> stockService.shardStock(bookId, 4));
+        assertEquals(4, slotRepository.count());
+
+        // No single slot of 25 holds 60 copies
+        transaction.executeWithoutResult(status -> stockService.decreaseStock(bookId, 60));
+        transaction.executeWithoutResult(status -> stockService.increaseStock(bookId, 5));
+        assertEquals(45, stockService.shardedStock(bookId));
+        assertThrows(BadRequestException.class, () ->
+                transaction.executeWithoutResult(status -> stockService.decreaseStock(bookId, 46)));
+
+        transaction.executeWithoutResult(status -> stockService.mergeStock(bookId));
+
+        assertEquals(0, slotRepository.count());
+        Book merged = bookRepository.findById(bookId).orElseThrow();
+        assertNull(merged.getStockSlots());
+        assertEquals(45, merged.getStockQuantity());
+        transaction.executeWithoutResult(status -> stockService.decreaseStock(bookId, 45));
+        assertEquals(0, bookRepository.findStockQuantity(bookId).orElseThrow());
+    }
+
+    @Test
+    void shardedStock_otherNodeShardedTheBook() {
+        BookStockServiceImpl otherNode = new BookStockServiceImpl(bookRepository, slotRepository,
+                new BookStockBatchRepository(jdbcTemplate), autocompleteService, eventPublisher);
+        ReflectionTestUtils.setField(otherNode, "maxSlots", 64);
+        transaction.executeWithoutResult(status -> otherNode.shardStock(bookId, 2));
+
+        transaction.executeWithoutResult(status -> stockService.decreaseStock(bookId, 10));
+
+        assertEquals(INITIAL_STOCK - 10, slotRepository.sumQuantity(bookId));
+        assertEquals(INITIAL_STOCK, bookRepository.findStockQuantity(bookId).orElseThrow());
+    }
+
+    @Test
+    void adjustStock_batchWithPerItemResultsAndOneEvent() {
+        Book other = bookRepository.findById(bookId).orElseThrow();
+        Book shardedBook = new Book();
+        shardedBook.setTitle("Sharded book");
+        shardedBook.setAuthor("Author");
+        shardedBook.setPrice(new BigDecimal("10.00"));
+        shardedBook.setStockQuantity(40);
+        shardedBook.setIsAvailable(true);
+        shardedBook.setCategory(other.getCategory());
+        Long shardedId = bookRepository.save(shardedBook).getBookId();
+        transaction.executeWithoutResult(status -> stockService.shardStock(shardedId, 4));
+
+        List<StockAdjustmentResult> results = transaction.execute(status -> stockService.adjustStock(List.of(
+                new StockAdjustmentItem(bookId, 5, null),
+                new StockAdjustmentItem(bookId, -1000, null),
+                new StockAdjustmentItem(-1L, 1, null),
+                new StockAdjustmentItem(shardedId, -15, null),
+                new StockAdjustmentItem(bookId, null, 7))));
+
+        assertEquals(List.of(StockAdjustmentStatus.APPLIED, StockAdjustmentStatus.INSUFFICIENT_STOCK,
+                        StockAdjustmentStatus.NOT_FOUND, StockAdjustmentStatus.APPLIED, StockAdjustmentStatus.APPLIED),
+                results.stream().map(StockAdjustmentResult::getStatus).toList());
+        // Read after the batch, absolute 7 included
+        assertEquals(7, results.get(1).getStockQuantity());
+        assertEquals(7, bookRepository.findStockQuantity(bookId).orElseThrow());
+        assertEquals(25, slotRepository.sumQuantity(shardedId));
+        verify(eventPublisher).publishEvent(new BookBatchChangedEvent(List.of(bookId)));
+        verify(eventPublisher).publishEvent(BookChangedEvent.stockChanged(shardedId, -15));
+    }
+
+    @Test
+    void decreaseStock_insufficientStockReportsWhatIsLeft() {
+        BadRequestException error = assertThrows(BadRequestException.class, () ->
+                transaction.executeWithoutResult(status -> stockService.decreaseStock(bookId, INITIAL_STOCK + 1)));
+
+        assertEquals("Insufficient stock. Available: 100, Requested: 101", error.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void increaseAndDecrease_unknownBook() {
+        assertThrows(NotFoundException.class, () ->
+                transaction.executeWithoutResult(status -> stockService.decreaseStock(-1L, 1)));
+        assertThrows(NotFoundException.class, () ->
+                transaction.executeWithoutResult(status -> stockService.increaseStock(-1L, 1)));
+    }
+
+    @Test
+    void increaseStock_addsInPlace() {
+        transaction.executeWithoutResult(status -> stockService.increaseStock(bookId, 5));
+
+        assertEquals(INITIAL_STOCK + 5, bookRepository.findStockQuantity(bookId).orElseThrow());
+        verify(eventPublisher).publishEvent(BookChangedEvent.stockChanged(bookId, 5));
+    }
+
+    // Returns the number of successful checkouts
+    private int checkoutConcurrently() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        transaction.executeWithoutResult(status -> stockService.decreaseStock(bookId, 1));
+                        sold.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, sold.get() + rejected.get());
+        return sold.get();
+    }
+}
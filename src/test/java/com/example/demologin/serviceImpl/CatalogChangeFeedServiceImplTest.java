@@ -0,0 +1,143 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.CatalogChangesResponse;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.CatalogChange;
+import com.example.demologin.enums.CatalogEntityType;
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CatalogChangeRepository;
+import com.example.demologin.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeFeedServiceImplTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CatalogChangeFeedServiceImpl feedService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(feedService, "maxLimit", 1000);
+        ReflectionTestUtils.setField(feedService, "settleMs", 5000L);
+    }
+
+    @Test
+    void getChanges_currentRowsAndTombstonesAfterCursor() {
+        when(catalogChangeRepository.findChangesAfter(eq(10L), any(LocalDateTime.class), eq(PageRequest.of(0, 4))))
+                .thenReturn(List.of(
+                        change(11L, CatalogEntityType.BOOK, 1L, false),
+                        change(12L, CatalogEntityType.BOOK, 2L, true),
+                        change(13L, CatalogEntityType.CATEGORY, 7L, false),
+                        change(14L, CatalogEntityType.BOOK, 3L, false)));
+        Book book = new Book();
+        book.setBookId(1L);
+        book.setStockQuantity(2);
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book));
+        when(categoryRepository.findAllById(List.of(7L))).thenReturn(List.of());
+
+        CatalogChangesResponse response = feedService.getChanges(10L, 3);
+
+        assertEquals(13L, response.getCursor());
+        assertTrue(response.isHasMore());
+        assertEquals(1L, response.getBooks().get(0).getBookId());
+        assertEquals(List.of(2L), response.getDeletedBookIds());
+        // Deleted after the change was recorded
+        assertEquals(List.of(7L), response.getDeletedCategoryIds());
+        assertTrue(response.getCategories().isEmpty());
+    }
+
+    @Test
+    void getChanges_nothingNew_keepsCursor() {
+        when(catalogChangeRepository.findChangesAfter(eq(42L), any(LocalDateTime.class), any())).thenReturn(List.of());
+
+        CatalogChangesResponse response = feedService.getChanges(42L, 100);
+
+        assertEquals(42L, response.getCursor());
+        assertFalse(response.isHasMore());
+        assertTrue(response.getBooks().isEmpty());
+        verify(bookRepository).findAllById(List.of());
+    }
+
+    @Test
+    void onBookChanged_replacesThePreviousRowOfTheBook() {
+        feedService.onBookChanged(BookChangedEvent.deleted(5L));
+
+        verify(catalogChangeRepository).deleteByEntity(CatalogEntityType.BOOK, 5L);
+        ArgumentCaptor<CatalogChange> saved = ArgumentCaptor.forClass(CatalogChange.class);
+        verify(catalogChangeRepository).save(saved.capture());
+        assertEquals(5L, saved.getValue().getEntityId());
+        assertTrue(saved.getValue().isDeleted());
+    }
+
+    @Test
+    void stockChanges_coalescedIntoOneRowPerFlush() {
+        feedService.onBookChanged(BookChangedEvent.stockChanged(5L, -1));
+        feedService.onStockChanged(BookChangedEvent.stockChanged(5L, -1));
+        feedService.onStockChanged(BookChangedEvent.stockChanged(5L, -2));
+        verifyNoInteractions(catalogChangeRepository);
+
+        feedService.flushStockChanges();
+        feedService.flushStockChanges();
+
+        verify(catalogChangeRepository, times(1)).deleteByEntity(CatalogEntityType.BOOK, 5L);
+        verify(catalogChangeRepository, times(1)).save(any(CatalogChange.class));
+    }
+
+    @Test
+    void failedFlush_keepsTheStockChangesForTheNextOne() {
+        feedService.onStockChanged(BookChangedEvent.stockChanged(5L, -1));
+        when(catalogChangeRepository.save(any(CatalogChange.class)))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(new CatalogChange());
+
+        feedService.flushStockChanges();
+        feedService.flushStockChanges();
+
+        verify(catalogChangeRepository, times(2)).save(any(CatalogChange.class));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void restart_notesBooksWrittenWithinTheRecoveryWindow() {
+        ReflectionTestUtils.setField(feedService, "recoveryWindowMs", 600000L);
+        when(catalogChangeRepository.count()).thenReturn(3L);
+        when(bookRepository.findIdsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(8L));
+
+        feedService.seedOnStartup();
+        feedService.flushStockChanges();
+
+        verify(catalogChangeRepository).deleteByEntity(CatalogEntityType.BOOK, 8L);
+        verify(catalogChangeRepository).save(any(CatalogChange.class));
+    }
+
+    private static CatalogChange change(Long id, CatalogEntityType type, Long entityId, boolean deleted) {
+        return new CatalogChange(id, type, entityId, deleted, LocalDateTime.now().minusMinutes(1));
+    }
+}
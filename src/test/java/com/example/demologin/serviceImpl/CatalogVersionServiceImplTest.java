@@ -0,0 +1,106 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.event.BookChangedEvent;
+import com.example.demologin.event.CatalogStampChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionServiceImplTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private CatalogVersionServiceImpl node1;
+    private CatalogVersionServiceImpl node2;
+
+    @BeforeEach
+    void setUp() {
+        node1 = new CatalogVersionServiceImpl(bookRepository, categoryRepository, transactionManager, eventPublisher);
+        node2 = new CatalogVersionServiceImpl(bookRepository, categoryRepository, transactionManager, eventPublisher);
+        stamp(10L, UPDATED, 50L);
+        when(categoryRepository.findCatalogStamp()).thenReturn(List.<Object[]>of(new Object[]{3L, UPDATED}));
+    }
+
+    @Test
+    void nodesReadingTheSameStamp_shareTheEtag() {
+        node1.refresh();
+        node2.refresh();
+
+        assertEquals(node1.etag(), node2.etag());
+    }
+
+    @Test
+    void writeOnAnotherNode_reachesThisNodeWithTheNextPoll() {
+        node1.refresh();
+        node2.refresh();
+        String before = node2.etag();
+
+        // A delete on node 1 leaves only the count behind
+        stamp(9L, UPDATED, 48L);
+        node1.onBookChanged(new BookChangedEvent(1L, null, 0));
+        assertNotEquals(before, node1.etag());
+        assertEquals(before, node2.etag());
+
+        node2.refresh();
+        node1.refresh();
+        assertNotEquals(before, node2.etag());
+        assertEquals(node1.etag(), node2.etag());
+    }
+
+    @Test
+    void etagBeforeFirstPoll_differsAfterRestart() throws InterruptedException {
+        String first = node1.etag();
+        Thread.sleep(2);
+
+        assertNotEquals(first, new CatalogVersionServiceImpl(bookRepository, categoryRepository, transactionManager, eventPublisher).etag());
+    }
+
+    @Test
+    void movedStamp_isPublishedBeforeTheEtagMoves() {
+        node1.refresh();
+        String before = node1.etag();
+        stamp(11L, UPDATED.plusMinutes(1), 52L);
+        doAnswer(invocation -> {
+            assertEquals(before, node1.etag());
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        node1.refresh();
+
+        verify(eventPublisher).publishEvent(new CatalogStampChangedEvent(11L, UPDATED, true, false));
+        assertNotEquals(before, node1.etag());
+    }
+
+    @Test
+    void failedRefreshOfTheViews_keepsTheOldEtagAndIsRetried() {
+        node1.refresh();
+        String before = node1.etag();
+        stamp(11L, UPDATED.plusMinutes(1), 52L);
+        doThrow(new IllegalStateException("index")).when(eventPublisher).publishEvent(any(Object.class));
+
+        assertThrows(IllegalStateException.class, node1::refresh);
+        assertEquals(before, node1.etag());
+
+        doNothing().when(eventPublisher).publishEvent(any(Object.class));
+        node1.refresh();
+        verify(eventPublisher, times(2)).publishEvent(new CatalogStampChangedEvent(11L, UPDATED, true, false));
+    }
+
+    private void stamp(long count, LocalDateTime updatedAt, long stock) {
+        when(bookRepository.findCatalogStamp()).thenReturn(List.<Object[]>of(new Object[]{count, updatedAt, stock}));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.CategoryResponse;
+import com.example.demologin.entity.Book;
+import com.example.demologin.entity.Category;
+import com.example.demologin.event.CategoryChangedEvent;
+import com.example.demologin.repository.BookRepository;
+import com.example.demologin.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+class CategoryServiceImplTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private CategoryRegistryServiceImpl categoryRegistry;
+    private CategoryServiceImpl categoryService;
+
+    @BeforeEach
+    void setUp() {
+        categoryRegistry = new CategoryRegistryServiceImpl(categoryRepository, transactionManager);
+        categoryService = new CategoryServiceImpl(categoryRepository, bookRepository, categoryRegistry, eventPublisher);
+    }
+
+    @Test
+    void repairBookCounts_fixesDriftedCounts() {
+        Category fiction = saveCategory("Fiction");
+        Category empty = saveCategory("Empty");
+        Category exact = saveCategory("Exact");
+        saveBook("A", fiction);
+        saveBook("B", fiction);
+        saveBook("C", exact);
+        categoryRepository.setBookCount(empty.getCategoryId(), 4);
+        categoryRepository.setBookCount(exact.getCategoryId(), 1);
+        entityManager.clear();
+
+        assertEquals(2, categoryService.repairBookCounts());
+
+        entityManager.clear();
+        assertEquals(2, bookCount(fiction));
+        assertEquals(0, bookCount(empty));
+        assertEquals(1, bookCount(exact));
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(fiction.getCategoryId()));
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(empty.getCategoryId()));
+        verifyNoMoreInteractions(eventPublisher);
+        assertEquals(0, categoryService.repairBookCounts());
+    }
+
+    @Test
+    void categoryResponse_readsTheCounterWithoutLoadingBooks() {
+        Category fiction = saveCategory("Fiction");
+        categoryRepository.setBookCount(fiction.getCategoryId(), 3);
+        entityManager.clear();
+
+        Category loaded = categoryRepository.findById(fiction.getCategoryId()).orElseThrow();
+        CategoryResponse response = CategoryResponse.toCategoryResponse(loaded);
+
+        assertEquals(3, response.getBookCount());
+        assertFalse(entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(loaded, "books"));
+    }
+
+    @Test
+    void listings_comeFromTheRegistryAndRefreshSeesWritesOfOtherNodes() {
+        Category fiction = saveCategory("Fiction");
+        saveCategory("art");
+        assertEquals(List.of("art", "Fiction"), names(categoryService.getActiveCategoriesForDropdown()));
+
+        // Written around this node's services, as another node would
+        categoryRepository.setBookCount(fiction.getCategoryId(), 5);
+        entityManager.clear();
+        categoryRegistry.refresh();
+        assertEquals(5, categoryService.getCategoryById(fiction.getCategoryId()).getBookCount());
+
+        Category renamed = categoryRepository.findById(fiction.getCategoryId()).orElseThrow();
+        renamed.setName("Drama");
+        renamed.setIsActive(false);
+        categoryRepository.saveAndFlush(renamed);
+        categoryRegistry.refresh();
+
+        assertEquals(List.of("art"), names(categoryService.getActiveCategoriesForDropdown()));
+        assertEquals(List.of("Drama"), names(categoryService.getCategoriesByFilters("DRA", false, 0, 10).getContent()));
+        assertEquals(2, categoryService.getAllCategories(0, 10).getTotalElements());
+    }
+
+    private static List<String> names(List<CategoryResponse> categories) {
+        return categories.stream().map(CategoryResponse::getName).toList();
+    }
+
+    private int bookCount(Category category) {
+        return categoryRepository.findById(category.getCategoryId()).orElseThrow().getBookCount();
+    }
+
+    private Category saveCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsActive(true);
+        return categoryRepository.save(category);
+    }
+
+    private void saveBook(String isbn, Category category) {
+        Book book = new Book();
+        book.setTitle("Book " + isbn);
+        book.setAuthor("Author");
+        book.setIsbn(isbn);
+        book.setPrice(new BigDecimal("10.00"));
+        book.setStockQuantity(1);
+        book.setIsAvailable(true);
+        book.setCategory(category);
+        bookRepository.save(book);
+    }
+}
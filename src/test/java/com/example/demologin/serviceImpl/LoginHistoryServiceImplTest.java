@@ -0,0 +1,153 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.entity.LoginHistoryEntry;
+import com.example.demologin.entity.LoginHistoryEntryId;
+import com.example.demologin.entity.UserActivityLog;
+import com.example.demologin.enums.ActivityType;
+import com.example.demologin.repository.LoginHistoryEntryRepository;
+import com.example.demologin.repository.UserActivityLogRepository;
+import com.example.demologin.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginHistoryServiceImplTest {
+
+    @Mock
+    private LoginHistoryEntryRepository loginHistoryEntryRepository;
+    @Mock
+    private UserActivityLogRepository userActivityLogRepository;
+    @Mock
+    private UserRepository userRepository;
+    @InjectMocks
+    private LoginHistoryServiceImpl service;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "capacity", 2);
+    }
+
+    @Test
+    void recordLogin_takesFreeSlotWhileRingHasRoom() {
+        when(loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(7L))
+                .thenReturn(List.of(entry(0, 10L, now.minusHours(1))));
+
+        service.recordLogin(login(11L, now));
+
+        LoginHistoryEntry saved = captureSaved();
+        assertEquals(1, saved.getId().getSlot());
+        assertEquals(11L, saved.getActivityLogId());
+        assertEquals("Hanoi", saved.getCity());
+        // The user's ring is locked before a slot is chosen
+        var order = inOrder(userRepository, loginHistoryEntryRepository);
+        order.verify(userRepository).lockById(7L);
+        order.verify(loginHistoryEntryRepository).findByIdUserIdOrderByLoginAtDesc(7L);
+    }
+
+    @Test
+    void recordLogin_seedsEmptyRingWithEarlierLogins() {
+        when(loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(7L)).thenReturn(new ArrayList<>());
+        when(userActivityLogRepository.findByUserIdAndActivityTypeOrderByTimestampDesc(eq(7L), eq(ActivityType.LOGIN_ATTEMPT), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(login(3L, now), login(1L, now.minusDays(1)))));
+
+        service.recordLogin(login(3L, now));
+
+        ArgumentCaptor<List<LoginHistoryEntry>> seeded = ArgumentCaptor.forClass(List.class);
+        verify(loginHistoryEntryRepository).saveAll(seeded.capture());
+        assertEquals(2, seeded.getValue().size());
+        // The current login is already part of the seed and keeps its slot
+        assertEquals(0, captureSaved().getId().getSlot());
+    }
+
+    @Test
+    void recordLogin_overwritesOldestWhenFull() {
+        when(loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(7L))
+                .thenReturn(List.of(entry(0, 10L, now.minusHours(1)), entry(1, 9L, now.minusHours(2))));
+
+        service.recordLogin(login(12L, now));
+
+        LoginHistoryEntry saved = captureSaved();
+        assertEquals(1, saved.getId().getSlot());
+        assertEquals(12L, saved.getActivityLogId());
+        assertEquals(now, saved.getLoginAt());
+    }
+
+    @Test
+    void recordLogin_refreshesEntryOfReusedActivityLog() {
+        when(loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(7L))
+                .thenReturn(List.of(entry(0, 10L, now.minusHours(1)), entry(1, 9L, now.minusHours(2))));
+
+        service.recordLogin(login(9L, now));
+
+        LoginHistoryEntry saved = captureSaved();
+        assertEquals(1, saved.getId().getSlot());
+        assertEquals(now, saved.getLoginAt());
+    }
+
+    @Test
+    void findRecentLogins_seedsEmptyRingFromActivityLog() {
+        when(loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(7L)).thenReturn(new ArrayList<>());
+        when(userActivityLogRepository.findByUserIdAndActivityTypeOrderByTimestampDesc(eq(7L), eq(ActivityType.LOGIN_ATTEMPT), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(login(2L, now), login(1L, now.minusDays(1)))));
+
+        List<LoginHistoryEntry> recent = service.findRecentLogins(7L);
+
+        assertEquals(2, recent.size());
+        assertEquals(2L, recent.get(0).getActivityLogId());
+        assertEquals(0, recent.get(0).getId().getSlot());
+        verify(loginHistoryEntryRepository).saveAll(anyList());
+    }
+
+    @Test
+    void findRecentLogins_servesExistingRingWithoutTouchingActivityLog() {
+        when(loginHistoryEntryRepository.findByIdUserIdOrderByLoginAtDesc(7L))
+                .thenReturn(List.of(entry(0, 10L, now)));
+
+        assertEquals(1, service.findRecentLogins(7L).size());
+        verifyNoInteractions(userActivityLogRepository);
+    }
+
+    private LoginHistoryEntry captureSaved() {
+        ArgumentCaptor<LoginHistoryEntry> captor = ArgumentCaptor.forClass(LoginHistoryEntry.class);
+        verify(loginHistoryEntryRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private LoginHistoryEntry entry(int slot, Long activityLogId, LocalDateTime loginAt) {
+        return LoginHistoryEntry.builder()
+                .id(new LoginHistoryEntryId(7L, slot))
+                .activityLogId(activityLogId)
+                .loginAt(loginAt)
+                .status("SUCCESS")
+                .build();
+    }
+
+    private UserActivityLog login(Long id, LocalDateTime timestamp) {
+        return UserActivityLog.builder()
+                .id(id)
+                .userId(7L)
+                .activityType(ActivityType.LOGIN_ATTEMPT)
+                .timestamp(timestamp)
+                .status("SUCCESS")
+                .city("Hanoi")
+                .build();
+    }
+}
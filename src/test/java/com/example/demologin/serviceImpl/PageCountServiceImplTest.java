@@ -0,0 +1,124 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.StreamingPage;
+import com.example.demologin.enums.PageCountMode;
+import com.example.demologin.repository.TableStatisticsRepository;
+import com.example.demologin.utils.PageCountContext;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PageCountServiceImplTest {
+
+    @Mock
+    private TableStatisticsRepository tableStatisticsRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private PageCountServiceImpl service;
+
+    private final SliceImpl<String> firstSliceWithMore = new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+        ReflectionTestUtils.setField(service, "streamingMinPageSize", 2);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PageCountContext.clear();
+    }
+
+    @Test
+    void exactMode_countsEveryTime() {
+        Page<String> page = service.toPage(firstSliceWithMore, "key", () -> 42);
+
+        assertEquals(42, page.getTotalElements());
+        assertEquals(21, page.getTotalPages());
+    }
+
+    @Test
+    void noneMode_neverCounts() {
+        PageCountContext.set(PageCountMode.NONE);
+
+        Page<String> page = service.toPage(firstSliceWithMore, "key", () -> fail("count must not run"));
+
+        assertEquals(3, page.getTotalElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void estimatedMode_usesCachedCount() {
+        PageCountContext.set(PageCountMode.ESTIMATED);
+        AtomicInteger counted = new AtomicInteger();
+
+        service.toPage(firstSliceWithMore, "key", () -> { counted.incrementAndGet(); return 10; });
+        Page<String> page = service.toPage(firstSliceWithMore, "key", () -> { counted.incrementAndGet(); return 99; });
+
+        assertEquals(10, page.getTotalElements());
+        assertEquals(1, counted.get());
+    }
+
+    @Test
+    void estimatedMode_prefersTableStatistics() {
+        PageCountContext.set(PageCountMode.ESTIMATED);
+        when(tableStatisticsRepository.estimateRowCount("books")).thenReturn(OptionalLong.of(500));
+
+        Page<String> page = service.toTablePage(firstSliceWithMore, "books", () -> fail("count must not run"));
+
+        assertEquals(500, page.getTotalElements());
+    }
+
+    @Test
+    void estimatedMode_lastSliceIsExact() {
+        PageCountContext.set(PageCountMode.ESTIMATED);
+        SliceImpl<String> lastSlice = new SliceImpl<>(List.of("e"), PageRequest.of(2, 2), false);
+
+        Page<String> page = service.toPage(lastSlice, "key", () -> fail("count must not run"));
+
+        assertEquals(5, page.getTotalElements());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    void streamingPage_readsRowsInTransactionAndResolvesTotalAfterwards() {
+        PageCountContext.set(PageCountMode.NONE);
+        PageRequest pageable = PageRequest.of(0, 2);
+        assertTrue(service.shouldStream(pageable));
+        assertFalse(service.shouldStream(PageRequest.of(0, 1)));
+
+        Page<String> page = service.toStreamingPage(pageable, p -> Stream.of("a", "b"), "key", () -> fail("count must not run"));
+        PageCountContext.clear();
+
+        assertInstanceOf(StreamingPage.class, page);
+        verifyNoInteractions(transactionManager);
+        assertEquals(List.of("a", "b"), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        verify(transactionManager).commit(any());
+        verify(entityManager, times(2)).detach(any());
+    }
+}
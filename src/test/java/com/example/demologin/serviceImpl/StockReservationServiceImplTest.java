@@ -0,0 +1,198 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.dto.response.StockReservationResponse;
+import com.example.demologin.entity.StockReservationCheckpoint;
+import com.example.demologin.exception.exceptions.BadRequestException;
+import com.example.demologin.exception.exceptions.ConflictException;
+import com.example.demologin.exception.exceptions.NotFoundException;
+import com.example.demologin.repository.StockReservationCheckpointRepository;
+import com.example.demologin.reservation.StockReservation;
+import com.example.demologin.reservation.StockReservationJournal;
+import com.example.demologin.service.BookStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceImplTest {
+
+    private static final long BOOK = 7L;
+
+    @TempDir
+    Path journalDir;
+
+    private final BookStockService bookStockService = mock(BookStockService.class);
+    private final StockReservationCheckpointRepository checkpointRepository = mock(StockReservationCheckpointRepository.class);
+
+    private StockReservationServiceImpl reservations;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(bookStockService.currentStock(BOOK)).thenReturn(100);
+        when(bookStockService.tryDecreaseStock(anyLong(), anyInt())).thenReturn(true);
+        when(checkpointRepository.findById("node")).thenReturn(Optional.empty());
+        reservations = openNode();
+    }
+
+    @Test
+    void reserve_concurrentHoldsNeverExceedStock() throws Exception {
+        AtomicInteger held = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 25; i++) {
+                    try {
+                        reservations.reserve(BOOK, 1);
+                        held.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        // Sold out
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertEquals(100, held.get());
+        verify(bookStockService, never()).tryDecreaseStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void releasedHoldIsAvailableAgain() {
+        StockReservationResponse hold = reservations.reserve(BOOK, 100);
+        assertThrows(BadRequestException.class, () -> reservations.reserve(BOOK, 1));
+
+        reservations.release(hold.getReservationId());
+
+        assertNotNull(reservations.reserve(BOOK, 100));
+        assertThrows(NotFoundException.class, () -> reservations.release(hold.getReservationId()));
+    }
+
+    @Test
+    void confirm_writesOffAtOnce() {
+        String first = reservations.reserve(BOOK, 2).getReservationId();
+        String second = reservations.reserve(BOOK, 3).getReservationId();
+        reservations.reserve(BOOK, 4);
+        reservations.confirm(first);
+        reservations.confirm(second);
+        reservations.confirm(first);
+        assertThrows(ConflictException.class, () -> reservations.release(first));
+
+        verify(bookStockService).tryDecreaseStock(BOOK, 2);
+        verify(bookStockService).tryDecreaseStock(BOOK, 3);
+        verify(checkpointRepository).advance(eq("node"), eq(1L), any(LocalDateTime.class));
+        verify(checkpointRepository).advance(eq("node"), eq(2L), any(LocalDateTime.class));
+        // 100 - 5 written off, 4 still held
+        assertThrows(BadRequestException.class, () -> reservations.reserve(BOOK, 92));
+        assertNotNull(reservations.reserve(BOOK, 91));
+    }
+
+    @Test
+    void confirm_failsWhenStockWasSoldElsewhere() throws Exception {
+        String hold = reservations.reserve(BOOK, 3).getReservationId();
+        // A direct sale on this or another node took the copies the hold was counting on
+        when(bookStockService.tryDecreaseStock(BOOK, 3)).thenReturn(false);
+        when(bookStockService.currentStock(BOOK)).thenReturn(2);
+
+        assertThrows(ConflictException.class, () -> reservations.confirm(hold));
+
+        verify(checkpointRepository, never()).advance(anyString(), anyLong(), any());
+        assertThrows(NotFoundException.class, () -> reservations.confirm(hold));
+        assertThrows(BadRequestException.class, () -> reservations.reserve(BOOK, 3));
+        assertThrows(NotFoundException.class, () -> openNode().release(hold));
+    }
+
+    @Test
+    void restart_restoresHoldsButNotConfirmedSales() throws Exception {
+        reservations.reserve(BOOK, 10);
+        String sold = reservations.reserve(BOOK, 3).getReservationId();
+        reservations.confirm(sold);
+        when(checkpointRepository.findById("node"))
+                .thenReturn(Optional.of(new StockReservationCheckpoint("node", 1L, LocalDateTime.now())));
+        when(bookStockService.currentStock(BOOK)).thenReturn(97);
+
+        StockReservationServiceImpl restarted = openNode();
+        assertThrows(BadRequestException.class, () -> restarted.reserve(BOOK, 88));
+        assertThrows(NotFoundException.class, () -> restarted.confirm(sold));
+
+        verify(bookStockService, times(1)).tryDecreaseStock(BOOK, 3);
+    }
+
+    @Test
+    void replay_writeOffUpToCheckpointWasApplied() throws Exception {
+        Path file = journalDir.resolve("crashed.journal");
+        StockReservation sale = new StockReservation("a", BOOK, 3, Long.MAX_VALUE, false);
+        // Died after the write-off line, before compaction
+        try (StockReservationJournal journal = StockReservationJournal.open(file, false)) {
+            journal.reserved(sale);
+            journal.writingOff(1, List.of(sale.confirm()));
+        }
+
+        assertTrue(StockReservationJournal.replay(file, 1).reservations().isEmpty());
+        // Never committed: a hold again, confirmed anew by the client's retry
+        StockReservationJournal.Replay uncommitted = StockReservationJournal.replay(file, 0);
+        assertFalse(uncommitted.reservations().get("a").confirmed());
+        assertEquals(1, uncommitted.lastGeneration());
+    }
+
+    @Test
+    void open_requiresANodeId() {
+        StockReservationServiceImpl node = new StockReservationServiceImpl(bookStockService, checkpointRepository,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(node, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(node, "nodeId", " ");
+
+        assertThrows(IllegalStateException.class, node::open);
+    }
+
+    @Test
+    void expiredHoldsAreReleased() {
+        ReflectionTestUtils.setField(reservations, "ttlSeconds", 0L);
+        String hold = reservations.reserve(BOOK, 100).getReservationId();
+
+        reservations.releaseExpired();
+
+        assertThrows(NotFoundException.class, () -> reservations.confirm(hold));
+        assertNotNull(reservations.reserve(BOOK, 100));
+    }
+
+    private StockReservationServiceImpl openNode() throws Exception {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        StockReservationServiceImpl node = new StockReservationServiceImpl(bookStockService, checkpointRepository,
+                transactionManager);
+        ReflectionTestUtils.setField(node, "ttlSeconds", 900L);
+        ReflectionTestUtils.setField(node, "stockRefreshMs", 60_000L);
+        ReflectionTestUtils.setField(node, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(node, "nodeId", "node");
+        ReflectionTestUtils.setField(node, "journalFsync", false);
+        node.open();
+        return node;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demologin.serviceImpl;
+
+import com.example.demologin.entity.Permission;
+import com.example.demologin.entity.Role;
+import com.example.demologin.entity.User;
+import com.example.demologin.event.RoleChangedEvent;
+import com.example.demologin.repository.UserRepository;
+import com.example.demologin.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private UserPrincipalServiceImpl principals;
+    private Role editor;
+    private Role viewer;
+
+    @BeforeEach
+    void setUp() {
+        principals = new UserPrincipalServiceImpl(userRepository);
+        ReflectionTestUtils.setField(principals, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(principals, "maxEntries", 100);
+
+        Permission view = permission(3L, "BOOK_VIEW");
+        Permission edit = permission(70L, "BOOK_UPDATE");
+        viewer = role(2L, "VIEWER", view);
+        editor = role(1L, "EDITOR", view, edit);
+    }
+
+    @Test
+    void getPrincipal_loadsUserOnlyWhenTokenVersionMoves() {
+        User user = user(10L, 0, viewer, editor);
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        when(userRepository.findTokenVersionById(10L)).thenReturn(Optional.of(0));
+
+        UserPrincipal first = principals.getPrincipal(10L);
+        assertSame(first, principals.getPrincipal(10L));
+        verify(userRepository, times(1)).findById(10L);
+
+        user.setTokenVersion(1);
+        when(userRepository.findTokenVersionById(10L)).thenReturn(Optional.of(1));
+        UserPrincipal second = principals.getPrincipal(10L);
+
+        assertEquals(1, second.tokenVersion());
+        verify(userRepository, times(2)).findById(10L);
+    }
+
+    @Test
+    void principal_holdsSortedRoleIdsAndPermissionBits() {
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 4, viewer, editor)));
+        when(userRepository.findTokenVersionById(10L)).thenReturn(Optional.of(4));
+
+        UserPrincipal principal = principals.getPrincipal(10L);
+
+        assertEquals("user10", principal.getName());
+        assertArrayEquals(new long[]{1L, 2L}, principal.roleIds());
+        assertTrue(principal.hasRole(2L));
+        assertTrue(principal.hasPermission(3L));
+        assertTrue(principal.hasPermission(70L));
+        assertFalse(principal.hasPermission(4L));
+        assertFalse(principal.hasPermission(640L));
+        assertEquals(List.of("EDITOR", "VIEWER", "BOOK_UPDATE", "BOOK_VIEW"),
+                principal.authorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertThrows(UnsupportedOperationException.class, () -> principal.authorities().clear());
+    }
+
+    @Test
+    void usersWithTheSameRoles_shareOneAuthorityList() {
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 0, viewer, editor)));
+        when(userRepository.findById(11L)).thenReturn(Optional.of(user(11L, 0, editor, viewer)));
+        when(userRepository.findById(12L)).thenReturn(Optional.of(user(12L, 0, viewer)));
+        when(userRepository.findTokenVersionById(anyLong())).thenReturn(Optional.of(0));
+
+        List<GrantedAuthority> first = principals.getPrincipal(10L).authorities();
+        List<GrantedAuthority> viewerOnly = principals.getPrincipal(12L).authorities();
+
+        assertSame(first, principals.getPrincipal(11L).authorities());
+        // Same authority instance in different lists
+        assertSame(first.get(1), viewerOnly.get(0));
+    }
+
+    @Test
+    void roleChange_dropsCachedPrincipals() {
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 0, viewer)));
+        when(userRepository.findTokenVersionById(10L)).thenReturn(Optional.of(0));
+        principals.getPrincipal(10L);
+
+        principals.onRoleChanged(new RoleChangedEvent(2L));
+        principals.getPrincipal(10L);
+
+        verify(userRepository, times(2)).findById(10L);
+    }
+
+    @Test
+    void unknownUser_hasNoPrincipal() {
+        when(userRepository.findTokenVersionById(99L)).thenReturn(Optional.empty());
+
+        assertNull(principals.getPrincipal(99L));
+        verify(userRepository, never()).findById(99L);
+    }
+
+    private static User user(Long id, int tokenVersion, Role... roles) {
+        User user = new User("user" + id, "secret", "User " + id, "user" + id + "@test.local", "0900000000", "Here");
+        user.setUserId(id);
+        user.setTokenVersion(tokenVersion);
+        user.setRoles(new HashSet<>(List.of(roles)));
+        return user;
+    }
+
+    private static Role role(Long id, String name, Permission... permissions) {
+        return Role.builder().id(id).name(name).permissions(Set.of(permissions)).build();
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission(code, code);
+        permission.setId(id);
+        return permission;
+    }
+}